@@ -1,8 +1,17 @@
 package com.forbiddenisland;
 
+import com.forbiddenisland.log.GameLog;
+import com.forbiddenisland.log.StartupPhases;
 import com.forbiddenisland.model.*;
 import com.forbiddenisland.ui.*;
+import com.forbiddenisland.ui.util.AnimationManager;
+import com.forbiddenisland.ui.util.AssetLoader;
+import com.forbiddenisland.ui.util.EngineExecutor;
+import com.forbiddenisland.ui.util.RefreshCoordinator;
+import com.forbiddenisland.ui.view.LoadingOverlay;
+import com.forbiddenisland.ui.view.PerformanceHud;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -11,6 +20,7 @@ import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
@@ -25,15 +35,36 @@ import javafx.scene.layout.BackgroundRepeat;
 import javafx.scene.layout.BackgroundSize;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Forbidden Island Game main application class
  */
 public class ForbiddenIslandGame extends Application {
 
+    public static final String BACKGROUND_IMAGE = "/images/background/forbidden_bg_3.png";
+    // Board renderer at startup: --renderer=canvas, or -Dforbiddenisland.renderer=canvas
+    public static final String RENDERER_PARAMETER = "renderer";
+    public static final String RENDERER_PROPERTY = "forbiddenisland.renderer";
+
+    // Views refreshed through the refresh coordinator, in the order they are redrawn
+    public static final String REFRESH_BOARD = "board";
+    public static final String REFRESH_PLAYERS = "players";
+    public static final String REFRESH_ACTIONS = "actions";
+    public static final String REFRESH_WATER_METER = "water-meter";
+    public static final String REFRESH_STATUS = "status";
+    public static final String REFRESH_OUTCOME = "outcome"; // game-over and victory checks
+
     private Game game;
     private GameBoardView gameBoardView;
     private PlayerInfoPanel playerInfoPanel;
@@ -44,19 +75,122 @@ public class ForbiddenIslandGame extends Application {
     // Add a flag to prevent duplicate display of the game-over dialog
     private boolean isGameOver = false;
 
+    // Writes saves on a background thread; the FX thread only encodes a snapshot
+    private final AutosaveManager autosaves =
+            new AutosaveManager(AutosaveManager.defaultDirectory(), AutosaveManager.DEFAULT_KEEP);
+
+    // Appends every action of the current game to a replay file
+    private ReplayRecorder replayRecorder;
+
+    // Runs at most one refresh of each view per frame
+    private final RefreshCoordinator refresher = new RefreshCoordinator();
+
+    // Card draws and turn changes run here, off the JavaFX thread
+    private final EngineExecutor engine = new EngineExecutor();
+    private LoadingOverlay loadingOverlay;
+
+    // Frame time, refresh costs and memory; toggled with F3
+    private PerformanceHud performanceHud;
+
+    // Decodes images and warms up the game classes while the menus are showing
+    private final StartupPreloader preloader = new StartupPreloader();
+
     @Override
     public void start(Stage primaryStage) {
+        StartupPhases.getInstance().mark(StartupPhases.FX_START);
+        GameBoardView.setDefaultRenderMode(GameBoardView.RenderMode.parse(
+                getParameters().getNamed().getOrDefault(RENDERER_PARAMETER, System.getProperty(RENDERER_PROPERTY)),
+                GameBoardView.RenderMode.NODES));
+        // Decode images and warm up the game while the menus are showing, so the board opens without waiting on them
+        preloader.start(GameBoardView.getDefaultRenderMode());
+        // Animations pause while the window is minimized or in the background
+        AnimationManager.getInstance().bind(primaryStage);
+        registerRefreshTargets();
+        bindEngine();
         // Create the initial interface.
         createInitialScreen(primaryStage);
     }
 
+    @Override
+    public void stop() {
+        engine.close();
+        preloader.close();
+        // Let queued saves reach the disk before the JVM exits
+        autosaves.close();
+        stopRecording();
+        GameLog.info("ASSETS", "Image cache: {}", AssetLoader.getInstance().getStats());
+        AnimationManager animations = AnimationManager.getInstance();
+        GameLog.info("ANIMATION", "Animations: {} running, {} waiting, {} built, {} reused",
+                animations.getRunningCount(), animations.getWaitingCount(),
+                animations.getCreatedCount(), animations.getReusedCount());
+        GameLog.info("REFRESH", "Refreshes: {} requested, {} coalesced, {} frames, slowest {} ms",
+                refresher.getRequestCount(), refresher.getCoalescedCount(), refresher.getFrameCount(),
+                String.format("%.2f", refresher.getMaxFrameMillis()));
+    }
+
+    /**
+     * While an engine command runs, the views must not read the game and the player must not
+     * start anything else: refreshes are held and an invisible overlay takes the clicks. The
+     * overlay only shows its spinner if the command is slow.
+     */
+    private void bindEngine() {
+        engine.busyProperty().addListener((obs, wasBusy, busy) -> {
+            refresher.setHeld(busy);
+            if (busy) {
+                if (actionPanel != null) actionPanel.disableAllButtons();
+                if (loadingOverlay != null) loadingOverlay.block();
+            } else {
+                if (loadingOverlay != null) loadingOverlay.hide();
+                requestRefresh(REFRESH_ACTIONS);
+            }
+        });
+        engine.setLatencyIndicator(message -> {
+            if (loadingOverlay != null) loadingOverlay.show(message);
+        }, () -> {
+            // hidden when the engine becomes idle
+        });
+    }
+
+    public EngineExecutor getEngine() {
+        return engine;
+    }
+
+    /**
+     * Register each view with the refresh coordinator; the actions read the current views,
+     * so they survive restarts that rebuild the UI
+     */
+    private void registerRefreshTargets() {
+        refresher.register(REFRESH_BOARD, () -> {
+            if (game != null && gameBoardView != null) gameBoardView.update();
+        });
+        refresher.register(REFRESH_PLAYERS, () -> {
+            if (game != null && playerInfoPanel != null) playerInfoPanel.update();
+        });
+        refresher.register(REFRESH_ACTIONS, () -> {
+            if (game != null && actionPanel != null) actionPanel.update();
+        });
+        refresher.register(REFRESH_WATER_METER, () -> {
+            if (game != null && waterMeterView != null) waterMeterView.update();
+        });
+        refresher.register(REFRESH_STATUS, () -> {
+            if (game != null && statusPanel != null) {
+                statusPanel.setStatus(game.getCurrentPlayer().getName() + "'s turn. Water level: " + game.getWaterMeter().getWaterLevelLabel());
+            }
+        });
+        refresher.register(REFRESH_OUTCOME, this::checkGameEnd);
+    }
+
+    private static String rendererButtonText(GameBoardView.RenderMode mode) {
+        return "Board: " + mode.getDisplayName();
+    }
+
     private void createInitialScreen(Stage primaryStage) {
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(30));
 
         // Use background image
         try {
-            Image bgImage = new Image(getClass().getResourceAsStream("/images/background/forbidden_bg_3.png"));
+            Image bgImage = Objects.requireNonNull(AssetLoader.getInstance().getImage(BACKGROUND_IMAGE));
             BackgroundImage backgroundImage = new BackgroundImage(
                     bgImage,
                     BackgroundRepeat.NO_REPEAT,
@@ -129,6 +263,7 @@ public class ForbiddenIslandGame extends Application {
         primaryStage.setResizable(false);
         primaryStage.centerOnScreen();
         primaryStage.show();
+        StartupPreloader.markFirstFrame(scene, StartupPhases.FIRST_FRAME, StartupPhases.MENU_INTERACTIVE);
     }
 
     private void createDifficultyScreen(Stage primaryStage) {
@@ -137,7 +272,7 @@ public class ForbiddenIslandGame extends Application {
 
         // Use background image
         try {
-            Image bgImage = new Image(getClass().getResourceAsStream("/images/background/forbidden_bg_3.png"));
+            Image bgImage = Objects.requireNonNull(AssetLoader.getInstance().getImage(BACKGROUND_IMAGE));
             BackgroundImage backgroundImage = new BackgroundImage(
                     bgImage,
                     BackgroundRepeat.NO_REPEAT,
@@ -236,7 +371,7 @@ public class ForbiddenIslandGame extends Application {
 
         // Use background image
         try {
-            Image bgImage = new Image(getClass().getResourceAsStream("/images/background/forbidden_bg_3.png"));
+            Image bgImage = Objects.requireNonNull(AssetLoader.getInstance().getImage(BACKGROUND_IMAGE));
             BackgroundImage backgroundImage = new BackgroundImage(
                     bgImage,
                     BackgroundRepeat.NO_REPEAT,
@@ -319,7 +454,7 @@ public class ForbiddenIslandGame extends Application {
 
         // Use Background Image
         try {
-            Image bgImage = new Image(getClass().getResourceAsStream("/images/background/forbidden_bg_3.png"));
+            Image bgImage = Objects.requireNonNull(AssetLoader.getInstance().getImage(BACKGROUND_IMAGE));
             BackgroundImage backgroundImage = new BackgroundImage(
                     bgImage,
                     BackgroundRepeat.NO_REPEAT,
@@ -431,6 +566,7 @@ public class ForbiddenIslandGame extends Application {
     }
 
     private void initializeGameWithSelectedRoles(Stage primaryStage, int difficulty, List<String> playerNames, List<AdventurerRole> selectedRoles) {
+        StartupPhases.getInstance().mark(StartupPhases.BOARD_REQUESTED);
         // Create game instance and pass selected roles
         game = new Game(playerNames, difficulty, selectedRoles);
         setupMainGameUI(primaryStage);
@@ -438,6 +574,7 @@ public class ForbiddenIslandGame extends Application {
 
     private void startGame(Stage primaryStage, int difficulty) {
         // Create game instance (random role assignment)
+        StartupPhases.getInstance().mark(StartupPhases.BOARD_REQUESTED);
         List<String> playerNames = Arrays.asList("Player 1", "Player 2", "Player 3", "Player 4"); // Default player names
         game = new Game(playerNames, difficulty); // Constructor for random roles
         setupMainGameUI(primaryStage);
@@ -509,18 +646,44 @@ public class ForbiddenIslandGame extends Application {
         loadButton.setStyle(buttonStyle);
         loadButton.setOnAction(e -> loadGame(primaryStage));
 
+        Button replayButton = new Button("Watch Replay");
+        replayButton.setStyle(buttonStyle);
+        replayButton.setOnAction(e -> watchReplay(primaryStage));
+
+        // Switches between the detailed board and the single-canvas board for slower machines
+        Button rendererButton = new Button(rendererButtonText(gameBoardView.getRenderMode()));
+        rendererButton.setStyle(buttonStyle);
+        rendererButton.setOnAction(e -> {
+            GameBoardView.RenderMode next = gameBoardView.getRenderMode() == GameBoardView.RenderMode.CANVAS
+                    ? GameBoardView.RenderMode.NODES : GameBoardView.RenderMode.CANVAS;
+            GameBoardView.setDefaultRenderMode(next);
+            gameBoardView.setRenderMode(next);
+            rendererButton.setText(rendererButtonText(next));
+            actionPanel.update();
+        });
+
         Button exitButton = new Button("Exit Game");
         exitButton.setStyle(exitButtonStyle);
         exitButton.setOnAction(e -> primaryStage.close());
 
-        menuBar.getChildren().addAll(restartButton, helpButton, saveButton, loadButton, exitButton);
+        menuBar.getChildren().addAll(restartButton, helpButton, saveButton, loadButton, replayButton, rendererButton, exitButton);
         gameLayout.setTop(menuBar);
 
         // Create scene and set larger initial size
-        Scene scene = new Scene(gameLayout, 1400, 900);
+        // Covers the game while the engine is busy
+        loadingOverlay = new LoadingOverlay();
+        // Kept across restarts so it stays open while a new game is set up
+        if (performanceHud == null) {
+            performanceHud = new PerformanceHud(refresher);
+        }
+        StackPane root = new StackPane(gameLayout, loadingOverlay, performanceHud);
+
+        Scene scene = new Scene(root, 1400, 900);
+        performanceHud.attach(scene);
         primaryStage.setTitle("Forbidden Island");
         primaryStage.setScene(scene);
         primaryStage.setResizable(true);
+        StartupPreloader.markFirstFrame(scene, StartupPhases.BOARD_FIRST_FRAME, StartupPhases.BOARD_INTERACTIVE);
 
         // Set minimum window size to ensure UI elements aren't squashed
         primaryStage.setMinWidth(1200);
@@ -530,25 +693,95 @@ public class ForbiddenIslandGame extends Application {
         primaryStage.setMaximized(true);
 
         updateGameState(); // Initial UI update
+        startRecording();
+        autosave();
     }
 
     /**
-     * Update the game state and refresh the interface
+     * Start a new replay file for the current game, closing the previous one
      */
-    public void updateGameState() {
-        if (game == null) return;
+    private void startRecording() {
+        stopRecording();
+        String name = "replay-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + ReplayRecorder.FILE_EXTENSION;
+        Path file = ReplayRecorder.defaultDirectory().resolve(name);
+        try {
+            replayRecorder = new ReplayRecorder(game, file, ReplayRecorder.DEFAULT_CHECKPOINT_INTERVAL);
+        } catch (IOException e) {
+            // The game is still playable, it just is not recorded
+            statusPanel.setStatus("Replay recording unavailable: " + e.getMessage());
+        }
+    }
+
+    private void stopRecording() {
+        if (replayRecorder != null) {
+            replayRecorder.close();
+            replayRecorder = null;
+        }
+    }
 
-        if (gameBoardView != null) gameBoardView.update();
+    /**
+     * Open a recorded game in its own window
+     */
+    private void watchReplay(Stage primaryStage) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Watch Replay");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Replay Files", "*" + ReplayRecorder.FILE_EXTENSION));
+        File replayDirectory = ReplayRecorder.defaultDirectory().toFile();
+        if (replayDirectory.isDirectory()) {
+            fileChooser.setInitialDirectory(replayDirectory);
+        }
+        File file = fileChooser.showOpenDialog(primaryStage);
+        if (file == null) return;
 
-        if (playerInfoPanel != null) playerInfoPanel.update();
+        ReplayViewer viewer;
+        try {
+            viewer = new ReplayViewer(ReplayLog.read(file.toPath()));
+        } catch (IOException e) {
+            statusPanel.setStatus("Cannot open replay: " + e.getMessage());
+            return;
+        }
+        Stage replayStage = new Stage();
+        replayStage.initOwner(primaryStage);
+        replayStage.setTitle("Replay - " + file.getName());
+        replayStage.setScene(new Scene(viewer, 1000, 850));
+        replayStage.setOnHidden(e -> viewer.stop());
+        replayStage.show();
+    }
 
-        if (actionPanel != null) actionPanel.update();
+    /**
+     * Autosave at a turn boundary. Only the snapshot is taken here; the file is written in the background.
+     */
+    public void autosave() {
+        if (game == null || game.checkGameOverConditions()) return;
+        autosaves.autosave(game);
+    }
 
-        if (waterMeterView != null) waterMeterView.update();
+    /**
+     * Refresh every view from the game state on the next frame. Calls made during the same
+     * frame, such as several engine steps inside one click, share a single refresh.
+     */
+    public void updateGameState() {
+        if (game == null) return;
+        refresher.markAllDirty();
+    }
 
-        if (statusPanel != null) {
-            statusPanel.setStatus(game.getCurrentPlayer().getName() + "'s turn. Water level: " + game.getWaterMeter().getWaterLevelLabel());
-        }
+    /**
+     * Refresh only some views on the next frame
+     * @param views {@code REFRESH_*} names
+     */
+    public void requestRefresh(String... views) {
+        if (game == null) return;
+        refresher.markDirty(views);
+    }
+
+    public RefreshCoordinator getRefreshCoordinator() {
+        return refresher;
+    }
+
+    private void checkGameEnd() {
+        if (game == null) return;
 
         // Check game over conditions and determine the reason for ending
         if (!isGameOver && game.checkGameOverConditions()) {
@@ -566,51 +799,20 @@ public class ForbiddenIslandGame extends Application {
      * @return Description of the game over reason
      */
     private String determineGameOverReason() {
-        System.out.println("Determining game over reason...");
-
-        // Check if water level reached maximum
-        if (game.getWaterMeter().hasReachedMaxLevel()) {
-            String reason = "The water level has reached the maximum! The island is completely submerged.";
-            System.out.println("Game over reason: " + reason);
-            return reason;
-        }
-
-        // Check if Fools' Landing is sunk
-        if (game.getIslandTileByName("Fools' Landing") == null) {
-            String reason = "Fools' Landing has sunk! Unable to evacuate the island.";
-            System.out.println("Game over reason: " + reason);
-            return reason;
-        }
-
-        // Check if any treasure cannot be obtained
-        for (Treasure treasure : game.getTreasures()) {
-            if (!treasure.isCollected()) {
-                int sunkTreasureTiles = 0;
-                for (String tileName : treasure.getIslandTileNames()) {
-                    if (game.getIslandTileByName(tileName) == null) {
-                        sunkTreasureTiles++;
-                    }
-                }
-                if (sunkTreasureTiles >= 2) {
-                    String reason = treasure.getType().getDisplayName() + "'s two tiles have both sunk! Unable to collect this treasure.";
-                    System.out.println("Game over reason: " + reason);
-                    return reason;
-                }
-            }
-        }
-
-        // Check if any player cannot move to a safe position
-        for (Player player : game.getPlayers()) {
-            if (player.getPawn().getCurrentLocation() == null) {
-                String reason = player.getName() + "(" + player.getRole().getChineseName() + ") cannot move to a safe position!";
-                System.out.println("Game over reason: " + reason);
-                return reason;
-            }
+        GameOverReason reason = game.getGameOverReason();
+        String text;
+        if (reason == null) {
+            text = "Game ended for unknown reasons.";
+        } else if (reason == GameOverReason.TREASURE_TILES_SUNK && game.getLostTreasure() != null) {
+            text = game.getLostTreasure().getDisplayName() + "'s two tiles have both sunk! Unable to collect this treasure.";
+        } else if (reason == GameOverReason.PLAYER_DROWNED && game.getDrownedPlayer() != null) {
+            Player player = game.getDrownedPlayer();
+            text = player.getName() + "(" + player.getRole().getChineseName() + ") cannot move to a safe position!";
+        } else {
+            text = reason.getDescription();
         }
-
-        String reason = "Game ended for unknown reasons.";
-        System.out.println("Game over reason: " + reason);
-        return reason;
+        System.out.println("Game over reason: " + text);
+        return text;
     }
 
     /**
@@ -738,7 +940,9 @@ public class ForbiddenIslandGame extends Application {
                         "- 信使: 可以给任何位置的玩家卡牌\n" +
                         "- 探险家: 可以斜向移动和加固\n\n" +
                         "游戏目标:\n" +
-                        "收集全部四个宝藏并让所有玩家撤离到愚人号起飞点。";
+                        "收集全部四个宝藏并让所有玩家撤离到愚人号起飞点。\n\n" +
+                        "快捷键:\n" +
+                        "- " + PerformanceHud.TOGGLE_KEY.getName() + ": 显示/隐藏性能面板";
 
         alert.setContentText(content);
         alert.showAndWait();
@@ -747,26 +951,39 @@ public class ForbiddenIslandGame extends Application {
     private void saveGame(Stage primaryStage) {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("保存游戏");
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Game Save Files", "*.sav"));
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Game Save Files", "*" + GameCodec.FILE_EXTENSION));
+        File saveDirectory = SaveLibrary.defaultDirectory().toFile();
+        if (saveDirectory.isDirectory() || saveDirectory.mkdirs()) {
+            fileChooser.setInitialDirectory(saveDirectory); // where the save browser looks first
+        }
         File file = fileChooser.showSaveDialog(primaryStage);
         if (file != null) {
-            game.saveGame(file.getAbsolutePath());
+            String path = file.getAbsolutePath();
+            if (!path.endsWith(GameCodec.FILE_EXTENSION)) {
+                path += GameCodec.FILE_EXTENSION;
+            }
+            String target = path;
+            autosaves.saveAs(game, Paths.get(target)).thenAccept(saved -> Platform.runLater(() ->
+                    statusPanel.setStatus(saved ? "游戏已保存: " + target : "保存失败: " + target)));
         }
     }
 
     private void loadGame(Stage primaryStage) {
-        FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("加载游戏");
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Game Save Files", "*.sav"));
-        File file = fileChooser.showOpenDialog(primaryStage);
+        // Saves are listed from an index; only the one picked is loaded
+        Map<String, Path> folders = new LinkedHashMap<>();
+        folders.put("Autosaves", autosaves.getDirectory()); // the quickest way back after a crash
+        folders.put("Saves", SaveLibrary.defaultDirectory());
+        Path file = new SaveBrowser(primaryStage, folders).showAndWait().orElse(null);
         if (file != null) {
-            game = GameLoader.loadGame(file.getAbsolutePath());
+            game = GameLoader.loadGame(file.toAbsolutePath().toString());
             if (game != null) {
                 gameBoardView.setGame(game);
                 playerInfoPanel.setGame(game);
                 playerInfoPanel.setMainApp(this); // 设置PlayerInfoPanel的mainApp引用
                 actionPanel.setGame(game);
                 updateGameState();
+                startRecording();
             }
         }
     }
@@ -0,0 +1,329 @@
+package com.forbiddenisland.ai;
+
+import com.forbiddenisland.model.CaptureTreasureCommand;
+import com.forbiddenisland.model.Card;
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.model.GameCommand;
+import com.forbiddenisland.model.GiveCardCommand;
+import com.forbiddenisland.model.HelicopterLiftCard;
+import com.forbiddenisland.model.HelicopterLiftCommand;
+import com.forbiddenisland.model.IslandTile;
+import com.forbiddenisland.model.MoveCommand;
+import com.forbiddenisland.model.Player;
+import com.forbiddenisland.model.SandbagsCard;
+import com.forbiddenisland.model.SandbagsCommand;
+import com.forbiddenisland.model.ShoreUpCommand;
+import com.forbiddenisland.model.TileRegistry;
+import com.forbiddenisland.model.Treasure;
+import com.forbiddenisland.model.TreasureCard;
+import com.forbiddenisland.model.TreasureType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One thing the current player can do, described by tile IDs and seats rather than object
+ * references so the same action can be applied to any copy of the game.
+ */
+public final class AdviceAction {
+
+    public enum Kind {
+        MOVE, SHORE_UP, GIVE_CARD, CAPTURE, SANDBAGS, HELICOPTER_LIFT, END_TURN
+    }
+
+    private final Kind kind;
+    private final int tileId;       // destination / shored or sandbagged tile
+    private final int secondTileId; // Engineer's second shore-up, or NO_TILE
+    private final TreasureType treasure; // card given or treasure captured
+    private final int recipientSeat;
+
+    private AdviceAction(Kind kind, int tileId, int secondTileId, TreasureType treasure, int recipientSeat) {
+        this.kind = kind;
+        this.tileId = tileId;
+        this.secondTileId = secondTileId;
+        this.treasure = treasure;
+        this.recipientSeat = recipientSeat;
+    }
+
+    static AdviceAction move(int tileId) {
+        return new AdviceAction(Kind.MOVE, tileId, TileRegistry.NO_TILE, null, -1);
+    }
+
+    static AdviceAction shoreUp(int tileId, int secondTileId) {
+        return new AdviceAction(Kind.SHORE_UP, tileId, secondTileId, null, -1);
+    }
+
+    static AdviceAction giveCard(TreasureType treasure, int recipientSeat) {
+        return new AdviceAction(Kind.GIVE_CARD, TileRegistry.NO_TILE, TileRegistry.NO_TILE, treasure, recipientSeat);
+    }
+
+    static AdviceAction capture(TreasureType treasure) {
+        return new AdviceAction(Kind.CAPTURE, TileRegistry.NO_TILE, TileRegistry.NO_TILE, treasure, -1);
+    }
+
+    static AdviceAction sandbags(int tileId) {
+        return new AdviceAction(Kind.SANDBAGS, tileId, TileRegistry.NO_TILE, null, -1);
+    }
+
+    static AdviceAction helicopterLift(int tileId) {
+        return new AdviceAction(Kind.HELICOPTER_LIFT, tileId, TileRegistry.NO_TILE, null, -1);
+    }
+
+    static AdviceAction endTurn() {
+        return new AdviceAction(Kind.END_TURN, TileRegistry.NO_TILE, TileRegistry.NO_TILE, null, -1);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Tiles this action targets, for highlighting on the board. Empty for actions without a target tile.
+     */
+    public List<IslandTile> getTargetTiles(Game game) {
+        List<IslandTile> tiles = new ArrayList<>();
+        if (kind == Kind.CAPTURE || (kind == Kind.GIVE_CARD && recipientSeat >= 0)) {
+            // Point at where it happens
+            Player actor = game.getCurrentPlayer();
+            Player target = kind == Kind.GIVE_CARD && recipientSeat < game.getPlayers().size()
+                    ? game.getPlayers().get(recipientSeat) : actor;
+            if (target.getCurrentLocation() != null) tiles.add(target.getCurrentLocation());
+            return tiles;
+        }
+        addTile(game, tileId, tiles);
+        addTile(game, secondTileId, tiles);
+        return tiles;
+    }
+
+    private static void addTile(Game game, int id, List<IslandTile> out) {
+        IslandTile tile = game.getIslandTileById(id);
+        if (tile != null) out.add(tile);
+    }
+
+    /**
+     * Human-readable description, e.g. "Move to Coral Palace".
+     */
+    public String describe(Game game) {
+        switch (kind) {
+            case MOVE:
+                return "Move to " + TileRegistry.nameOf(tileId);
+            case SHORE_UP:
+                return secondTileId == TileRegistry.NO_TILE
+                        ? "Shore up " + TileRegistry.nameOf(tileId)
+                        : "Shore up " + TileRegistry.nameOf(tileId) + " and " + TileRegistry.nameOf(secondTileId);
+            case GIVE_CARD:
+                String recipient = recipientSeat < game.getPlayers().size()
+                        ? game.getPlayers().get(recipientSeat).getName() : "seat " + recipientSeat;
+                return "Give " + treasure.getDisplayName() + " card to " + recipient;
+            case CAPTURE:
+                return "Capture " + treasure.getDisplayName();
+            case SANDBAGS:
+                return "Sandbags on " + TileRegistry.nameOf(tileId);
+            case HELICOPTER_LIFT:
+                return "Helicopter Lift to " + TileRegistry.nameOf(tileId);
+            default:
+                return "End actions and draw";
+        }
+    }
+
+    /**
+     * Whether the action uses one of the player's actions (Sandbags, Helicopter Lift and
+     * ending the turn do not).
+     */
+    boolean costsAction() {
+        return kind == Kind.MOVE || kind == Kind.SHORE_UP || kind == Kind.GIVE_CARD || kind == Kind.CAPTURE;
+    }
+
+    /**
+     * Lists what the current player may do in this position. Ending the turn is always included.
+     */
+    static List<AdviceAction> legalActions(Game game) {
+        if (game.getCurrentPhase() != Game.GamePhase.ACTION_PHASE) {
+            return Collections.singletonList(endTurn());
+        }
+        List<AdviceAction> actions = new ArrayList<>();
+        Player player = game.getCurrentPlayer();
+        IslandTile location = player.getCurrentLocation();
+        int[] here = game.getTileCoordinates(location);
+
+        if (game.getActionsRemainingInTurn() > 0 && here != null) {
+            for (IslandTile tile : player.getValidMoves(game)) {
+                actions.add(move(tile.getId()));
+            }
+
+            List<IslandTile> flooded = new ArrayList<>();
+            if (location.isFlooded()) flooded.add(location);
+            for (IslandTile tile : game.getValidAdjacentTiles(here[0], here[1], player.getRole().canShoreUpDiagonally())) {
+                if (tile.isFlooded()) flooded.add(tile);
+            }
+            for (int i = 0; i < flooded.size(); i++) {
+                actions.add(shoreUp(flooded.get(i).getId(), TileRegistry.NO_TILE));
+                if (player.getRole().getShoreUpCountPerAction() > 1) {
+                    for (int j = i + 1; j < flooded.size(); j++) {
+                        actions.add(shoreUp(flooded.get(i).getId(), flooded.get(j).getId()));
+                    }
+                }
+            }
+
+            addGiveCardActions(game, player, actions);
+
+            TreasureType onTile = location.getAssociatedTreasure();
+            if (onTile != null && !isCollected(game, onTile)
+                    && countCards(player, onTile) >= player.getRole().getTreasureCardsNeededForCapture()) {
+                actions.add(capture(onTile));
+            }
+        }
+
+        addSpecialCardActions(game, player, actions);
+        actions.add(endTurn());
+        return actions;
+    }
+
+    private static void addGiveCardActions(Game game, Player player, List<AdviceAction> actions) {
+        boolean anywhere = player.getRole().canGiveCardAnywhere();
+        for (TreasureType type : TreasureType.values()) {
+            if (countCards(player, type) == 0 || isCollected(game, type)) continue;
+            List<Player> players = game.getPlayers();
+            for (int seat = 0; seat < players.size(); seat++) {
+                Player other = players.get(seat);
+                if (other == player || other.getHand().size() >= Player.MAX_HAND_SIZE) continue;
+                if (!anywhere && other.getCurrentLocation() != player.getCurrentLocation()) continue;
+                actions.add(giveCard(type, seat));
+            }
+        }
+    }
+
+    private static void addSpecialCardActions(Game game, Player player, List<AdviceAction> actions) {
+        boolean hasSandbags = false;
+        boolean hasLift = false;
+        for (Card card : player.getHand()) {
+            if (card instanceof SandbagsCard) hasSandbags = true;
+            if (card instanceof HelicopterLiftCard) hasLift = true;
+        }
+        if (hasSandbags) {
+            for (int id = 0; id < TileRegistry.TILE_COUNT; id++) {
+                IslandTile tile = game.getIslandTileById(id);
+                if (tile != null && tile.isFlooded()) actions.add(sandbags(id));
+            }
+        }
+        if (hasLift) {
+            // Only the destinations that matter: Fools' Landing and the tiles of treasures still on the island
+            if (game.getIslandTileById(TileRegistry.FOOLS_LANDING) != null
+                    && player.getCurrentLocation() != game.getIslandTileById(TileRegistry.FOOLS_LANDING)) {
+                actions.add(helicopterLift(TileRegistry.FOOLS_LANDING));
+            }
+            for (TreasureType type : TreasureType.values()) {
+                if (isCollected(game, type)) continue;
+                for (int id : TileRegistry.tilesOf(type)) {
+                    IslandTile tile = game.getIslandTileById(id);
+                    if (tile != null && tile != player.getCurrentLocation()) actions.add(helicopterLift(id));
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays this action on a game, exactly as the UI would.
+     * @return false if the action is no longer possible in that game
+     */
+    boolean apply(Game game) {
+        GameCommand command = toCommand(game);
+        return command == null ? kind == Kind.END_TURN : command.execute(game);
+    }
+
+    /**
+     * Builds the reversible command for this action, so a search can undo it again.
+     * @return null for END_TURN (the caller runs the draws) or if the action no longer fits the game
+     */
+    GameCommand toCommand(Game game) {
+        Player player = game.getCurrentPlayer();
+        switch (kind) {
+            case MOVE: {
+                IslandTile target = game.getIslandTileById(tileId);
+                return target == null ? null : new MoveCommand(player, target);
+            }
+            case SHORE_UP: {
+                IslandTile first = game.getIslandTileById(tileId);
+                return first == null ? null : new ShoreUpCommand(player, first, game.getIslandTileById(secondTileId));
+            }
+            case GIVE_CARD: {
+                TreasureCard card = findTreasureCard(player, treasure);
+                if (card == null || recipientSeat >= game.getPlayers().size()) return null;
+                return new GiveCardCommand(player, game.getPlayers().get(recipientSeat), card);
+            }
+            case CAPTURE:
+                return new CaptureTreasureCommand(player);
+            case SANDBAGS: {
+                IslandTile tile = game.getIslandTileById(tileId);
+                Card card = findCard(player, SandbagsCard.class);
+                return tile == null || card == null ? null : new SandbagsCommand(player, (SandbagsCard) card, tile);
+            }
+            case HELICOPTER_LIFT: {
+                IslandTile tile = game.getIslandTileById(tileId);
+                Card card = findCard(player, HelicopterLiftCard.class);
+                if (tile == null || card == null) return null;
+                // Everyone standing with the card holder flies along
+                List<Player> passengers = new ArrayList<>();
+                for (Player p : game.getPlayers()) {
+                    if (p.getCurrentLocation() == player.getCurrentLocation()) passengers.add(p);
+                }
+                return new HelicopterLiftCommand(player, (HelicopterLiftCard) card, passengers, tile);
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static TreasureCard findTreasureCard(Player player, TreasureType type) {
+        for (Card card : player.getHand()) {
+            if (card instanceof TreasureCard && ((TreasureCard) card).getTreasureType() == type) {
+                return (TreasureCard) card;
+            }
+        }
+        return null;
+    }
+
+    private static Card findCard(Player player, Class<? extends Card> type) {
+        for (Card card : player.getHand()) {
+            if (type.isInstance(card)) return card;
+        }
+        return null;
+    }
+
+    static boolean isCollected(Game game, TreasureType type) {
+        for (Treasure treasure : game.getTreasures()) {
+            if (treasure.getType() == type) return treasure.isCollected();
+        }
+        return false;
+    }
+
+    static int countCards(Player player, TreasureType type) {
+        int count = 0;
+        for (Card card : player.getHand()) {
+            if (card instanceof TreasureCard && ((TreasureCard) card).getTreasureType() == type) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AdviceAction)) return false;
+        AdviceAction other = (AdviceAction) o;
+        return kind == other.kind && tileId == other.tileId && secondTileId == other.secondTileId
+                && treasure == other.treasure && recipientSeat == other.recipientSeat;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, tileId, secondTileId, treasure, recipientSeat);
+    }
+
+    @Override
+    public String toString() {
+        return kind + (tileId >= 0 ? " " + TileRegistry.nameOf(tileId) : "")
+                + (treasure != null ? " " + treasure : "") + (recipientSeat >= 0 ? " -> seat " + recipientSeat : "");
+    }
+}
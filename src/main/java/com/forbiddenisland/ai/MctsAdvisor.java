@@ -0,0 +1,367 @@
+package com.forbiddenisland.ai;
+
+import com.forbiddenisland.log.GameLog;
+import com.forbiddenisland.model.Card;
+import com.forbiddenisland.model.CommandJournal;
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.model.GameCodec;
+import com.forbiddenisland.model.GameRandom;
+import com.forbiddenisland.model.HelicopterLiftCard;
+import com.forbiddenisland.model.Player;
+import com.forbiddenisland.model.TileRegistry;
+import com.forbiddenisland.model.Treasure;
+import com.forbiddenisland.model.TreasureType;
+import com.forbiddenisland.simulation.ActionPolicy;
+import com.forbiddenisland.simulation.GreedyActionPolicy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * "What should I do?" advisor. Runs Monte Carlo Tree Search over the current player's
+ * remaining actions (moves, shore-ups, card gifts, captures, Sandbags and Helicopter Lift),
+ * then plays the treasure and flood draws and a few further turns with {@link GreedyActionPolicy}
+ * to score each line.
+ * <p>
+ * The draws are handled by determinization: every iteration reshuffles the draw piles with a
+ * new seed, so the search never peeks at the real deck order and the statistics average over
+ * the possible draws.
+ * <p>
+ * Each worker decodes one copy of the game and attaches a {@link CommandJournal} to it. The
+ * searched actions, the greedy turns and the turn's draws, discards and turn change all run as
+ * commands, so after scoring a line the worker undoes it and the copy is ready for the next
+ * iteration. Only an iteration that throws, and may have stopped inside a command, costs a
+ * fresh copy.
+ * <p>
+ * Root parallelism: each worker thread grows its own tree for the same time budget and the
+ * root statistics are summed at the end, so the workers share nothing while searching.
+ * {@link #advise} copies the game on the calling thread and returns at once; the search runs on
+ * the advisor's own daemon threads, never on the JavaFX application thread.
+ */
+public class MctsAdvisor implements AutoCloseable {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 1500;
+    private static final double EXPLORATION = 1.0; // UCT constant; values are in [0, 1]
+    private static final int ROLLOUT_TURNS = 4;    // player turns simulated after the current one
+
+    private final int parallelism;
+    private final ExecutorService workers;
+    private final ActionPolicy rolloutPolicy;
+    private final AtomicReference<Search> current = new AtomicReference<>();
+    private final AtomicLong failedIterations = new AtomicLong();
+
+    public MctsAdvisor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Number of independent search trees (and threads)
+     */
+    public MctsAdvisor(int parallelism) {
+        this(parallelism, new GreedyActionPolicy());
+    }
+
+    /**
+     * @param parallelism Number of independent search trees (and threads)
+     * @param rolloutPolicy Plays the simulated turns after the searched actions
+     */
+    MctsAdvisor(int parallelism, ActionPolicy rolloutPolicy) {
+        this.parallelism = Math.max(1, parallelism);
+        this.rolloutPolicy = rolloutPolicy;
+        this.workers = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-advisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a search for the current player of a game, cancelling any search still running.
+     * @param game The game being played; it is copied before this method returns and never touched afterwards
+     * @param budgetMillis How long to search
+     * @return Actions ranked best first; cancelled if {@link #cancel()} is called or another search starts
+     */
+    public CompletableFuture<List<RankedAction>> advise(Game game, long budgetMillis) {
+        cancel();
+        byte[] snapshot = GameCodec.encode(game);
+        Search search = new Search(System.nanoTime() + Math.max(1, budgetMillis) * 1_000_000L);
+        current.set(search);
+
+        GameRandom seeds = new GameRandom(game.getSeed() ^ System.nanoTime());
+        List<CompletableFuture<Map<AdviceAction, double[]>>> trees = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            long seed = seeds.nextLong();
+            trees.add(CompletableFuture.supplyAsync(() -> searchTree(snapshot, search, seed), workers));
+        }
+
+        CompletableFuture.allOf(trees.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            current.compareAndSet(search, null);
+            if (search.cancelled) {
+                search.result.cancel(false);
+            } else if (error != null) {
+                search.result.completeExceptionally(error);
+            } else {
+                search.result.complete(rank(trees));
+            }
+        });
+        return search.result;
+    }
+
+    /**
+     * Stops the running search, if any. Call this as soon as the user acts.
+     */
+    public void cancel() {
+        Search search = current.getAndSet(null);
+        if (search != null) {
+            search.cancelled = true;
+            search.result.cancel(false);
+        }
+    }
+
+    /**
+     * Gets the number of search iterations thrown away because the engine threw, since the
+     * advisor was created. Each one costs a sample, not the hint.
+     */
+    public long getFailedIterations() {
+        return failedIterations.get();
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        workers.shutdownNow();
+    }
+
+    private static List<RankedAction> rank(List<CompletableFuture<Map<AdviceAction, double[]>>> trees) {
+        Map<AdviceAction, double[]> totals = new HashMap<>();
+        for (CompletableFuture<Map<AdviceAction, double[]>> tree : trees) {
+            for (Map.Entry<AdviceAction, double[]> entry : tree.join().entrySet()) {
+                double[] sum = totals.computeIfAbsent(entry.getKey(), k -> new double[2]);
+                sum[0] += entry.getValue()[0];
+                sum[1] += entry.getValue()[1];
+            }
+        }
+        List<RankedAction> ranked = new ArrayList<>();
+        for (Map.Entry<AdviceAction, double[]> entry : totals.entrySet()) {
+            double[] sum = entry.getValue();
+            ranked.add(new RankedAction(entry.getKey(), (long) sum[0], sum[0] == 0 ? 0 : sum[1] / sum[0]));
+        }
+        // Most visited first: the robust choice, less noisy than the best mean
+        ranked.sort((a, b) -> a.getVisits() != b.getVisits()
+                ? Long.compare(b.getVisits(), a.getVisits())
+                : Double.compare(b.getMeanValue(), a.getMeanValue()));
+        return ranked;
+    }
+
+    /**
+     * Grows one tree until the deadline and returns visits and total value per root action.
+     */
+    private Map<AdviceAction, double[]> searchTree(byte[] snapshot, Search search, long seed) {
+        GameRandom random = new GameRandom(seed);
+        Node root = new Node(null, null);
+        int iterations = 0;
+        int failures = 0;
+        RuntimeException firstFailure = null;
+        // Rollouts play thousands of hypothetical turns; none of them belong in the game log
+        try (GameLog.Silence silence = GameLog.silence()) {
+            CommandJournal journal = restore(snapshot);
+            while (!search.cancelled && (iterations == 0 || System.nanoTime() < search.deadline)) {
+                iterations++;
+                // Not undone: the next iteration reshuffles the same piles with a new seed anyway
+                journal.getGame().determinize(random.nextLong());
+                try {
+                    iterate(root, journal.getGame(), random);
+                    while (journal.canUndo()) {
+                        journal.undo(); // back to the position being advised on
+                    }
+                    journal.clear();
+                } catch (RuntimeException e) {
+                    // A rule corner case in the engine should cost one sample, not the whole hint
+                    if (failures++ == 0) firstFailure = e;
+                    journal = restore(snapshot);
+                }
+            }
+        }
+        if (failures > 0) {
+            failedIterations.addAndGet(failures);
+            GameLog.debug("HINT", "{} of {} search iterations failed, first with {}", failures, iterations, firstFailure.toString());
+        }
+
+        Map<AdviceAction, double[]> stats = new HashMap<>();
+        for (Node child : root.children) {
+            stats.put(child.action, new double[]{child.visits, child.totalValue});
+        }
+        return stats;
+    }
+
+    private void iterate(Node root, Game game, GameRandom random) {
+        Node node = root;
+        // Selection: the current player's actions are deterministic, so the tree is exact until the turn ends
+        while (node.untried != null && node.untried.isEmpty() && !node.children.isEmpty() && !node.isTurnEnd()) {
+            node = node.bestChild();
+            if (!node.action.apply(game)) {
+                backPropagate(node, 0.0);
+                return;
+            }
+        }
+        // Expansion
+        if (!node.isTurnEnd() && !isOver(game)) {
+            if (node.untried == null) {
+                node.untried = AdviceAction.legalActions(game);
+            }
+            if (!node.untried.isEmpty()) {
+                AdviceAction action = node.untried.remove(random.nextInt(node.untried.size()));
+                Node child = new Node(node, action);
+                node.children.add(child);
+                node = child;
+                if (!action.apply(game)) {
+                    backPropagate(node, 0.0);
+                    return;
+                }
+            }
+        }
+        // Simulation: the stochastic draws happen in here
+        backPropagate(node, rollout(game, node.isTurnEnd()));
+    }
+
+    private static void backPropagate(Node node, double value) {
+        for (Node n = node; n != null; n = n.parent) {
+            n.visits++;
+            n.totalValue += value;
+        }
+    }
+
+    /**
+     * Finishes the current turn (greedily unless the tree already ended it), then plays a few
+     * more turns, and scores the result.
+     */
+    private double rollout(Game game, boolean actionsDone) {
+        Player player = game.getCurrentPlayer();
+        if (!actionsDone) {
+            rolloutPolicy.takeActions(game, player);
+        }
+        for (int turn = 0; ; turn++) {
+            if (game.checkGameOverConditions()) return 0.0;
+            if (game.checkWinConditions()) return anyoneHoldsHelicopterLift(game) ? 1.0 : evaluate(game);
+            game.runTurn();
+            rolloutPolicy.discardDownToLimit(game, player);
+            if (turn == ROLLOUT_TURNS) break;
+            player = game.getCurrentPlayer();
+            rolloutPolicy.takeActions(game, player);
+        }
+        return game.checkGameOverConditions() ? 0.0 : evaluate(game);
+    }
+
+    /**
+     * Heuristic score of a position that is neither won nor lost, in (0, 1).
+     */
+    static double evaluate(Game game) {
+        double value = 0.2;
+        for (Treasure treasure : game.getTreasures()) {
+            TreasureType type = treasure.getType();
+            if (treasure.isCollected()) {
+                value += 0.12;
+                continue;
+            }
+            int best = 0;
+            for (Player player : game.getPlayers()) {
+                best = Math.max(best, AdviceAction.countCards(player, type));
+            }
+            value += 0.04 * Math.min(best, 4) / 4.0;
+            for (int id : TileRegistry.tilesOf(type)) {
+                if (game.getIslandTileById(id) == null) {
+                    value -= 0.08;
+                } else if (game.getIslandTileById(id).isFlooded()) {
+                    value -= 0.02;
+                }
+            }
+        }
+        if (game.getIslandTileById(TileRegistry.FOOLS_LANDING) != null
+                && game.getIslandTileById(TileRegistry.FOOLS_LANDING).isFlooded()) {
+            value -= 0.03;
+        }
+        value -= 0.025 * (game.getWaterMeter().getCurrentWaterLevel() - 1);
+        return Math.max(0.01, Math.min(0.99, value));
+    }
+
+    private static boolean isOver(Game game) {
+        return game.checkGameOverConditions();
+    }
+
+    private static boolean anyoneHoldsHelicopterLift(Game game) {
+        for (Player player : game.getPlayers()) {
+            for (Card card : player.getHand()) {
+                if (card instanceof HelicopterLiftCard) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decodes a worker's copy of the game and attaches a journal that records everything
+     * played on it.
+     */
+    private static CommandJournal restore(byte[] snapshot) {
+        Game game;
+        try {
+            game = GameCodec.decode(snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not copy game for search", e);
+        }
+        CommandJournal journal = new CommandJournal(game);
+        journal.attach();
+        return journal;
+    }
+
+    private static final class Search {
+        final long deadline;
+        final CompletableFuture<List<RankedAction>> result = new CompletableFuture<>();
+        volatile boolean cancelled;
+
+        Search(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class Node {
+        final Node parent;
+        final AdviceAction action; // action leading here, null at the root
+        final List<Node> children = new ArrayList<>();
+        List<AdviceAction> untried; // filled on first visit
+        long visits;
+        double totalValue;
+
+        Node(Node parent, AdviceAction action) {
+            this.parent = parent;
+            this.action = action;
+        }
+
+        boolean isTurnEnd() {
+            return action != null && action.getKind() == AdviceAction.Kind.END_TURN;
+        }
+
+        Node bestChild() {
+            double logVisits = Math.log(Math.max(1, visits));
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                if (child.visits == 0) return child; // its only sample failed; try it again
+                double score = child.totalValue / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
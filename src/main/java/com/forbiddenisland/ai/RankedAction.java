@@ -0,0 +1,40 @@
+package com.forbiddenisland.ai;
+
+/**
+ * An advised action with the search statistics behind it.
+ */
+public final class RankedAction {
+
+    private final AdviceAction action;
+    private final long visits;
+    private final double meanValue;
+
+    RankedAction(AdviceAction action, long visits, double meanValue) {
+        this.action = action;
+        this.visits = visits;
+        this.meanValue = meanValue;
+    }
+
+    public AdviceAction getAction() {
+        return action;
+    }
+
+    /**
+     * Number of simulated futures that started with this action, summed over all search threads.
+     */
+    public long getVisits() {
+        return visits;
+    }
+
+    /**
+     * Average outcome of those futures, from 0 (lost) to 1 (won).
+     */
+    public double getMeanValue() {
+        return meanValue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%d visits, %.3f)", action, visits, meanValue);
+    }
+}
@@ -0,0 +1,74 @@
+package com.forbiddenisland.ai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free map from a position hash ({@link com.forbiddenisland.model.Game#getStateHash()})
+ * to a 64-bit search result, shared by all search threads.
+ * Each slot stores {@code hash ^ data} next to {@code data}. A reader that sees half of one
+ * write and half of another gets a pair that fails the XOR check and is treated as a miss, so
+ * no locking is needed. New entries always replace whatever occupies their slot, which keeps
+ * memory bounded at {@code 16 * capacity} bytes.
+ */
+public class TranspositionTable {
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    /**
+     * @param capacity Maximum number of entries; rounded up to a power of two
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 28)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^28: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.slots = new AtomicLongArray(size * 2);
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Stores a result for a position, replacing any entry in the same slot.
+     */
+    public void put(long hash, long data) {
+        int i = slot(hash);
+        slots.set(i + 1, data);
+        slots.set(i, hash ^ data);
+    }
+
+    /**
+     * Looks up the result stored for a position.
+     * @param absent Value returned when the position is not in the table
+     */
+    public long get(long hash, long absent) {
+        int i = slot(hash);
+        long data = slots.get(i + 1);
+        long check = slots.get(i);
+        return (check ^ data) == hash ? data : absent;
+    }
+
+    public boolean contains(long hash) {
+        int i = slot(hash);
+        long data = slots.get(i + 1);
+        return (slots.get(i) ^ data) == hash;
+    }
+
+    /**
+     * Empties the table. Not atomic with respect to concurrent writers.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0L);
+        }
+    }
+
+    private int slot(long hash) {
+        // Mix the high bits in; the low bits alone are fine for Zobrist keys but not for arbitrary callers
+        return ((int) (hash ^ (hash >>> 32)) & mask) << 1;
+    }
+}
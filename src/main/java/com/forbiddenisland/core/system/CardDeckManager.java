@@ -15,8 +15,21 @@ public class CardDeckManager {
     private List<TreasureCard> treasureDiscardPile;
     private List<FloodCard> floodDeck;
     private List<FloodCard> floodDiscardPile;
+    private final SplittableRandom treasureRandom;
+    private final SplittableRandom floodRandom;
 
     public CardDeckManager() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates both decks from a seed; each deck shuffles with its own split stream,
+     * so the same seed always gives the same draw order.
+     */
+    public CardDeckManager(long seed) {
+        SplittableRandom root = new SplittableRandom(seed);
+        treasureRandom = root.split();
+        floodRandom = root.split();
         initializeTreasureDeck();
         initializeFloodDeck();
     }
@@ -41,7 +54,7 @@ public class CardDeckManager {
         treasureDeck.add(new SpecialActionCard(SpecialCardType.WATERS_RISE));
 
         // Shuffle the deck
-        Collections.shuffle(treasureDeck);
+        shuffle(treasureDeck, treasureRandom);
     }
 
     private void initializeFloodDeck() {
@@ -54,7 +67,7 @@ public class CardDeckManager {
         }
 
         // Shuffle the deck
-        Collections.shuffle(floodDeck);
+        shuffle(floodDeck, floodRandom);
     }
 
     public TreasureCard drawTreasureCard() {
@@ -91,13 +104,13 @@ public class CardDeckManager {
     public void reshuffleTreasureDiscardPile() {
         treasureDeck.addAll(treasureDiscardPile);
         treasureDiscardPile.clear();
-        Collections.shuffle(treasureDeck);
+        shuffle(treasureDeck, treasureRandom);
     }
 
     public void reshuffleFloodDiscardPile() {
         floodDeck.addAll(floodDiscardPile);
         floodDiscardPile.clear();
-        Collections.shuffle(floodDeck);
+        shuffle(floodDeck, floodRandom);
     }
 
     // Getters
@@ -105,4 +118,10 @@ public class CardDeckManager {
     public int getTreasureDiscardPileSize() { return treasureDiscardPile.size(); }
     public int getFloodDeckSize() { return floodDeck.size(); }
     public int getFloodDiscardPileSize() { return floodDiscardPile.size(); }
-}
\ No newline at end of file
+
+    private static <T> void shuffle(List<T> list, SplittableRandom random) {
+        for (int i = list.size(); i > 1; i--) {
+            Collections.swap(list, i - 1, random.nextInt(i));
+        }
+    }
+}
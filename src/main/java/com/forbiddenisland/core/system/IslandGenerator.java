@@ -8,10 +8,14 @@ import java.util.*;
 
 public class IslandGenerator {
     private static final int MAP_SIZE = 6;
-    private final Random random;
+    private final SplittableRandom random;
 
     public IslandGenerator() {
-        this.random = new Random();
+        this(new SplittableRandom().nextLong());
+    }
+
+    public IslandGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
     }
 
     public List<IslandTile> generateStandardMap() {
@@ -0,0 +1,33 @@
+package com.forbiddenisland.log;
+
+import java.io.PrintStream;
+
+/**
+ * Writes events to the console: warnings and errors to standard error, the rest to
+ * standard output.
+ */
+public class ConsoleLogSink implements LogSink {
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ConsoleLogSink() {
+        this(System.out, System.err);
+    }
+
+    public ConsoleLogSink(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public void write(LogEvent event) {
+        (event.getLevel().compareTo(LogLevel.WARN) >= 0 ? err : out).println(event.format());
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+        err.flush();
+    }
+}
@@ -0,0 +1,269 @@
+package com.forbiddenisland.log;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Levelled game-event logger.
+ * Callers pass a template with {@code {}} placeholders and the values to fill them. The
+ * level check happens first, so a disabled level costs one comparison and nothing is
+ * formatted; enabled events go into a lock-free ring and a daemon thread formats them and
+ * writes them to the sink (console by default).
+ *
+ * <p>The starting level comes from the {@code forbiddenisland.log.level} system property
+ * (default INFO). If {@code forbiddenisland.log.file} is set, events go to that file,
+ * rolled over at 5 MB.</p>
+ *
+ * <p>{@link #silence()} turns logging off for the current thread until it is closed, which
+ * is how batch simulations and AI rollouts run games without output.</p>
+ *
+ * <p>{@link #shutdown()} writes what is queued and stops the drain thread, as does interrupting
+ * it; the next event logged after that starts a new one.</p>
+ */
+public final class GameLog {
+
+    /**
+     * Open scope returned by {@link #silence()}; closing it restores the thread's previous state.
+     */
+    public interface Silence extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final int RING_CAPACITY = 8192;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private static final LogRing RING = new LogRing(RING_CAPACITY);
+    private static final ThreadLocal<int[]> SILENT_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    private static final Silence UNSILENCE = () -> SILENT_DEPTH.get()[0]--;
+
+    private static volatile LogLevel level =
+            LogLevel.parse(System.getProperty("forbiddenisland.log.level"), LogLevel.INFO);
+    private static volatile LogSink sink = defaultSink();
+    private static volatile LogSink retired;        // replaced sink, closed by the drain thread
+    private static volatile long processed;         // ring positions written to the sink so far
+    private static volatile Thread drain;            // the ring's only consumer
+    private static volatile boolean draining;        // false once the drain thread stops taking events
+
+    static {
+        startDrain();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown(500), "game-log-shutdown"));
+    }
+
+    private GameLog() {
+    }
+
+    public static void debug(String category, String template, Object... args) {
+        log(LogLevel.DEBUG, category, template, args);
+    }
+
+    public static void info(String category, String template, Object... args) {
+        log(LogLevel.INFO, category, template, args);
+    }
+
+    public static void warn(String category, String template, Object... args) {
+        log(LogLevel.WARN, category, template, args);
+    }
+
+    public static void error(String category, String template, Object... args) {
+        log(LogLevel.ERROR, category, template, args);
+    }
+
+    /**
+     * Queues an event if its level is enabled on this thread. Never blocks: if the ring is
+     * full the event is dropped and counted.
+     * Arguments are turned into text later on the drain thread, so pass values (names,
+     * numbers, enums) rather than objects the game will keep changing.
+     */
+    public static void log(LogLevel eventLevel, String category, String template, Object... args) {
+        if (!isEnabled(eventLevel)) return;
+        RING.offer(new LogEvent(System.currentTimeMillis(), eventLevel, category, template, args,
+                Thread.currentThread().getName()));
+        if (!draining) {
+            startDrain();
+        }
+    }
+
+    /**
+     * Whether an event at this level would be recorded on the current thread.
+     */
+    public static boolean isEnabled(LogLevel eventLevel) {
+        return eventLevel.compareTo(level) >= 0 && eventLevel != LogLevel.OFF && SILENT_DEPTH.get()[0] == 0;
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel == null ? LogLevel.INFO : newLevel;
+    }
+
+    /**
+     * Switches the destination. Events already queued go to the new sink; the old one is
+     * flushed and closed by the drain thread.
+     */
+    public static void setSink(LogSink newSink) {
+        LogSink old = sink;
+        sink = newSink == null ? new ConsoleLogSink() : newSink;
+        retired = old;
+        LockSupport.unpark(drain);
+    }
+
+    /**
+     * Silences logging on the current thread until the returned scope is closed. Scopes nest.
+     * <pre>
+     * try (GameLog.Silence s = GameLog.silence()) {
+     *     game.startTurn(); // writes nothing
+     * }
+     * </pre>
+     */
+    public static Silence silence() {
+        SILENT_DEPTH.get()[0]++;
+        return UNSILENCE;
+    }
+
+    /**
+     * Waits up to a second until every event queued before this call has been written.
+     */
+    public static void flush() {
+        flush(1000);
+    }
+
+    /**
+     * Writes every queued event and stops the drain thread, waiting up to a second for it.
+     * Tools that log and then return to a host JVM (a Maven plugin, for example) call this so
+     * no thread is left behind.
+     */
+    public static void shutdown() {
+        shutdown(1000);
+    }
+
+    /**
+     * Number of events dropped because the ring was full.
+     */
+    public static long getDroppedCount() {
+        return RING.dropped();
+    }
+
+    private static void flush(long timeoutMillis) {
+        long target = RING.claimed();
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        while (processed < target && System.nanoTime() < deadline) {
+            if (!draining) {
+                startDrain();
+            }
+            LockSupport.unpark(drain);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void shutdown(long timeoutMillis) {
+        flush(timeoutMillis);
+        Thread current;
+        synchronized (GameLog.class) {
+            current = drain;
+            draining = false; // set before the interrupt so a racing log call restarts it
+        }
+        current.interrupt();
+        try {
+            current.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts a drain thread unless one is taking events; an old one that is stopping is
+     * waited for first, because the ring allows only one consumer
+     */
+    private static synchronized void startDrain() {
+        if (draining && drain != null && drain.isAlive()) return;
+        Thread old = drain;
+        if (old != null && old != Thread.currentThread()) {
+            try {
+                old.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        Thread thread = new Thread(GameLog::drainLoop, "game-log");
+        thread.setDaemon(true);
+        drain = thread;
+        draining = true;
+        thread.start();
+    }
+
+    /**
+     * Gets the current drain thread; for tests
+     */
+    static Thread drainThread() {
+        return drain;
+    }
+
+    private static void drainLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (drainOnce() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        } finally {
+            // Anything logged before this sees draining == true and is written below;
+            // anything after it starts a new thread
+            draining = false;
+            Thread.interrupted(); // an interrupted write could close a file sink's channel
+            drainOnce();
+        }
+    }
+
+    /**
+     * Writes every queued event, then closes a replaced sink
+     * @return Number of events written
+     */
+    private static int drainOnce() {
+        int written = 0;
+        LogEvent event;
+        while ((event = RING.poll()) != null) {
+            try {
+                // Read after the poll: an event logged after setSink must reach the new sink
+                sink.write(event);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Log sink failed: " + e.getMessage());
+            }
+            written++;
+        }
+        if (written > 0) {
+            try {
+                sink.flush();
+            } catch (IOException e) {
+                System.err.println("Log sink flush failed: " + e.getMessage());
+            }
+            processed += written;
+        }
+        LogSink old = retired;
+        if (old != null) {
+            retired = null;
+            try {
+                old.close();
+            } catch (IOException e) {
+                System.err.println("Log sink close failed: " + e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private static LogSink defaultSink() {
+        String file = System.getProperty("forbiddenisland.log.file");
+        if (file != null && !file.isEmpty()) {
+            try {
+                return new RollingFileLogSink(Paths.get(file));
+            } catch (IOException e) {
+                System.err.println("Cannot open log file " + file + ", logging to console: " + e.getMessage());
+            }
+        }
+        return new ConsoleLogSink();
+    }
+}
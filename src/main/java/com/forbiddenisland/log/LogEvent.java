@@ -0,0 +1,79 @@
+package com.forbiddenisland.log;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * One logged game event. The message is kept as a template plus arguments and only turned
+ * into text on the logger's drain thread, so the game thread never builds the string.
+ */
+public final class LogEvent {
+
+    // Built once; DateTimeFormatter is immutable and thread-safe
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final long timeMillis;
+    private final LogLevel level;
+    private final String category;
+    private final String template;
+    private final Object[] args;
+    private final String threadName;
+
+    LogEvent(long timeMillis, LogLevel level, String category, String template, Object[] args, String threadName) {
+        this.timeMillis = timeMillis;
+        this.level = level;
+        this.category = category;
+        this.template = template;
+        this.args = args;
+        this.threadName = threadName;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * What kind of event this is, e.g. {@code FLOOD}, {@code MOVE} or {@code TURN}.
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * Fills the template's {@code {}} placeholders with the arguments, in order.
+     */
+    public String getMessage() {
+        if (args == null || args.length == 0) return template;
+        StringBuilder text = new StringBuilder(template.length() + 16 * args.length);
+        int arg = 0;
+        int from = 0;
+        int at;
+        while (arg < args.length && (at = template.indexOf("{}", from)) >= 0) {
+            text.append(template, from, at).append(args[arg++]);
+            from = at + 2;
+        }
+        return text.append(template, from, template.length()).toString();
+    }
+
+    /**
+     * Formats the event as one line: time, level, category and message.
+     */
+    public String format() {
+        return TIME.format(Instant.ofEpochMilli(timeMillis)) + ' ' + level + ' ' + category + ": " + getMessage();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
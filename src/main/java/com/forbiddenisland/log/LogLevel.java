@@ -0,0 +1,21 @@
+package com.forbiddenisland.log;
+
+/**
+ * Severity of a game event, lowest first. Setting the threshold to {@link #OFF} disables logging.
+ */
+public enum LogLevel {
+    DEBUG, INFO, WARN, ERROR, OFF;
+
+    /**
+     * Parses a level name, ignoring case.
+     * @param fallback Returned when the name is null or not a level
+     */
+    public static LogLevel parse(String name, LogLevel fallback) {
+        if (name == null) return fallback;
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
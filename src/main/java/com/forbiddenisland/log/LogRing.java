@@ -0,0 +1,72 @@
+package com.forbiddenisland.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue with many producers and one consumer.
+ * A producer claims a position by advancing {@code tail} with a CAS and then publishes its
+ * event into that slot; the consumer reads slots in order and frees them by advancing
+ * {@code head}. When the ring is full the event is dropped and counted: logging must never
+ * block a game thread.
+ */
+final class LogRing {
+
+    private final AtomicReferenceArray<LogEvent> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next position to claim
+    private volatile long head;                       // next position to read; written by the consumer only
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param capacity Number of slots; rounded up to a power of two
+     */
+    LogRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity));
+        if (size < capacity) size <<= 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean offer(LogEvent event) {
+        long position;
+        do {
+            position = tail.get();
+            if (position - head > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(position, position + 1));
+        slots.set((int) position & mask, event);
+        return true;
+    }
+
+    /**
+     * Takes the next event. Consumer thread only.
+     * @return null if the ring is empty or the next producer has not published yet
+     */
+    LogEvent poll() {
+        long position = head;
+        int slot = (int) position & mask;
+        LogEvent event = slots.get(slot);
+        if (event == null) return null;
+        slots.lazySet(slot, null);
+        head = position + 1; // volatile write: the freed slot is visible before producers may reuse it
+        return event;
+    }
+
+    /**
+     * Number of positions claimed so far, including events not yet drained.
+     */
+    long claimed() {
+        return tail.get();
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,22 @@
+package com.forbiddenisland.log;
+
+import java.io.IOException;
+
+/**
+ * Destination for drained log events. Only ever called from the logger's drain thread, so
+ * implementations need no locking.
+ */
+public interface LogSink {
+
+    void write(LogEvent event) throws IOException;
+
+    /**
+     * Called after each batch of events, when the ring has been emptied.
+     */
+    default void flush() throws IOException {
+    }
+
+    default void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,88 @@
+package com.forbiddenisland.log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends events to a file and rolls it over when it grows past a size limit:
+ * {@code game.log} becomes {@code game.log.1}, {@code game.log.1} becomes {@code game.log.2},
+ * and so on, keeping a fixed number of old files.
+ */
+public class RollingFileLogSink implements LogSink {
+
+    public static final long DEFAULT_MAX_BYTES = 5L * 1024 * 1024;
+    public static final int DEFAULT_KEEP = 5;
+
+    private final Path file;
+    private final long maxBytes;
+    private final int keep;
+    private BufferedWriter writer;
+    private long size;
+
+    public RollingFileLogSink(Path file) throws IOException {
+        this(file, DEFAULT_MAX_BYTES, DEFAULT_KEEP);
+    }
+
+    /**
+     * @param file The active log file
+     * @param maxBytes Size after which the file is rolled over
+     * @param keep Number of rolled-over files to keep
+     */
+    public RollingFileLogSink(Path file, long maxBytes, int keep) throws IOException {
+        this.file = file;
+        this.maxBytes = Math.max(1024, maxBytes);
+        this.keep = Math.max(1, keep);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    @Override
+    public void write(LogEvent event) throws IOException {
+        String line = event.format();
+        if (size > 0 && size + line.length() + 1 > maxBytes) {
+            roll();
+        }
+        writer.write(line);
+        writer.newLine();
+        size += line.length() + 1; // close enough for ASCII-heavy logs; only used to decide when to roll
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void open() throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        Files.deleteIfExists(rolled(keep));
+        for (int i = keep - 1; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
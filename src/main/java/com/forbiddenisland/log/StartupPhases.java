@@ -0,0 +1,107 @@
+package com.forbiddenisland.log;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named points in the application's startup, measured in milliseconds since the JVM started.
+ * Each phase is recorded once, the first time it is reached, and logged under {@code STARTUP},
+ * so a slower startup shows up in the log of any run. Safe to use from any thread.
+ */
+public final class StartupPhases {
+
+    public static final String JVM_START = "jvm-start";
+    public static final String FX_START = "fx-start";
+    public static final String FIRST_FRAME = "first-frame";
+    public static final String MENU_INTERACTIVE = "menu-interactive";
+    public static final String PRELOAD_DONE = "preload-done";
+    public static final String BOARD_REQUESTED = "board-requested";
+    public static final String BOARD_FIRST_FRAME = "board-first-frame";
+    public static final String BOARD_INTERACTIVE = "board-interactive";
+
+    private static final StartupPhases INSTANCE = new StartupPhases(jvmStartMillis());
+
+    private final long originMillis;
+    private final Map<String, Long> phases = new LinkedHashMap<>(); // phase -> ms since origin
+
+    /**
+     * @param originMillis Wall-clock time the phases are measured from
+     */
+    public StartupPhases(long originMillis) {
+        this.originMillis = originMillis;
+        phases.put(JVM_START, 0L);
+    }
+
+    /**
+     * Gets the timings of this application run
+     */
+    public static StartupPhases getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record that a phase was reached now
+     * @return false if the phase had already been recorded; the first time is kept
+     */
+    public boolean mark(String phase) {
+        return mark(phase, System.currentTimeMillis());
+    }
+
+    /**
+     * Record that a phase was reached at a wall-clock time
+     * @return false if the phase had already been recorded; the first time is kept
+     */
+    public boolean mark(String phase, long atMillis) {
+        long elapsed;
+        synchronized (this) {
+            if (phases.containsKey(phase)) return false;
+            elapsed = atMillis - originMillis;
+            phases.put(phase, elapsed);
+        }
+        GameLog.info("STARTUP", "{} at {} ms", phase, elapsed);
+        return true;
+    }
+
+    /**
+     * Gets when a phase was reached
+     * @return Milliseconds since the JVM started, or -1 if not reached yet
+     */
+    public synchronized long get(String phase) {
+        Long elapsed = phases.get(phase);
+        return elapsed == null ? -1 : elapsed;
+    }
+
+    /**
+     * Gets the time between two phases
+     * @return Milliseconds, or -1 if either phase has not been reached
+     */
+    public synchronized long between(String from, String to) {
+        long start = get(from);
+        long end = get(to);
+        return start < 0 || end < 0 ? -1 : end - start;
+    }
+
+    /**
+     * Gets every recorded phase in the order they were reached
+     */
+    public synchronized Map<String, Long> getPhases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            if (summary.length() > 0) summary.append(", ");
+            summary.append(phase.getKey()).append(' ').append(phase.getValue()).append(" ms");
+        }
+        return summary.toString();
+    }
+
+    private static long jvmStartMillis() {
+        return ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElse(System.currentTimeMillis());
+    }
+}
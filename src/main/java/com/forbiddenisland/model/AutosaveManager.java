@@ -0,0 +1,187 @@
+package com.forbiddenisland.model;
+
+import com.forbiddenisland.log.GameLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves games in the background. The caller's thread only takes a snapshot (the
+ * {@link GameCodec} encoding, a few hundred bytes that nothing can change afterwards); a single
+ * writer thread then writes it to a temporary file and renames that over the target, so a crash
+ * mid-write never leaves a half-written save.
+ * Turn autosaves are numbered and only the newest few are kept.
+ * 在后台保存游戏。调用线程只生成快照（{@link GameCodec} 编码，几百字节，之后不会再被修改）；
+ * 单个写线程再将其写入临时文件并重命名覆盖目标文件，因此写入中途崩溃也不会留下写了一半的存档。
+ * 回合自动存档按编号保存，只保留最新的几个。
+ */
+public class AutosaveManager implements AutoCloseable {
+
+    public static final int DEFAULT_KEEP = 5;
+    private static final String PREFIX = "autosave-";
+
+    private final Path directory;
+    private final int keep;
+    private final ExecutorService writer;
+    private long nextNumber; // only touched on the writer thread (仅在写线程中访问)
+
+    /**
+     * @param directory Folder for the autosave files, created if missing (自动存档文件夹，不存在时自动创建)
+     * @param keep Number of autosaves to keep (保留的自动存档数量)
+     */
+    public AutosaveManager(Path directory, int keep) {
+        this.directory = directory;
+        this.keep = Math.max(1, keep);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.execute(() -> nextNumber = highestNumber() + 1); // continue numbering after a restart (重启后继续编号)
+    }
+
+    /**
+     * Gets the default autosave folder, {@code ~/.forbiddenisland/autosave}.
+     * 获取默认的自动存档文件夹。
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".forbiddenisland", "autosave");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Snapshots the game now and writes it as the next numbered autosave in the background,
+     * then deletes autosaves beyond the newest {@code keep}.
+     * 立即为游戏生成快照，并在后台写为下一个编号的自动存档，然后删除超出最新 {@code keep} 个的自动存档。
+     * @return Completes with the written file, or null if writing failed (写入完成后给出文件；写入失败时为 null)
+     */
+    public CompletableFuture<Path> autosave(Game game) {
+        byte[] snapshot = GameCodec.encode(game);
+        return CompletableFuture.supplyAsync(() -> {
+            Path target = directory.resolve(String.format("%s%06d%s", PREFIX, nextNumber++, GameCodec.FILE_EXTENSION));
+            if (!writeAtomically(snapshot, target)) return null;
+            prune();
+            return target;
+        }, writer);
+    }
+
+    /**
+     * Snapshots the game now and writes it to the given file in the background.
+     * 立即为游戏生成快照，并在后台将其写入指定文件。
+     * @return Completes with true if the file was written (文件写入成功时以 true 完成)
+     */
+    public CompletableFuture<Boolean> saveAs(Game game, Path target) {
+        byte[] snapshot = GameCodec.encode(game);
+        return CompletableFuture.supplyAsync(() -> writeAtomically(snapshot, target), writer);
+    }
+
+    /**
+     * Lists the autosave files, newest first.
+     * 列出自动存档文件，最新的在前。
+     */
+    public List<Path> listAutosaves() {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + GameCodec.FILE_EXTENSION)) {
+            for (Path file : stream) {
+                if (numberOf(file) >= 0) files.add(file);
+            }
+        } catch (IOException e) {
+            GameLog.warn("AUTOSAVE", "Cannot list {}: {}", directory, e.getMessage());
+        }
+        files.sort((a, b) -> Long.compare(numberOf(b), numberOf(a)));
+        return files;
+    }
+
+    /**
+     * Waits for queued writes to finish, then stops the writer thread.
+     * 等待排队的写入完成，然后停止写线程。
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                GameLog.warn("AUTOSAVE", "Autosave writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean writeAtomically(byte[] data, Path target) {
+        Path temp = null;
+        try {
+            Path folder = target.toAbsolutePath().getParent();
+            Files.createDirectories(folder);
+            temp = Files.createTempFile(folder, target.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true); // on disk before the rename makes it visible (在重命名使其可见之前落盘)
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            GameLog.debug("AUTOSAVE", "Saved {} ({} bytes)", target, data.length);
+            return true;
+        } catch (IOException e) {
+            GameLog.error("AUTOSAVE", "Could not write {}: {}", target, e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // nothing more to do (无需进一步处理)
+                }
+            }
+            return false;
+        }
+    }
+
+    private void prune() {
+        List<Path> files = listAutosaves();
+        for (Path old : files.subList(Math.min(keep, files.size()), files.size())) {
+            try {
+                Files.deleteIfExists(old);
+            } catch (IOException e) {
+                GameLog.warn("AUTOSAVE", "Could not delete old autosave {}: {}", old, e.getMessage());
+            }
+        }
+    }
+
+    private long highestNumber() {
+        List<Path> files = listAutosaves();
+        return files.isEmpty() ? 0 : numberOf(files.get(0));
+    }
+
+    private static long numberOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(GameCodec.FILE_EXTENSION)) return -1;
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - GameCodec.FILE_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
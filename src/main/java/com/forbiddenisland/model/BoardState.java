@@ -0,0 +1,352 @@
+package com.forbiddenisland.model;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * Bitboard view of the 6x6 island grid.
+ * Cell {@code r*6 + c} maps to bit {@code r*6 + c} of a {@code long}; the "present",
+ * "flooded" and "occupied" sets are kept as masks so adjacency, existence and flood
+ * queries are a few bit operations instead of scans over the 36 cells.
+ * 6x6 岛屿网格的位棋盘视图。
+ * 单元格 {@code r*6 + c} 对应 {@code long} 的第 {@code r*6 + c} 位；"存在"、"淹没"和"有棋子"
+ * 三个集合以掩码形式保存，使相邻、存在和淹没查询只需几次位运算，而不必扫描全部36个单元格。
+ */
+public class BoardState implements Serializable {
+
+    public static final int SIZE = 6;
+    public static final int CELLS = SIZE * SIZE;
+    public static final long ALL_CELLS = (1L << CELLS) - 1;
+
+    private static final long COL_0 = columnMask(0);
+    private static final long COL_5 = columnMask(SIZE - 1);
+
+    // Precomputed neighbor masks per cell (每个单元格的预计算邻居掩码)
+    private static final long[] ORTHOGONAL = new long[CELLS];
+    private static final long[] DIAGONAL = new long[CELLS];
+    private static final long[] TWO_STEP = new long[CELLS]; // exactly two orthogonal steps away (恰好两步正交距离)
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            long self = 1L << i;
+            ORTHOGONAL[i] = shiftOrthogonal(self);
+            DIAGONAL[i] = shiftDiagonal(self);
+            TWO_STEP[i] = shiftOrthogonal(ORTHOGONAL[i]) & ~ORTHOGONAL[i] & ~self;
+        }
+    }
+
+    private final IslandTile[] cells = new IslandTile[CELLS];
+    private final int[] pawnCounts = new int[CELLS];
+    private long present;  // cells holding a tile that has not sunk (有未沉没板块的单元格)
+    private long flooded;  // subset of present whose tile is flooded (present 中已淹没的单元格)
+    private long occupied; // cells with at least one pawn (至少有一个棋子的单元格)
+    private long layout;   // every cell that ever held a tile; sunk cells stay in here (曾放置过板块的单元格)
+    private ZobristHash hash; // Game position hash kept in step with the tiles, may be null (与板块同步的局面哈希，可为 null)
+    private long version; // bumped whenever a tile is placed, floods, is shored up or sinks (板块放置、淹没、加固或沉没时递增)
+    private transient ReachabilityEngine reachability; // cache, rebuilt on demand after loading (缓存，加载后按需重建)
+    private transient long[] cellVersions; // per-cell change stamps for views, created on demand (供视图使用的单元格变化戳，按需创建)
+
+    /**
+     * Converts grid coordinates to a cell index.
+     * 将网格坐标转换为单元格索引。
+     */
+    public static int index(int r, int c) {
+        return r * SIZE + c;
+    }
+
+    public static int row(int index) {
+        return index / SIZE;
+    }
+
+    public static int col(int index) {
+        return index % SIZE;
+    }
+
+    /**
+     * Places a tile on an empty cell.
+     * 将板块放置到一个空单元格上。
+     */
+    void place(IslandTile tile, int r, int c) {
+        int i = index(r, c);
+        long bit = 1L << i;
+        cells[i] = tile;
+        present |= bit;
+        layout |= bit;
+        version++;
+        touch(i);
+        if (tile.isFlooded()) {
+            flooded |= bit;
+            if (hash != null) hash.tileFloodChanged(tile.getId());
+        }
+        tile.attachToBoard(this, i);
+    }
+
+    /**
+     * Links the position hash that flood and sink changes are reported to.
+     * 关联局面哈希，淹没和沉没变化会报告给它。
+     */
+    void attachHash(ZobristHash hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * Removes a sunk tile. The cell stays part of the layout so the Diver can swim across it.
+     * 移除一个沉没的板块。该单元格仍属于布局，潜水员可以游过它。
+     * @return true if the tile was on this board (如果板块在此棋盘上则为 true)
+     */
+    boolean remove(IslandTile tile) {
+        int i = indexOf(tile);
+        if (i < 0) return false;
+        long bit = 1L << i;
+        if (hash != null) hash.tileSunk(tile.getId(), (flooded & bit) != 0);
+        cells[i] = null;
+        present &= ~bit;
+        flooded &= ~bit;
+        version++;
+        touch(i);
+        return true;
+    }
+
+    /**
+     * Puts a removed tile back on the cell it sank from, undoing {@link #remove}.
+     * 将已移除的板块放回其沉没的单元格，撤销 {@link #remove}。
+     */
+    void restore(IslandTile tile, int i) {
+        long bit = 1L << i;
+        cells[i] = tile;
+        present |= bit;
+        if (tile.isFlooded()) {
+            flooded |= bit;
+        }
+        version++;
+        touch(i);
+        if (hash != null) hash.tileSunk(tile.getId(), tile.isFlooded()); // XOR keys undo themselves (XOR 键自身可逆)
+        tile.attachToBoard(this, i);
+    }
+
+    /**
+     * Called by a tile when its flooded flag changes.
+     * 板块的淹没状态改变时由板块调用。
+     */
+    void tileFloodChanged(IslandTile tile, int i) {
+        if (cells[i] != tile) return;
+        long bit = 1L << i;
+        if (tile.isFlooded() == ((flooded & bit) != 0)) return;
+        flooded ^= bit;
+        version++;
+        touch(i);
+        if (hash != null) hash.tileFloodChanged(tile.getId());
+    }
+
+    /**
+     * Called by a pawn when it leaves or enters a cell.
+     * 棋子离开或进入单元格时调用。
+     */
+    void pawnLeft(int i) {
+        if (pawnCounts[i] > 0 && --pawnCounts[i] == 0) {
+            occupied &= ~(1L << i);
+        }
+        touch(i);
+    }
+
+    void pawnEntered(int i) {
+        pawnCounts[i]++;
+        occupied |= 1L << i;
+        touch(i);
+    }
+
+    private void touch(int i) {
+        if (cellVersions == null) {
+            cellVersions = new long[CELLS];
+        }
+        cellVersions[i]++;
+    }
+
+    /**
+     * Gets the cell index of a tile, or -1 if it is not (or no longer) on this board.
+     * 获取板块的单元格索引，如果它不在（或已不在）此棋盘上则返回 -1。
+     */
+    public int indexOf(IslandTile tile) {
+        if (tile == null || tile.getBoard() != this) return -1;
+        int i = tile.getBoardIndex();
+        return cells[i] == tile ? i : -1;
+    }
+
+    public boolean contains(IslandTile tile) {
+        return indexOf(tile) >= 0;
+    }
+
+    public IslandTile getTile(int index) {
+        return cells[index];
+    }
+
+    public boolean isPresent(int index) {
+        return (present & (1L << index)) != 0;
+    }
+
+    public boolean isFlooded(int index) {
+        return (flooded & (1L << index)) != 0;
+    }
+
+    public boolean isOccupied(int index) {
+        return (occupied & (1L << index)) != 0;
+    }
+
+    /**
+     * Gets the board version. It changes whenever a tile is placed, floods, is shored up or
+     * sinks, and never on pawn movement, so anything derived from the tiles alone can be
+     * cached against it.
+     * 获取棋盘版本号。板块放置、淹没、加固或沉没时改变，棋子移动时不变，因此仅依赖板块的结果可以按版本缓存。
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the version of one cell. It changes whenever the cell's tile is placed, floods, is
+     * shored up or sinks, and whenever a pawn enters or leaves it, so a view can redraw only
+     * the cells whose stamp moved since it last drew them.
+     * 获取单个单元格的版本号。单元格的板块放置、淹没、加固或沉没时，以及棋子进入或离开时都会改变，
+     * 因此视图只需重绘上次绘制后版本号变化的单元格。
+     */
+    public long getCellVersion(int index) {
+        return cellVersions == null ? 0 : cellVersions[index];
+    }
+
+    /**
+     * Gets the movement engine for this board, whose results are cached per board version.
+     * 获取此棋盘的移动计算引擎，其结果按棋盘版本缓存。
+     */
+    public ReachabilityEngine getReachability() {
+        if (reachability == null) {
+            reachability = new ReachabilityEngine(this);
+        }
+        return reachability;
+    }
+
+    /**
+     * Gets the number of pawns standing on a cell.
+     * 获取站在某单元格上的棋子数量。
+     */
+    public int getPawnCount(int index) {
+        return pawnCounts[index];
+    }
+
+    public long getPresentMask() {
+        return present;
+    }
+
+    public long getFloodedMask() {
+        return flooded;
+    }
+
+    public long getOccupiedMask() {
+        return occupied;
+    }
+
+    public static long getOrthogonalMask(int index) {
+        return ORTHOGONAL[index];
+    }
+
+    public static long getDiagonalMask(int index) {
+        return DIAGONAL[index];
+    }
+
+    public static long getTwoStepMask(int index) {
+        return TWO_STEP[index];
+    }
+
+    /**
+     * Gets the present tiles next to a cell.
+     * 获取某单元格旁边仍存在的板块。
+     * @param index The cell index (单元格索引)
+     * @param includeDiagonals Whether diagonal neighbours count (是否包括对角线邻居)
+     * @return Mask of neighbouring present cells (相邻存在单元格的掩码)
+     */
+    public long neighbors(int index, boolean includeDiagonals) {
+        long mask = ORTHOGONAL[index];
+        if (includeDiagonals) {
+            mask |= DIAGONAL[index];
+        }
+        return mask & present;
+    }
+
+    /**
+     * Present tiles reachable in one or two orthogonal steps over present tiles.
+     * 通过存在的板块在一到两步正交移动内可到达的板块。
+     */
+    public long twoStepReach(int index) {
+        long first = ORTHOGONAL[index] & present;
+        return (first | (shiftOrthogonal(first) & TWO_STEP[index] & present)) & ~(1L << index);
+    }
+
+    /**
+     * Present tiles the Diver can reach by swimming through any chain of adjacent flooded
+     * or sunk cells. Steps are 8-directional, matching the Diver's existing movement.
+     * 潜水员通过任意相邻的淹没或沉没单元格链可以到达的存在板块。按8个方向移动，与潜水员现有移动规则一致。
+     */
+    public long diverReach(int index) {
+        long passable = flooded | (layout & ~present);
+        long start = 1L << index;
+        long visited = start;
+        long frontier = start;
+        long reached = 0;
+        while (frontier != 0) {
+            long next = (shiftOrthogonal(frontier) | shiftDiagonal(frontier)) & ~visited;
+            visited |= next;
+            reached |= next & present;
+            frontier = next & passable;
+        }
+        return reached;
+    }
+
+    /**
+     * Present tiles closest to a cell, found by growing rings of 8-directional steps over
+     * the whole grid until one touches a present tile.
+     * 距离某单元格最近的存在板块：在整个网格上按8方向逐圈扩展，直到触及存在的板块。
+     */
+    public long nearestPresent(int index) {
+        long visited = 1L << index;
+        long ring = visited;
+        while (ring != 0) {
+            ring = (shiftOrthogonal(ring) | shiftDiagonal(ring)) & ~visited;
+            visited |= ring;
+            if ((ring & present) != 0) {
+                return ring & present;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the tiles of every set bit to a collection, in row-major order.
+     * 按行优先顺序将掩码中每个置位对应的板块加入集合。
+     */
+    public void addTiles(long mask, Collection<IslandTile> out) {
+        while (mask != 0) {
+            int i = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            IslandTile tile = cells[i];
+            if (tile != null) {
+                out.add(tile);
+            }
+        }
+    }
+
+    private static long shiftOrthogonal(long mask) {
+        return ((mask >>> SIZE) | (mask << SIZE) | ((mask & ~COL_5) << 1) | ((mask & ~COL_0) >>> 1)) & ALL_CELLS;
+    }
+
+    private static long shiftDiagonal(long mask) {
+        long horizontal = ((mask & ~COL_5) << 1) | ((mask & ~COL_0) >>> 1);
+        return ((horizontal >>> SIZE) | (horizontal << SIZE)) & ALL_CELLS;
+    }
+
+    private static long columnMask(int c) {
+        long mask = 0;
+        for (int r = 0; r < SIZE; r++) {
+            mask |= 1L << index(r, c);
+        }
+        return mask;
+    }
+}
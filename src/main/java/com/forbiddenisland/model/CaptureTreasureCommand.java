@@ -0,0 +1,95 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Captures the treasure of the current player's tile for one action, discarding the
+ * required matching treasure cards.
+ * 花费一个行动点获取当前玩家所在板块的宝藏，并弃掉所需数量的对应宝藏卡。
+ */
+public class CaptureTreasureCommand extends GameCommand {
+
+    private final Player player;
+
+    private TreasureType treasure;
+    private Card[] discarded;   // in the order they were discarded (按弃牌顺序)
+    private int[] handIndices;  // where each discarded card sat, ascending (每张弃牌原来在手牌中的位置，升序)
+    private boolean playerHadTreasure;
+    private int previousActions;
+
+    public CaptureTreasureCommand(Player player) {
+        this.player = player;
+    }
+
+    @Override
+    boolean apply(Game game) {
+        if (!hasAction(game) || player != game.getCurrentPlayer() || player.getCurrentLocation() == null) return false;
+        treasure = player.getCurrentLocation().getAssociatedTreasure();
+        Treasure target = findTreasure(game, treasure);
+        if (target == null || target.isCollected()) return false;
+
+        // Player.captureTreasure discards the first matching cards in hand order (按手牌顺序弃掉最先匹配的牌)
+        int needed = player.getRole().getTreasureCardsNeededForCapture();
+        List<Card> hand = player.getHand();
+        Card[] cards = new Card[needed];
+        int[] indices = new int[needed];
+        int found = 0;
+        for (int i = 0; i < hand.size() && found < needed; i++) {
+            Card card = hand.get(i);
+            if (card instanceof TreasureCard && ((TreasureCard) card).getTreasureType() == treasure) {
+                cards[found] = card;
+                indices[found] = i;
+                found++;
+            }
+        }
+        if (found < needed) return false;
+
+        discarded = cards;
+        handIndices = indices;
+        playerHadTreasure = player.getCollectedTreasures().contains(treasure);
+        previousActions = game.getActionsRemainingInTurn();
+        game.spendAction();
+        player.captureTreasure(treasure, game.getTreasureDeck());
+        target.setCollected();
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        Deck<Card> deck = game.getTreasureDeck();
+        for (int i = discarded.length - 1; i >= 0; i--) {
+            if (deck.removeLastDiscard() != discarded[i]) {
+                throw new IllegalStateException("Treasure discard pile changed since the capture");
+            }
+        }
+        for (int i = 0; i < discarded.length; i++) {
+            player.insertCardIntoHand(handIndices[i], discarded[i]);
+        }
+        if (!playerHadTreasure) {
+            player.removeCollectedTreasure(treasure);
+        }
+        findTreasure(game, treasure).clearCollected();
+        game.setActionsRemainingInTurn(previousActions);
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) throws IOException {
+        out.writeByte(CAPTURE_TREASURE);
+        out.writeByte(seatOf(game, player));
+    }
+
+    private static Treasure findTreasure(Game game, TreasureType type) {
+        if (type == null) return null;
+        for (Treasure treasure : game.getTreasures()) {
+            if (treasure.getType() == type) return treasure;
+        }
+        return null;
+    }
+
+    @Override
+    public String describe() {
+        return "Capture " + (treasure != null ? treasure.getDisplayName() : "treasure");
+    }
+}
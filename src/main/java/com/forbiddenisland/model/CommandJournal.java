@@ -0,0 +1,160 @@
+package com.forbiddenisland.model;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Undo and redo history for one game. Executing, undoing and redoing are O(1): each only
+ * touches the top of a stack and the few fields the command recorded. Executing a new
+ * command clears the redo history, as in any editor.
+ * 一局游戏的撤销与重做历史。执行、撤销和重做都是 O(1) 操作：只涉及栈顶和命令记录的少数字段。
+ * 与普通编辑器一样，执行新命令会清空重做历史。
+ */
+public class CommandJournal {
+
+    private final Game game;
+    private final Deque<GameCommand> undoStack = new ArrayDeque<>();
+    private final Deque<GameCommand> redoStack = new ArrayDeque<>();
+    private boolean attached;
+    private boolean redoing;
+
+    public CommandJournal(Game game) {
+        this.game = game;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Executes a command and records it for undo.
+     * 执行一条命令并记录以便撤销。
+     * @return false if the command was not legal; the history is then unchanged (命令不合法时返回 false，历史保持不变)
+     */
+    public boolean execute(GameCommand command) {
+        if (!command.execute(game)) {
+            return false;
+        }
+        if (!attached) {
+            undoStack.push(command); // an attached journal was told by the command itself (已挂接的日志由命令自己通知)
+        }
+        redoStack.clear();
+        return true;
+    }
+
+    /**
+     * Records every command run on the game from now on, not only those passed to
+     * {@link #execute}: the treasure draw, flood draws, discards and end of turn run as
+     * commands too, and so do the actions of a simulation policy. A search attaches a journal
+     * to its own copy of the game and undoes whole simulated turns instead of copying the
+     * game again. Only one journal can be attached to a game.
+     * 从现在起记录游戏上运行的每条命令，而不仅是传给 {@link #execute} 的命令：宝藏摸牌、洪水摸牌、弃牌和结束回合
+     * 同样以命令运行，模拟策略的行动也是如此。搜索在自己的游戏副本上挂接日志，撤销整个模拟回合，而不必再次复制游戏。
+     * 一局游戏只能挂接一个日志。
+     */
+    public void attach() {
+        CommandJournal current = game.getAttachedJournal();
+        if (current != null && current != this) {
+            throw new IllegalStateException("Another journal is attached to this game");
+        }
+        game.setAttachedJournal(this);
+        attached = true;
+    }
+
+    /**
+     * Stops recording commands that were not passed to {@link #execute}.
+     * 停止记录未通过 {@link #execute} 执行的命令。
+     */
+    public void detach() {
+        if (attached) {
+            game.setAttachedJournal(null);
+            attached = false;
+        }
+    }
+
+    /**
+     * Called by an outermost command executed while this journal is attached.
+     * 在本日志已挂接时，由最外层执行的命令调用。
+     */
+    void recordExecuted(GameCommand command) {
+        undoStack.push(command);
+        if (!redoing) {
+            redoStack.clear();
+        }
+    }
+
+    /**
+     * Undoes the most recent command.
+     * 撤销最近的一条命令。
+     * @return The command undone, or null if there was nothing to undo (被撤销的命令，没有可撤销的命令时为 null)
+     */
+    public GameCommand undo() {
+        GameCommand command = undoStack.poll();
+        if (command == null) {
+            return null;
+        }
+        command.undo(game);
+        redoStack.push(command);
+        return command;
+    }
+
+    /**
+     * Executes the most recently undone command again.
+     * 重新执行最近被撤销的命令。
+     * @return The command redone, or null if there was nothing to redo or it is no longer legal (重做的命令；没有可重做的命令或其已不合法时为 null)
+     */
+    public GameCommand redo() {
+        GameCommand command = redoStack.poll();
+        if (command == null) {
+            return null;
+        }
+        boolean executed;
+        redoing = true;
+        try {
+            executed = command.execute(game);
+        } finally {
+            redoing = false;
+        }
+        if (!executed) {
+            redoStack.clear(); // the game moved on without the journal (游戏状态已在日志之外改变)
+            return null;
+        }
+        if (!attached) {
+            undoStack.push(command);
+        }
+        return command;
+    }
+
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    /**
+     * Gets the command {@link #undo()} would undo, or null.
+     * 获取 {@link #undo()} 将要撤销的命令，没有则为 null。
+     */
+    public GameCommand peekUndo() {
+        return undoStack.peek();
+    }
+
+    public GameCommand peekRedo() {
+        return redoStack.peek();
+    }
+
+    public int size() {
+        return undoStack.size();
+    }
+
+    /**
+     * Forgets the history, for example when a turn ends and its actions become final.
+     * 清空历史，例如回合结束、其中的行动成为定局时。
+     */
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+    }
+}
@@ -1,5 +1,7 @@
 package com.forbiddenisland.model;
 
+import com.forbiddenisland.log.GameLog;
+
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -15,6 +17,7 @@ import java.util.Stack;
 public class Deck<T extends Card> implements Serializable {
     private Stack<T> drawPile;    // The pile of cards to draw from (摸牌堆)
     private List<T> discardPile; // The pile of discarded cards (弃牌堆)
+    private GameRandom random; // This deck's own shuffle stream (本牌堆专用的洗牌随机流)
 
     /**
      * Constructor for Deck.
@@ -24,6 +27,17 @@ public class Deck<T extends Card> implements Serializable {
      * @param initialCards The list of cards to start the deck with. (用于开始牌堆的卡牌列表)
      */
     public Deck(List<T> initialCards) {
+        this(initialCards, new GameRandom(GameRandom.newSeed()));
+    }
+
+    /**
+     * Constructor for Deck with a given shuffle stream, so the deck order follows the game seed.
+     * 使用指定洗牌随机流的构造函数，使牌序由游戏种子决定。
+     * @param initialCards The list of cards to start the deck with. (用于开始牌堆的卡牌列表)
+     * @param random The random stream used for every shuffle of this deck. (本牌堆每次洗牌使用的随机流)
+     */
+    public Deck(List<T> initialCards, GameRandom random) {
+        this.random = random;
         this.drawPile = new Stack<>();
         this.discardPile = new ArrayList<>();
         if (initialCards != null) {
@@ -32,12 +46,20 @@ public class Deck<T extends Card> implements Serializable {
         shuffleDrawPile();
     }
 
+    /**
+     * Replaces the stream used for future shuffles.
+     * 替换今后洗牌使用的随机流。
+     */
+    void setRandom(GameRandom random) {
+        this.random = random;
+    }
+
     /**
      * Shuffles the draw pile.
      * 洗混摸牌堆。
      */
     public void shuffleDrawPile() {
-        Collections.shuffle(this.drawPile);
+        random.shuffle(this.drawPile);
     }
 
     /**
@@ -102,7 +124,7 @@ public class Deck<T extends Card> implements Serializable {
             // 先创建一个临时列表，复制弃牌堆中的所有卡牌
             List<T> tempList = new ArrayList<>(discardPile);
             // 洗混临时列表
-            Collections.shuffle(tempList);
+            random.shuffle(tempList);
             // 将洗混后的卡牌添加到摸牌堆，使用Stack的push方法确保卡牌正确添加
             for (int i = 0; i < tempList.size(); i++) {
                 drawPile.push(tempList.get(i));
@@ -110,11 +132,67 @@ public class Deck<T extends Card> implements Serializable {
             // 清空弃牌堆
             discardPile.clear();
             
-            // 打印日志，帮助调试
-            System.out.println("Reshuffled " + tempList.size() + " cards from discard pile into draw pile");
+            // 记录日志，帮助调试
+            GameLog.debug("DECK", "Reshuffled {} cards from discard pile into draw pile", tempList.size());
         }
     }
 
+    // Undo support for GameCommand: each call reverses exactly one earlier pile change
+    // (供 GameCommand 撤销使用：每次调用恰好撤销一次之前的牌堆变化)
+
+    /**
+     * Puts a drawn card back on top of the draw pile.
+     * 将摸到的牌放回摸牌堆顶部。
+     */
+    void returnToDrawPile(T card) {
+        drawPile.push(card);
+    }
+
+    /**
+     * Takes cards back off the top of the draw pile.
+     * 从摸牌堆顶部取回若干张牌。
+     */
+    void removeFromDrawPileTop(int count) {
+        for (int i = 0; i < count && !drawPile.isEmpty(); i++) {
+            drawPile.pop();
+        }
+    }
+
+    /**
+     * Takes back the most recently discarded card.
+     * 取回最近弃掉的牌。
+     * @return The card, or null if the discard pile is empty (该牌；弃牌堆为空时为 null)
+     */
+    T removeLastDiscard() {
+        return discardPile.isEmpty() ? null : discardPile.remove(discardPile.size() - 1);
+    }
+
+    /**
+     * Gets the draw pile, bottom card first. Read-only.
+     * 获取摸牌堆，最底下的牌在前。只读。
+     */
+    List<T> getDrawPile() {
+        return Collections.unmodifiableList(drawPile);
+    }
+
+    /**
+     * Replaces the draw pile, bottom card first.
+     * 替换摸牌堆，最底下的牌在前。
+     */
+    void restoreDrawPile(List<T> cards) {
+        drawPile.clear();
+        drawPile.addAll(cards);
+    }
+
+    /**
+     * Replaces the discard pile, in order.
+     * 按顺序替换弃牌堆。
+     */
+    void restoreDiscardPile(List<T> cards) {
+        discardPile.clear();
+        discardPile.addAll(cards);
+    }
+
     /**
      * Gets the current discard pile.
      * 获取当前的弃牌堆。
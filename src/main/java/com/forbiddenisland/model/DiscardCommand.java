@@ -0,0 +1,54 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Discards a card from a player's hand onto the treasure discard pile, for example to get
+ * back to the hand limit. Costs no action. Undo returns the card to the hand position it
+ * was discarded from.
+ * 将玩家手牌中的一张牌弃到宝藏弃牌堆，例如为了回到手牌上限。不消耗行动点。撤销会将该牌放回弃牌时所在的手牌位置。
+ */
+public class DiscardCommand extends GameCommand {
+
+    private final Player player;
+    private final Card card;
+
+    private int handIndex;
+
+    public DiscardCommand(Player player, Card card) {
+        this.player = player;
+        this.card = card;
+    }
+
+    @Override
+    boolean apply(Game game) {
+        handIndex = player.getHand().indexOf(card);
+        if (handIndex < 0) return false;
+
+        player.removeCardFromHand(card);
+        game.getTreasureDeck().discardCard(card);
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        returnDiscardToHand(game, player, card, handIndex);
+    }
+
+    @Override
+    int replayTag() {
+        return ReplayRecorder.DISCARD;
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) throws IOException {
+        out.writeByte(seatOf(game, player));
+        out.writeByte(handIndex);
+    }
+
+    @Override
+    public String describe() {
+        return "Discard " + card.getName();
+    }
+}
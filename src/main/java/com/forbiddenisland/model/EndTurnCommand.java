@@ -0,0 +1,58 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.util.List;
+
+/**
+ * Ends the current player's turn: the next seat gets fresh actions, a Pilot gets their
+ * flight back and the game returns to the action phase. Undo hands the turn back with the
+ * actions, phase and flight flag it ended with.
+ * 结束当前玩家的回合：下一个座位获得新的行动点，飞行员恢复飞行能力，游戏回到行动阶段。
+ * 撤销会把回合交还给原玩家，并恢复结束时的行动点、阶段和飞行标志。
+ */
+public class EndTurnCommand extends GameCommand {
+
+    private int previousSeat;
+    private int previousActions;
+    private Game.GamePhase previousPhase;
+    private Player next;
+    private boolean nextPilotFlightUsed;
+
+    @Override
+    boolean apply(Game game) {
+        List<Player> players = game.getPlayers();
+        if (players.isEmpty()) return false;
+
+        previousSeat = seatOf(game, game.getCurrentPlayer());
+        previousActions = game.getActionsRemainingInTurn();
+        previousPhase = game.getCurrentPhase();
+        next = players.get((previousSeat + 1) % players.size());
+        nextPilotFlightUsed = next.isPilotAbilityUsedThisTurn();
+        game.advanceTurn();
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        next.setPilotAbilityUsedThisTurn(nextPilotFlightUsed);
+        game.restoreCurrentPlayer(previousSeat);
+        game.setActionsRemainingInTurn(previousActions);
+        game.restorePhase(previousPhase);
+        game.restoreTurnNumber(game.getTurnNumber() - 1);
+    }
+
+    @Override
+    int replayTag() {
+        return ReplayRecorder.NEXT_TURN;
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) {
+        // the record tag is the whole event (记录标签即完整事件)
+    }
+
+    @Override
+    public String describe() {
+        return "End turn";
+    }
+}
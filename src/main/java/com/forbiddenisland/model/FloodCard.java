@@ -8,6 +8,7 @@ import java.io.Serializable;
 
 public class FloodCard extends Card implements Serializable {
     private String islandTileName; // The name of the island tile this card corresponds to (此牌对应的岛屿板块名称)
+    private final int islandTileId; // Registry ID of that tile (该板块的注册表ID)
 
     /**
      * Constructor for FloodCard.
@@ -17,6 +18,7 @@ public class FloodCard extends Card implements Serializable {
     public FloodCard(String islandTileName) {
         super(islandTileName); // Card name is the island tile name (卡牌名称即岛屿板块名称)
         this.islandTileName = islandTileName;
+        this.islandTileId = TileRegistry.idOf(islandTileName);
     }
 
     /**
@@ -28,6 +30,15 @@ public class FloodCard extends Card implements Serializable {
         return islandTileName;
     }
 
+    /**
+     * Gets the registry ID of the island tile this card affects.
+     * 获取此牌影响的岛屿板块的注册表ID。
+     * @return The tile ID, or TileRegistry.NO_TILE for a non-standard tile. (板块ID，非标准板块为 NO_TILE)
+     */
+    public int getIslandTileId() {
+        return islandTileId;
+    }
+
     /**
      * Describes the flood card.
      * 描述洪水牌。
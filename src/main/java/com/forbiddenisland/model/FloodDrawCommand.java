@@ -0,0 +1,115 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Draws and resolves a single flood card: the named tile floods, or sinks if it was already
+ * flooded, in which case pawns on it swim or drown. Undo puts the card back on top of the
+ * flood draw pile, so redoing draws the same card. The extra state a sinking needs (pawn
+ * positions, water level, loss state, the swim stream) is only recorded when a tile sinks.
+ * 摸一张洪水牌并结算：对应板块被淹没；如果已被淹没则沉没，其上的棋子需要游走或溺亡。
+ * 撤销会将该牌放回洪水摸牌堆顶，因此重做会摸到同一张牌。沉没所需的额外状态（棋子位置、水位、失败状态、游泳随机流）仅在板块沉没时记录。
+ */
+public class FloodDrawCommand extends GameCommand {
+
+    private FloodCard card;
+    private IslandTile tile;
+    private int index;
+    private boolean sank;
+    private boolean discarded;
+
+    // Only when the discard pile had to be reshuffled first (仅当需要先洗回弃牌堆时)
+    private List<FloodCard> discardBeforeReshuffle;
+    private long floodRandomState;
+
+    // Only when the tile sank (仅当板块沉没时)
+    private IslandTile[] pawnLocations;
+    private int waterLevel;
+    private LossTracker lossState;
+    private long swimRandomState;
+
+    @Override
+    boolean apply(Game game) {
+        Deck<FloodCard> deck = game.getFloodDeck();
+        if (deck.isDrawPileEmpty() && deck.getDiscardPileSize() == 0) return false;
+
+        discardBeforeReshuffle = null;
+        if (deck.isDrawPileEmpty()) {
+            discardBeforeReshuffle = deck.getDiscardPile();
+            floodRandomState = game.getFloodDeckRandom().getState();
+        }
+        card = game.drawFloodCard();
+
+        tile = game.getIslandTileById(card.getIslandTileId());
+        index = game.getBoardState().indexOf(tile);
+        sank = index >= 0 && tile.isFlooded();
+        if (sank) {
+            List<Player> players = game.getPlayers();
+            pawnLocations = new IslandTile[players.size()];
+            for (int i = 0; i < pawnLocations.length; i++) {
+                pawnLocations[i] = players.get(i).getCurrentLocation();
+            }
+            waterLevel = game.getWaterMeter().getCurrentWaterLevel();
+            lossState = game.copyLossTracker();
+            swimRandomState = game.getSwimRandom().getState();
+        }
+
+        int discardSize = deck.getDiscardPileSize();
+        game.resolveFloodCard(card);
+        discarded = deck.getDiscardPileSize() > discardSize;
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        Deck<FloodCard> deck = game.getFloodDeck();
+        if (sank) {
+            game.restoreSunkTile(tile, index);
+            List<Player> players = game.getPlayers();
+            for (int i = 0; i < pawnLocations.length; i++) {
+                Pawn pawn = players.get(i).getPawn();
+                if (pawn.getCurrentLocation() != pawnLocations[i]) {
+                    pawn.setCurrentLocation(pawnLocations[i]);
+                }
+            }
+            game.getWaterMeter().restoreWaterLevel(waterLevel);
+            game.restoreLossTracker(lossState);
+            game.getSwimRandom().setState(swimRandomState);
+        } else if (index >= 0) {
+            tile.setFlooded(false);
+        }
+        if (discarded) {
+            deck.removeLastDiscard();
+        }
+        deck.returnToDrawPile(card);
+        if (discardBeforeReshuffle != null) {
+            deck.removeFromDrawPileTop(discardBeforeReshuffle.size());
+            deck.restoreDiscardPile(discardBeforeReshuffle);
+            game.getFloodDeckRandom().setState(floodRandomState);
+        }
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) throws IOException {
+        out.writeByte(FLOOD_DRAW); // the card drawn is in the record's draw list (摸到的牌在记录的摸牌列表中)
+    }
+
+    /**
+     * Gets the card drawn by the last execution, or null.
+     * 获取上次执行时摸到的牌，没有则为 null。
+     */
+    public FloodCard getCard() {
+        return card;
+    }
+
+    public boolean didSink() {
+        return sank;
+    }
+
+    @Override
+    public String describe() {
+        return card == null ? "Draw flood card" : "Flood " + card.getName();
+    }
+}
@@ -1,11 +1,13 @@
 package com.forbiddenisland.model;
+
+import com.forbiddenisland.log.GameLog;
+
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
@@ -25,7 +27,10 @@ public class Game implements Serializable {
     // Island representation
     private List<IslandTile> allIslandTilesList; // Master list of all 24 tiles
     private Map<String, IslandTile> islandTileMap; // For quick lookup by name
+    private IslandTile[] tilesById; // Tiles still on the board, indexed by TileRegistry ID (仍在棋盘上的板块，按 TileRegistry ID 索引)
     private IslandTile[][] gameBoard; // 6x6 grid representing the island layout
+    private ZobristHash zobristHash; // Incremental position hash for AI look-ahead (用于 AI 前瞻搜索的增量局面哈希)
+    private BoardState boardState; // Bitboard masks mirroring gameBoard for O(1) queries (与 gameBoard 同步的位棋盘掩码，用于 O(1) 查询)
 
     // Players
     private List<Player> players;
@@ -41,11 +46,28 @@ public class Game implements Serializable {
     // Water Level
     private WaterMeter waterMeter;
 
-    private Random randomGenerator;
+    private LossTracker lossTracker; // Loss conditions, updated as tiles sink and water rises (失败条件，随板块沉没和水位上涨而更新)
+
+    // Randomness: one root stream per game, split once per purpose so that the same seed
+    // replays the same game no matter what other games or threads are doing
+    // 随机性：每局游戏一个根随机流，按用途各拆分一次，使相同种子总能重现同一局游戏，不受其他游戏或线程影响
+    private long seed;
+    private GameRandom layoutRandom;
+    private GameRandom roleRandom;
+    private GameRandom treasureDeckRandom;
+    private GameRandom floodDeckRandom;
+    private GameRandom swimRandom;
 
     // Action Point Management & Game Phase (Added from local)
     private int actionsRemainingInTurn;
     private GamePhase currentPhase;
+    private int turnNumber; // turns completed since the game started (开局以来已完成的回合数)
+
+    // Not saved: a loaded or copied game is not being recorded (不保存：加载或复制的游戏不被记录)
+    private transient ReplayRecorder replayRecorder;
+    // Not saved either: only a search attaches a journal, to its own copy (同样不保存：只有搜索会在自己的副本上挂接日志)
+    private transient CommandJournal attachedJournal;
+    private transient int commandDepth; // commands running inside other commands (在其他命令内部运行的命令层数)
 
     /**
      * Enum for game phases.
@@ -62,26 +84,18 @@ public class Game implements Serializable {
      * @param startingWaterLevel The initial water level for the game.
      */
     public Game(List<String> playerNames, int startingWaterLevel) {
-        this.randomGenerator = new Random();
-        this.players = new ArrayList<>();
-        for (String name : playerNames) {
-            this.players.add(new Player(name));
-        }
-        this.currentPlayerIndex = 0; 
-
-        initializeAllIslandTiles();
-        setupIslandLayout();
-        initializeTreasures();
-        placeTreasuresOnTiles();
-        initializeFloodDeck();
-        initializeTreasureDeck();
-        setupWaterMeter(startingWaterLevel);
-        assignAdventurersAndStartingPositions();
-        dealInitialTreasureCards();
-        performInitialIslandFlooding();
+        this(playerNames, startingWaterLevel, null, GameRandom.newSeed());
+    }
 
-        this.actionsRemainingInTurn = MAX_ACTIONS_PER_TURN; // Initialize actions
-        this.currentPhase = GamePhase.ACTION_PHASE; // Start with action phase
+    /**
+     * Constructor for Game with a fixed seed; the same seed always deals the same game.
+     * 使用固定种子的构造函数；相同的种子总是产生相同的开局。
+     * @param playerNames List of names for the players.
+     * @param startingWaterLevel The initial water level for the game.
+     * @param seed Seed for every random choice in this game (本局所有随机选择的种子)
+     */
+    public Game(List<String> playerNames, int startingWaterLevel, long seed) {
+        this(playerNames, startingWaterLevel, null, seed);
     }
 
     /**
@@ -91,10 +105,26 @@ public class Game implements Serializable {
      * @param selectedRoles List of pre-selected roles for the players.
      */
     public Game(List<String> playerNames, int startingWaterLevel, List<AdventurerRole> selectedRoles) {
-        this.randomGenerator = new Random();
+        this(playerNames, startingWaterLevel, selectedRoles, GameRandom.newSeed());
+    }
+
+    /**
+     * Constructor for Game with pre-selected adventurer roles and a fixed seed.
+     * 使用预选角色和固定种子的构造函数。
+     * @param playerNames List of names for the players.
+     * @param startingWaterLevel The initial water level for the game.
+     * @param selectedRoles List of pre-selected roles for the players, or null to deal random roles.
+     * @param seed Seed for every random choice in this game (本局所有随机选择的种子)
+     */
+    public Game(List<String> playerNames, int startingWaterLevel, List<AdventurerRole> selectedRoles, long seed) {
+        initializeRandomStreams(seed);
+        this.zobristHash = new ZobristHash();
+        this.lossTracker = new LossTracker();
         this.players = new ArrayList<>();
         for (String name : playerNames) {
-            this.players.add(new Player(name));
+            Player player = new Player(name);
+            player.attachHash(zobristHash, players.size());
+            this.players.add(player);
         }
         this.currentPlayerIndex = 0;
 
@@ -105,7 +135,11 @@ public class Game implements Serializable {
         initializeFloodDeck();
         initializeTreasureDeck();
         setupWaterMeter(startingWaterLevel);
-        assignAdventurersAndStartingPositionsWithSelectedRoles(selectedRoles); // Uses selected roles
+        if (selectedRoles == null) {
+            assignAdventurersAndStartingPositions();
+        } else {
+            assignAdventurersAndStartingPositionsWithSelectedRoles(selectedRoles); // Uses selected roles
+        }
         dealInitialTreasureCards();
         performInitialIslandFlooding();
 
@@ -113,6 +147,73 @@ public class Game implements Serializable {
         this.currentPhase = GamePhase.ACTION_PHASE; // Start with the action phase
     }
 
+    /**
+     * Creates an empty game for {@link GameCodec} to fill in from a save file: no tiles,
+     * players or cards yet, empty decks, and the random streams split from the seed so their
+     * saved positions can be restored.
+     * 创建一个空游戏，供 {@link GameCodec} 从存档填充：尚无板块、玩家和卡牌，牌堆为空，随机流从种子拆分以便恢复其保存的位置。
+     * @param seed The saved game's seed (存档游戏的种子)
+     * @param waterLevel The saved water level (存档的水位)
+     */
+    Game(long seed, int waterLevel) {
+        initializeRandomStreams(seed);
+        this.zobristHash = new ZobristHash();
+        this.players = new ArrayList<>();
+        this.allIslandTilesList = new ArrayList<>();
+        this.islandTileMap = new HashMap<>();
+        this.gameBoard = new IslandTile[BOARD_DIMENSION][BOARD_DIMENSION];
+        this.boardState = new BoardState();
+        this.boardState.attachHash(zobristHash);
+        this.tilesById = new IslandTile[TileRegistry.TILE_COUNT];
+        initializeTreasures();
+        this.treasureDeck = new Deck<>(new ArrayList<>(), treasureDeckRandom);
+        this.floodDeck = new Deck<>(new ArrayList<>(), floodDeckRandom);
+        setupWaterMeter(waterLevel);
+        this.waterMeter.restoreWaterLevel(waterLevel);
+        this.actionsRemainingInTurn = MAX_ACTIONS_PER_TURN;
+        this.currentPhase = GamePhase.ACTION_PHASE;
+        this.lossTracker = new LossTracker(); // rebuilt from the board by restoreOutcome (由 restoreOutcome 根据棋盘重建)
+    }
+
+    /**
+     * Splits the per-purpose random streams from the game seed. The split order is fixed;
+     * adding a new stream must append it at the end so existing seeds keep their games.
+     * 从游戏种子拆分各用途的随机流。拆分顺序是固定的；新增随机流必须追加在末尾，以保证已有种子的对局不变。
+     */
+    private void initializeRandomStreams(long seed) {
+        this.seed = seed;
+        GameRandom root = new GameRandom(seed);
+        layoutRandom = root.split();
+        roleRandom = root.split();
+        treasureDeckRandom = root.split();
+        floodDeckRandom = root.split();
+        swimRandom = root.split();
+    }
+
+    /**
+     * Turns a copy of this game into one possible version of it for look-ahead search:
+     * re-seeds every random stream and reshuffles both draw piles, whose order the players
+     * cannot know. Never call this on the game being played.
+     * 将本游戏的副本变成前瞻搜索用的一种可能情形：重新设置所有随机流的种子，并重新洗混玩家无法得知顺序的两个摸牌堆。
+     * 切勿在正在进行的游戏上调用。
+     * @param seed Seed of the sampled future (所采样未来的种子)
+     */
+    public void determinize(long seed) {
+        initializeRandomStreams(seed);
+        treasureDeck.setRandom(treasureDeckRandom);
+        floodDeck.setRandom(floodDeckRandom);
+        treasureDeck.shuffleDrawPile();
+        floodDeck.shuffleDrawPile();
+    }
+
+    /**
+     * Gets the seed this game was dealt from. Recording it is enough to replay the game.
+     * 获取本局游戏的种子。记录该种子即可重现本局游戏。
+     */
+    public long getSeed() {
+        return seed;
+    }
+
     /**
      * Initializes all 24 island tiles with their names and shuffles them.
      * 用名称初始化所有24个岛屿板块并将它们洗混。
@@ -121,19 +222,10 @@ public class Game implements Serializable {
         allIslandTilesList = new ArrayList<>();
         islandTileMap = new HashMap<>(); // Will be populated as tiles are placed on board
 
-        String[] tileNames = {
-            "Fools' Landing", "Whispering Garden", "Howling Garden", "Tidal Palace", "Coral Palace",
-            "Temple of the Moon", "Temple of the Sun", "Cave of Embers", "Cave of Shadows",
-            "Bronze Gate", "Copper Gate", "Gold Gate", "Iron Gate", "Silver Gate",
-            "Observatory", "Phantom Rock", "Twilight Hollow", "Watchtower",
-            "Breakers Bridge", "Cliffs of Abandon", "Crimson Forest", "Dunes of Deception",
-            "Lost Lagoon", "Misty Marsh"
-        };
-
-        for (String name : tileNames) {
-            allIslandTilesList.add(new IslandTile(name));
+        for (int id = 0; id < TileRegistry.TILE_COUNT; id++) {
+            allIslandTilesList.add(new IslandTile(TileRegistry.nameOf(id)));
         }
-        Collections.shuffle(allIslandTilesList, randomGenerator);
+        layoutRandom.shuffle(allIslandTilesList);
     }
 
     /**
@@ -144,6 +236,9 @@ public class Game implements Serializable {
      */
     private void setupIslandLayout() {
         gameBoard = new IslandTile[BOARD_DIMENSION][BOARD_DIMENSION];
+        boardState = new BoardState();
+        boardState.attachHash(zobristHash);
+        tilesById = new IslandTile[TileRegistry.TILE_COUNT];
         islandTileMap.clear(); // Clear and repopulate from board placement
 
         // Tiles are pre-shuffled in allIslandTilesList
@@ -162,6 +257,8 @@ public class Game implements Serializable {
             if (tileIndex[0] < allIslandTilesList.size()) {
                 IslandTile tile = allIslandTilesList.get(tileIndex[0]++);
                 gameBoard[r][c] = tile;
+                boardState.place(tile, r, c);
+                tilesById[tile.getId()] = tile;
                 islandTileMap.put(tile.getName(), tile); // Populate map
             }
         };
@@ -181,9 +278,9 @@ public class Game implements Serializable {
         }
         
         if (tileIndex[0] != 24) {
-            System.err.println("Error in island layout: Expected 24 tiles to be placed, but placed " + tileIndex[0] + " (岛屿布局错误：预期放置24个板块，但放置了 " + tileIndex[0] + " 个)");
+            GameLog.error("SETUP", "Error in island layout: Expected 24 tiles to be placed, but placed {} (岛屿布局错误：预期放置24个板块，但放置了 {} 个)", tileIndex[0], tileIndex[0]);
         }
-        System.out.println("Island layout created with " + islandTileMap.size() + " tiles on the board. (岛屿布局已创建，棋盘上有 " + islandTileMap.size() + " 个板块。)");
+        GameLog.debug("SETUP", "Island layout created with {} tiles on the board. (岛屿布局已创建，棋盘上有 {} 个板块。)", islandTileMap.size(), islandTileMap.size());
     }
 
     // Functional interface for the helper
@@ -198,11 +295,10 @@ public class Game implements Serializable {
      */
     private void initializeTreasures() {
         treasures = new ArrayList<>();
-        // Ensure tile names match exactly those in tileNames array
-        treasures.add(new Treasure(TreasureType.THE_EARTH_STONE, List.of("Temple of the Moon", "Temple of the Sun")));
-        treasures.add(new Treasure(TreasureType.THE_STATUE_OF_THE_WIND, List.of("Whispering Garden", "Howling Garden")));
-        treasures.add(new Treasure(TreasureType.THE_CRYSTAL_OF_FIRE, List.of("Cave of Embers", "Cave of Shadows")));
-        treasures.add(new Treasure(TreasureType.THE_OCEANS_CHALICE, List.of("Coral Palace", "Tidal Palace")));
+        // Treasure tiles come from the TileRegistry (宝藏板块来自 TileRegistry)
+        for (TreasureType type : TreasureType.values()) {
+            treasures.add(new Treasure(type));
+        }
     }
 
     /**
@@ -211,14 +307,14 @@ public class Game implements Serializable {
      */
     private void placeTreasuresOnTiles() {
         for (Treasure treasure : treasures) {
-            for (String tileName : treasure.getIslandTileNames()) {
-                IslandTile tile = islandTileMap.get(tileName); // Get tile from map (populated by setupIslandLayout)
+            for (int tileId : treasure.getIslandTileIds()) {
+                IslandTile tile = getIslandTileById(tileId); // Populated by setupIslandLayout
                 if (tile != null) {
                     tile.setAssociatedTreasure(treasure.getType());
                 } else {
-                    // This could happen if a treasure tile name is misspelled or not in the 24 standard tiles.
-                    // 如果宝藏板块名称拼写错误或不在24个标准板块中，则可能发生这种情况。
-                    System.err.println("Error: Tile '" + tileName + "' for treasure '" + treasure.getType() + "' not found on game board. (错误：棋盘上未找到宝藏 '" + treasure.getType() + "' 对应的板块 '" + tileName + "'。)");
+                    // This could happen if a treasure tile is not one of the 24 standard tiles.
+                    // 如果宝藏板块不在24个标准板块中，则可能发生这种情况。
+                    GameLog.error("SETUP", "Error: Tile #{} for treasure '{}' not found on game board. (错误：棋盘上未找到宝藏 '{}' 对应的板块 #{}。)", tileId, treasure.getType(), treasure.getType(), tileId);
                 }
             }
         }
@@ -235,7 +331,7 @@ public class Game implements Serializable {
         for (IslandTile tile : allIslandTilesList) { // Iterate over the master list of 24 original tiles
             floodCards.add(new FloodCard(tile.getName()));
         }
-        floodDeck = new Deck<>(floodCards);
+        floodDeck = new Deck<>(floodCards, floodDeckRandom);
     }
 
     /**
@@ -252,7 +348,7 @@ public class Game implements Serializable {
         for (int i = 0; i < 3; i++) { treasureCards.add(new HelicopterLiftCard()); }
         for (int i = 0; i < 2; i++) { treasureCards.add(new SandbagsCard()); }
         for (int i = 0; i < 3; i++) { treasureCards.add(new WatersRiseCard()); } 
-        treasureDeck = new Deck<>(treasureCards);
+        treasureDeck = new Deck<>(treasureCards, treasureDeckRandom);
     }
     
     /**
@@ -282,46 +378,28 @@ public class Game implements Serializable {
      */
     private void assignAdventurersAndStartingPositions() {
         List<AdventurerRole> roles = new ArrayList<>(List.of(AdventurerRole.values()));
-        Collections.shuffle(roles, randomGenerator);
-
-        // Standard starting tiles for each role
-        // 每个角色的标准起始板块
-        Map<AdventurerRole, String> roleToStartingTileName = Map.of(
-            AdventurerRole.PILOT, "Fools' Landing",       // Blue
-            AdventurerRole.NAVIGATOR, "Gold Gate",        // Yellow
-            AdventurerRole.MESSENGER, "Silver Gate",      // White/Grey
-            AdventurerRole.DIVER, "Iron Gate",            // Black
-            AdventurerRole.EXPLORER, "Copper Gate",       // Green
-            AdventurerRole.ENGINEER, "Bronze Gate",       // Red
-            AdventurerRole.ARCHAEOLOGIST, "Misty Marsh"   // Purple
-        );
-        Map<AdventurerRole, String> roleToPawnColor = Map.of(
-            AdventurerRole.PILOT, "Blue", 
-            AdventurerRole.NAVIGATOR, "Yellow",
-            AdventurerRole.MESSENGER, "White", 
-            AdventurerRole.DIVER, "Black",
-            AdventurerRole.EXPLORER, "Green", 
-            AdventurerRole.ENGINEER, "Red",
-            AdventurerRole.ARCHAEOLOGIST, "Purple"
-        );
+        roleRandom.shuffle(roles);
 
+        // Standard starting tiles and pawn colours come from the TileRegistry
+        // 每个角色的标准起始板块和棋子颜色来自 TileRegistry
         for (int i = 0; i < players.size(); i++) {
             if (i < roles.size()) {
                 Player player = players.get(i);
                 AdventurerRole assignedRole = roles.get(i);
-                String startingTileName = roleToStartingTileName.get(assignedRole);
-                String pawnColor = roleToPawnColor.get(assignedRole);
+                int startingTileId = TileRegistry.startingTileOf(assignedRole);
+                String startingTileName = TileRegistry.nameOf(startingTileId);
+                String pawnColor = TileRegistry.pawnColorOf(assignedRole);
 
-                IslandTile startingTile = islandTileMap.get(startingTileName);
+                IslandTile startingTile = getIslandTileById(startingTileId);
 
                 if (startingTile == null) {
-                    System.err.println("CRITICAL Error: Starting tile '" + startingTileName + "' for " + assignedRole + " not found on the board! Game setup failed. (严重错误：棋盘上未找到角色 " + assignedRole + " 的起始板块 '" + startingTileName + "'！游戏设置失败。)");
+                    GameLog.error("SETUP", "CRITICAL Error: Starting tile '{}' for {} not found on the board! Game setup failed. (严重错误：棋盘上未找到角色 {} 的起始板块 '{}'！游戏设置失败。)", startingTileName, assignedRole, assignedRole, startingTileName);
                     // Attempt to find it in the general list if not on board (should not happen if layout is correct)
                     // 如果棋盘上没有，则尝试在通用列表中查找（如果布局正确则不应发生）
                     for(IslandTile t : allIslandTilesList) {
-                        if(t.getName().equals(startingTileName)) {
+                        if(t.getId() == startingTileId) {
                             startingTile = t;
-                            System.err.println("Found starting tile '" + startingTileName + "' in master list, but it was not on gameBoard. Check layout. (在主列表中找到起始板块 '" + startingTileName + "'，但它不在 gameBoard 上。请检查布局。)");
+                            GameLog.warn("SETUP", "Found starting tile '{}' in master list, but it was not on gameBoard. Check layout. (在主列表中找到起始板块 '{}'，但它不在 gameBoard 上。请检查布局。)", startingTileName, startingTileName);
                             break;
                         }
                     }
@@ -333,13 +411,10 @@ public class Game implements Serializable {
                 player.assignRoleAndPawn(assignedRole, startingTile, pawnColor);
                 
                 if (gameBoardContains(startingTile)) { // Make sure the instance is from the board
-                    findTileOnBoard(startingTile.getName()).setStartingTileForPlayer(true);
+                    startingTile.setStartingTileForPlayer(true);
                 }
 
-                System.out.println(player.getName() + " is the " + assignedRole.name() + 
-                                   " (" + assignedRole.getDescription() + 
-                                   ") starting at " + startingTile.getName() + 
-                                   " with a " + pawnColor + " pawn.");
+                GameLog.info("SETUP", "{} is the {} ({}) starting at {} with a {} pawn.", player.getName(), assignedRole.name(), assignedRole.getDescription(), startingTile.getName(), pawnColor);
             }
         }
     }
@@ -363,25 +438,28 @@ public class Game implements Serializable {
     private void drawTreasureCardForPlayer(Player player, boolean isInitialDeal) {
         Card drawnCard = treasureDeck.drawCard();
         if (drawnCard == null) {
-            System.err.println("Treasure deck empty during draw for " + player.getName() + " (宝藏牌堆在为 " + player.getName() + " 抽牌时已空)");
+            GameLog.warn("SETUP", "Treasure deck empty during draw for {} (宝藏牌堆在为 {} 抽牌时已空)", player.getName(), player.getName());
             return;
         }
+        if (replayRecorder != null && !isInitialDeal) {
+            replayRecorder.cardDrawn(GameCodec.treasureCardId(drawnCard));
+        }
 
         if (drawnCard instanceof WatersRiseCard) {
-            System.out.println("Waters Rise! card drawn by " + player.getName() + ".");
+            GameLog.info("SETUP", "Waters Rise! card drawn by {}.", player.getName());
             if (isInitialDeal) {
-                System.out.println("During initial deal, reshuffling Waters Rise! back and drawing replacement.");
+                GameLog.debug("SETUP", "During initial deal, reshuffling Waters Rise! back and drawing replacement.");
                 List<Card> cardsToReinsert = new ArrayList<>();
                 cardsToReinsert.add(drawnCard); 
                 treasureDeck.addCardsToDrawPileTop(cardsToReinsert);
                 treasureDeck.shuffleDrawPile();                      
                 drawTreasureCardForPlayer(player, true);           
             } else {
-                processWatersRiseCard((WatersRiseCard) drawnCard);
+                new WatersRiseCommand((WatersRiseCard) drawnCard).execute(this);
             }
         } else {
             player.addCardToHand(drawnCard);
-            System.out.println(player.getName() + " draws: " + drawnCard.getName());
+            GameLog.debug("SETUP", "{} draws: {}", player.getName(), drawnCard.getName());
         }
     }
 
@@ -390,26 +468,26 @@ public class Game implements Serializable {
      * 执行初始岛屿淹没。
      */
     private void performInitialIslandFlooding() {
-        System.out.println("Initial island flooding: Drawing " + INITIAL_FLOOD_CARDS_DRAW + " flood cards.");
+        GameLog.debug("SETUP", "Initial island flooding: Drawing {} flood cards.", INITIAL_FLOOD_CARDS_DRAW);
         for (int i = 0; i < INITIAL_FLOOD_CARDS_DRAW; i++) {
             FloodCard floodCard = floodDeck.drawCard();
             if (floodCard != null) {
-                IslandTile tileToFlood = islandTileMap.get(floodCard.getIslandTileName());
+                IslandTile tileToFlood = getIslandTileById(floodCard.getIslandTileId());
                 if (tileToFlood != null && gameBoardContains(tileToFlood) && !tileToFlood.isFlooded()) {
                     tileToFlood.flood(); // flood the instance on the board / in the map
-                    System.out.println("Tile flooded: " + tileToFlood.getName());
+                    GameLog.info("SETUP", "Tile flooded: {}", tileToFlood.getName());
                     floodDeck.discardCard(floodCard);
                 } else if (tileToFlood != null && tileToFlood.isFlooded()) {
-                    System.err.println("Warning: Tried to initially flood an already flooded tile: " + tileToFlood.getName());
+                    GameLog.warn("SETUP", "Warning: Tried to initially flood an already flooded tile: {}", tileToFlood.getName());
                     floodDeck.discardCard(floodCard); // Still discard
                 } else if (tileToFlood == null || !gameBoardContains(tileToFlood)) {
-                     System.err.println("Error: Island tile for flood card '" + floodCard.getIslandTileName() + "' not found on board or in map.");
+                     GameLog.error("SETUP", "Error: Island tile for flood card '{}' not found on board or in map.", floodCard.getIslandTileName());
                      // If tile not on board (e.g. error in setup), card still discarded from draw pile.
                      // 如果板块不在棋盘上（例如设置错误），卡牌仍从摸牌堆中丢弃。
                      floodDeck.discardCard(floodCard); // Or remove from game if tile truly doesn't exist
                 }
             } else {
-                System.err.println("Flood deck ran out during initial flooding.");
+                GameLog.warn("SETUP", "Flood deck ran out during initial flooding.");
                 break;
             }
         }
@@ -419,27 +497,28 @@ public class Game implements Serializable {
      * Processes a drawn Waters Rise! card.
      * 处理抽到的"洪水上涨！"牌。
      */
-    private void processWatersRiseCard(WatersRiseCard card) {
-        System.out.println("Processing WATERS RISE! card.");
+    void processWatersRiseCard(WatersRiseCard card) {
+        GameLog.info("WATERS_RISE", "Processing WATERS RISE! card.");
         
         // 记录处理前的水位
         int oldLevel = waterMeter.getCurrentWaterLevel();
         
         // 增加水位
         waterMeter.increaseWaterLevel();
+        lossTracker.waterLevelChanged(waterMeter);
 
         int newLevel = waterMeter.getCurrentWaterLevel();
-        System.out.println("Water level increased from: " + oldLevel + " to " + newLevel + " (" + waterMeter.getWaterLevelLabel() + ")");
+        GameLog.info("WATERS_RISE", "Water level increased from: {} to {} ({})", oldLevel, newLevel, waterMeter.getWaterLevelLabel());
 
         // 处理洪水弃牌堆
         List<FloodCard> floodDiscards = floodDeck.getDiscardPile();
         if (!floodDiscards.isEmpty()) {
-            Collections.shuffle(floodDiscards, randomGenerator);
+            floodDeckRandom.shuffle(floodDiscards);
             floodDeck.clearDiscardPile();
             floodDeck.addCardsToDrawPileTop(floodDiscards); // As per rules: place on TOP
-            System.out.println("Shuffled " + floodDiscards.size() + " flood cards from discard back onto the draw pile top.");
+            GameLog.debug("WATERS_RISE", "Shuffled {} flood cards from discard back onto the draw pile top.", floodDiscards.size());
         } else {
-            System.out.println("Flood discard pile was empty. No cards to shuffle back.");
+            GameLog.debug("WATERS_RISE", "Flood discard pile was empty. No cards to shuffle back.");
         }
         
         // 弃掉洪水上涨卡牌
@@ -447,7 +526,7 @@ public class Game implements Serializable {
         
         // 确保在处理完洪水上涨卡牌后，如果当前阶段是抽宝藏牌阶段，则转换到抽洪水牌阶段
         if (currentPhase == GamePhase.DRAW_TREASURE_CARDS_PHASE) {
-            System.out.println("Moving to DRAW_FLOOD_CARDS_PHASE after Waters Rise card.");
+            GameLog.debug("WATERS_RISE", "Moving to DRAW_FLOOD_CARDS_PHASE after Waters Rise card.");
             currentPhase = GamePhase.DRAW_FLOOD_CARDS_PHASE;
         }
         
@@ -460,76 +539,97 @@ public class Game implements Serializable {
      * 检查 IslandTile 对象实例当前是否是 gameBoard 的一部分。
      */
     private boolean gameBoardContains(IslandTile tile) {
-        if (tile == null) return false;
-        for (int r = 0; r < BOARD_DIMENSION; r++) {
-            for (int c = 0; c < BOARD_DIMENSION; c++) {
-                if (gameBoard[r][c] == tile) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return boardState.contains(tile);
     }
     
     /**
-     * Finds an IslandTile on the game board by its name.
-     * 按名称在游戏棋盘上查找 IslandTile。
-     * @param tileName The name of the tile. (板块的名称)
-     * @return The IslandTile object from the board, or null if not found. (棋盘上的 IslandTile 对象，如果未找到则为 null)
+     * Checks if game over conditions are met. Reads the loss tracker, so it is O(1).
+     * 检查游戏结束条件是否满足。读取失败追踪器，因此是 O(1) 操作。
+     * @return true if game is over, false otherwise
      */
-    private IslandTile findTileOnBoard(String tileName) {
-        for (int r = 0; r < BOARD_DIMENSION; r++) {
-            for (int c = 0; c < BOARD_DIMENSION; c++) {
-                if (gameBoard[r][c] != null && gameBoard[r][c].getName().equals(tileName)) {
-                    return gameBoard[r][c];
-                }
-            }
-        }
-        return null;
+    public boolean checkGameOverConditions() {
+        return lossTracker.getReason() != null;
     }
 
     /**
-     * Checks if game over conditions are met.
-     * 检查游戏结束条件是否满足。
-     * @return true if game is over, false otherwise
+     * Gets why the game was lost. Cheap enough to poll every frame.
+     * 获取游戏失败的原因。开销很小，可以每帧轮询。
+     * @return The reason, or null while the game is not lost (失败原因；游戏未失败时为 null)
      */
-    public boolean checkGameOverConditions() {
-        if (waterMeter.hasReachedMaxLevel()) {
-            System.out.println("GAME OVER: Water level maxed out!");
-            return true;
-        }
-        if (islandTileMap.get("Fools' Landing") == null || findTileOnBoard("Fools' Landing") == null) {
-            System.out.println("GAME OVER: Fools' Landing has sunk!");
-            return true;
-        }
+    public GameOverReason getGameOverReason() {
+        return lossTracker.getReason();
+    }
+
+    /**
+     * Gets the treasure that can no longer be collected, when the reason is TREASURE_TILES_SUNK.
+     * 当失败原因为 TREASURE_TILES_SUNK 时，获取无法再收集的宝藏。
+     */
+    public TreasureType getLostTreasure() {
+        return lossTracker.getLostTreasure();
+    }
+
+    /**
+     * Gets the player who could not swim to safety, when the reason is PLAYER_DROWNED.
+     * 当失败原因为 PLAYER_DROWNED 时，获取无法游到安全位置的玩家。
+     */
+    public Player getDrownedPlayer() {
+        return lossTracker.getDrownedPlayer();
+    }
+
+    /**
+     * Checks whether a treasure has been collected.
+     * 检查某个宝藏是否已被收集。
+     */
+    public boolean isTreasureCollected(TreasureType type) {
         for (Treasure treasure : treasures) {
-            if (!treasure.isCollected()) {
-                int sunkTreasureTiles = 0;
-                for (String tileName : treasure.getIslandTileNames()) {
-                    if (islandTileMap.get(tileName) == null || findTileOnBoard(tileName) == null) {
-                        sunkTreasureTiles++;
-                    }
-                }
-                if (sunkTreasureTiles >= 2) {
-                    System.out.println("GAME OVER: Both tiles for " + treasure.getType() + " sunk!");
-                    return true;
-                }
+            if (treasure.getType() == type) {
+                return treasure.isCollected();
             }
         }
         return false;
     }
 
+    // Undo support for GameCommand (供 GameCommand 撤销使用)
+    LossTracker copyLossTracker() {
+        return lossTracker.copy();
+    }
+
+    void restoreLossTracker(LossTracker tracker) {
+        lossTracker = tracker;
+    }
+
+    GameRandom getTreasureDeckRandom() {
+        return treasureDeckRandom;
+    }
+
+    GameRandom getFloodDeckRandom() {
+        return floodDeckRandom;
+    }
+
+    GameRandom getSwimRandom() {
+        return swimRandom;
+    }
+
     // --- Game Flow Methods ---
     /**
      * Advances to the next player's turn.
      * 进入下一个玩家的回合。
      */
     public void nextTurn() {
+        new EndTurnCommand().execute(this);
+        GameLog.info("TURN", "Next turn for player: {} (下一回合玩家： {})", getCurrentPlayer().getName(), getCurrentPlayer().getName());
+    }
+
+    /**
+     * Passes the turn to the next seat with fresh actions. Run through {@link EndTurnCommand}.
+     * 将回合交给下一个座位并重置行动点。通过 {@link EndTurnCommand} 执行。
+     */
+    void advanceTurn() {
+        turnNumber++;
         currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
         resetActions(); // Reset actions for the new turn
         getCurrentPlayer().resetTurnBasedAbilities(); // Reset abilities like Pilot's flight
         currentPhase = GamePhase.ACTION_PHASE; // Reset to action phase for the new player
-        System.out.println("Next turn for player: " + getCurrentPlayer().getName() + " (下一回合玩家： " + getCurrentPlayer().getName() + ")");
     }
 
     /**
@@ -538,24 +638,27 @@ public class Game implements Serializable {
      */
     public void playerDrawsTreasureCards() {
         Player currentPlayer = getCurrentPlayer();
-        System.out.println(currentPlayer.getName() + " is drawing 2 treasure cards.");
-        drawTreasureCardForPlayer(currentPlayer, false); // First draw
-        checkHandLimit(currentPlayer);                 // Check limit after first draw
-        if (treasureDeck.isDrawPileEmpty() && treasureDeck.getDiscardPileSize() > 0) {
-            System.out.println("Treasure draw pile empty, reshuffling discard pile.");
-            treasureDeck.reshuffleDiscardIntoDraw();
-        }
-        drawTreasureCardForPlayer(currentPlayer, false); // Second draw
-        checkHandLimit(currentPlayer);                 // Check limit after second draw
+        GameLog.debug("TURN", "{} is drawing 2 treasure cards.", currentPlayer.getName());
+        new TreasureDrawCommand(currentPlayer).execute(this);
+    }
+
+    /**
+     * Discards a card from a player's hand onto the treasure discard pile, for example to get
+     * back to the hand limit.
+     * 将玩家手牌中的一张牌弃到宝藏弃牌堆，例如为了回到手牌上限。
+     * @return true if the player held the card (玩家持有该牌时返回 true)
+     */
+    public boolean discardFromHand(Player player, Card card) {
+        return new DiscardCommand(player, card).execute(this);
     }
     
     /**
      * Checks if a player has exceeded their hand limit and handles discarding.
      * 检查玩家是否超过了手牌上限并处理弃牌。
      */
-    private void checkHandLimit(Player player) {
+    void checkHandLimit(Player player) {
         if (player.isHandOverLimit()) {
-            System.out.println(player.getName() + "'s hand is over limit (" + player.getHand().size() + "/" + Player.MAX_HAND_SIZE + "). Must discard or play.");
+            GameLog.info("TURN", "{}'s hand is over limit ({}/{}). Must discard or play.", player.getName(), player.getHand().size(), Player.MAX_HAND_SIZE);
             // 不再自动弃牌，由UI处理弃牌逻辑
             // UI will handle the discard logic
         }
@@ -567,20 +670,16 @@ public class Game implements Serializable {
      * @return true if game is won, false otherwise
      */
     public boolean checkWinConditions() {
-        boolean allTreasuresCollected = treasures.stream().allMatch(Treasure::isCollected);
-        if (!allTreasuresCollected) return false;
-
-        IslandTile foolsLanding = islandTileMap.get("Fools' Landing");
-        if (foolsLanding == null || findTileOnBoard("Fools' Landing") == null) return false; 
+        IslandTile foolsLanding = tilesById[TileRegistry.FOOLS_LANDING];
+        if (foolsLanding == null) return false;
+        int landing = boardState.indexOf(foolsLanding);
+        if (landing < 0 || boardState.getPawnCount(landing) < players.size()) return false;
 
-        for (Player player : players) {
-            if (player.getPawn().getCurrentLocation() != foolsLanding) {
-                return false;
-            }
-        }
         // Final step is playing Helicopter Lift, this method just checks pre-conditions.
         // 最后一步是打出直升机升空牌，此方法仅检查先决条件。
-        System.out.println("All treasures collected, all players at Fools' Landing. Helicopter Lift needed to win.");
+        for (Treasure treasure : treasures) {
+            if (!treasure.isCollected()) return false;
+        }
         return true;
     }
     
@@ -589,11 +688,36 @@ public class Game implements Serializable {
      * Gets the game board.
      */
     public IslandTile[][] getGameBoard() { return gameBoard; }
-    
+
+    /**
+     * Gets the bitboard view of the game board.
+     * 获取游戏棋盘的位棋盘视图。
+     */
+    public BoardState getBoardState() { return boardState; }
+
+    /**
+     * Gets the Zobrist hash of the current position: tiles, pawns, hands, water level,
+     * current player, actions remaining and phase. Equal positions give equal hashes.
+     * 获取当前局面的 Zobrist 哈希：板块、棋子、手牌、水位、当前玩家、剩余行动数和阶段。相同的局面具有相同的哈希。
+     */
+    public long getStateHash() {
+        return zobristHash.get(waterMeter.getCurrentWaterLevel(), currentPlayerIndex, actionsRemainingInTurn, currentPhase);
+    }
+
     /**
      * Gets an island tile by name.
      */
     public IslandTile getIslandTileByName(String name) { return islandTileMap.get(name); }
+
+    /**
+     * Gets an island tile still on the board by its registry ID.
+     * 按注册表ID获取仍在棋盘上的岛屿板块。
+     * @param id The TileRegistry ID (TileRegistry ID)
+     * @return The tile, or null if it has sunk or the ID is not a standard tile (板块，若已沉没或ID无效则为 null)
+     */
+    public IslandTile getIslandTileById(int id) {
+        return id >= 0 && id < tilesById.length ? tilesById[id] : null;
+    }
     
     /**
      * Gets the list of players.
@@ -650,10 +774,10 @@ public class Game implements Serializable {
     public boolean spendAction() {
         if (actionsRemainingInTurn > 0) {
             actionsRemainingInTurn--;
-            System.out.println("Action spent. Remaining actions: " + actionsRemainingInTurn);
+            GameLog.debug("TURN", "Action spent. Remaining actions: {}", actionsRemainingInTurn);
             return true;
         }
-        System.out.println("No actions remaining to spend.");
+        GameLog.debug("TURN", "No actions remaining to spend.");
         return false;
     }
 
@@ -665,7 +789,7 @@ public class Game implements Serializable {
     public void addActions(int actionsToAdd) {
         if (actionsToAdd > 0) {
             actionsRemainingInTurn += actionsToAdd;
-            System.out.println("Added " + actionsToAdd + " action(s). New total: " + actionsRemainingInTurn);
+            GameLog.debug("TURN", "Added {} action(s). New total: {}", actionsToAdd, actionsRemainingInTurn);
         }
     }
 
@@ -674,53 +798,81 @@ public class Game implements Serializable {
      * 当前玩家根据水位计等级抽取洪水牌。
      */
     public void playerDrawsFloodCards_REVISED() {
+        recordBegin();
+        drawFloodCardsForTurn();
+        recordEnd(ReplayRecorder.DRAW_FLOOD, null);
+    }
+
+    private void drawFloodCardsForTurn() {
         Player currentPlayer = getCurrentPlayer();
         int numToDraw = waterMeter.getNumberOfFloodCardsToDraw();
-        System.out.println(currentPlayer.getName() + " is drawing " + numToDraw + " flood cards (Water Level: " + waterMeter.getCurrentWaterLevel() + ").");
+        GameLog.debug("FLOOD", "{} is drawing {} flood cards (Water Level: {}).", currentPlayer.getName(), numToDraw, waterMeter.getCurrentWaterLevel());
 
         for (int i = 0; i < numToDraw; i++) {
             if (checkGameOverConditions()) return;
 
-            if (floodDeck.isDrawPileEmpty() && floodDeck.getDiscardPileSize() > 0) {
-                System.out.println("Flood draw pile empty, reshuffling discard pile.");
-                floodDeck.reshuffleDiscardIntoDraw();
-            }
-            FloodCard floodCard = floodDeck.drawCard();
-            if (floodCard == null) {
-                System.err.println("Flood deck empty.");
+            // Resolved by the same command the undo journal runs (与撤销日志执行的是同一个命令)
+            FloodDrawCommand draw = new FloodDrawCommand();
+            if (!draw.execute(this)) {
+                GameLog.warn("FLOOD", "Flood deck empty.");
                 break; 
             }
 
-            System.out.println(currentPlayer.getName() + " drew flood card: " + floodCard.getName());
-            IslandTile tileToProcess = islandTileMap.get(floodCard.getIslandTileName()); // Get from map
+            GameLog.info("FLOOD", "{} drew flood card: {}", currentPlayer.getName(), draw.getCard().getName());
+            if (checkGameOverConditions()) return;
+        }
+    }
 
-            if (tileToProcess != null) { // Tile exists in the map (i.e. not yet permanently removed due to sinking for treasure)
-                int[] coords = getTileCoordinates(tileToProcess); // Get its current board coordinates
+    /**
+     * Draws the top flood card, first reshuffling the discard pile if the draw pile is empty.
+     * 摸一张洪水牌；如果摸牌堆为空，先将弃牌堆洗回。
+     * @return The card drawn, or null if there are no flood cards left (摸到的牌，如果没有洪水牌则为 null)
+     */
+    FloodCard drawFloodCard() {
+        if (floodDeck.isDrawPileEmpty() && floodDeck.getDiscardPileSize() > 0) {
+            GameLog.debug("FLOOD", "Flood draw pile empty, reshuffling discard pile.");
+            floodDeck.reshuffleDiscardIntoDraw();
+        }
+        FloodCard card = floodDeck.drawCard();
+        if (card != null && replayRecorder != null) {
+            replayRecorder.cardDrawn(card.getIslandTileId());
+        }
+        return card;
+    }
 
-                if (coords == null) { // Tile is in map, but somehow not on gameBoard (should not happen if map is synced with board)
-                    System.err.println("Tile " + tileToProcess.getName() + " in map but not on board. Card " + floodCard.getName() + " discarded.");
-                    floodDeck.discardCard(floodCard); // Or remove from game if tile really gone
-                    continue;
-                }
+    /**
+     * Floods the tile named by a drawn flood card, or sinks it if it was already flooded.
+     * 淹没洪水牌对应的板块；如果它已被淹没，则使其沉没。
+     * @param floodCard The card just drawn (刚摸到的牌)
+     */
+    void resolveFloodCard(FloodCard floodCard) {
+        IslandTile tileToProcess = getIslandTileById(floodCard.getIslandTileId());
 
-                if (tileToProcess.isFlooded()) {
-                    System.out.println("Tile " + tileToProcess.getName() + " at (" + coords[0] + "," + coords[1] + ") was already flooded. It sinks!");
-                    removeIslandTileFromBoard(tileToProcess); 
-                    // Check for pawns AFTER removal, passing original coords
-                    checkPawnsOnSinkingTiles(tileToProcess, coords[0], coords[1]); 
-                    // Flood card for removed tile is NOT discarded, it's out of play.
-                } else {
-                    System.out.println("Tile " + tileToProcess.getName() + " at (" + coords[0] + "," + coords[1] + ") is now flooded.");
-                    tileToProcess.flood();
-                    floodDeck.discardCard(floodCard);
-                }
+        if (tileToProcess != null) { // Tile exists in the map (i.e. not yet permanently removed due to sinking for treasure)
+            int[] coords = getTileCoordinates(tileToProcess); // Get its current board coordinates
+
+            if (coords == null) { // Tile is in map, but somehow not on gameBoard (should not happen if map is synced with board)
+                GameLog.warn("FLOOD", "Tile {} in map but not on board. Card {} discarded.", tileToProcess.getName(), floodCard.getName());
+                floodDeck.discardCard(floodCard); // Or remove from game if tile really gone
+                return;
+            }
+
+            if (tileToProcess.isFlooded()) {
+                GameLog.info("FLOOD", "Tile {} at ({},{}) was already flooded. It sinks!", tileToProcess.getName(), coords[0], coords[1]);
+                removeIslandTileFromBoard(tileToProcess); 
+                // Check for pawns AFTER removal, passing original coords
+                checkPawnsOnSinkingTiles(tileToProcess, coords[0], coords[1]); 
+                // Flood card for removed tile is NOT discarded, it's out of play.
             } else {
-                // Flood card for a tile that has already permanently sunk (e.g. treasure related loss condition)
-                // or an invalid tile name on card.
-                System.out.println("Flood card " + floodCard.getName() + " targets a tile not in the current game map (likely already sunk or invalid). Card removed from play.");
-                // Card is out of play.
+                GameLog.info("FLOOD", "Tile {} at ({},{}) is now flooded.", tileToProcess.getName(), coords[0], coords[1]);
+                tileToProcess.flood();
+                floodDeck.discardCard(floodCard);
             }
-            if (checkGameOverConditions()) return;
+        } else {
+            // Flood card for a tile that has already permanently sunk (e.g. treasure related loss condition)
+            // or an invalid tile name on card.
+            GameLog.info("FLOOD", "Flood card {} targets a tile not in the current game map (likely already sunk or invalid). Card removed from play.", floodCard.getName());
+            // Card is out of play.
         }
     }
     
@@ -731,23 +883,19 @@ public class Game implements Serializable {
      */
     private void removeIslandTileFromBoard(IslandTile tile) {
         if (tile == null) return;
-        System.out.println("REMOVING TILE: " + tile.getName());
+        GameLog.info("FLOOD", "REMOVING TILE: {}", tile.getName());
         
-        boolean foundAndRemoved = false;
-        for (int r = 0; r < BOARD_DIMENSION; r++) {
-            for (int c = 0; c < BOARD_DIMENSION; c++) {
-                if (gameBoard[r][c] == tile) {
-                    gameBoard[r][c] = null; // Remove from board
-                    foundAndRemoved = true;
-                    break;
-                }
-            }
-            if (foundAndRemoved) break;
-        }
+        int index = boardState.indexOf(tile);
+        boolean foundAndRemoved = index >= 0;
         if (foundAndRemoved) {
+            gameBoard[BoardState.row(index)][BoardState.col(index)] = null; // Remove from board
+            boardState.remove(tile);
+            if (tile.getId() >= 0) tilesById[tile.getId()] = null;
+            TreasureType treasure = tile.getAssociatedTreasure();
+            lossTracker.tileSunk(tile.getId(), treasure != null && isTreasureCollected(treasure));
              islandTileMap.remove(tile.getName()); // Remove from quick lookup
         } else {
-            System.err.println("Attempted to remove tile " + tile.getName() + " but it was not found on the gameBoard array.");
+            GameLog.warn("FLOOD", "Attempted to remove tile {} but it was not found on the gameBoard array.", tile.getName());
             // 尝试移除板块 [板块名称]，但在 gameBoard 数组中未找到它。
             // Still remove from map if it exists there, to be safe.
             // 为安全起见，如果它存在于映射中，则仍从映射中移除。
@@ -757,20 +905,92 @@ public class Game implements Serializable {
         }
     }
     
+    /**
+     * Puts a sunk tile back on its cell. Only used to undo a flood draw.
+     * 将沉没的板块放回其单元格。仅用于撤销一次洪水牌抽取。
+     */
+    void restoreSunkTile(IslandTile tile, int index) {
+        boardState.restore(tile, index);
+        gameBoard[BoardState.row(index)][BoardState.col(index)] = tile;
+        if (tile.getId() >= 0) tilesById[tile.getId()] = tile;
+        islandTileMap.put(tile.getName(), tile);
+    }
+
+    // Save file support for GameCodec (供 GameCodec 存档使用)
+
+    /**
+     * Gets all 24 tiles, sunk ones included, in their original shuffled order.
+     * 获取全部24个板块（包括已沉没的），按最初洗混的顺序。
+     */
+    List<IslandTile> getAllIslandTiles() {
+        return Collections.unmodifiableList(allIslandTilesList);
+    }
+
+    /**
+     * Puts a saved tile on its cell. A sunk tile is placed and removed again, so its cell
+     * stays part of the layout and the hash records it as sunk.
+     * 将存档中的板块放到其单元格上。沉没的板块先放置再移除，使其单元格仍属于布局，且哈希将其记为沉没。
+     */
+    void restoreTile(IslandTile tile, int index, boolean sunk) {
+        allIslandTilesList.add(tile);
+        tile.setAssociatedTreasure(TileRegistry.treasureOf(tile.getId()));
+        if (sunk) {
+            tile.setFlooded(false);
+            boardState.place(tile, BoardState.row(index), BoardState.col(index));
+            boardState.remove(tile);
+            return;
+        }
+        boardState.place(tile, BoardState.row(index), BoardState.col(index));
+        gameBoard[BoardState.row(index)][BoardState.col(index)] = tile;
+        if (tile.getId() >= 0) tilesById[tile.getId()] = tile;
+        islandTileMap.put(tile.getName(), tile);
+    }
+
+    /**
+     * Seats a saved player. Call before giving the player a pawn or cards so the hash sees them.
+     * 让存档中的玩家入座。需在给玩家棋子或卡牌之前调用，以便哈希记录它们。
+     */
+    void restorePlayer(Player player) {
+        player.attachHash(zobristHash, players.size());
+        players.add(player);
+    }
+
+    void restoreCurrentPlayer(int index) {
+        currentPlayerIndex = Math.max(0, Math.min(index, players.size() - 1));
+    }
+
+    /**
+     * Rebuilds the loss tracker from the restored board, then sets the saved outcome on it.
+     * 根据恢复后的棋盘重建失败追踪器，再设置存档中的结局。
+     */
+    void restoreOutcome(GameOverReason reason, TreasureType lostTreasure, Player drownedPlayer) {
+        lossTracker = LossTracker.fromGame(this);
+        lossTracker.restoreOutcome(reason, lostTreasure, drownedPlayer);
+    }
+
+    /**
+     * Gets the random streams in the order they are split from the seed.
+     * 按从种子拆分的顺序获取各随机流。
+     */
+    GameRandom[] getRandomStreams() {
+        return new GameRandom[]{layoutRandom, roleRandom, treasureDeckRandom, floodDeckRandom, swimRandom};
+    }
+
     /**
      * Checks if pawns are on a sinking tile and handles moving them.
      * 检查棋子是否在一个正在沉没的板块上并处理移动它们。
      */
     private void checkPawnsOnSinkingTiles(IslandTile justSunkTile, int r_sunk, int c_sunk) {
+        if (!boardState.isOccupied(BoardState.index(r_sunk, c_sunk))) return; // Nobody standing there (没有棋子在此)
         List<Player> playersToCheck = new ArrayList<>(players);
         for (Player player : playersToCheck) {
             Pawn pawn = player.getPawn();
             if (pawn.getCurrentLocation() == justSunkTile) { // Pawn was on the tile that just sank
-                System.out.println("Pawn of " + player.getName() + " (" + player.getRole().getChineseName() + 
-                                   ") is on the just sunken tile " + justSunkTile.getName() + " (was at " + r_sunk + "," + c_sunk + ") and must swim!");
+                GameLog.info("SWIM", "Pawn of {} ({}) is on the just sunken tile {} (was at {},{}) and must swim!", player.getName(), player.getRole().getChineseName(), justSunkTile.getName(), r_sunk, c_sunk);
                 boolean swamSafely = attemptSwim(player, justSunkTile, r_sunk, c_sunk); // Use overloaded version
                 if (!swamSafely) {
-                    System.out.println(player.getName() + " could not swim to safety! GAME OVER.");
+                    GameLog.info("SWIM", "{} could not swim to safety! GAME OVER.", player.getName());
+                    lossTracker.playerDrowned(player);
                     while(!waterMeter.hasReachedMaxLevel()) waterMeter.increaseWaterLevel();
                     return; 
                 }
@@ -785,15 +1005,9 @@ public class Game implements Serializable {
      * @return An int array [row, col], or null if not found. ([行, 列] 整数数组，如果未找到则为 null)
      */
     public int[] getTileCoordinates(IslandTile tile) {
-        if (tile == null) return null;
-        for (int r = 0; r < BOARD_DIMENSION; r++) {
-            for (int c = 0; c < BOARD_DIMENSION; c++) {
-                if (gameBoard[r][c] == tile) {
-                    return new int[]{r, c};
-                }
-            }
-        }
-        return null; // Should not happen if tile is on board
+        int index = boardState.indexOf(tile);
+        if (index < 0) return null; // Not on the board (or already sunk)
+        return new int[]{BoardState.row(index), BoardState.col(index)};
     }
     
     /**
@@ -814,61 +1028,23 @@ public class Game implements Serializable {
      * @return true if the player swam safely, false if it was impossible
      */
     private boolean attemptSwim(Player player, IslandTile sunkenTile, int r, int c) {
-        System.out.println("Attempting swim for " + player.getName() + " from " + sunkenTile.getName() + " (originally at " + r + "," + c + ")");
+        GameLog.info("SWIM", "Attempting swim for {} from {} (originally at {},{})", player.getName(), sunkenTile.getName(), r, c);
         AdventurerRole role = player.getRole();
         List<IslandTile> swimOptions = new ArrayList<>();
-
-        if (role == AdventurerRole.PILOT) {
-            // Pilot can fly to ANY tile remaining on the board
-            // 飞行员可以飞到棋盘上任何剩余的板块
-            for (IslandTile tile : islandTileMap.values()) {
-                swimOptions.add(tile);
-            }
-        } else {
-            boolean allowDiagonal = (role == AdventurerRole.EXPLORER || role == AdventurerRole.DIVER); // Diver also has special movement
-                                                                                                    // 潜水员也有特殊移动
-            // Get potential neighbors based on original coordinates r, c
-            // 根据原始坐标 r, c 获取潜在邻居
-            int[] dr = {-1, 1, 0, 0, -1, -1, 1, 1}; // Orthogonal + Diagonal
-            int[] dc = {0, 0, -1, 1, -1, 1, -1, 1}; // Orthogonal + Diagonal
-            int limit = allowDiagonal ? 8 : 4;
-
-            for (int i = 0; i < limit; i++) {
-                int nr = r + dr[i];
-                int nc = c + dc[i];
-                if (isValidBoardCoordinate(nr, nc) && gameBoard[nr][nc] != null) {
-                    IslandTile potentialNeighbor = gameBoard[nr][nc];
-                    // We need to check if this potential neighbor is *still on the board* (i.e., in islandTileMap)
-                    // 我们需要检查这个潜在的邻居是否*仍在棋盘上*（即在 islandTileMap 中）
-                    if (potentialNeighbor != null && islandTileMap.containsKey(potentialNeighbor.getName())) {
-                        swimOptions.add(potentialNeighbor);
-                    }
-                }
-            }
-
-            if (role == AdventurerRole.DIVER && swimOptions.isEmpty()) {
-                // Diver can swim to NEAREST tile if no adjacent. This is complex (BFS).
-                // Placeholder: If no direct adjacent, Diver fails for now, or broadens search to all tiles.
-                // 如果没有直接相邻的板块，潜水员目前失败，或将搜索范围扩大到所有板块。
-                System.out.println("Diver " + player.getName() + " found no direct swim spots. True Diver logic (BFS to nearest) not implemented.");
-                 // Fallback: Diver can go to any tile as a simplified 'nearest'
-                 // 后备：潜水员可以去任何板块作为简化的"最近"
-                for (IslandTile tile : islandTileMap.values()) {
-                    if (tile != sunkenTile) swimOptions.add(tile); // Add any other tile
-                }
-            }
-        }
+        // Pilots fly anywhere, Explorers swim diagonally too, Divers swim to the nearest tiles
+        // (飞行员可飞往任意板块，探险家也可斜向游动，潜水员游向最近的板块)
+        boardState.addTiles(boardState.getReachability().swimTargets(role, BoardState.index(r, c)), swimOptions);
 
         if (!swimOptions.isEmpty()) {
             // Player chooses or pick one randomly/first
             // 玩家选择或随机/第一个选择
-            IslandTile destination = swimOptions.get(randomGenerator.nextInt(swimOptions.size()));
+            IslandTile destination = swimOptions.get(swimRandom.nextInt(swimOptions.size()));
             player.getPawn().setCurrentLocation(destination);
-            System.out.println(player.getName() + " (" + role.getChineseName() + ") swam to " + destination.getName());
+            GameLog.info("SWIM", "{} ({}) swam to {}", player.getName(), role.getChineseName(), destination.getName());
             return true;
         }
         
-        System.out.println(player.getName() + " (" + role.getChineseName() + ") found no valid tile to swim to from (" + r + "," + c + ").");
+        GameLog.info("SWIM", "{} ({}) found no valid tile to swim to from ({},{}).", player.getName(), role.getChineseName(), r, c);
         return false;
     }
     
@@ -881,28 +1057,13 @@ public class Game implements Serializable {
      * @return List of valid adjacent IslandTile objects. (有效相邻 IslandTile 对象列表)
      */
     public List<IslandTile> getValidAdjacentTiles(int r, int c, boolean includeDiagonals) {
-        List<IslandTile> adjacentTiles = new ArrayList<>();
-        int[] dr = {-1, 1, 0, 0}; // Changes in row for Up, Down
-        int[] dc = {0, 0, -1, 1}; // Changes in col for Left, Right
-
-        for (int i = 0; i < 4; i++) { // Orthogonal first
-            int nr = r + dr[i];
-            int nc = c + dc[i];
-            if (isValidBoardCoordinate(nr, nc) && gameBoard[nr][nc] != null) {
-                adjacentTiles.add(gameBoard[nr][nc]);
-            }
-        }
-
+        List<IslandTile> adjacentTiles = new ArrayList<>(includeDiagonals ? 8 : 4);
+        if (!isValidBoardCoordinate(r, c)) return adjacentTiles;
+        int index = BoardState.index(r, c);
+        long present = boardState.getPresentMask();
+        boardState.addTiles(BoardState.getOrthogonalMask(index) & present, adjacentTiles); // Orthogonal first
         if (includeDiagonals) {
-            int[] ddr = {-1, -1, 1, 1}; // Diagonal rows
-            int[] ddc = {-1, 1, -1, 1}; // Diagonal columns
-            for (int i = 0; i < 4; i++) {
-                int nr = r + ddr[i];
-                int nc = c + ddc[i];
-                if (isValidBoardCoordinate(nr, nc) && gameBoard[nr][nc] != null) {
-                    adjacentTiles.add(gameBoard[nr][nc]);
-                }
-            }
+            boardState.addTiles(BoardState.getDiagonalMask(index) & present, adjacentTiles);
         }
         return adjacentTiles;
     }
@@ -914,23 +1075,23 @@ public class Game implements Serializable {
     public void runTurn() {
         if (checkGameOverConditions() || checkWinConditions()) { // Check win if Helicopter played as action
             // 检查是否因行动打出直升机升空牌而获胜
-            System.out.println("Game has ended.");
+            GameLog.info("TURN", "Game has ended.");
             return;
         }
 
         Player turnPlayer = getCurrentPlayer();
-        System.out.println("Player " + turnPlayer.getName() + " takes up to 3 actions.");
+        GameLog.debug("TURN", "Player {} takes up to 3 actions.", turnPlayer.getName());
         // UI would handle action choices. For now, simulate or skip.
         // UI将处理行动选择。目前，模拟或跳过。
         // e.g., turnPlayer.takeActions(this);
 
-        System.out.println(turnPlayer.getName() + " draws 2 Treasure Cards.");
+        GameLog.debug("TURN", "{} draws 2 Treasure Cards.", turnPlayer.getName());
         playerDrawsTreasureCards();
-        if (checkGameOverConditions()) { System.out.println("Game Over after treasure draw."); return; }
+        if (checkGameOverConditions()) { GameLog.info("TURN", "Game Over after treasure draw."); return; }
 
-        System.out.println(turnPlayer.getName() + " draws Flood Cards.");
+        GameLog.debug("TURN", "{} draws Flood Cards.", turnPlayer.getName());
         playerDrawsFloodCards_REVISED(); 
-        if (checkGameOverConditions()) { System.out.println("Game Over after flood draw."); return; }
+        if (checkGameOverConditions()) { GameLog.info("TURN", "Game Over after flood draw."); return; }
 
         nextTurn();
     }
@@ -939,16 +1100,33 @@ public class Game implements Serializable {
              ObjectOutputStream out = new ObjectOutputStream(fileOut)) {
             out.writeObject(this);
         } catch (IOException e) {
-            System.err.println("保存游戏时出错: " + e.getMessage());
+            GameLog.error("SAVE", "保存游戏时出错: {}", e.getMessage());
         }
     }
     public void endTurn() {
         // 实现结束回合的逻辑，例如切换到下一个玩家
-        currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
-        resetActions(); // Also reset actions here as it's part of ending a turn in some contexts
-        getCurrentPlayer().resetTurnBasedAbilities();
-        currentPhase = GamePhase.ACTION_PHASE;
-        System.out.println("--- It is now " + getCurrentPlayer().getName() + "'s turn (" + getCurrentPlayer().getRole().getChineseName() + ") ---");
+        new EndTurnCommand().execute(this); // same effect as nextTurn (与 nextTurn 效果相同)
+        GameLog.info("TURN", "--- It is now {}'s turn ({}) ---", getCurrentPlayer().getName(), getCurrentPlayer().getRole().getChineseName());
+    }
+
+    /**
+     * Gets the number of turns completed since the game started.
+     * 获取开局以来已完成的回合数。
+     */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    void restoreTurnNumber(int turns) {
+        this.turnNumber = turns;
+    }
+
+    /**
+     * Puts back the phase an undone command started in, without recording a phase change.
+     * 恢复被撤销命令开始时的阶段，不记录阶段变化。
+     */
+    void restorePhase(GamePhase phase) {
+        this.currentPhase = phase;
     }
 
     // GamePhase Getters/Setters (Added from local)
@@ -957,7 +1135,58 @@ public class Game implements Serializable {
     }
 
     public void setCurrentPhase(GamePhase currentPhase) {
+        recordBegin();
         this.currentPhase = currentPhase;
+        recordEnd(ReplayRecorder.PHASE, out -> out.writeByte(currentPhase.ordinal()));
+    }
+
+    // --- Replay recording (回放记录) ---
+
+    /**
+     * Gets the recorder this game reports its actions to, or null if it is not being recorded.
+     * 获取此游戏报告其动作的记录器；未被记录时为 null。
+     */
+    public ReplayRecorder getReplayRecorder() {
+        return replayRecorder;
+    }
+
+    void setReplayRecorder(ReplayRecorder recorder) {
+        this.replayRecorder = recorder;
+    }
+
+    private void recordBegin() {
+        if (replayRecorder != null) replayRecorder.begin();
+    }
+
+    private void recordEnd(int tag, ReplayRecorder.Payload payload) {
+        if (replayRecorder != null) replayRecorder.end(tag, payload);
+    }
+
+    // --- Command tracking (命令跟踪) ---
+
+    /**
+     * Marks the start of a command.
+     * 标记一条命令的开始。
+     * @return true if no other command is running, so this one is a step of its own (没有其他命令在运行时返回 true，即本命令是独立的一步)
+     */
+    boolean enterCommand() {
+        return commandDepth++ == 0;
+    }
+
+    void exitCommand() {
+        commandDepth--;
+    }
+
+    /**
+     * Gets the journal that records every command run on this game, or null.
+     * 获取记录本游戏上运行的每条命令的日志，没有则为 null。
+     */
+    CommandJournal getAttachedJournal() {
+        return attachedJournal;
+    }
+
+    void setAttachedJournal(CommandJournal journal) {
+        this.attachedJournal = journal;
     }
 
     /**
@@ -966,38 +1195,20 @@ public class Game implements Serializable {
      * @param selectedRoles List of pre-selected roles for the players.
      */
     private void assignAdventurersAndStartingPositionsWithSelectedRoles(List<AdventurerRole> selectedRoles) {
-        Map<AdventurerRole, String> roleToStartingTileName = Map.of(
-            AdventurerRole.PILOT, "Fools' Landing",
-            AdventurerRole.NAVIGATOR, "Gold Gate",
-            AdventurerRole.MESSENGER, "Silver Gate",
-            AdventurerRole.DIVER, "Iron Gate",
-            AdventurerRole.EXPLORER, "Copper Gate",
-            AdventurerRole.ENGINEER, "Bronze Gate",
-            AdventurerRole.ARCHAEOLOGIST, "Misty Marsh"
-        );
-        Map<AdventurerRole, String> roleToPawnColor = Map.of(
-            AdventurerRole.PILOT, "Blue", 
-            AdventurerRole.NAVIGATOR, "Yellow",
-            AdventurerRole.MESSENGER, "White", 
-            AdventurerRole.DIVER, "Black",
-            AdventurerRole.EXPLORER, "Green", 
-            AdventurerRole.ENGINEER, "Red",
-            AdventurerRole.ARCHAEOLOGIST, "Purple"
-        );
-
         for (int i = 0; i < players.size() && i < selectedRoles.size(); i++) {
             Player player = players.get(i);
             AdventurerRole assignedRole = selectedRoles.get(i);
-            String startingTileName = roleToStartingTileName.get(assignedRole);
-            String pawnColor = roleToPawnColor.get(assignedRole);
-            IslandTile startingTile = islandTileMap.get(startingTileName);
+            int startingTileId = TileRegistry.startingTileOf(assignedRole);
+            String startingTileName = TileRegistry.nameOf(startingTileId);
+            String pawnColor = TileRegistry.pawnColorOf(assignedRole);
+            IslandTile startingTile = getIslandTileById(startingTileId);
 
             if (startingTile == null) {
-                System.err.println("CRITICAL Error: Starting tile '" + startingTileName + "' for " + assignedRole + " not found on the board! Game setup failed.");
+                GameLog.error("SETUP", "CRITICAL Error: Starting tile '{}' for {} not found on the board! Game setup failed.", startingTileName, assignedRole);
                 for(IslandTile t : allIslandTilesList) {
-                    if(t.getName().equals(startingTileName)) {
+                    if(t.getId() == startingTileId) {
                         startingTile = t;
-                        System.err.println("Found starting tile '" + startingTileName + "' in master list, but it was not on gameBoard. Check layout.");
+                        GameLog.warn("SETUP", "Found starting tile '{}' in master list, but it was not on gameBoard. Check layout.", startingTileName);
                         break;
                     }
                 }
@@ -1010,17 +1221,16 @@ public class Game implements Serializable {
             player.resetTurnBasedAbilities(); // Initialize turn-based abilities state
             
             if (gameBoardContains(startingTile)) { 
-                findTileOnBoard(startingTile.getName()).setStartingTileForPlayer(true);
+                startingTile.setStartingTileForPlayer(true);
             }
 
-            System.out.println(player.getName() + " is the " + assignedRole.name() + 
-                               " (" + assignedRole.getDescription() + 
-                               ") starting at " + startingTile.getName() + 
-                               " with a " + pawnColor + " pawn.");
+            GameLog.info("SETUP", "{} is the {} ({}) starting at {} with a {} pawn.", player.getName(), assignedRole.name(), assignedRole.getDescription(), startingTile.getName(), pawnColor);
         }
         this.actionsRemainingInTurn = MAX_ACTIONS_PER_TURN; // Initialize for the first player
     }
 
     public Deck<Card> getTreasureDeck() { return treasureDeck; }
+
+    Deck<FloodCard> getFloodDeck() { return floodDeck; }
 }
  
\ No newline at end of file
@@ -0,0 +1,468 @@
+package com.forbiddenisland.model;
+
+import com.forbiddenisland.log.GameLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary save format for {@link Game}, used instead of Java serialization.
+ * Tiles are written as registry IDs with flag bits, decks as card-ID sequences, hands as a
+ * count followed by card IDs, and small numbers as single bytes. A file is:
+ * <pre>
+ * magic "FISV" | format version (1 byte) | body length (int) | body | CRC32 of body (int)
+ * </pre>
+ * Class layouts are not stored, so renaming or adding fields to the model classes does not
+ * break old saves; a change to the body layout bumps {@link #FORMAT_VERSION} and the reader
+ * keeps a branch for each older version. Version 2 starts the body with the save time and
+ * turn number, which {@link #readSummary} reads along with the players without building a game.
+ * Version 3 writes the number of random streams before their states, and the reader rejects a
+ * count the game does not have.
+ * {@link Game} 的紧凑二进制存档格式，用于替代 Java 序列化。
+ * 板块写为注册表ID加标志位，牌堆写为卡牌ID序列，手牌写为数量加卡牌ID，小数值写为单字节。
+ * 不保存类结构，因此重命名或新增模型字段不会破坏旧存档；正文布局改变时提升 {@link #FORMAT_VERSION}，
+ * 读取端为每个旧版本保留一个分支。版本 2 在正文开头写入保存时间和回合数，{@link #readSummary} 无需构建游戏即可连同玩家信息一起读取。
+ * 版本 3 在随机流状态之前写入随机流数量，读取端拒绝游戏中不存在的数量。
+ */
+public final class GameCodec {
+
+    public static final int FORMAT_VERSION = 3;
+    public static final String FILE_EXTENSION = ".fis";
+
+    private static final byte[] MAGIC = {'F', 'I', 'S', 'V'};
+    private static final int NONE = 0xFF; // absent tile, role, phase or seat (无板块、角色、阶段或座位)
+    private static final int VERSION_2_STREAM_COUNT = 5; // versions 1 and 2 do not store the count (版本 1 和 2 不保存数量)
+
+    // Tile flag bits (板块标志位)
+    private static final int TILE_FLOODED = 1;
+    private static final int TILE_SUNK = 1 << 1;
+    private static final int TILE_STARTING = 1 << 2;
+
+    // Player flag bits (玩家标志位)
+    private static final int PLAYER_PILOT_FLIGHT_USED = 1;
+
+    // Treasure card IDs: 5 numbered cards per treasure, then the special cards (宝藏卡ID：每种宝藏5张编号卡，然后是特殊卡)
+    private static final int CARDS_PER_TREASURE = 5;
+    private static final int HELICOPTER_LIFT = TreasureType.values().length * CARDS_PER_TREASURE;
+    private static final int SANDBAGS = HELICOPTER_LIFT + 1;
+    private static final int WATERS_RISE = HELICOPTER_LIFT + 2;
+
+    private GameCodec() {
+    }
+
+    /**
+     * Writes a game to a file in the compact format.
+     * 以紧凑格式将游戏写入文件。
+     * @return true if the file was written (文件写入成功时为 true)
+     */
+    public static boolean save(Game game, String filePath) {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filePath))) {
+            write(game, out);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            GameLog.error("SAVE", "Could not save game to {}: {}", filePath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reads a game saved by {@link #save}.
+     * 读取由 {@link #save} 保存的游戏。
+     * @return The game, or null if the file is missing, damaged or from a newer version (游戏；文件缺失、损坏或版本更新时为 null)
+     */
+    public static Game load(String filePath) {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(filePath))) {
+            return read(in);
+        } catch (IOException | RuntimeException e) {
+            GameLog.error("LOAD", "Could not load game from {}: {}", filePath, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether a file starts with this format's magic bytes.
+     * 检查文件是否以本格式的魔数开头。
+     */
+    public static boolean isCompactSave(String filePath) {
+        try (InputStream in = new FileInputStream(filePath)) {
+            byte[] head = in.readNBytes(MAGIC.length);
+            return Arrays.equals(head, MAGIC);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Encodes a game to a byte array.
+     * 将游戏编码为字节数组。
+     */
+    public static byte[] encode(Game game) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try {
+            write(game, bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream does not throw (ByteArrayOutputStream 不会抛出异常)
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a game from a byte array.
+     * 从字节数组解码游戏。
+     * @throws IOException if the data is damaged or from a newer version (数据损坏或版本更新时抛出)
+     */
+    public static Game decode(byte[] data) throws IOException {
+        return read(new ByteArrayInputStream(data));
+    }
+
+    public static void write(Game game, OutputStream target) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+        writeBody(game, new DataOutputStream(body));
+        byte[] bytes = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        DataOutputStream out = new DataOutputStream(target);
+        out.write(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeInt((int) crc.getValue());
+        out.flush();
+    }
+
+    public static Game read(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(source);
+        int version = readVersion(in);
+        return readBody(new DataInputStream(new ByteArrayInputStream(readCheckedBody(in))), version);
+    }
+
+    /**
+     * Reads what the save browser needs from a compact save without building the game.
+     * 在不构建游戏的情况下，从紧凑存档中读取存档浏览器所需的信息。
+     * @throws IOException if the file is not a compact save or is damaged (文件不是紧凑存档或已损坏时抛出)
+     */
+    public static SaveSummary readSummary(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)));
+        int version = readVersion(in);
+        DataInputStream body = new DataInputStream(new ByteArrayInputStream(readCheckedBody(in)));
+        return readSummaryBody(body, version, file.getFileName().toString(),
+                Files.getLastModifiedTime(file).toMillis());
+    }
+
+    private static int readVersion(DataInputStream in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("not a Forbidden Island save file");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("unsupported save format version " + version);
+        }
+        return version;
+    }
+
+    private static byte[] readCheckedBody(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > (1 << 20)) {
+            throw new IOException("corrupt save file: bad length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        if ((int) crc.getValue() != in.readInt()) {
+            throw new IOException("corrupt save file: checksum mismatch");
+        }
+        return bytes;
+    }
+
+    // --- Body, format versions 1 to 3 (正文，格式版本 1 至 3) ---
+
+    private static void writeBody(Game game, DataOutputStream out) throws IOException {
+        // Version 2: summary fields first (版本 2：摘要字段在前)
+        out.writeLong(System.currentTimeMillis());
+        out.writeShort(game.getTurnNumber());
+
+        out.writeLong(game.getSeed());
+        GameRandom[] streams = game.getRandomStreams();
+        out.writeByte(streams.length); // version 3 (版本 3)
+        for (GameRandom stream : streams) {
+            out.writeLong(stream.getState());
+        }
+        out.writeByte(game.getWaterMeter().getCurrentWaterLevel());
+
+        List<IslandTile> tiles = game.getAllIslandTiles();
+        out.writeByte(tiles.size());
+        BoardState board = game.getBoardState();
+        for (IslandTile tile : tiles) {
+            boolean sunk = !board.contains(tile);
+            int flags = (tile.isFlooded() && !sunk ? TILE_FLOODED : 0)
+                    | (sunk ? TILE_SUNK : 0)
+                    | (tile.isStartingTileForPlayer() ? TILE_STARTING : 0);
+            out.writeByte(tile.getId());
+            out.writeByte(tile.getBoardIndex());
+            out.writeByte(flags);
+        }
+
+        int collected = 0;
+        for (Treasure treasure : game.getTreasures()) {
+            if (treasure.isCollected()) collected |= 1 << treasure.getType().ordinal();
+        }
+        out.writeByte(collected);
+
+        List<Player> players = game.getPlayers();
+        out.writeByte(players.size());
+        for (Player player : players) {
+            out.writeUTF(player.getName());
+            out.writeByte(player.getRole() == null ? NONE : player.getRole().ordinal());
+            out.writeByte(player.getPawn() == null ? NONE : player.getPawn().getCurrentTileId() & 0xFF);
+            out.writeByte(player.isPilotAbilityUsedThisTurn() ? PLAYER_PILOT_FLIGHT_USED : 0);
+            writeTreasureCards(out, player.getHand());
+            out.writeByte(player.getCollectedTreasures().size());
+            for (TreasureType type : player.getCollectedTreasures()) {
+                out.writeByte(type.ordinal());
+            }
+        }
+        out.writeByte(players.indexOf(game.getCurrentPlayer()));
+        out.writeByte(game.getActionsRemainingInTurn());
+        out.writeByte(game.getCurrentPhase() == null ? NONE : game.getCurrentPhase().ordinal());
+
+        writeTreasureCards(out, game.getTreasureDeck().getDrawPile());
+        writeTreasureCards(out, game.getTreasureDeck().getDiscardPile());
+        writeFloodCards(out, game.getFloodDeck().getDrawPile());
+        writeFloodCards(out, game.getFloodDeck().getDiscardPile());
+
+        GameOverReason reason = game.getGameOverReason();
+        out.writeByte(reason == null ? NONE : reason.ordinal());
+        out.writeByte(game.getLostTreasure() == null ? NONE : game.getLostTreasure().ordinal());
+        out.writeByte(game.getDrownedPlayer() == null ? NONE : players.indexOf(game.getDrownedPlayer()));
+    }
+
+    private static Game readBody(DataInputStream in, int version) throws IOException {
+        int turnNumber = 0;
+        if (version >= 2) {
+            in.readLong(); // save time, only shown by the save browser (保存时间，仅供存档浏览器显示)
+            turnNumber = in.readUnsignedShort();
+        }
+        long seed = in.readLong();
+        long[] streamStates = new long[version >= 3 ? in.readUnsignedByte() : VERSION_2_STREAM_COUNT];
+        for (int i = 0; i < streamStates.length; i++) {
+            streamStates[i] = in.readLong();
+        }
+        int waterLevel = in.readUnsignedByte();
+        Game game = new Game(seed, waterLevel);
+        GameRandom[] streams = game.getRandomStreams();
+        if (streamStates.length != streams.length) {
+            throw new IOException("corrupt save file: " + streamStates.length + " random streams, expected " + streams.length);
+        }
+
+        int tileCount = in.readUnsignedByte();
+        for (int i = 0; i < tileCount; i++) {
+            int id = in.readUnsignedByte();
+            int index = in.readUnsignedByte();
+            int flags = in.readUnsignedByte();
+            if (id >= TileRegistry.TILE_COUNT || index >= BoardState.CELLS) {
+                throw new IOException("corrupt save file: tile " + id + " at cell " + index);
+            }
+            IslandTile tile = new IslandTile(TileRegistry.nameOf(id));
+            tile.setFlooded((flags & TILE_FLOODED) != 0);
+            tile.setStartingTileForPlayer((flags & TILE_STARTING) != 0);
+            game.restoreTile(tile, index, (flags & TILE_SUNK) != 0);
+        }
+
+        int collected = in.readUnsignedByte();
+        for (Treasure treasure : game.getTreasures()) {
+            if ((collected & (1 << treasure.getType().ordinal())) != 0) treasure.setCollected();
+        }
+
+        int playerCount = in.readUnsignedByte();
+        for (int i = 0; i < playerCount; i++) {
+            Player player = new Player(in.readUTF());
+            game.restorePlayer(player);
+            int role = in.readUnsignedByte();
+            int tileId = in.readUnsignedByte();
+            int flags = in.readUnsignedByte();
+            if (role != NONE) {
+                AdventurerRole adventurer = enumAt(AdventurerRole.values(), role);
+                player.assignRoleAndPawn(adventurer, tileOf(game, tileId), TileRegistry.pawnColorOf(adventurer));
+            }
+            player.setPilotAbilityUsedThisTurn((flags & PLAYER_PILOT_FLIGHT_USED) != 0);
+            for (Card card : readTreasureCards(in)) {
+                player.addCardToHand(card);
+            }
+            int treasures = in.readUnsignedByte();
+            for (int t = 0; t < treasures; t++) {
+                player.addCollectedTreasure(enumAt(TreasureType.values(), in.readUnsignedByte()));
+            }
+        }
+        game.restoreCurrentPlayer(in.readUnsignedByte());
+        game.setActionsRemainingInTurn(in.readUnsignedByte());
+        int phase = in.readUnsignedByte();
+        game.setCurrentPhase(phase == NONE ? null : enumAt(Game.GamePhase.values(), phase));
+
+        game.getTreasureDeck().restoreDrawPile(readTreasureCards(in));
+        game.getTreasureDeck().restoreDiscardPile(readTreasureCards(in));
+        game.getFloodDeck().restoreDrawPile(readFloodCards(in));
+        game.getFloodDeck().restoreDiscardPile(readFloodCards(in));
+
+        int reason = in.readUnsignedByte();
+        int lostTreasure = in.readUnsignedByte();
+        int drowned = in.readUnsignedByte();
+        game.restoreOutcome(reason == NONE ? null : enumAt(GameOverReason.values(), reason),
+                lostTreasure == NONE ? null : enumAt(TreasureType.values(), lostTreasure),
+                drowned < playerCount ? game.getPlayers().get(drowned) : null);
+        game.restoreTurnNumber(turnNumber);
+
+        // Last, so nothing above can move the streams (最后恢复，以免上面的步骤推进随机流)
+        for (int i = 0; i < streams.length; i++) {
+            streams[i].setState(streamStates[i]);
+        }
+        return game;
+    }
+
+    /**
+     * Reads the same layout as {@link #readBody}, keeping the summary fields and skipping the rest.
+     */
+    private static SaveSummary readSummaryBody(DataInputStream in, int version, String fileName, long modified)
+            throws IOException {
+        long savedAt = modified;
+        int turn = SaveSummary.UNKNOWN_TURN;
+        if (version >= 2) {
+            savedAt = in.readLong();
+            turn = in.readUnsignedShort();
+        }
+        in.skipNBytes(Long.BYTES); // seed (种子)
+        int streamCount = version >= 3 ? in.readUnsignedByte() : VERSION_2_STREAM_COUNT;
+        in.skipNBytes((long) streamCount * Long.BYTES); // random streams (随机流)
+        int waterLevel = in.readUnsignedByte();
+        in.skipNBytes(3L * in.readUnsignedByte()); // tiles (板块)
+        int collected = in.readUnsignedByte();
+
+        int playerCount = in.readUnsignedByte();
+        List<String> names = new ArrayList<>(playerCount);
+        List<AdventurerRole> roles = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            names.add(in.readUTF());
+            int role = in.readUnsignedByte();
+            roles.add(role == NONE ? null : enumAt(AdventurerRole.values(), role));
+            in.skipNBytes(2); // pawn tile and flags (棋子板块和标志)
+            in.skipNBytes(in.readUnsignedByte()); // hand (手牌)
+            in.skipNBytes(in.readUnsignedByte()); // collected treasures (已获得的宝藏)
+        }
+        in.skipNBytes(3); // current seat, actions, phase (当前座位、行动点、阶段)
+        for (int pile = 0; pile < 4; pile++) {
+            in.skipNBytes(in.readUnsignedByte());
+        }
+        int reason = in.readUnsignedByte();
+        return new SaveSummary(fileName, true, savedAt, turn, waterLevel, collected, names, roles,
+                reason == NONE ? null : enumAt(GameOverReason.values(), reason));
+    }
+
+    /**
+     * Finds a tile by ID whether or not it has sunk; a drowned pawn can still stand on a sunk tile.
+     */
+    private static IslandTile tileOf(Game game, int tileId) {
+        for (IslandTile tile : game.getAllIslandTiles()) {
+            if (tile.getId() == tileId) return tile;
+        }
+        return null;
+    }
+
+    private static void writeTreasureCards(DataOutputStream out, List<? extends Card> cards) throws IOException {
+        out.writeByte(cards.size());
+        for (Card card : cards) {
+            out.writeByte(treasureCardId(card));
+        }
+    }
+
+    private static List<Card> readTreasureCards(DataInputStream in) throws IOException {
+        int count = in.readUnsignedByte();
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(treasureCard(in.readUnsignedByte()));
+        }
+        return cards;
+    }
+
+    private static void writeFloodCards(DataOutputStream out, List<FloodCard> cards) throws IOException {
+        out.writeByte(cards.size());
+        for (FloodCard card : cards) {
+            out.writeByte(card.getIslandTileId());
+        }
+    }
+
+    private static List<FloodCard> readFloodCards(DataInputStream in) throws IOException {
+        int count = in.readUnsignedByte();
+        List<FloodCard> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = in.readUnsignedByte();
+            if (id >= TileRegistry.TILE_COUNT) throw new IOException("corrupt save file: flood card " + id);
+            cards.add(new FloodCard(TileRegistry.nameOf(id)));
+        }
+        return cards;
+    }
+
+    /**
+     * Maps a treasure-deck card to its ID. Numbered treasure cards keep their number, so a
+     * loaded "EARTH Card 3" is still card 3.
+     */
+    static int treasureCardId(Card card) {
+        if (card instanceof TreasureCard) {
+            int number = cardNumber(card.getName());
+            return ((TreasureCard) card).getTreasureType().ordinal() * CARDS_PER_TREASURE + number - 1;
+        }
+        if (card instanceof HelicopterLiftCard) return HELICOPTER_LIFT;
+        if (card instanceof SandbagsCard) return SANDBAGS;
+        if (card instanceof WatersRiseCard) return WATERS_RISE;
+        throw new IllegalArgumentException("card cannot be saved: " + card.getName());
+    }
+
+    static Card treasureCard(int id) throws IOException {
+        if (id < HELICOPTER_LIFT) {
+            TreasureType type = enumAt(TreasureType.values(), id / CARDS_PER_TREASURE);
+            // Same naming as Game.initializeTreasureDeck (与 Game.initializeTreasureDeck 的命名一致)
+            return new TreasureCard(type.toString() + " Card " + (id % CARDS_PER_TREASURE + 1), type);
+        }
+        if (id == HELICOPTER_LIFT) return new HelicopterLiftCard();
+        if (id == SANDBAGS) return new SandbagsCard();
+        if (id == WATERS_RISE) return new WatersRiseCard();
+        throw new IOException("corrupt save file: card " + id);
+    }
+
+    private static int cardNumber(String name) {
+        int space = name == null ? -1 : name.lastIndexOf(' ');
+        if (space >= 0) {
+            try {
+                int number = Integer.parseInt(name.substring(space + 1));
+                if (number >= 1 && number <= CARDS_PER_TREASURE) return number;
+            } catch (NumberFormatException e) {
+                // not a numbered card; fall through (不是编号卡；继续)
+            }
+        }
+        return 1;
+    }
+
+    private static <E> E enumAt(E[] values, int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IOException("corrupt save file: value " + ordinal + " out of range");
+        }
+        return values[ordinal];
+    }
+}
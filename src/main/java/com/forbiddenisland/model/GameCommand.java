@@ -0,0 +1,239 @@
+package com.forbiddenisland.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A reversible change to a game. Executing a command records only what it is about to
+ * change (tile IDs, earlier flags, where cards came from), so undoing it is a handful of
+ * field writes instead of a copy of the whole game. Commands are run through a
+ * {@link CommandJournal}, which keeps the undo and redo history.
+ * 对游戏的一次可撤销修改。执行命令时只记录即将改变的内容（板块ID、之前的标志、卡牌来源），
+ * 因此撤销只需几次字段写入，而不必复制整个游戏。命令通过 {@link CommandJournal} 执行，由其保存撤销和重做历史。
+ */
+public abstract class GameCommand {
+
+    // Replay record types (回放记录类型)
+    static final int MOVE = 1;
+    static final int SHORE_UP = 2;
+    static final int GIVE_CARD = 3;
+    static final int CAPTURE_TREASURE = 4;
+    static final int HELICOPTER_LIFT = 5;
+    static final int SANDBAGS = 6;
+    static final int FLOOD_DRAW = 7;
+    static final int WATERS_RISE = 8;
+    private static final int NO_TILE = 0xFF;
+
+    private boolean executed;
+
+    GameCommand() {
+    }
+
+    /**
+     * Applies the command if it is legal in the game's current state.
+     * 如果命令在游戏当前状态下合法，则执行它。
+     * @param game The game to change (要修改的游戏)
+     * @return true if the game was changed, false if the command was not legal and nothing changed (游戏被修改则为 true；命令不合法且未作任何修改则为 false)
+     */
+    public final boolean execute(Game game) {
+        if (executed) {
+            throw new IllegalStateException("Command already executed: " + describe());
+        }
+        ReplayRecorder recorder = game.getReplayRecorder();
+        if (recorder != null) recorder.begin();
+        boolean outermost = game.enterCommand();
+        try {
+            executed = apply(game);
+        } finally {
+            game.exitCommand();
+        }
+        if (recorder != null) {
+            if (executed) {
+                recorder.end(replayTag(), out -> writeReplay(out, game));
+            } else {
+                recorder.cancel();
+            }
+        }
+        CommandJournal journal = game.getAttachedJournal();
+        if (executed && outermost && journal != null) {
+            journal.recordExecuted(this); // a command run by another one is undone by it (由其他命令运行的命令随其撤销)
+        }
+        return executed;
+    }
+
+    /**
+     * Reverses an executed command. Commands executed after this one must be undone first.
+     * 撤销一条已执行的命令。在它之后执行的命令必须先被撤销。
+     * @param game The game the command was executed on (执行该命令的游戏)
+     */
+    public final void undo(Game game) {
+        if (!executed) {
+            throw new IllegalStateException("Command not executed: " + describe());
+        }
+        ReplayRecorder recorder = game.getReplayRecorder();
+        if (recorder != null) recorder.begin();
+        revert(game);
+        executed = false;
+        if (recorder != null) recorder.end(ReplayRecorder.UNDO, null);
+    }
+
+    public boolean isExecuted() {
+        return executed;
+    }
+
+    /**
+     * Checks the command, records what it will change and applies it.
+     * 检查命令，记录将要改变的内容并执行。
+     * @return false without changing anything if the command is not legal (命令不合法时返回 false 且不作任何修改)
+     */
+    abstract boolean apply(Game game);
+
+    /**
+     * Puts back everything {@link #apply} recorded.
+     * 恢复 {@link #apply} 记录的所有内容。
+     */
+    abstract void revert(Game game);
+
+    /**
+     * Gets a short description for logs and the undo button.
+     * 获取用于日志和撤销按钮的简短描述。
+     */
+    public abstract String describe();
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+
+    /**
+     * Gets the replay record tag. Player actions are COMMAND records, read back by
+     * {@link #readReplay}; the turn's draws, discards and turn change keep their own records.
+     * 获取回放记录标签。玩家行动为 COMMAND 记录，由 {@link #readReplay} 读回；回合中的摸牌、弃牌和换人保留各自的记录。
+     */
+    int replayTag() {
+        return ReplayRecorder.COMMAND;
+    }
+
+    /**
+     * Writes the command for a replay log, after it has been applied: a type byte, then seats,
+     * tile IDs and the hand positions cards were played from. Commands with their own
+     * {@link #replayTag} write only that record's fields.
+     * 在命令执行后将其写入回放日志：类型字节，然后是座位、板块ID和卡牌打出时的手牌位置。
+     * 使用自己 {@link #replayTag} 的命令只写入该记录的字段。
+     */
+    abstract void writeReplay(DataOutput out, Game game) throws IOException;
+
+    /**
+     * Reads a command written by {@link #writeReplay}, resolving seats, tiles and cards
+     * against the game it is about to be executed on.
+     * 读取由 {@link #writeReplay} 写入的命令，并根据即将执行它的游戏解析座位、板块和卡牌。
+     * @throws IOException if the record is damaged or does not fit the game (记录损坏或与游戏不符时抛出)
+     */
+    static GameCommand readReplay(DataInput in, Game game) throws IOException {
+        int type = in.readUnsignedByte();
+        if (type == MOVE) {
+            return new MoveCommand(seat(game, in.readUnsignedByte()), tile(game, in.readUnsignedByte()));
+        }
+        if (type == SHORE_UP) {
+            Player player = seat(game, in.readUnsignedByte());
+            IslandTile first = tile(game, in.readUnsignedByte());
+            int second = in.readUnsignedByte();
+            return new ShoreUpCommand(player, first, second == NO_TILE ? null : tile(game, second));
+        }
+        if (type == GIVE_CARD) {
+            Player giver = seat(game, in.readUnsignedByte());
+            Player recipient = seat(game, in.readUnsignedByte());
+            return new GiveCardCommand(giver, recipient, handCard(giver, in.readUnsignedByte(), TreasureCard.class));
+        }
+        if (type == CAPTURE_TREASURE) {
+            return new CaptureTreasureCommand(seat(game, in.readUnsignedByte()));
+        }
+        if (type == HELICOPTER_LIFT) {
+            Player holder = seat(game, in.readUnsignedByte());
+            HelicopterLiftCard card = handCard(holder, in.readUnsignedByte(), HelicopterLiftCard.class);
+            int count = in.readUnsignedByte();
+            List<Player> passengers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                passengers.add(seat(game, in.readUnsignedByte()));
+            }
+            return new HelicopterLiftCommand(holder, card, passengers, tile(game, in.readUnsignedByte()));
+        }
+        if (type == SANDBAGS) {
+            Player holder = seat(game, in.readUnsignedByte());
+            SandbagsCard card = handCard(holder, in.readUnsignedByte(), SandbagsCard.class);
+            return new SandbagsCommand(holder, card, tile(game, in.readUnsignedByte()));
+        }
+        if (type == FLOOD_DRAW) {
+            return new FloodDrawCommand();
+        }
+        if (type == WATERS_RISE) {
+            return new WatersRiseCommand(new WatersRiseCard()); // the three cards are interchangeable (三张牌可以互换)
+        }
+        throw new IOException("unknown command type " + type);
+    }
+
+    static int seatOf(Game game, Player player) {
+        return game.getPlayers().indexOf(player);
+    }
+
+    static int tileIdOf(IslandTile tile) {
+        return tile == null ? NO_TILE : tile.getId();
+    }
+
+    private static Player seat(Game game, int seat) throws IOException {
+        if (seat >= game.getPlayers().size()) throw new IOException("no player in seat " + seat);
+        return game.getPlayers().get(seat);
+    }
+
+    private static IslandTile tile(Game game, int tileId) throws IOException {
+        IslandTile tile = tileId < TileRegistry.TILE_COUNT ? game.getIslandTileById(tileId) : null;
+        if (tile == null) throw new IOException("tile " + tileId + " is not on the board");
+        return tile;
+    }
+
+    private static <T extends Card> T handCard(Player player, int handIndex, Class<T> type) throws IOException {
+        List<Card> hand = player.getHand();
+        if (handIndex >= hand.size() || !type.isInstance(hand.get(handIndex))) {
+            throw new IOException(player.getName() + " holds no " + type.getSimpleName() + " at " + handIndex);
+        }
+        return type.cast(hand.get(handIndex));
+    }
+
+    // --- Shared checks (共用检查) ---
+
+    /**
+     * Whether the current player still has an action to spend.
+     * 当前玩家是否还有可消耗的行动点。
+     */
+    static boolean hasAction(Game game) {
+        return game.getActionsRemainingInTurn() > 0;
+    }
+
+    /**
+     * Gets the cell a player's pawn stands on, or -1 if it is off the board.
+     * 获取玩家棋子所在的单元格，如果不在棋盘上则为 -1。
+     */
+    static int cellOf(Game game, Player player) {
+        return player == null || player.getPawn() == null ? -1 : game.getBoardState().indexOf(player.getCurrentLocation());
+    }
+
+    static boolean inMask(long mask, int index) {
+        return index >= 0 && (mask & (1L << index)) != 0;
+    }
+
+    /**
+     * Takes the card a command discarded back out of the treasure discard pile and returns it
+     * to the hand position it was played from.
+     * 将命令弃掉的卡牌从宝藏弃牌堆取回，并放回打出时所在的手牌位置。
+     */
+    static void returnDiscardToHand(Game game, Player player, Card card, int handIndex) {
+        Card taken = game.getTreasureDeck().removeLastDiscard();
+        if (taken != card) {
+            throw new IllegalStateException("Treasure discard pile changed since " + card.getName() + " was played");
+        }
+        player.insertCardIntoHand(handIndex, card);
+    }
+}
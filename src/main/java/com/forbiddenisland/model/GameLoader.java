@@ -1,5 +1,7 @@
 package com.forbiddenisland.model;
 
+import com.forbiddenisland.log.GameLog;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -8,24 +10,28 @@ import java.io.ObjectInputStream;
 public class GameLoader {
 
     /**
-     * Load the game state from a file
+     * Load the game state from a file. Compact saves written by {@link GameCodec} are
+     * recognised by their header; anything else is read as an older serialized .sav file.
      * @param filePath The path of the save file
      * @return The loaded game object
      */
     public static Game loadGame(String filePath) {
         File file = new File(filePath);
         if (!file.exists()) {
-            System.err.println("Save file does not exist: " + filePath);
+            GameLog.error("LOAD", "Save file does not exist: {}", filePath);
             return null;
         }
+        if (GameCodec.isCompactSave(filePath)) {
+            return GameCodec.load(filePath);
+        }
 
         try (FileInputStream fileIn = new FileInputStream(file);
              ObjectInputStream in = new ObjectInputStream(fileIn)) {
             return (Game) in.readObject();
         } catch (IOException e) {
-            System.err.println("An I/O error occurred while reading the save file: " + e.getMessage());
+            GameLog.error("LOAD", "An I/O error occurred while reading the save file: {}", e.getMessage());
         } catch (ClassNotFoundException e) {
-            System.err.println("Game class not found: " + e.getMessage());
+            GameLog.error("LOAD", "Game class not found: {}", e.getMessage());
         }
         return null;
     }
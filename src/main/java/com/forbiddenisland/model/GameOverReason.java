@@ -0,0 +1,22 @@
+package com.forbiddenisland.model;
+
+/**
+ * Why a game was lost.
+ * 游戏失败的原因。
+ */
+public enum GameOverReason {
+    WATER_LEVEL_MAX("The water level has reached the maximum! The island is completely submerged."),
+    FOOLS_LANDING_SUNK("Fools' Landing has sunk! Unable to evacuate the island."),
+    TREASURE_TILES_SUNK("Both tiles of an uncollected treasure have sunk! Unable to collect this treasure."),
+    PLAYER_DROWNED("A player could not swim to a safe tile!");
+
+    private final String description;
+
+    GameOverReason(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
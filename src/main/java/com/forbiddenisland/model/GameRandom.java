@@ -0,0 +1,130 @@
+package com.forbiddenisland.model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Per-game splittable random stream.
+ * Uses exactly the SplitMix64 algorithm of {@link java.util.SplittableRandom} (same seed gives the
+ * same numbers and the same splits), but is Serializable, so a saved game resumes its random
+ * streams where it left off. Each game owns one root and splits a child per purpose (layout,
+ * roles, each deck, swimming); no two games or threads ever share a stream.
+ * 每局游戏独立的可拆分随机流。
+ * 算法与 {@link java.util.SplittableRandom} 的 SplitMix64 完全一致（相同种子产生相同的数和拆分），
+ * 但它是可序列化的，因此存档后的游戏可以从中断处继续其随机流。每局游戏拥有一个根流，
+ * 并按用途（布局、角色、各牌堆、游泳）拆分子流；不同游戏或线程之间从不共享随机流。
+ */
+public final class GameRandom implements Serializable {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private final long gamma;
+
+    /**
+     * Creates a root stream.
+     * 创建根随机流。
+     * @param seed The game seed (游戏种子)
+     */
+    public GameRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private GameRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Picks a fresh seed for a game that was not given one.
+     * 为未指定种子的游戏选择一个新种子。
+     */
+    public static long newSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Creates an independent child stream, advancing this one.
+     * 创建一个独立的子随机流，同时推进当前随机流。
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Gets the position of this stream, so an undone action can rewind it.
+     * 获取此随机流的当前位置，使撤销的行动可以将其倒回。
+     */
+    long getState() {
+        return seed;
+    }
+
+    void setState(long state) {
+        this.seed = state;
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    /**
+     * Returns a uniform value in [0, bound).
+     * 返回 [0, bound) 范围内的均匀随机数。
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            r &= m;
+        } else {
+            for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+                // reject values from the incomplete last bucket
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Fisher-Yates shuffle, visiting positions in the same order as {@link java.util.Collections#shuffle}.
+     * Fisher-Yates 洗牌，访问顺序与 {@link java.util.Collections#shuffle} 相同。
+     */
+    public <T> void shuffle(List<T> list) {
+        for (int i = list.size(); i > 1; i--) {
+            int j = nextInt(i);
+            T tmp = list.get(i - 1);
+            list.set(i - 1, list.get(j));
+            list.set(j, tmp);
+        }
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
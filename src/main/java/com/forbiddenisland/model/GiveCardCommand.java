@@ -0,0 +1,59 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Gives a treasure card to another player for one action. The players must share a tile
+ * unless the giver is the Messenger.
+ * 花费一个行动点将一张宝藏卡交给另一名玩家。除非给予者是信使，双方必须在同一板块上。
+ */
+public class GiveCardCommand extends GameCommand {
+
+    private final Player giver;
+    private final Player recipient;
+    private final TreasureCard card;
+
+    private int handIndex;
+    private int previousActions;
+
+    public GiveCardCommand(Player giver, Player recipient, TreasureCard card) {
+        this.giver = giver;
+        this.recipient = recipient;
+        this.card = card;
+    }
+
+    @Override
+    boolean apply(Game game) {
+        if (!hasAction(game) || giver != game.getCurrentPlayer() || recipient == null || recipient == giver) return false;
+        handIndex = giver.getHand().indexOf(card);
+        if (handIndex < 0) return false;
+        if (!giver.getRole().canGiveCardAnywhere() && giver.getCurrentLocation() != recipient.getCurrentLocation()) return false;
+
+        previousActions = game.getActionsRemainingInTurn();
+        game.spendAction();
+        giver.removeCardFromHand(card);
+        recipient.addCardToHand(card);
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        recipient.removeCardFromHand(card);
+        giver.insertCardIntoHand(handIndex, card);
+        game.setActionsRemainingInTurn(previousActions);
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) throws IOException {
+        out.writeByte(GIVE_CARD);
+        out.writeByte(seatOf(game, giver));
+        out.writeByte(seatOf(game, recipient));
+        out.writeByte(handIndex);
+    }
+
+    @Override
+    public String describe() {
+        return "Give " + card.getName() + " to " + recipient.getName();
+    }
+}
@@ -0,0 +1,78 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays a Helicopter Lift card to fly one or more pawns to any tile. Costs no action and
+ * may be played by any player holding the card.
+ * 打出直升机升空卡，将一个或多个棋子飞到任意板块。不消耗行动点，任何持有该卡的玩家都可以打出。
+ */
+public class HelicopterLiftCommand extends GameCommand {
+
+    private final Player holder;
+    private final HelicopterLiftCard card;
+    private final List<Player> passengers;
+    private final IslandTile destination;
+
+    private int handIndex;
+    private IslandTile[] previousLocations;
+
+    /**
+     * @param holder The player playing the card (打出该卡的玩家)
+     * @param card The card played (打出的卡)
+     * @param passengers The players flown (被运送的玩家)
+     * @param destination The tile they land on (降落的板块)
+     */
+    public HelicopterLiftCommand(Player holder, HelicopterLiftCard card, List<Player> passengers, IslandTile destination) {
+        this.holder = holder;
+        this.card = card;
+        this.passengers = new ArrayList<>(passengers);
+        this.destination = destination;
+    }
+
+    @Override
+    boolean apply(Game game) {
+        if (passengers.isEmpty() || !game.getBoardState().contains(destination)) return false;
+        handIndex = holder.getHand().indexOf(card);
+        if (handIndex < 0) return false;
+
+        previousLocations = new IslandTile[passengers.size()];
+        for (int i = 0; i < passengers.size(); i++) {
+            previousLocations[i] = passengers.get(i).getCurrentLocation();
+        }
+        holder.removeCardFromHand(card);
+        game.getTreasureDeck().discardCard(card);
+        for (Player passenger : passengers) {
+            passenger.moveTo(destination);
+        }
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        for (int i = passengers.size() - 1; i >= 0; i--) {
+            passengers.get(i).getPawn().setCurrentLocation(previousLocations[i]);
+        }
+        returnDiscardToHand(game, holder, card, handIndex);
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) throws IOException {
+        out.writeByte(HELICOPTER_LIFT);
+        out.writeByte(seatOf(game, holder));
+        out.writeByte(handIndex);
+        out.writeByte(passengers.size());
+        for (Player passenger : passengers) {
+            out.writeByte(seatOf(game, passenger));
+        }
+        out.writeByte(tileIdOf(destination));
+    }
+
+    @Override
+    public String describe() {
+        return "Helicopter Lift to " + destination.getName();
+    }
+}
@@ -1,5 +1,6 @@
 package com.forbiddenisland.model;
 
+import com.forbiddenisland.log.GameLog;
 
 import java.io.Serializable;
 /**
@@ -9,10 +10,13 @@ import java.io.Serializable;
 public class IslandTile  implements Serializable{
 
     private String name; // Name of the island tile (板块名称)
+    private final int id; // Registry ID, or TileRegistry.NO_TILE for a non-standard tile (注册表ID，非标准板块为 NO_TILE)
     private boolean flooded; // Whether the tile is flooded (板块是否被淹没)
     private TreasureType associatedTreasure; // Treasure associated with this tile, if any (与此板块关联的宝藏，如果有)
     private boolean isStartingTileForPlayer; // Whether this tile is a starting position for a player (此板块是否为玩家的起始位置)
     private boolean sunk; // Whether the tile is sunk (completely removed from the game)
+    private BoardState board; // Board this tile was placed on, null for a standalone tile (板块所在的棋盘，独立板块为 null)
+    private int boardIndex = -1; // Cell index on that board (在棋盘上的单元格索引)
 
     /**
      * Constructor for IslandTile.
@@ -21,6 +25,7 @@ public class IslandTile  implements Serializable{
      */
     public IslandTile(String name) {
         this.name = name;
+        this.id = TileRegistry.idOf(name);
         this.flooded = false; // Tiles start unflooded (板块初始未被淹没)
         this.associatedTreasure = null; // No treasure by default (默认没有宝藏)
         this.isStartingTileForPlayer = false; // Not a starting tile by default (默认不是起始板块)
@@ -36,6 +41,15 @@ public class IslandTile  implements Serializable{
         return name;
     }
 
+    /**
+     * Gets the registry ID of the tile.
+     * 获取板块的注册表ID。
+     * @return The tile ID, or TileRegistry.NO_TILE for a non-standard tile. (板块ID，非标准板块为 NO_TILE)
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Gets the current flood state of the tile.
      * 获取板块当前的淹没状态。
@@ -70,6 +84,7 @@ public class IslandTile  implements Serializable{
      */
     public void setFlooded(boolean flooded) {
         this.flooded = flooded;
+        notifyBoard();
     }
 
     /**
@@ -78,6 +93,7 @@ public class IslandTile  implements Serializable{
      */
     public void flood() {
         this.flooded = true;
+        notifyBoard();
     }
 
     /**
@@ -88,10 +104,11 @@ public class IslandTile  implements Serializable{
     public boolean shoreUp() {
         if (flooded) {
             flooded = false;
-            System.out.println("Tile " + name + " has been shored up. (板块 " + name + " 已被治水。)");
+            notifyBoard();
+            GameLog.info("SHORE_UP", "Tile {} has been shored up. (板块 {} 已被治水。)", name, name);
             return true;
         }
-        System.out.println("Tile " + name + " was not flooded, cannot shore up. (板块 " + name + " 未被淹没，无法治水。)");
+        GameLog.warn("SHORE_UP", "Tile {} was not flooded, cannot shore up. (板块 {} 未被淹没，无法治水。)", name, name);
         return false;
     }
 
@@ -131,6 +148,29 @@ public class IslandTile  implements Serializable{
         this.isStartingTileForPlayer = startingTileForPlayer;
     }
 
+    /**
+     * Links this tile to the board cell it was placed on.
+     * 将此板块与其所在的棋盘单元格关联。
+     */
+    void attachToBoard(BoardState board, int boardIndex) {
+        this.board = board;
+        this.boardIndex = boardIndex;
+    }
+
+    BoardState getBoard() {
+        return board;
+    }
+
+    int getBoardIndex() {
+        return boardIndex;
+    }
+
+    private void notifyBoard() {
+        if (board != null) {
+            board.tileFloodChanged(this, boardIndex);
+        }
+    }
+
     // It would be good to have an Enum for TreasureType later
     // 稍后最好为 TreasureType 创建一个枚举
     // For now, we can assume it's a String or a dedicated class
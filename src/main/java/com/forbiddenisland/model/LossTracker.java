@@ -0,0 +1,111 @@
+package com.forbiddenisland.model;
+
+import com.forbiddenisland.log.GameLog;
+
+import java.io.Serializable;
+
+/**
+ * Keeps the loss conditions up to date as events happen (a tile sinks, the water rises, a
+ * pawn drowns), so asking whether the game is lost is a field read instead of a board scan.
+ * The first reason found is kept; later events cannot change how the game was lost.
+ * 在事件发生时（板块沉没、水位上涨、棋子溺亡）实时更新失败条件，使"游戏是否失败"的查询只需读取字段而无需扫描棋盘。
+ * 记录第一个出现的失败原因；之后的事件不会改变游戏失败的方式。
+ */
+class LossTracker implements Serializable {
+
+    private final int[] sunkTilesPerTreasure = new int[TreasureType.values().length]; // indexed by TreasureType.ordinal() (按 TreasureType.ordinal() 索引)
+    private GameOverReason reason; // null while the game is still on (游戏进行中为 null)
+    private TreasureType lostTreasure; // set for TREASURE_TILES_SUNK (仅 TREASURE_TILES_SUNK 时设置)
+    private Player drownedPlayer; // set for PLAYER_DROWNED (仅 PLAYER_DROWNED 时设置)
+
+    /**
+     * Records a tile leaving the board.
+     * 记录一个板块离开棋盘。
+     * @param tileId Registry ID of the sunk tile (沉没板块的注册表ID)
+     * @param treasureCollected Whether the tile's treasure (if any) is already collected (该板块的宝藏（如有）是否已被收集)
+     */
+    void tileSunk(int tileId, boolean treasureCollected) {
+        if (tileId == TileRegistry.FOOLS_LANDING) {
+            lose(GameOverReason.FOOLS_LANDING_SUNK);
+            return;
+        }
+        TreasureType treasure = TileRegistry.treasureOf(tileId);
+        if (treasure == null) return;
+        int sunk = ++sunkTilesPerTreasure[treasure.ordinal()];
+        if (sunk >= TileRegistry.tilesOf(treasure).length && !treasureCollected && reason == null) {
+            lostTreasure = treasure;
+            lose(GameOverReason.TREASURE_TILES_SUNK);
+        }
+    }
+
+    void waterLevelChanged(WaterMeter waterMeter) {
+        if (waterMeter.hasReachedMaxLevel()) {
+            lose(GameOverReason.WATER_LEVEL_MAX);
+        }
+    }
+
+    void playerDrowned(Player player) {
+        if (reason == null) {
+            drownedPlayer = player;
+            lose(GameOverReason.PLAYER_DROWNED);
+        }
+    }
+
+    private void lose(GameOverReason newReason) {
+        if (reason == null) {
+            reason = newReason;
+            GameLog.info("GAME_OVER", "GAME OVER: {}", newReason.getDescription());
+        }
+    }
+
+    GameOverReason getReason() {
+        return reason;
+    }
+
+    TreasureType getLostTreasure() {
+        return lostTreasure;
+    }
+
+    Player getDrownedPlayer() {
+        return drownedPlayer;
+    }
+
+    /**
+     * Copies this tracker, so an undone flood draw can put back the state before it.
+     * 复制此追踪器，使撤销洪水牌抽取时可以恢复之前的状态。
+     */
+    LossTracker copy() {
+        LossTracker copy = new LossTracker();
+        System.arraycopy(sunkTilesPerTreasure, 0, copy.sunkTilesPerTreasure, 0, sunkTilesPerTreasure.length);
+        copy.reason = reason;
+        copy.lostTreasure = lostTreasure;
+        copy.drownedPlayer = drownedPlayer;
+        return copy;
+    }
+
+    /**
+     * Sets how the game ended, as read from a save file. The sunk-tile counts are rebuilt by {@link #fromGame}.
+     * 设置从存档读取的游戏结局。沉没板块计数由 {@link #fromGame} 重建。
+     */
+    void restoreOutcome(GameOverReason reason, TreasureType lostTreasure, Player drownedPlayer) {
+        this.reason = reason;
+        this.lostTreasure = lostTreasure;
+        this.drownedPlayer = drownedPlayer;
+    }
+
+    /**
+     * Rebuilds a tracker from the board of a game restored from a compact save.
+     * 根据从紧凑存档恢复的游戏棋盘重建追踪器。
+     */
+    static LossTracker fromGame(Game game) {
+        LossTracker tracker = new LossTracker();
+        tracker.waterLevelChanged(game.getWaterMeter());
+        for (int id = 0; id < TileRegistry.TILE_COUNT; id++) {
+            if (game.getIslandTileById(id) == null) {
+                TreasureType treasure = TileRegistry.treasureOf(id);
+                tracker.tileSunk(id, treasure != null && game.isTreasureCollected(treasure));
+            }
+        }
+        return tracker;
+    }
+}
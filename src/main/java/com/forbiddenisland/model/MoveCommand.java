@@ -0,0 +1,81 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Moves a pawn one move action. The current player moves their own pawn by their role's
+ * rules (a Pilot's flight is used up when the target is out of normal reach); a Navigator
+ * may instead move another player's pawn up to two tiles.
+ * 用一个行动点移动棋子。当前玩家按其角色规则移动自己的棋子（目标超出常规范围时消耗飞行员的飞行能力）；
+ * 领航员也可以将其他玩家的棋子移动最多两格。
+ */
+public class MoveCommand extends GameCommand {
+
+    private final Player player;
+    private final IslandTile destination;
+
+    // Recorded on execute (执行时记录)
+    private IslandTile previousLocation;
+    private boolean previousPilotFlightUsed;
+    private int previousActions;
+
+    /**
+     * @param player The player whose pawn moves (被移动棋子的玩家)
+     * @param destination The tile to move to (目标板块)
+     */
+    public MoveCommand(Player player, IslandTile destination) {
+        this.player = player;
+        this.destination = destination;
+    }
+
+    @Override
+    boolean apply(Game game) {
+        if (!hasAction(game)) return false;
+        BoardState board = game.getBoardState();
+        int from = cellOf(game, player);
+        int to = board.indexOf(destination);
+        if (from < 0 || to < 0) return false;
+
+        Player current = game.getCurrentPlayer();
+        ReachabilityEngine reach = board.getReachability();
+        boolean flight = false;
+        if (player == current) {
+            boolean flightAvailable = !player.isPilotAbilityUsedThisTurn();
+            if (!inMask(reach.moveTargets(player.getRole(), from, flightAvailable), to)) return false;
+            flight = player.getRole() == AdventurerRole.PILOT && flightAvailable
+                    && !inMask(reach.moveTargets(player.getRole(), from, false), to);
+        } else if (current.getRole() != AdventurerRole.NAVIGATOR || !inMask(reach.navigatorTargets(from), to)) {
+            return false;
+        }
+
+        previousLocation = player.getCurrentLocation();
+        previousPilotFlightUsed = player.isPilotAbilityUsedThisTurn();
+        previousActions = game.getActionsRemainingInTurn();
+        game.spendAction();
+        if (flight) {
+            player.setPilotAbilityUsedThisTurn(true);
+        }
+        player.moveTo(destination);
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        player.getPawn().setCurrentLocation(previousLocation);
+        player.setPilotAbilityUsedThisTurn(previousPilotFlightUsed);
+        game.setActionsRemainingInTurn(previousActions);
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) throws IOException {
+        out.writeByte(MOVE);
+        out.writeByte(seatOf(game, player));
+        out.writeByte(tileIdOf(destination));
+    }
+
+    @Override
+    public String describe() {
+        return "Move " + player.getName() + " to " + destination.getName();
+    }
+}
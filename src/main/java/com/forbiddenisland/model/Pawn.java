@@ -12,6 +12,9 @@ import java.io.Serializable;
 public class Pawn implements Serializable{
     private String color; // Visual identifier for the pawn in the GUI (棋子的颜色)
     private IslandTile currentLocation; // Current tile position on the game board (棋子在岛屿板块上的当前位置)
+    private int currentTileId = TileRegistry.NO_TILE; // Registry ID of currentLocation (当前位置的注册表ID)
+    private ZobristHash hash; // Position hash of the owning game, may be null (所属游戏的局面哈希，可为 null)
+    private int seat = -1; // Owner's seat in that game (所有者在游戏中的座位)
 
     /**
      * Constructor for Pawn.
@@ -22,6 +25,8 @@ public class Pawn implements Serializable{
     public Pawn(String color, IslandTile startingLocation) {
         this.color = color;
         this.currentLocation = startingLocation;
+        this.currentTileId = startingLocation != null ? startingLocation.getId() : TileRegistry.NO_TILE;
+        enter(startingLocation);
     }
 
     /**
@@ -42,13 +47,39 @@ public class Pawn implements Serializable{
         return currentLocation;
     }
 
+    /**
+     * Gets the registry ID of the tile the pawn stands on.
+     * 获取棋子所在板块的注册表ID。
+     * @return The tile ID, or TileRegistry.NO_TILE if off the standard tiles
+     */
+    public int getCurrentTileId() {
+        return currentTileId;
+    }
+
     /**
      * Updates the pawn's position on the board.
      * Core method for implementing movement mechanics.
      * @param newLocation The new tile position for the pawn
      */
     public void setCurrentLocation(IslandTile newLocation) {
+        leave(this.currentLocation);
+        int previousTileId = this.currentTileId;
         this.currentLocation = newLocation;
+        this.currentTileId = newLocation != null ? newLocation.getId() : TileRegistry.NO_TILE;
+        enter(newLocation);
+        if (hash != null) {
+            hash.pawnMoved(seat, previousTileId, currentTileId);
+        }
+    }
+
+    /**
+     * Links the game's position hash and adds this pawn's current position to it.
+     * 关联游戏的局面哈希，并将棋子的当前位置加入哈希。
+     */
+    void attachHash(ZobristHash hash, int seat) {
+        this.hash = hash;
+        this.seat = seat;
+        hash.pawnMoved(seat, TileRegistry.NO_TILE, currentTileId);
     }
 
     /**
@@ -59,7 +90,20 @@ public class Pawn implements Serializable{
      */
     public void moveTo(IslandTile targetTile) {
         if (targetTile != null) {
-            this.currentLocation = targetTile;
+            setCurrentLocation(targetTile);
+        }
+    }
+
+    // Keep the board's occupancy mask in step with the pawn (保持棋盘的占用掩码与棋子同步)
+    private static void leave(IslandTile tile) {
+        if (tile != null && tile.getBoard() != null) {
+            tile.getBoard().pawnLeft(tile.getBoardIndex());
+        }
+    }
+
+    private static void enter(IslandTile tile) {
+        if (tile != null && tile.getBoard() != null) {
+            tile.getBoard().pawnEntered(tile.getBoardIndex());
         }
     }
 } 
\ No newline at end of file
@@ -1,10 +1,10 @@
 package com.forbiddenisland.model;
 
+import com.forbiddenisland.log.GameLog;
+
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 import java.util.Set;
 import java.io.Serializable;
 
@@ -24,6 +24,8 @@ public class Player implements Serializable{
     // Game constants and state tracking
     public static final int MAX_HAND_SIZE = 5; // Maximum number of cards a player can hold (玩家最多可持有的卡牌数量)
     private boolean pilotAbilityUsedThisTurn = false; // Tracks if pilot's special ability was used this turn
+    private ZobristHash hash; // Position hash of the game this player sits in, may be null (玩家所在游戏的局面哈希，可为 null)
+    private int seat = -1; // Seat index in that game (在该游戏中的座位号)
 
     /**
      * Constructor for Player.
@@ -57,6 +59,26 @@ public class Player implements Serializable{
     public void assignRoleAndPawn(AdventurerRole role, IslandTile startingTile, String pawnColor) {
         this.role = role;
         this.pawn = new Pawn(pawnColor, startingTile);
+        if (hash != null) {
+            pawn.attachHash(hash, seat);
+        }
+    }
+
+    /**
+     * Links the game's position hash and adds this player's pawn and hand to it.
+     * 关联游戏的局面哈希，并将该玩家的棋子和手牌加入哈希。
+     * @param hash The game's hash (游戏的局面哈希)
+     * @param seat The player's seat index (玩家的座位号)
+     */
+    void attachHash(ZobristHash hash, int seat) {
+        this.hash = hash;
+        this.seat = seat;
+        if (pawn != null) {
+            pawn.attachHash(hash, seat);
+        }
+        for (Card card : hand) {
+            hash.cardAdded(seat, card);
+        }
     }
 
     /**
@@ -95,6 +117,20 @@ public class Player implements Serializable{
         // Hand limit check is now managed by the Game logic after drawing cards
         // 手牌上限检查现在由抽牌后的游戏逻辑管理
             hand.add(card); 
+            if (hash != null) {
+                hash.cardAdded(seat, card);
+            }
+    }
+
+    /**
+     * Puts a card back at the position it was taken from. Only used to undo actions.
+     * 将卡牌放回其原来的位置。仅用于撤销行动。
+     */
+    void insertCardIntoHand(int index, Card card) {
+        hand.add(Math.min(Math.max(index, 0), hand.size()), card);
+        if (hash != null) {
+            hash.cardAdded(seat, card);
+        }
     }
 
     /**
@@ -104,7 +140,11 @@ public class Player implements Serializable{
      * @return true if the card was successfully removed, false otherwise. (如果成功移除卡牌则为 true，否则为 false)
      */
     public boolean removeCardFromHand(Card card) {
-        return hand.remove(card);
+        boolean removed = hand.remove(card);
+        if (removed && hash != null) {
+            hash.cardRemoved(seat, card);
+        }
+        return removed;
     }
 
     /**
@@ -127,6 +167,10 @@ public class Player implements Serializable{
         }
     }
 
+    void removeCollectedTreasure(TreasureType treasure) {
+        collectedTreasures.remove(treasure);
+    }
+
     /**
      * Checks if the player has collected all four treasures.
      * 检查玩家是否已收集所有四个宝藏。
@@ -162,7 +206,7 @@ public class Player implements Serializable{
     public void resetTurnBasedAbilities() {
         if (this.role == AdventurerRole.PILOT) {
             this.pilotAbilityUsedThisTurn = false;
-            System.out.println(this.name + " (Pilot) flight ability reset. (飞行员飞行能力已重置)");
+            GameLog.debug("TURN", "{} (Pilot) flight ability reset. (飞行员飞行能力已重置)", name);
         }
     }
 
@@ -173,7 +217,7 @@ public class Player implements Serializable{
      */
     public IslandTile getCurrentLocation() {
         if (this.pawn == null) {
-            System.err.println("Error: Player " + name + " has no pawn assigned. Cannot get current location.");
+            GameLog.error("PLAYER", "Player {} has no pawn assigned. Cannot get current location.", name);
             return null; 
         }
         return this.pawn.getCurrentLocation();
@@ -186,15 +230,15 @@ public class Player implements Serializable{
      */
     public void moveTo(IslandTile destination) {
         if (this.pawn == null) {
-            System.err.println("Error: Player " + name + " has no pawn assigned. Cannot move.");
+            GameLog.error("MOVE", "Player {} has no pawn assigned. Cannot move.", name);
             return;
         }
         if (destination == null) {
-            System.err.println("Error: Cannot move " + name + " to a null destination.");
+            GameLog.error("MOVE", "Cannot move {} to a null destination.", name);
             return;
         }
         this.pawn.setCurrentLocation(destination);
-        System.out.println(name + " moved to " + destination.getName() + ". (移动到 " + destination.getName() + "。)");
+        GameLog.info("MOVE", "{} moved to {}. (移动到 {}。)", name, destination.getName(), destination.getName());
     }
 
     /**
@@ -209,126 +253,16 @@ public class Player implements Serializable{
             return validMoves; // Should not happen in a normal game
         }
 
-        IslandTile currentLocation = getCurrentLocation();
-        if (currentLocation == null || game.getIslandTileByName(currentLocation.getName()) == null) {
+        BoardState board = game.getBoardState();
+        int from = board.indexOf(getCurrentLocation());
+        if (from < 0) {
             return validMoves; // Player not on board or current location sunk
         }
 
-        // Pilot's special ability: fly to any tile on the island (once per turn)
-        if (role == AdventurerRole.PILOT && !isPilotAbilityUsedThisTurn()) {
-            for (int r_idx = 0; r_idx < game.getGameBoard().length; r_idx++) {
-                for (int c_idx = 0; c_idx < game.getGameBoard()[r_idx].length; c_idx++) {
-                    IslandTile tile = game.getGameBoard()[r_idx][c_idx];
-                    // Tile must exist on board (not null) and not be the player's current location
-                    if (tile != null && tile != currentLocation) { 
-                        validMoves.add(tile);
-                    }
-                }
-            }
-        }
-
-        int[] currentCoords = game.getTileCoordinates(currentLocation);
-        if (currentCoords == null) {
-            return validMoves; 
-        }
-        int r = currentCoords[0];
-        int c = currentCoords[1];
-
-        // Standard orthogonal moves (and diagonal for Explorer)
-        boolean canMoveDiagonally = (role == AdventurerRole.EXPLORER);
-        List<IslandTile> adjacent = game.getValidAdjacentTiles(r, c, canMoveDiagonally);
-        for (IslandTile tile : adjacent) {
-            // To be a valid move destination, tile must exist on board (not null)
-            if (tile != null) { 
-                validMoves.add(tile);
-            }
-        }
-        
-        // Diver's special ability: move through one or more adjacent missing (null) and/or flooded tiles
-        if (role == AdventurerRole.DIVER) {
-            Queue<IslandTile> queue = new LinkedList<>();
-            Set<IslandTile> visitedForDiver = new HashSet<>();
-            
-            // Add current location to visited to avoid moving to self through a path
-            visitedForDiver.add(currentLocation);
-
-            // Add initial adjacent tiles (can be null/sunk or flooded for traversal)
-            // For diver, adjacent tiles are those physically next to current, even if sunk.
-            // game.getValidAdjacentTiles returns non-null tiles. We need a different helper or inline logic for diver's first step.
-            
-            int[] dr = {-1, 1, 0, 0, -1, -1, 1, 1}; // Orthogonal + Diagonal for Diver
-            int[] dc = {0, 0, -1, 1, -1, 1, -1, 1}; 
-
-            for (int i = 0; i < dr.length; i++) {
-                int nr = r + dr[i];
-                int nc = c + dc[i];
-                if (game.isValidBoardCoordinate(nr, nc)) { // Check if coordinate is on board grid
-                    IslandTile adjacentTile = game.getGameBoard()[nr][nc]; // This can be null if sunk
-                    if (adjacentTile != null) { // If it's a tile (not a hole where a tile used to be)
-                         if (!visitedForDiver.contains(adjacentTile)) {
-                            queue.add(adjacentTile);
-                            visitedForDiver.add(adjacentTile);
-                            // If this adjacent tile is not sunk (i.e. still in game.islandTileMap), it's a valid direct move.
-                            if (game.getIslandTileByName(adjacentTile.getName()) != null) {
-                                validMoves.add(adjacentTile);
-                            }
-                        }
-                    } else { // adjacentTile is null (sunk), Diver can pass through this *space*
-                        // Create a temporary placeholder or use coordinates to represent passing through a sunk space.
-                        // For simplicity in this BFS, we only add actual IslandTile objects to queue if they are traversable (flooded or sunk but an object exists for map lookup).
-                        // If gameBoard[nr][nc] is null, it means it is permanently gone. Diver cannot enter a space that is null on gameBoard directly.
-                        // The rule is "move through one or more adjacent *missing* and/or flooded tiles".
-                        // This implies we need to find a path *over* such tiles to a non-sunk tile.
-                        // The current BFS structure assumes we are jumping between IslandTile objects.
-                        // A tile that is gameBoard[nr][nc] == null IS a missing tile.
-                        // Let's refine BFS to handle coordinates of such missing tiles.
-                        // For now, if gameBoard[nr][nc] is null, the Diver cannot use it as a step in *this* BFS model that adds IslandTiles to queue.
-                        // This part of Diver logic needs careful review against precise game rules for "missing tiles".
-                        // Assuming "missing" means gameBoard[r][c] == null, and the Diver can traverse such *coordinates*.
-                        // The current `game.getValidAdjacentTiles` used later in BFS only returns non-null tiles.
-                    }
-                }
-            }
-
-            while (!queue.isEmpty()) {
-                IslandTile currentTileForDiver = queue.poll(); // This tile exists (not null from gameBoard initially)
-                int[] diverTileCoords = game.getTileCoordinates(currentTileForDiver);
-
-                // A tile is traversable by diver if it's flooded OR if it's sunk (i.e., no longer in islandTileMap but was an IslandTile object)
-                // The key is that islandTileMap check for being sunk.
-                boolean isTraversableByDiver = currentTileForDiver.isFlooded() || game.getIslandTileByName(currentTileForDiver.getName()) == null;
-
-                if (diverTileCoords != null && isTraversableByDiver) {
-                    // Explore neighbors of this traversable (flooded/sunk) tile
-                    for (int i = 0; i < dr.length; i++) {
-                        int nnr = diverTileCoords[0] + dr[i];
-                        int nnc = diverTileCoords[1] + dc[i];
-
-                        if (game.isValidBoardCoordinate(nnr, nnc)) {
-                            IslandTile neighbor = game.getGameBoard()[nnr][nnc]; // Can be null if sunk spot
-                            if (neighbor != null) { // If there is a tile object there
-                                if (!visitedForDiver.contains(neighbor)) {
-                                    visitedForDiver.add(neighbor);
-                                    // If this neighbor is NOT sunk (still in islandTileMap), it's a valid destination
-                                    if (game.getIslandTileByName(neighbor.getName()) != null) {
-                                        validMoves.add(neighbor);
-                                    }
-                                    // If neighbor is traversable (flooded or sunk), add to queue to continue path
-                                    if (neighbor.isFlooded() || game.getIslandTileByName(neighbor.getName()) == null) {
-                                        queue.add(neighbor);
-                                    }
-                                }
-                            } 
-                            // If neighbor is null (a truly sunk spot), Diver can pass over it, 
-                            // but this BFS is tile-object based. Handling movement over truly empty spots 
-                            // would require a coordinate-based BFS or a different approach.
-                            // For now, this BFS for Diver explores paths through tiles that are either flooded 
-                            // or are IslandTile objects that represent sunk locations (but are not null in gameBoard initially for BFS step).
-                        }
-                    }
-                }
-            }
-        }
+        // Pilot flight, Explorer diagonals and Diver swims are all handled by the engine
+        // (飞行员飞行、探险家斜向移动和潜水员游动均由引擎处理)
+        long targets = board.getReachability().moveTargets(role, from, !isPilotAbilityUsedThisTurn());
+        board.addTiles(targets, validMoves);
         return validMoves;
     }
 
@@ -343,12 +277,12 @@ public class Player implements Serializable{
      */
     public boolean shoreUp(IslandTile tileToShoreUp) {
         if (tileToShoreUp == null || !tileToShoreUp.isFlooded()) {
-            System.out.println("Cannot shore up: tile is null or not flooded");
+            GameLog.warn("SHORE_UP", "Cannot shore up: tile is null or not flooded");
             return false;
         }
         
         tileToShoreUp.shoreUp();
-        System.out.println(this.name + " shored up " + tileToShoreUp.getName());
+        GameLog.info("SHORE_UP", "{} shored up {}", name, tileToShoreUp.getName());
         return true;
     }
     
@@ -361,18 +295,18 @@ public class Player implements Serializable{
      */
     public boolean giveTreasureCard(Player recipient, TreasureCard card) {
         if (recipient == null || card == null) {
-            System.out.println("Cannot give card: recipient or card is null");
+            GameLog.warn("GIVE_CARD", "Cannot give card: recipient or card is null");
             return false;
         }
         
         if (!this.hand.contains(card)) {
-            System.out.println("Cannot give card: " + this.name + " does not have this card");
+            GameLog.warn("GIVE_CARD", "Cannot give card: {} does not have this card", name);
             return false;
         }
         
         this.removeCardFromHand(card);
         recipient.addCardToHand(card);
-        System.out.println(this.name + " gave " + card.getName() + " to " + recipient.getName());
+        GameLog.info("GIVE_CARD", "{} gave {} to {}", name, card.getName(), recipient.getName());
         return true;
     }
     
@@ -385,7 +319,7 @@ public class Player implements Serializable{
      */
     public boolean captureTreasure(TreasureType treasureType, Deck<Card> treasureDeck) {
         if (treasureType == null || treasureDeck == null) {
-            System.out.println("Cannot capture treasure: treasureType or treasureDeck is null");
+            GameLog.warn("CAPTURE", "Cannot capture treasure: treasureType or treasureDeck is null");
             return false;
         }
         
@@ -404,8 +338,8 @@ public class Player implements Serializable{
         
         // Check if we have enough cards
         if (matchingCards.size() < requiredCards) {
-            System.out.println(this.name + " needs " + requiredCards + " " + treasureType.getDisplayName() + 
-                               " cards to capture the treasure, but only has " + matchingCards.size());
+            GameLog.warn("CAPTURE", "{} needs {} {} cards to capture the treasure, but only has {}",
+                    name, requiredCards, treasureType.getDisplayName(), matchingCards.size());
             return false;
         }
         
@@ -418,7 +352,7 @@ public class Player implements Serializable{
         
         // Add the treasure to the player's collection
         this.addCollectedTreasure(treasureType);
-        System.out.println(this.name + " captured the " + treasureType.getDisplayName() + " treasure!");
+        GameLog.info("CAPTURE", "{} captured the {} treasure!", name, treasureType.getDisplayName());
         return true;
     }
 } 
\ No newline at end of file
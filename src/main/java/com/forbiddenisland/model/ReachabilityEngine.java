@@ -0,0 +1,138 @@
+package com.forbiddenisland.model;
+
+import java.util.Arrays;
+
+/**
+ * Movement rules for every adventurer, answered as cell masks of a {@link BoardState}.
+ * Results depend only on the tiles, never on where the pawns stand, so each one is cached
+ * per starting cell and stays valid until the board version changes (a tile floods, is
+ * shored up or sinks). The UI highlighting, the swim check and the AI all share the cache.
+ * Like the rest of the model it is not thread-safe; each game copy has its own engine.
+ * 以 {@link BoardState} 单元格掩码形式给出的所有冒险家移动规则。
+ * 结果只取决于板块而与棋子位置无关，因此按起始单元格缓存，直到棋盘版本改变（板块被淹没、加固或沉没）前都有效。
+ * 界面高亮、游泳检查和 AI 共用此缓存。与模型其余部分一样，它不是线程安全的；每个游戏副本有自己的引擎。
+ */
+public class ReachabilityEngine {
+
+    // Cached rule kinds (缓存的规则种类)
+    private static final int ADJACENT = 0;       // orthogonal neighbours (正交邻居)
+    private static final int ADJACENT_DIAG = 1;  // orthogonal and diagonal neighbours (正交和对角线邻居)
+    private static final int DIVER = 2;          // through flooded or sunk cells (穿过淹没或沉没的单元格)
+    private static final int TWO_STEP = 3;       // Navigator moving another pawn (领航员移动其他棋子)
+    private static final int NEAREST = 4;        // Diver swimming off a sunk tile (潜水员从沉没板块游出)
+    private static final int KINDS = 5;
+
+    private final BoardState board;
+    private final long[][] masks = new long[KINDS][BoardState.CELLS];
+    private final long[][] versions = new long[KINDS][BoardState.CELLS]; // board version + 1, 0 = not computed (棋盘版本 + 1，0 表示未计算)
+    private long computed; // number of cache misses, for tests and profiling (缓存未命中次数，用于测试和性能分析)
+
+    ReachabilityEngine(BoardState board) {
+        this.board = board;
+    }
+
+    /**
+     * Tiles a pawn may move to with one move action.
+     * 棋子一次移动行动可以到达的板块。
+     * @param role The pawn's role (棋子的角色)
+     * @param from The cell the pawn stands on (棋子所在单元格)
+     * @param pilotFlightAvailable Whether a Pilot may still fly this turn (飞行员本回合是否仍可飞行)
+     * @return Mask of target cells, never including {@code from} (目标单元格掩码，不包括 {@code from})
+     */
+    public long moveTargets(AdventurerRole role, int from, boolean pilotFlightAvailable) {
+        long targets;
+        if (role == AdventurerRole.EXPLORER) {
+            targets = cached(ADJACENT_DIAG, from);
+        } else if (role == AdventurerRole.DIVER) {
+            targets = cached(ADJACENT, from) | cached(DIVER, from);
+        } else {
+            targets = cached(ADJACENT, from);
+        }
+        if (role == AdventurerRole.PILOT && pilotFlightAvailable) {
+            targets |= board.getPresentMask();
+        }
+        return targets & ~(1L << from);
+    }
+
+    /**
+     * Flooded tiles a pawn may shore up: its own tile and its neighbours (diagonals too for the Explorer).
+     * 棋子可以治水的淹没板块：所在板块及其邻居（探险家包括对角线）。
+     */
+    public long shoreUpTargets(AdventurerRole role, int from) {
+        long reach = cached(role == AdventurerRole.EXPLORER ? ADJACENT_DIAG : ADJACENT, from) | (1L << from);
+        return reach & board.getFloodedMask();
+    }
+
+    /**
+     * Tiles the Navigator may move another pawn to: up to two orthogonal steps over present tiles.
+     * 领航员可以将其他棋子移动到的板块：经由存在的板块最多两步正交移动。
+     */
+    public long navigatorTargets(int from) {
+        return cached(TWO_STEP, from);
+    }
+
+    /**
+     * Tiles a pawn may swim to when the tile under it sinks. Pilots fly anywhere, Explorers
+     * also swim diagonally, and Divers swim to the nearest tiles however far away they are.
+     * 棋子所在板块沉没时可以游到的板块。飞行员可以飞到任何地方，探险家可以斜向游动，潜水员游到最近的板块，无论多远。
+     * @param role The pawn's role (棋子的角色)
+     * @param from The cell that just sank (刚沉没的单元格)
+     * @return Mask of target cells; empty if the pawn drowns (目标单元格掩码；为空表示棋子溺亡)
+     */
+    public long swimTargets(AdventurerRole role, int from) {
+        if (role == AdventurerRole.PILOT) {
+            return board.getPresentMask() & ~(1L << from);
+        }
+        if (role == AdventurerRole.DIVER) {
+            return cached(NEAREST, from);
+        }
+        return cached(role == AdventurerRole.EXPLORER ? ADJACENT_DIAG : ADJACENT, from);
+    }
+
+    /**
+     * Gets how many masks have been computed rather than served from the cache.
+     * 获取实际计算（而非从缓存读取）的掩码数量。
+     */
+    public long getComputedCount() {
+        return computed;
+    }
+
+    /**
+     * Drops every cached mask. Not needed for correctness; the version check already does this.
+     * 丢弃所有缓存的掩码。正确性上并不需要，版本检查已经会处理。
+     */
+    public void clear() {
+        for (long[] row : versions) {
+            Arrays.fill(row, 0L);
+        }
+    }
+
+    private long cached(int kind, int from) {
+        long stamp = board.getVersion() + 1;
+        if (versions[kind][from] == stamp) {
+            return masks[kind][from];
+        }
+        long mask = compute(kind, from);
+        masks[kind][from] = mask;
+        versions[kind][from] = stamp;
+        computed++;
+        return mask;
+    }
+
+    private long compute(int kind, int from) {
+        switch (kind) {
+            case ADJACENT:
+                return board.neighbors(from, false);
+            case ADJACENT_DIAG:
+                return board.neighbors(from, true);
+            case DIVER:
+                return board.diverReach(from);
+            case TWO_STEP:
+                return board.twoStepReach(from);
+            case NEAREST:
+                return board.nearestPresent(from);
+            default:
+                throw new IllegalArgumentException("Unknown rule kind: " + kind);
+        }
+    }
+}
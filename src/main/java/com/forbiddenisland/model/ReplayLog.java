@@ -0,0 +1,161 @@
+package com.forbiddenisland.model;
+
+import com.forbiddenisland.log.GameLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A replay file written by {@link ReplayRecorder}, read into memory and indexed once: where
+ * each record starts, which turn it belongs to and which records are checkpoints. Records
+ * are only decoded when {@link ReplayPlayer} applies them.
+ * 由 {@link ReplayRecorder} 写入的回放文件，读入内存并一次性建立索引：每条记录的起始位置、所属回合以及哪些记录是检查点。
+ * 记录只在 {@link ReplayPlayer} 应用它们时才被解码。
+ */
+public final class ReplayLog {
+
+    private final byte[] data;
+    private final int checkpointInterval;
+    private final int[] offsets;            // start of each record's tag byte (每条记录标签字节的起始位置)
+    private final int[] lengths;
+    private final int[] turnStarts;         // index of the first record of each turn (每个回合第一条记录的下标)
+    private final TreeMap<Integer, Integer> checkpoints = new TreeMap<>(); // turn -> record index (回合 -> 记录下标)
+
+    private ReplayLog(byte[] data) throws IOException {
+        this.data = data;
+        if (data.length < ReplayRecorder.MAGIC.length + 2
+                || !Arrays.equals(Arrays.copyOf(data, ReplayRecorder.MAGIC.length), ReplayRecorder.MAGIC)) {
+            throw new IOException("not a Forbidden Island replay file");
+        }
+        int version = data[ReplayRecorder.MAGIC.length] & 0xFF;
+        if (version < 1 || version > ReplayRecorder.FORMAT_VERSION) {
+            throw new IOException("unsupported replay format version " + version);
+        }
+        int[] position = {ReplayRecorder.MAGIC.length + 1};
+        checkpointInterval = readVarInt(data, position);
+        if (checkpointInterval < 1) {
+            throw new IOException("corrupt replay file: bad checkpoint interval");
+        }
+
+        int[] starts = new int[256];
+        int[] sizes = new int[256];
+        int[] turns = new int[64];
+        int count = 0;
+        int turn = 0;
+        turns[0] = 0;
+        while (position[0] < data.length) {
+            int recordStart = position[0];
+            int length = readVarInt(data, position);
+            if (length <= 0 || position[0] + length > data.length) {
+                // The recorder was stopped mid-write; everything before is intact (记录器在写入中途停止；之前的内容完好)
+                GameLog.warn("REPLAY", "Replay ends with a truncated record at byte {}", recordStart);
+                break;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                sizes = Arrays.copyOf(sizes, count * 2);
+            }
+            starts[count] = position[0];
+            sizes[count] = length;
+            int tag = data[position[0]] & 0xFF;
+            if (tag == ReplayRecorder.CHECKPOINT) {
+                checkpoints.put(turn, count);
+            }
+            count++;
+            position[0] += length;
+            if (tag == ReplayRecorder.NEXT_TURN) {
+                turn++;
+                if (turn == turns.length) {
+                    turns = Arrays.copyOf(turns, turn * 2);
+                }
+                turns[turn] = count;
+            }
+        }
+        if (!checkpoints.containsKey(0)) {
+            throw new IOException("corrupt replay file: no starting checkpoint");
+        }
+        offsets = Arrays.copyOf(starts, count);
+        lengths = Arrays.copyOf(sizes, count);
+        turnStarts = Arrays.copyOf(turns, turn + 1);
+    }
+
+    /**
+     * Reads and indexes a replay file.
+     * 读取回放文件并建立索引。
+     * @throws IOException if the file cannot be read or is not a replay (文件无法读取或不是回放文件时抛出)
+     */
+    public static ReplayLog read(Path file) throws IOException {
+        return new ReplayLog(Files.readAllBytes(file));
+    }
+
+    static ReplayLog parse(byte[] data) throws IOException {
+        return new ReplayLog(data);
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Gets the number of completed turns in the recording.
+     * 获取记录中已完成的回合数。
+     */
+    public int getTurnCount() {
+        return turnStarts.length - 1;
+    }
+
+    /**
+     * Gets the number of records, checkpoints included.
+     * 获取记录数量（包括检查点）。
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    int tagAt(int index) {
+        return data[offsets[index]] & 0xFF;
+    }
+
+    /**
+     * Opens a record's payload, positioned just after its tag.
+     * 打开一条记录的内容，位置在其标签之后。
+     */
+    DataInputStream payload(int index) {
+        return new DataInputStream(new ByteArrayInputStream(data, offsets[index] + 1, lengths[index] - 1));
+    }
+
+    /**
+     * Gets the index of the first record of a turn; for the turn after the last this is {@link #size()}.
+     * 获取某回合第一条记录的下标；最后一个回合之后的回合返回 {@link #size()}。
+     */
+    int turnStart(int turn) {
+        return turn < turnStarts.length ? turnStarts[turn] : offsets.length;
+    }
+
+    /**
+     * Gets the latest checkpoint at or before a turn, as turn -> record index.
+     * 获取不晚于某回合的最近检查点，形式为 回合 -> 记录下标。
+     */
+    Map.Entry<Integer, Integer> checkpointAtOrBefore(int turn) {
+        return checkpoints.floorEntry(turn);
+    }
+
+    private static int readVarInt(byte[] bytes, int[] position) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position[0] >= bytes.length) {
+                return -1;
+            }
+            int b = bytes[position[0]++] & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("corrupt replay file: bad length");
+    }
+}
@@ -0,0 +1,231 @@
+package com.forbiddenisland.model;
+
+import com.forbiddenisland.log.GameLog;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Plays back a {@link ReplayLog} on a private game. {@link #step()} applies one recorded event;
+ * {@link #seek(int)} jumps to the start of any turn by loading the nearest checkpoint at or
+ * before it and fast-forwarding, with logging silenced. Seeking forward within the current
+ * checkpoint interval carries on from the current position instead, so the game object only
+ * changes when a checkpoint is loaded.
+ * Cards drawn during playback are compared with the recorded draws and checkpoints with the
+ * recorded state hash; a mismatch is logged as a warning.
+ * 在私有游戏上回放 {@link ReplayLog}。{@link #step()} 应用一个记录的事件；{@link #seek(int)} 通过加载
+ * 不晚于目标回合的最近检查点并快进（期间关闭日志），跳转到任意回合的开始。在当前检查点间隔内向前跳转时从当前位置继续，
+ * 因此只有加载检查点时游戏对象才会改变。回放时摸到的牌与记录的摸牌比较，检查点与记录的局面哈希比较；不一致时记录警告。
+ */
+public class ReplayPlayer {
+
+    private final ReplayLog log;
+    private Game game;
+    private CommandJournal journal;
+    private ReplayRecorder drawCapture;
+    private int position;   // next record to apply (下一条要应用的记录)
+    private int turn;
+    private String lastEvent = "";
+    private String divergence; // reported once playback leaves the silenced scope (在回放离开静默范围后报告)
+
+    /**
+     * Opens a replay at its first turn.
+     * 在第一个回合打开回放。
+     * @throws IOException if the starting checkpoint cannot be decoded (无法解码起始检查点时抛出)
+     */
+    public ReplayPlayer(ReplayLog log) throws IOException {
+        this.log = log;
+        loadCheckpoint(log.checkpointAtOrBefore(0));
+    }
+
+    /**
+     * Gets the game being played back. Changes after a {@link #seek(int)} that loaded a checkpoint.
+     * 获取正在回放的游戏。在加载了检查点的 {@link #seek(int)} 之后会改变。
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    public ReplayLog getLog() {
+        return log;
+    }
+
+    /**
+     * Gets the turn the playback is in, counted from the start of the recording.
+     * 获取回放所处的回合，从记录开始时计数。
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    public int getTurnCount() {
+        return log.getTurnCount();
+    }
+
+    public boolean isAtEnd() {
+        return position >= log.size();
+    }
+
+    /**
+     * Gets a short description of the last event applied.
+     * 获取最后应用的事件的简短描述。
+     */
+    public String getLastEvent() {
+        return lastEvent;
+    }
+
+    /**
+     * Applies the next recorded event.
+     * 应用下一个记录的事件。
+     * @return false if the replay is already at its end (回放已到结尾时返回 false)
+     */
+    public boolean step() throws IOException {
+        try (GameLog.Silence silence = GameLog.silence()) {
+            return applyNext();
+        } finally {
+            reportDivergence();
+        }
+    }
+
+    /**
+     * Moves to the start of a turn, clamped to the recorded range.
+     * 移动到某回合的开始，超出记录范围时取边界值。
+     * @throws IOException if a record or checkpoint on the way is damaged (途中的记录或检查点损坏时抛出)
+     */
+    public void seek(int targetTurn) throws IOException {
+        int target = Math.max(0, Math.min(targetTurn, log.getTurnCount()));
+        Map.Entry<Integer, Integer> checkpoint = log.checkpointAtOrBefore(target);
+        if (target < turn || turn < checkpoint.getKey() || position > log.turnStart(target)) {
+            loadCheckpoint(checkpoint);
+        }
+        int stop = log.turnStart(target);
+        try (GameLog.Silence silence = GameLog.silence()) {
+            while (position < stop && applyNext()) {
+                // fast-forward (快进)
+            }
+        } finally {
+            reportDivergence();
+        }
+    }
+
+    private void loadCheckpoint(Map.Entry<Integer, Integer> checkpoint) throws IOException {
+        DataInputStream in = log.payload(checkpoint.getValue());
+        readVarInt(in);
+        long hash = in.readLong();
+        Game loaded = GameCodec.read(in);
+        if (loaded.getStateHash() != hash) {
+            throw new IOException("replay checkpoint for turn " + checkpoint.getKey() + " is damaged");
+        }
+        game = loaded;
+        journal = new CommandJournal(game);
+        drawCapture = new ReplayRecorder(game);
+        position = checkpoint.getValue() + 1;
+        turn = checkpoint.getKey();
+        lastEvent = "Turn " + turn;
+    }
+
+    /**
+     * Applies records until one that changes the game has been applied.
+     * 应用记录，直到应用了一条会改变游戏的记录。
+     */
+    private boolean applyNext() throws IOException {
+        while (position < log.size()) {
+            int index = position++;
+            int tag = log.tagAt(index);
+            DataInputStream in = log.payload(index);
+            if (tag == ReplayRecorder.CHECKPOINT) {
+                verifyCheckpoint(in);
+                continue;
+            }
+            apply(tag, in);
+            verifyDraws(in, index);
+            return true;
+        }
+        return false;
+    }
+
+    private void apply(int tag, DataInputStream in) throws IOException {
+        if (tag == ReplayRecorder.COMMAND) {
+            GameCommand command = GameCommand.readReplay(in, game);
+            if (!journal.execute(command) && divergence == null) {
+                divergence = command.describe() + " is not legal on replay";
+            }
+            lastEvent = command.describe();
+        } else if (tag == ReplayRecorder.UNDO) {
+            GameCommand command = journal.undo();
+            lastEvent = command == null ? "Undo" : "Undo " + command.describe();
+        } else if (tag == ReplayRecorder.PHASE) {
+            int phase = in.readUnsignedByte();
+            if (phase >= Game.GamePhase.values().length) throw new IOException("corrupt replay: phase " + phase);
+            game.setCurrentPhase(Game.GamePhase.values()[phase]);
+            lastEvent = game.getCurrentPhase().name();
+        } else if (tag == ReplayRecorder.DRAW_TREASURE) {
+            journal.clear();
+            game.playerDrawsTreasureCards();
+            lastEvent = game.getCurrentPlayer().getName() + " draws treasure cards";
+        } else if (tag == ReplayRecorder.DRAW_FLOOD) {
+            journal.clear();
+            game.playerDrawsFloodCards_REVISED();
+            lastEvent = game.getCurrentPlayer().getName() + " draws flood cards";
+        } else if (tag == ReplayRecorder.DISCARD) {
+            int seat = in.readUnsignedByte();
+            int handIndex = in.readUnsignedByte();
+            if (seat >= game.getPlayers().size()) throw new IOException("corrupt replay: seat " + seat);
+            Player player = game.getPlayers().get(seat);
+            if (handIndex >= player.getHand().size()) throw new IOException("corrupt replay: card " + handIndex);
+            Card card = player.getHand().get(handIndex);
+            game.discardFromHand(player, card);
+            lastEvent = player.getName() + " discards " + card.getName();
+        } else if (tag == ReplayRecorder.NEXT_TURN) {
+            journal.clear();
+            game.nextTurn();
+            turn++;
+            lastEvent = "Turn " + turn + ": " + game.getCurrentPlayer().getName();
+        } else {
+            throw new IOException("corrupt replay: record type " + tag);
+        }
+    }
+
+    private void verifyDraws(DataInputStream in, int index) throws IOException {
+        int count = in.readUnsignedByte();
+        int[] recorded = new int[count];
+        for (int i = 0; i < count; i++) {
+            recorded[i] = in.readUnsignedByte();
+        }
+        if (divergence == null && !Arrays.equals(recorded, drawCapture.getLastDraws())) {
+            divergence = "drew " + Arrays.toString(drawCapture.getLastDraws()) + " at record " + index
+                    + " but the recording has " + Arrays.toString(recorded);
+        }
+    }
+
+    private void verifyCheckpoint(DataInputStream in) throws IOException {
+        readVarInt(in);
+        if (divergence == null && in.readLong() != game.getStateHash()) {
+            divergence = "position differs from the checkpoint of turn " + turn;
+        }
+    }
+
+    /**
+     * Warns about the first mismatch found since the last report. A mismatch means the rules
+     * changed since the game was recorded, so the playback may no longer show what happened.
+     * 警告自上次报告以来发现的第一个不一致。不一致说明记录之后规则有变，回放可能不再反映实际发生的情况。
+     */
+    private void reportDivergence() {
+        if (divergence != null) {
+            GameLog.warn("REPLAY", "Replay diverged from the recording: {}", divergence);
+            divergence = null;
+        }
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("corrupt replay: bad number");
+    }
+}
@@ -0,0 +1,244 @@
+package com.forbiddenisland.model;
+
+import com.forbiddenisland.log.GameLog;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Records a game as it is played, for {@link ReplayPlayer}. Every engine action the game
+ * goes through (commands and their undos, phase changes, draws, discards, turn changes) is
+ * appended to a log together with the cards it drew. The file is:
+ * <pre>
+ * magic "FIRP" | format version (1 byte) | checkpoint interval K (varint) | record*
+ * record = length (varint) | tag (1 byte) | payload
+ * </pre>
+ * A {@code CHECKPOINT} record holds the turn, the state hash and the full {@link GameCodec}
+ * encoding; one is written when recording starts and after every K turns, so a seek never
+ * has to replay more than K turns. The log is flushed at each turn boundary; a record cut
+ * short by a crash is ignored when the file is read.
+ * 在游戏进行时记录对局，供 {@link ReplayPlayer} 回放。游戏经过的每个引擎动作（命令及其撤销、阶段变化、
+ * 摸牌、弃牌、回合切换）连同摸到的牌一起追加到日志中。{@code CHECKPOINT} 记录保存回合数、局面哈希和完整的
+ * {@link GameCodec} 编码；开始记录时以及每 K 个回合写入一次，因此跳转最多只需重放 K 个回合。
+ * 日志在每个回合边界刷新；崩溃时写了一半的记录在读取时会被忽略。
+ */
+public class ReplayRecorder implements Closeable {
+
+    public static final int FORMAT_VERSION = 1;
+    public static final String FILE_EXTENSION = ".firp";
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 8;
+    static final byte[] MAGIC = {'F', 'I', 'R', 'P'};
+
+    // Record tags (记录标签)
+    static final int CHECKPOINT = 1;
+    static final int COMMAND = 2;
+    static final int UNDO = 3;
+    static final int PHASE = 4;
+    static final int DRAW_TREASURE = 5;
+    static final int DRAW_FLOOD = 6;
+    static final int DISCARD = 7;
+    static final int NEXT_TURN = 8;
+
+    /**
+     * Writes the event-specific part of a record.
+     * 写入记录中与事件相关的部分。
+     */
+    interface Payload {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private final Game game;
+    private final OutputStream out;         // null when only capturing draws (仅捕获摸牌时为 null)
+    private final int checkpointInterval;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(64);
+    private final DataOutputStream recordData = new DataOutputStream(record);
+
+    private int depth;                      // nested engine calls; only the outermost is recorded (嵌套的引擎调用；只记录最外层)
+    private int[] draws = new int[16];
+    private int drawCount;
+    private int[] lastDraws = new int[0];
+    private int turn;
+    private boolean failed;
+
+    /**
+     * Starts recording a game to a new file, beginning with a checkpoint of its current state.
+     * 开始将游戏记录到新文件，首先写入其当前状态的检查点。
+     * @param game The game to record; it reports to this recorder until {@link #close()} (要记录的游戏；在 {@link #close()} 之前向此记录器报告)
+     * @param file The log file, replaced if it exists (日志文件，已存在时被替换)
+     * @param checkpointInterval Turns between full-state checkpoints (完整状态检查点之间的回合数)
+     */
+    public ReplayRecorder(Game game, Path file, int checkpointInterval) throws IOException {
+        this.game = game;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+        Path folder = file.toAbsolutePath().getParent();
+        if (folder != null) {
+            Files.createDirectories(folder);
+        }
+        this.out = new BufferedOutputStream(Files.newOutputStream(file), 8192);
+        out.write(MAGIC);
+        out.write(FORMAT_VERSION);
+        writeVarInt(out, this.checkpointInterval);
+        writeCheckpoint();
+        out.flush();
+        game.setReplayRecorder(this);
+    }
+
+    /**
+     * Creates a recorder that writes nothing and only keeps the cards each event drew, so a
+     * replay can compare them with the recording.
+     * 创建一个不写入任何内容、只保留每个事件摸到的牌的记录器，以便回放时与记录比较。
+     */
+    ReplayRecorder(Game game) {
+        this.game = game;
+        this.out = null;
+        this.checkpointInterval = Integer.MAX_VALUE;
+        game.setReplayRecorder(this);
+    }
+
+    /**
+     * Gets the default replay folder, {@code ~/.forbiddenisland/replays}.
+     * 获取默认的回放文件夹。
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".forbiddenisland", "replays");
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the number of turns recorded so far.
+     * 获取目前已记录的回合数。
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Flushes the log and detaches from the game.
+     * 刷新日志并与游戏解除关联。
+     */
+    @Override
+    public void close() {
+        if (game.getReplayRecorder() == this) {
+            game.setReplayRecorder(null);
+        }
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                GameLog.warn("REPLAY", "Could not close replay log: {}", e.getMessage());
+            }
+        }
+    }
+
+    // --- Called by the engine (由引擎调用) ---
+
+    /**
+     * Marks the start of an engine call. Calls made while another is in progress (a command
+     * drawing a flood card, a turn draw resolving Waters Rise!) are part of the outer one.
+     * 标记一次引擎调用的开始。在另一次调用进行中发生的调用属于外层调用。
+     */
+    void begin() {
+        if (depth++ == 0) {
+            drawCount = 0;
+        }
+    }
+
+    /**
+     * Marks the end of an engine call and, if it was the outermost, appends its record.
+     * 标记一次引擎调用的结束；如果是最外层调用，则追加其记录。
+     * @param tag The record tag (记录标签)
+     * @param payload Writes the event's fields, or null if it has none (写入事件字段；没有字段时为 null)
+     */
+    void end(int tag, Payload payload) {
+        if (depth == 0 || --depth > 0) return;
+        lastDraws = Arrays.copyOf(draws, drawCount);
+        if (out == null || failed) return;
+        try {
+            record.reset();
+            recordData.writeByte(tag);
+            if (payload != null) {
+                payload.write(recordData);
+            }
+            recordData.writeByte(drawCount);
+            for (int i = 0; i < drawCount; i++) {
+                recordData.writeByte(draws[i]);
+            }
+            writeRecord();
+            if (tag == NEXT_TURN) {
+                turn++;
+                if (turn % checkpointInterval == 0) {
+                    writeCheckpoint();
+                }
+                out.flush(); // a turn boundary is the unit a crash may lose (崩溃最多丢失一个回合)
+            }
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            GameLog.error("REPLAY", "Replay recording stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ends an engine call that changed nothing, such as a command that was not legal.
+     * 结束一次没有改变任何内容的引擎调用，例如不合法的命令。
+     */
+    void cancel() {
+        if (depth > 0 && --depth == 0) {
+            lastDraws = new int[0];
+        }
+    }
+
+    /**
+     * Notes a card drawn during the current engine call: a treasure card ID from
+     * {@link GameCodec}, or the tile ID of a flood card.
+     * 记录当前引擎调用中摸到的牌：{@link GameCodec} 的宝藏卡ID，或洪水牌的板块ID。
+     */
+    void cardDrawn(int cardId) {
+        if (depth == 0) return;
+        if (drawCount == draws.length) {
+            draws = Arrays.copyOf(draws, drawCount * 2);
+        }
+        draws[drawCount++] = cardId;
+    }
+
+    /**
+     * Gets the cards drawn by the last recorded event.
+     * 获取上一个被记录的事件摸到的牌。
+     */
+    int[] getLastDraws() {
+        return lastDraws;
+    }
+
+    private void writeCheckpoint() throws IOException {
+        record.reset();
+        recordData.writeByte(CHECKPOINT);
+        writeVarInt(recordData, turn);
+        recordData.writeLong(game.getStateHash());
+        GameCodec.write(game, recordData);
+        writeRecord();
+    }
+
+    private void writeRecord() throws IOException {
+        recordData.flush();
+        writeVarInt(out, record.size());
+        record.writeTo(out);
+    }
+
+    static void writeVarInt(OutputStream target, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            target.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target.write(value);
+    }
+}
@@ -0,0 +1,57 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Plays a Sandbags card to shore up any flooded tile. Costs no action and may be played by
+ * any player holding the card.
+ * 打出沙袋卡为任意淹没板块治水。不消耗行动点，任何持有该卡的玩家都可以打出。
+ */
+public class SandbagsCommand extends GameCommand {
+
+    private final Player holder;
+    private final SandbagsCard card;
+    private final IslandTile tile;
+
+    private int handIndex;
+
+    public SandbagsCommand(Player holder, SandbagsCard card, IslandTile tile) {
+        this.holder = holder;
+        this.card = card;
+        this.tile = tile;
+    }
+
+    @Override
+    boolean apply(Game game) {
+        BoardState board = game.getBoardState();
+        int index = board.indexOf(tile);
+        if (index < 0 || !board.isFlooded(index)) return false;
+        handIndex = holder.getHand().indexOf(card);
+        if (handIndex < 0) return false;
+
+        holder.removeCardFromHand(card);
+        game.getTreasureDeck().discardCard(card);
+        tile.setFlooded(false);
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        tile.setFlooded(true);
+        returnDiscardToHand(game, holder, card, handIndex);
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) throws IOException {
+        out.writeByte(SANDBAGS);
+        out.writeByte(seatOf(game, holder));
+        out.writeByte(handIndex);
+        out.writeByte(tileIdOf(tile));
+    }
+
+    @Override
+    public String describe() {
+        return "Sandbags on " + tile.getName();
+    }
+}
@@ -0,0 +1,446 @@
+package com.forbiddenisland.model;
+
+import com.forbiddenisland.log.GameLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The saves in one folder, listed from a small index file instead of by loading each game.
+ * The index ({@value #INDEX_FILE}) holds one fixed-size record per save: file size and
+ * modification time, then the {@link SaveSummary} fields. It is read in one call into a heap
+ * buffer, so the file is not held open or mapped afterwards. Only saves whose size or time
+ * no longer match are read again, and a compact save is then only summarized
+ * ({@link GameCodec#readSummary}), never loaded. A legacy {@code .sav} has to be
+ * deserialized once, the first time it is seen.
+ * {@link #watch} keeps the list current from a {@link WatchService}, re-reading just the
+ * files that changed.
+ * 一个文件夹中的存档，通过小型索引文件列出，而不是逐个加载游戏。索引（{@value #INDEX_FILE}）为每个存档保存一条定长记录：
+ * 文件大小和修改时间，然后是 {@link SaveSummary} 的字段。索引一次性读入堆缓冲区，之后不再占用或映射该文件；
+ * 只有大小或时间不再匹配的存档才会被重新读取，且紧凑存档只读取摘要（{@link GameCodec#readSummary}），从不加载。旧版 {@code .sav} 在首次出现时需要反序列化一次。
+ * {@link #watch} 通过 {@link WatchService} 保持列表最新，只重新读取发生变化的文件。
+ */
+public class SaveLibrary implements AutoCloseable {
+
+    public static final String INDEX_FILE = ".saveindex";
+    private static final String LEGACY_EXTENSION = ".sav";
+
+    // Index layout (索引布局)
+    private static final byte[] MAGIC = {'F', 'I', 'S', 'X'};
+    private static final int INDEX_VERSION = 1;
+    private static final int HEADER_SIZE = 16;      // magic, version, record count, reserved (魔数、版本、记录数、保留)
+    private static final int RECORD_SIZE = 256;
+    private static final int MAX_FILE_NAME_BYTES = 128;
+    private static final int MAX_PLAYERS = 4;
+    private static final int MAX_PLAYER_NAME_BYTES = 20;
+    private static final int NONE = 0xFF;
+    private static final int NO_TURN = 0xFFFF;      // SaveSummary.UNKNOWN_TURN in the unsigned turn field (无符号回合字段中的未知回合)
+    private static final int FLAG_COMPACT = 1;
+
+    /**
+     * A save and the file size and time its summary was read at.
+     */
+    private static final class Entry {
+        final SaveSummary summary;
+        final long size;
+        final long modified;
+
+        Entry(SaveSummary summary, long size, long modified) {
+            this.summary = summary;
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+
+    private final Path directory;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean indexLoaded;
+    private int summariesRead;      // saves read since creation, for tests and stats (创建以来读取的存档数，用于测试和统计)
+
+    private WatchService watcher;
+
+    /**
+     * @param directory The folder to list; it does not need to exist yet (要列出的文件夹，可以尚不存在)
+     */
+    public SaveLibrary(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the default folder for manual saves, {@code ~/.forbiddenisland/saves}.
+     * 获取手动存档的默认文件夹。
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".forbiddenisland", "saves");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Whether a file name is one the library lists.
+     * 文件名是否属于存档库列出的文件。
+     */
+    public static boolean isSaveFile(String fileName) {
+        return fileName.endsWith(GameCodec.FILE_EXTENSION) || fileName.endsWith(LEGACY_EXTENSION);
+    }
+
+    /**
+     * Brings the list up to date with the folder: reads the index the first time, then
+     * re-reads only new or changed saves and rewrites the index if anything changed.
+     * 使列表与文件夹保持一致：首次读取索引，然后只重新读取新增或变化的存档，有变化时重写索引。
+     */
+    public synchronized void refresh() {
+        if (!indexLoaded) {
+            readIndex();
+            indexLoaded = true;
+        }
+        boolean changed = false;
+        Set<String> present = new HashSet<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                    "*{" + GameCodec.FILE_EXTENSION + "," + LEGACY_EXTENSION + "}")) {
+                for (Path file : stream) {
+                    String name = file.getFileName().toString();
+                    present.add(name);
+                    changed |= update(name);
+                }
+            } catch (IOException e) {
+                GameLog.warn("SAVE_LIBRARY", "Cannot list {}: {}", directory, e.getMessage());
+            }
+        }
+        changed |= entries.keySet().retainAll(present);
+        if (changed) {
+            writeIndex();
+        }
+    }
+
+    /**
+     * Lists the saves, newest first.
+     * 列出存档，最新的在前。
+     */
+    public synchronized List<SaveSummary> list() {
+        List<SaveSummary> saves = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            saves.add(entry.summary);
+        }
+        saves.sort((a, b) -> Long.compare(b.getSavedAt(), a.getSavedAt()));
+        return saves;
+    }
+
+    /**
+     * Lists the saves matching a search text ({@link SaveSummary#matches}), newest first.
+     * 列出与搜索文本匹配的存档（{@link SaveSummary#matches}），最新的在前。
+     */
+    public List<SaveSummary> search(String query) {
+        List<SaveSummary> saves = list();
+        saves.removeIf(save -> !save.matches(query));
+        return saves;
+    }
+
+    /**
+     * Gets the path of a listed save.
+     * 获取列出的存档的路径。
+     */
+    public Path resolve(SaveSummary save) {
+        return directory.resolve(save.getFileName());
+    }
+
+    synchronized int getSummariesRead() {
+        return summariesRead;
+    }
+
+    /**
+     * Starts a daemon thread that keeps the list current as files are added, replaced or
+     * deleted, and calls {@code onChange} after each batch of changes.
+     * 启动一个守护线程，在文件被添加、替换或删除时保持列表最新，并在每批变化后调用 {@code onChange}。
+     * @param onChange Called on the watch thread (在监视线程上调用)
+     * @throws IOException if the folder cannot be created or watched (文件夹无法创建或监视时抛出)
+     */
+    public synchronized void watch(Runnable onChange) throws IOException {
+        if (watcher != null) return;
+        Files.createDirectories(directory);
+        watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        WatchService service = watcher;
+        Thread thread = new Thread(() -> watchLoop(service, onChange), "save-library");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the folder.
+     * 停止监视文件夹。
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher == null) return;
+        try {
+            watcher.close(); // wakes the watch thread, which then ends (唤醒监视线程，随后其结束)
+        } catch (IOException e) {
+            GameLog.warn("SAVE_LIBRARY", "Cannot stop watching {}: {}", directory, e.getMessage());
+        }
+        watcher = null;
+    }
+
+    private void watchLoop(WatchService service, Runnable onChange) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        refresh();
+                        changed = true;
+                        continue;
+                    }
+                    String name = event.context().toString();
+                    if (!isSaveFile(name)) continue;
+                    synchronized (this) {
+                        changed |= update(name);
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    synchronized (this) {
+                        writeIndex();
+                    }
+                    onChange.run();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed (已关闭)
+        }
+    }
+
+    /**
+     * Re-reads one save if its size or time changed since it was indexed, or drops it if it
+     * is gone. Caller holds the lock.
+     * @return true if the list changed
+     */
+    private boolean update(String name) {
+        Path file = directory.resolve(name);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return entries.remove(name) != null;
+        } catch (IOException e) {
+            GameLog.warn("SAVE_LIBRARY", "Cannot read {}: {}", file, e.getMessage());
+            return false;
+        }
+        if (!attributes.isRegularFile()) return false;
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        Entry known = entries.get(name);
+        if (known != null && known.size == size && known.modified == modified) return false;
+
+        SaveSummary summary = summarize(file, modified);
+        if (summary == null) {
+            return entries.remove(name) != null;
+        }
+        entries.put(name, new Entry(summary, size, modified));
+        return true;
+    }
+
+    private SaveSummary summarize(Path file, long modified) {
+        summariesRead++;
+        String path = file.toString();
+        if (GameCodec.isCompactSave(path)) {
+            try {
+                return GameCodec.readSummary(file);
+            } catch (IOException e) {
+                GameLog.warn("SAVE_LIBRARY", "Skipping damaged save {}: {}", file, e.getMessage());
+                return null;
+            }
+        }
+        // Only a legacy file is ever loaded here, and only until the index knows it (只有旧版文件会在此加载，且只在索引记录之前)
+        Game game = GameLoader.loadGame(path);
+        return game == null ? null : SaveSummary.of(game, file.getFileName().toString(), false, modified);
+    }
+
+    // --- Index file (索引文件) ---
+
+    private void readIndex() {
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(index)) return;
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(index));
+            int length = in.capacity();
+            if (length < HEADER_SIZE) return;
+            byte[] magic = new byte[MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.getInt() != INDEX_VERSION) {
+                GameLog.info("SAVE_LIBRARY", "Rebuilding index for {}", directory);
+                return;
+            }
+            int count = in.getInt();
+            if (count < 0 || HEADER_SIZE + (long) count * RECORD_SIZE > length) {
+                GameLog.warn("SAVE_LIBRARY", "Index for {} is damaged, rebuilding", directory);
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                in.position(HEADER_SIZE + i * RECORD_SIZE);
+                readRecord(in);
+            }
+        } catch (IOException | RuntimeException e) {
+            GameLog.warn("SAVE_LIBRARY", "Cannot read index for {}: {}", directory, e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private void readRecord(ByteBuffer in) {
+        String name = readFileName(in, MAX_FILE_NAME_BYTES);
+        long size = in.getLong();
+        long modified = in.getLong();
+        long savedAt = in.getLong();
+        int turn = in.getShort() & 0xFFFF;
+        if (turn == NO_TURN) turn = SaveSummary.UNKNOWN_TURN;
+        int water = in.get() & 0xFF;
+        int treasures = in.get() & 0xFF;
+        int flags = in.get() & 0xFF;
+        int outcome = in.get() & 0xFF;
+        int playerCount = Math.min(in.get() & 0xFF, MAX_PLAYERS);
+        List<AdventurerRole> roles = new ArrayList<>(playerCount);
+        int[] roleIds = new int[MAX_PLAYERS];
+        for (int i = 0; i < MAX_PLAYERS; i++) {
+            roleIds[i] = in.get() & 0xFF;
+        }
+        List<String> names = new ArrayList<>(playerCount);
+        for (int i = 0; i < MAX_PLAYERS; i++) {
+            String player = readPlayerName(in, MAX_PLAYER_NAME_BYTES);
+            if (i < playerCount) {
+                names.add(player);
+                roles.add(roleIds[i] < AdventurerRole.values().length ? AdventurerRole.values()[roleIds[i]] : null);
+            }
+        }
+        GameOverReason reason = outcome < GameOverReason.values().length ? GameOverReason.values()[outcome] : null;
+        entries.put(name, new Entry(new SaveSummary(name, (flags & FLAG_COMPACT) != 0, savedAt, turn, water,
+                treasures, names, roles, reason), size, modified));
+    }
+
+    private void writeIndex() {
+        List<String> names = new ArrayList<>();
+        for (String name : entries.keySet()) {
+            // A name too long for a record is summarized again next time instead (名称过长无法放入记录的存档下次重新读取)
+            if (name.getBytes(StandardCharsets.UTF_8).length <= MAX_FILE_NAME_BYTES) names.add(name);
+        }
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + names.size() * RECORD_SIZE);
+        out.put(MAGIC).putInt(INDEX_VERSION).putInt(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            out.position(HEADER_SIZE + i * RECORD_SIZE);
+            writeRecord(out, entries.get(names.get(i)));
+        }
+        out.position(0);
+
+        Path index = directory.resolve(INDEX_FILE);
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, INDEX_FILE, ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            }
+            try {
+                Files.move(temp, index, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Not fatal: the saves are re-read next time (不致命：下次会重新读取存档)
+            GameLog.warn("SAVE_LIBRARY", "Cannot write index for {}: {}", directory, e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // nothing more to do (无需进一步处理)
+                }
+            }
+        }
+    }
+
+    private static void writeRecord(ByteBuffer out, Entry entry) {
+        SaveSummary save = entry.summary;
+        writeFileName(out, save.getFileName(), MAX_FILE_NAME_BYTES);
+        out.putLong(entry.size).putLong(entry.modified).putLong(save.getSavedAt());
+        out.putShort((short) (save.getTurn() == SaveSummary.UNKNOWN_TURN ? NO_TURN : save.getTurn()));
+        out.put((byte) save.getWaterLevel());
+        out.put((byte) save.getTreasureMask());
+        out.put((byte) (save.isCompact() ? FLAG_COMPACT : 0));
+        out.put((byte) (save.getGameOverReason() == null ? NONE : save.getGameOverReason().ordinal()));
+        List<String> players = save.getPlayerNames();
+        List<AdventurerRole> roles = save.getRoles();
+        out.put((byte) Math.min(players.size(), MAX_PLAYERS));
+        for (int i = 0; i < MAX_PLAYERS; i++) {
+            AdventurerRole role = i < roles.size() ? roles.get(i) : null;
+            out.put((byte) (role == null ? NONE : role.ordinal()));
+        }
+        for (int i = 0; i < MAX_PLAYERS; i++) {
+            writePlayerName(out, i < players.size() ? players.get(i) : "", MAX_PLAYER_NAME_BYTES);
+        }
+    }
+
+    /** File name: 2-byte length, then a fixed-size UTF-8 field. */
+    private static void writeFileName(ByteBuffer out, String text, int field) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+        out.position(out.position() + field - bytes.length);
+    }
+
+    private static String readFileName(ByteBuffer in, int field) {
+        int length = Math.min(in.getShort() & 0xFFFF, field);
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        in.position(in.position() + field - length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Player name: 1-byte length, then a fixed-size UTF-8 field; long names are cut at a character boundary. */
+    private static void writePlayerName(ByteBuffer out, String text, int field) {
+        String cut = text;
+        byte[] bytes = cut.getBytes(StandardCharsets.UTF_8);
+        while (bytes.length > field) {
+            cut = cut.substring(0, cut.length() - 1);
+            bytes = cut.getBytes(StandardCharsets.UTF_8);
+        }
+        out.put((byte) bytes.length);
+        out.put(bytes);
+        out.position(out.position() + field - bytes.length);
+    }
+
+    private static String readPlayerName(ByteBuffer in, int field) {
+        int length = Math.min(in.get() & 0xFF, field);
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        in.position(in.position() + field - length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
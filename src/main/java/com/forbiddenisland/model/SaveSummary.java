@@ -0,0 +1,151 @@
+package com.forbiddenisland.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * What the save browser shows about a save file without loading the game: players and their
+ * roles, water level, turn, treasures collected, outcome and when it was saved.
+ * 存档浏览器在不加载游戏的情况下显示的存档信息：玩家及其角色、水位、回合、已获得的宝藏、结局和保存时间。
+ */
+public final class SaveSummary {
+
+    public static final int UNKNOWN_TURN = -1;
+
+    private final String fileName;
+    private final boolean compact;
+    private final long savedAt;
+    private final int turn;
+    private final int waterLevel;
+    private final int treasureMask;
+    private final List<String> playerNames;
+    private final List<AdventurerRole> roles;
+    private final GameOverReason gameOverReason;
+    private final String searchText; // lower-case file name, player names and roles (小写的文件名、玩家名和角色)
+
+    SaveSummary(String fileName, boolean compact, long savedAt, int turn, int waterLevel, int treasureMask,
+                List<String> playerNames, List<AdventurerRole> roles, GameOverReason gameOverReason) {
+        this.fileName = fileName;
+        this.compact = compact;
+        this.savedAt = savedAt;
+        this.turn = turn;
+        this.waterLevel = waterLevel;
+        this.treasureMask = treasureMask;
+        this.playerNames = Collections.unmodifiableList(new ArrayList<>(playerNames));
+        this.roles = Collections.unmodifiableList(new ArrayList<>(roles));
+        this.gameOverReason = gameOverReason;
+
+        StringBuilder text = new StringBuilder(fileName);
+        for (String name : playerNames) {
+            text.append(' ').append(name);
+        }
+        for (AdventurerRole role : roles) {
+            if (role != null) text.append(' ').append(role.name()).append(' ').append(role.getChineseName());
+        }
+        this.searchText = text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Summarizes a game that is already loaded, such as a legacy {@code .sav} file.
+     * 概括一个已加载的游戏，例如旧版 {@code .sav} 文件。
+     */
+    static SaveSummary of(Game game, String fileName, boolean compact, long savedAt) {
+        List<String> names = new ArrayList<>();
+        List<AdventurerRole> roles = new ArrayList<>();
+        for (Player player : game.getPlayers()) {
+            names.add(player.getName());
+            roles.add(player.getRole());
+        }
+        int mask = 0;
+        for (Treasure treasure : game.getTreasures()) {
+            if (treasure.isCollected()) mask |= 1 << treasure.getType().ordinal();
+        }
+        return new SaveSummary(fileName, compact, savedAt, game.getTurnNumber(),
+                game.getWaterMeter().getCurrentWaterLevel(), mask, names, roles, game.getGameOverReason());
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Whether the file is in the compact {@link GameCodec} format rather than a serialized {@code .sav}.
+     * 文件是否为紧凑的 {@link GameCodec} 格式，而不是序列化的 {@code .sav}。
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Gets when the game was saved, in epoch milliseconds. Older files use the file's modification time.
+     * 获取游戏的保存时间（纪元毫秒）。旧文件使用文件修改时间。
+     */
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    /**
+     * Gets the turns completed, or {@link #UNKNOWN_TURN} for files saved before turns were counted.
+     * 获取已完成的回合数；回合计数出现之前保存的文件为 {@link #UNKNOWN_TURN}。
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    public int getWaterLevel() {
+        return waterLevel;
+    }
+
+    int getTreasureMask() {
+        return treasureMask;
+    }
+
+    public Set<TreasureType> getCollectedTreasures() {
+        Set<TreasureType> collected = EnumSet.noneOf(TreasureType.class);
+        for (TreasureType type : TreasureType.values()) {
+            if ((treasureMask & (1 << type.ordinal())) != 0) collected.add(type);
+        }
+        return collected;
+    }
+
+    public List<String> getPlayerNames() {
+        return playerNames;
+    }
+
+    /**
+     * Gets each player's role, in seat order; an entry is null if the player had none.
+     * 按座位顺序获取每名玩家的角色；玩家没有角色时对应项为 null。
+     */
+    public List<AdventurerRole> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Gets why the game was lost, or null if it was still running.
+     * 获取游戏失败的原因；游戏仍在进行时为 null。
+     */
+    public GameOverReason getGameOverReason() {
+        return gameOverReason;
+    }
+
+    /**
+     * Checks whether every word of a search text appears in the file name, a player name or a role.
+     * 检查搜索文本的每个词是否都出现在文件名、玩家名或角色中。
+     */
+    public boolean matches(String query) {
+        if (query == null || query.isBlank()) return true;
+        for (String word : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            if (!searchText.contains(word)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return fileName;
+    }
+}
@@ -0,0 +1,81 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Shores up one flooded tile in reach of the current player, or two for the Engineer,
+ * for one action.
+ * 花费一个行动点，为当前玩家范围内的一个淹没板块治水；工程师可以治水两个。
+ */
+public class ShoreUpCommand extends GameCommand {
+
+    private final Player player;
+    private final IslandTile first;
+    private final IslandTile second; // Engineer only, may be null (仅工程师，可为 null)
+
+    private int previousActions;
+
+    public ShoreUpCommand(Player player, IslandTile tile) {
+        this(player, tile, null);
+    }
+
+    /**
+     * @param player The current player (当前玩家)
+     * @param first The tile to shore up (要治水的板块)
+     * @param second A second tile for the Engineer, or null (工程师的第二个板块，或 null)
+     */
+    public ShoreUpCommand(Player player, IslandTile first, IslandTile second) {
+        this.player = player;
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    boolean apply(Game game) {
+        if (!hasAction(game) || player != game.getCurrentPlayer()) return false;
+        BoardState board = game.getBoardState();
+        int from = cellOf(game, player);
+        if (from < 0) return false;
+        long targets = board.getReachability().shoreUpTargets(player.getRole(), from);
+        if (!inMask(targets, board.indexOf(first))) return false;
+        if (second != null && (player.getRole() != AdventurerRole.ENGINEER || second == first
+                || !inMask(targets, board.indexOf(second)))) {
+            return false;
+        }
+
+        previousActions = game.getActionsRemainingInTurn();
+        game.spendAction();
+        first.shoreUp();
+        if (second != null) {
+            second.shoreUp();
+        }
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        if (second != null) {
+            second.setFlooded(true);
+        }
+        first.setFlooded(true);
+        game.setActionsRemainingInTurn(previousActions);
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) throws IOException {
+        out.writeByte(SHORE_UP);
+        out.writeByte(seatOf(game, player));
+        out.writeByte(tileIdOf(first));
+        out.writeByte(tileIdOf(second));
+    }
+
+    public IslandTile getFirst() {
+        return first;
+    }
+
+    @Override
+    public String describe() {
+        return "Shore up " + first.getName() + (second != null ? " and " + second.getName() : "");
+    }
+}
@@ -0,0 +1,149 @@
+package com.forbiddenisland.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the 24 island tiles, giving each a stable small integer ID.
+ * Everything that is fixed per tile (name, treasure, which role starts there) lives in shared
+ * tables indexed by ID, so the model can refer to tiles by {@code int} and never hash or
+ * compare tile names on a hot path.
+ * 24个岛屿板块的注册表，为每个板块分配一个稳定的小整数ID。
+ * 每个板块的固定信息（名称、宝藏、哪个角色从这里出发）都保存在按ID索引的共享表中，
+ * 因此模型可以用 {@code int} 引用板块，热点路径上不再对板块名称做哈希或字符串比较。
+ */
+public final class TileRegistry {
+
+    public static final int TILE_COUNT = 24;
+    public static final int NO_TILE = -1; // ID of a tile that is not one of the 24 standard tiles (非标准板块的ID)
+
+    public static final int FOOLS_LANDING = 0;
+    public static final int WHISPERING_GARDEN = 1;
+    public static final int HOWLING_GARDEN = 2;
+    public static final int TIDAL_PALACE = 3;
+    public static final int CORAL_PALACE = 4;
+    public static final int TEMPLE_OF_THE_MOON = 5;
+    public static final int TEMPLE_OF_THE_SUN = 6;
+    public static final int CAVE_OF_EMBERS = 7;
+    public static final int CAVE_OF_SHADOWS = 8;
+    public static final int BRONZE_GATE = 9;
+    public static final int COPPER_GATE = 10;
+    public static final int GOLD_GATE = 11;
+    public static final int IRON_GATE = 12;
+    public static final int SILVER_GATE = 13;
+    public static final int OBSERVATORY = 14;
+    public static final int PHANTOM_ROCK = 15;
+    public static final int TWILIGHT_HOLLOW = 16;
+    public static final int WATCHTOWER = 17;
+    public static final int BREAKERS_BRIDGE = 18;
+    public static final int CLIFFS_OF_ABANDON = 19;
+    public static final int CRIMSON_FOREST = 20;
+    public static final int DUNES_OF_DECEPTION = 21;
+    public static final int LOST_LAGOON = 22;
+    public static final int MISTY_MARSH = 23;
+
+    // Indexed by tile ID (按板块ID索引)
+    private static final String[] NAMES = {
+        "Fools' Landing", "Whispering Garden", "Howling Garden", "Tidal Palace", "Coral Palace",
+        "Temple of the Moon", "Temple of the Sun", "Cave of Embers", "Cave of Shadows",
+        "Bronze Gate", "Copper Gate", "Gold Gate", "Iron Gate", "Silver Gate",
+        "Observatory", "Phantom Rock", "Twilight Hollow", "Watchtower",
+        "Breakers Bridge", "Cliffs of Abandon", "Crimson Forest", "Dunes of Deception",
+        "Lost Lagoon", "Misty Marsh"
+    };
+    private static final TreasureType[] TREASURES = new TreasureType[TILE_COUNT];
+
+    // Indexed by TreasureType.ordinal() (按 TreasureType.ordinal() 索引)
+    private static final int[][] TREASURE_TILES = new int[TreasureType.values().length][];
+
+    // Indexed by AdventurerRole.ordinal() (按 AdventurerRole.ordinal() 索引)
+    private static final int[] STARTING_TILES = new int[AdventurerRole.values().length];
+    private static final String[] PAWN_COLORS = new String[AdventurerRole.values().length];
+
+    // Only used when translating a name from outside the model (UI, old saves) (仅在转换外部传入的名称时使用)
+    private static final Map<String, Integer> IDS_BY_NAME = new HashMap<>();
+
+    static {
+        for (int id = 0; id < TILE_COUNT; id++) {
+            IDS_BY_NAME.put(NAMES[id], id);
+        }
+
+        treasure(TreasureType.THE_EARTH_STONE, TEMPLE_OF_THE_MOON, TEMPLE_OF_THE_SUN);
+        treasure(TreasureType.THE_STATUE_OF_THE_WIND, WHISPERING_GARDEN, HOWLING_GARDEN);
+        treasure(TreasureType.THE_CRYSTAL_OF_FIRE, CAVE_OF_EMBERS, CAVE_OF_SHADOWS);
+        treasure(TreasureType.THE_OCEANS_CHALICE, CORAL_PALACE, TIDAL_PALACE);
+
+        start(AdventurerRole.PILOT, FOOLS_LANDING, "Blue");
+        start(AdventurerRole.NAVIGATOR, GOLD_GATE, "Yellow");
+        start(AdventurerRole.MESSENGER, SILVER_GATE, "White");
+        start(AdventurerRole.DIVER, IRON_GATE, "Black");
+        start(AdventurerRole.EXPLORER, COPPER_GATE, "Green");
+        start(AdventurerRole.ENGINEER, BRONZE_GATE, "Red");
+        start(AdventurerRole.ARCHAEOLOGIST, MISTY_MARSH, "Purple");
+    }
+
+    private TileRegistry() {
+    }
+
+    private static void treasure(TreasureType type, int first, int second) {
+        TREASURE_TILES[type.ordinal()] = new int[]{first, second};
+        TREASURES[first] = type;
+        TREASURES[second] = type;
+    }
+
+    private static void start(AdventurerRole role, int tileId, String pawnColor) {
+        STARTING_TILES[role.ordinal()] = tileId;
+        PAWN_COLORS[role.ordinal()] = pawnColor;
+    }
+
+    /**
+     * Looks up the ID of a tile name.
+     * 查找板块名称对应的ID。
+     * @param name The tile name (板块名称)
+     * @return The tile ID, or {@link #NO_TILE} if the name is not a standard tile (板块ID，若不是标准板块则为 NO_TILE)
+     */
+    public static int idOf(String name) {
+        Integer id = IDS_BY_NAME.get(name);
+        return id == null ? NO_TILE : id;
+    }
+
+    /**
+     * Gets the name of a tile ID.
+     * 获取板块ID对应的名称。
+     */
+    public static String nameOf(int id) {
+        return NAMES[id];
+    }
+
+    /**
+     * Gets the treasure that can be captured on a tile, or null.
+     * 获取可以在该板块上获取的宝藏，没有则为 null。
+     */
+    public static TreasureType treasureOf(int id) {
+        return id < 0 ? null : TREASURES[id];
+    }
+
+    /**
+     * Gets the IDs of the two tiles a treasure can be captured on. The array is shared; do not modify it.
+     * 获取可以获取该宝藏的两个板块的ID。返回的数组是共享的，请勿修改。
+     */
+    public static int[] tilesOf(TreasureType type) {
+        return TREASURE_TILES[type.ordinal()];
+    }
+
+    /**
+     * Gets the ID of the tile a role starts on.
+     * 获取角色起始板块的ID。
+     */
+    public static int startingTileOf(AdventurerRole role) {
+        return STARTING_TILES[role.ordinal()];
+    }
+
+    /**
+     * Gets the pawn colour used by a role.
+     * 获取角色使用的棋子颜色。
+     */
+    public static String pawnColorOf(AdventurerRole role) {
+        return PAWN_COLORS[role.ordinal()];
+    }
+}
@@ -1,5 +1,6 @@
 package com.forbiddenisland.model;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.io.Serializable;
 
@@ -10,6 +11,7 @@ import java.io.Serializable;
 public class Treasure implements Serializable{
     private TreasureType type; // The type of the treasure (宝藏的类型)
     private List<String> islandTileNames; // Names of the IslandTiles where this treasure can be captured (可以获取此宝藏的岛屿板块名称列表)
+    private int[] islandTileIds; // Registry IDs of the same tiles (相同板块的注册表ID)
     private boolean collected; // Whether this treasure has been collected by any player (此宝藏是否已被任何玩家收集)
 
     /**
@@ -21,9 +23,29 @@ public class Treasure implements Serializable{
     public Treasure(TreasureType type, List<String> islandTileNames) {
         this.type = type;
         this.islandTileNames = islandTileNames;
+        this.islandTileIds = new int[islandTileNames.size()];
+        for (int i = 0; i < islandTileIds.length; i++) {
+            islandTileIds[i] = TileRegistry.idOf(islandTileNames.get(i));
+        }
         this.collected = false; // Treasures start uncollected (宝藏初始未被收集)
     }
 
+    /**
+     * Constructor for a standard treasure, taking its tiles from the TileRegistry.
+     * 标准宝藏的构造函数，从 TileRegistry 获取其板块。
+     * @param type The type of the treasure. (宝藏的类型)
+     */
+    public Treasure(TreasureType type) {
+        this.type = type;
+        this.islandTileIds = TileRegistry.tilesOf(type);
+        List<String> names = new ArrayList<>();
+        for (int id : islandTileIds) {
+            names.add(TileRegistry.nameOf(id));
+        }
+        this.islandTileNames = names;
+        this.collected = false;
+    }
+
     /**
      * Gets the type of the treasure.
      * 获取宝藏的类型。
@@ -42,6 +64,16 @@ public class Treasure implements Serializable{
         return islandTileNames;
     }
 
+    /**
+     * Gets the registry IDs of the IslandTiles where this treasure can be captured.
+     * The array is shared; do not modify it.
+     * 获取可以捕获此宝藏的岛屿板块的注册表ID。返回的数组是共享的，请勿修改。
+     * @return An array of tile IDs. (板块ID数组)
+     */
+    public int[] getIslandTileIds() {
+        return islandTileIds;
+    }
+
     /**
      * Checks if this treasure has been collected.
      * 检查此宝藏是否已被收集。
@@ -58,4 +90,12 @@ public class Treasure implements Serializable{
     public void setCollected() {
         this.collected = true;
     }
+
+    /**
+     * Marks this treasure as not collected again. Only used to undo a capture.
+     * 将此宝藏重新标记为未收集。仅用于撤销获取宝藏。
+     */
+    void clearCollected() {
+        this.collected = false;
+    }
 } 
\ No newline at end of file
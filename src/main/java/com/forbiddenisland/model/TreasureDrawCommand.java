@@ -0,0 +1,110 @@
+package com.forbiddenisland.model;
+
+import com.forbiddenisland.log.GameLog;
+
+import java.io.DataOutput;
+import java.util.List;
+
+/**
+ * Draws the two treasure cards at the end of a player's turn. A Waters Rise! card is
+ * resolved by a {@link WatersRiseCommand} instead of going to the hand, and an empty draw
+ * pile is refilled from the shuffled discard pile before the next draw. Undo takes the cards
+ * back from the hand, undoes any Waters Rise! and any reshuffle, and puts the cards back on
+ * top of the draw pile, so redoing draws the same cards.
+ * 在玩家回合结束时摸两张宝藏牌。"洪水上涨！"牌由 {@link WatersRiseCommand} 结算而不进入手牌；
+ * 摸牌堆为空时，先将弃牌堆洗混补入摸牌堆再摸下一张。撤销会从手牌取回这些牌，撤销"洪水上涨！"和洗牌，
+ * 并将牌放回摸牌堆顶，因此重做会摸到相同的牌。
+ */
+public class TreasureDrawCommand extends GameCommand {
+
+    private static final int CARDS_PER_TURN = 2;
+
+    private final Player player;
+
+    // Per draw, in draw order (按摸牌顺序，每次摸牌一项)
+    private final Card[] cards = new Card[CARDS_PER_TURN];
+    private final WatersRiseCommand[] watersRises = new WatersRiseCommand[CARDS_PER_TURN];
+    @SuppressWarnings("unchecked")
+    private final List<Card>[] discardsBeforeReshuffle = new List[CARDS_PER_TURN]; // only where a reshuffle came first (仅当先洗过牌时)
+    private final long[] treasureRandomStates = new long[CARDS_PER_TURN];
+
+    public TreasureDrawCommand(Player player) {
+        this.player = player;
+    }
+
+    @Override
+    boolean apply(Game game) {
+        if (player == null) return false;
+        for (int i = 0; i < CARDS_PER_TURN; i++) {
+            draw(game, i);
+            game.checkHandLimit(player);
+        }
+        return true;
+    }
+
+    private void draw(Game game, int i) {
+        Deck<Card> deck = game.getTreasureDeck();
+        cards[i] = null;
+        watersRises[i] = null;
+        discardsBeforeReshuffle[i] = null;
+        if (deck.isDrawPileEmpty()) {
+            if (deck.getDiscardPileSize() == 0) {
+                GameLog.warn("TURN", "Treasure deck empty during draw for {} (宝藏牌堆在为 {} 抽牌时已空)", player.getName(), player.getName());
+                return;
+            }
+            GameLog.debug("TURN", "Treasure draw pile empty, reshuffling discard pile.");
+            discardsBeforeReshuffle[i] = deck.getDiscardPile();
+            treasureRandomStates[i] = game.getTreasureDeckRandom().getState();
+            deck.reshuffleDiscardIntoDraw();
+        }
+        Card card = deck.drawCard();
+        cards[i] = card;
+        ReplayRecorder recorder = game.getReplayRecorder();
+        if (recorder != null) {
+            recorder.cardDrawn(GameCodec.treasureCardId(card));
+        }
+
+        if (card instanceof WatersRiseCard) {
+            GameLog.info("TURN", "Waters Rise! card drawn by {}.", player.getName());
+            watersRises[i] = new WatersRiseCommand((WatersRiseCard) card);
+            watersRises[i].execute(game);
+        } else {
+            player.addCardToHand(card);
+            GameLog.debug("TURN", "{} draws: {}", player.getName(), card.getName());
+        }
+    }
+
+    @Override
+    void revert(Game game) {
+        Deck<Card> deck = game.getTreasureDeck();
+        for (int i = CARDS_PER_TURN - 1; i >= 0; i--) {
+            if (cards[i] == null) continue;
+            if (watersRises[i] != null) {
+                watersRises[i].undo(game); // takes the card back off the discard pile (从弃牌堆取回该牌)
+            } else {
+                player.removeCardFromHand(cards[i]);
+            }
+            deck.returnToDrawPile(cards[i]);
+            if (discardsBeforeReshuffle[i] != null) {
+                deck.removeFromDrawPileTop(discardsBeforeReshuffle[i].size());
+                deck.restoreDiscardPile(discardsBeforeReshuffle[i]);
+                game.getTreasureDeckRandom().setState(treasureRandomStates[i]);
+            }
+        }
+    }
+
+    @Override
+    int replayTag() {
+        return ReplayRecorder.DRAW_TREASURE;
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) {
+        // the cards drawn are in the record's draw list (摸到的牌在记录的摸牌列表中)
+    }
+
+    @Override
+    public String describe() {
+        return player == null ? "Draw treasure cards" : player.getName() + " draws treasure cards";
+    }
+}
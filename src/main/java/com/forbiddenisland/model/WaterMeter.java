@@ -55,6 +55,14 @@ public class WaterMeter implements Serializable{
         // 如果达到最高水位，则满足游戏结束条件。
     }
 
+    /**
+     * Puts the water level back to an earlier value. Only used to undo.
+     * 将水位恢复为之前的值。仅用于撤销。
+     */
+    void restoreWaterLevel(int level) {
+        this.currentWaterLevel = level;
+    }
+
     /**
      * Gets the number of flood cards to draw at the current water level.
      * 获取当前水位下需要抽取的洪水牌数量。
@@ -0,0 +1,66 @@
+package com.forbiddenisland.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Resolves a Waters Rise! card that has just been drawn: the water level goes up and the
+ * flood discard pile is shuffled back on top of the flood draw pile. Undo takes those cards
+ * back off the draw pile, restores the discard order and rewinds the shuffle, so redoing
+ * produces the same order again. The card itself ends up on the treasure discard pile;
+ * undo takes it back off, leaving it with whoever drew it.
+ * 结算刚摸到的"洪水上涨！"牌：水位上升，洪水弃牌堆洗混后放回洪水摸牌堆顶。
+ * 撤销会从摸牌堆取回这些牌、恢复弃牌顺序并倒回洗牌随机流，因此重做会得到相同的顺序。
+ * 该牌本身最后进入宝藏弃牌堆；撤销会将其取回，交还给摸到它的一方。
+ */
+public class WatersRiseCommand extends GameCommand {
+
+    private final WatersRiseCard card;
+
+    private int waterLevel;
+    private Game.GamePhase phase;
+    private LossTracker lossState;
+    private List<FloodCard> floodDiscards;
+    private long floodRandomState;
+
+    public WatersRiseCommand(WatersRiseCard card) {
+        this.card = card;
+    }
+
+    @Override
+    boolean apply(Game game) {
+        if (card == null) return false;
+        waterLevel = game.getWaterMeter().getCurrentWaterLevel();
+        phase = game.getCurrentPhase();
+        lossState = game.copyLossTracker();
+        floodDiscards = game.getFloodDeck().getDiscardPile();
+        floodRandomState = game.getFloodDeckRandom().getState();
+        game.processWatersRiseCard(card);
+        return true;
+    }
+
+    @Override
+    void revert(Game game) {
+        if (game.getTreasureDeck().removeLastDiscard() != card) {
+            throw new IllegalStateException("Treasure discard pile changed since Waters Rise!");
+        }
+        Deck<FloodCard> floodDeck = game.getFloodDeck();
+        floodDeck.removeFromDrawPileTop(floodDiscards.size());
+        floodDeck.restoreDiscardPile(floodDiscards);
+        game.getFloodDeckRandom().setState(floodRandomState);
+        game.getWaterMeter().restoreWaterLevel(waterLevel);
+        game.restorePhase(phase);
+        game.restoreLossTracker(lossState);
+    }
+
+    @Override
+    void writeReplay(DataOutput out, Game game) throws IOException {
+        out.writeByte(WATERS_RISE); // the shuffle is replayed from the flood stream (洗牌由洪水随机流重现)
+    }
+
+    @Override
+    public String describe() {
+        return "Waters Rise!";
+    }
+}
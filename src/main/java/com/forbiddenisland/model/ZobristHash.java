@@ -0,0 +1,152 @@
+package com.forbiddenisland.model;
+
+import java.io.Serializable;
+
+/**
+ * Incremental Zobrist hash of a game position, for recognising positions AI look-ahead has
+ * already evaluated.
+ * The board, pawn and hand parts are kept up to date by the model objects themselves (one XOR
+ * per change); the small scalar parts (water level, current player, actions remaining, phase)
+ * are folded in when the hash is read. Either way a position costs O(1) to hash.
+ * 游戏局面的增量 Zobrist 哈希，用于让 AI 前瞻搜索识别已评估过的局面。
+ * 棋盘、棋子和手牌部分由模型对象自身维护（每次变化一次异或）；水位、当前玩家、剩余行动数和阶段
+ * 这些标量在读取哈希时再合并进去。因此计算一个局面的哈希总是 O(1)。
+ */
+public class ZobristHash implements Serializable {
+
+    static final int MAX_SEATS = 4;
+    static final int CARD_KINDS = TreasureType.values().length + 3; // treasures, Helicopter Lift, Sandbags, other (宝藏、直升机、沙袋、其他)
+    private static final int MAX_COUNT = 28;  // a whole treasure deck (整副宝藏牌)
+    private static final int MAX_WATER = 16;
+    private static final int MAX_ACTIONS = 8;
+
+    // Keys are fixed for the lifetime of the JVM and across runs, so hashes can be compared between games and threads
+    // 键值在各次运行间固定，因此不同游戏和线程之间的哈希可以直接比较
+    private static final long[] FLOODED = new long[TileRegistry.TILE_COUNT];
+    private static final long[] SUNK = new long[TileRegistry.TILE_COUNT];
+    private static final long[][] PAWN = new long[MAX_SEATS][TileRegistry.TILE_COUNT];
+    private static final long[][][] HAND = new long[MAX_SEATS][CARD_KINDS][MAX_COUNT + 1];
+    private static final long[] WATER = new long[MAX_WATER];
+    private static final long[] CURRENT_PLAYER = new long[MAX_SEATS];
+    private static final long[] ACTIONS = new long[MAX_ACTIONS];
+    private static final long[] PHASE = new long[Game.GamePhase.values().length];
+
+    static {
+        GameRandom keys = new GameRandom(0x5EEDF1E1DL);
+        fill(FLOODED, keys);
+        fill(SUNK, keys);
+        for (long[] seat : PAWN) fill(seat, keys);
+        for (long[][] seat : HAND) {
+            for (long[] kind : seat) {
+                fill(kind, keys);
+                kind[0] = 0; // holding none of a kind contributes nothing (不持有某类卡牌时不贡献哈希)
+            }
+        }
+        fill(WATER, keys);
+        fill(CURRENT_PLAYER, keys);
+        fill(ACTIONS, keys);
+        fill(PHASE, keys);
+    }
+
+    private long hash; // board, pawn and hand part (棋盘、棋子和手牌部分)
+    private final int[][] handCounts = new int[MAX_SEATS][CARD_KINDS];
+
+    private static void fill(long[] table, GameRandom keys) {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = keys.nextLong();
+        }
+    }
+
+    /**
+     * Gets the hash of the whole position.
+     * 获取整个局面的哈希值。
+     */
+    public long get(int waterLevel, int currentPlayer, int actionsRemaining, Game.GamePhase phase) {
+        long h = hash
+                ^ WATER[clamp(waterLevel, MAX_WATER)]
+                ^ CURRENT_PLAYER[clamp(currentPlayer, MAX_SEATS)]
+                ^ ACTIONS[clamp(actionsRemaining, MAX_ACTIONS)];
+        return phase == null ? h : h ^ PHASE[phase.ordinal()];
+    }
+
+    void tileFloodChanged(int tileId) {
+        if (tileId >= 0) hash ^= FLOODED[tileId];
+    }
+
+    void tileSunk(int tileId, boolean wasFlooded) {
+        if (tileId < 0) return;
+        if (wasFlooded) hash ^= FLOODED[tileId];
+        hash ^= SUNK[tileId];
+    }
+
+    void pawnMoved(int seat, int fromTileId, int toTileId) {
+        if (seat < 0 || seat >= MAX_SEATS) return;
+        if (fromTileId >= 0) hash ^= PAWN[seat][fromTileId];
+        if (toTileId >= 0) hash ^= PAWN[seat][toTileId];
+    }
+
+    void cardAdded(int seat, Card card) {
+        if (seat < 0 || seat >= MAX_SEATS || card == null) return;
+        int kind = kindOf(card);
+        int count = handCounts[seat][kind];
+        if (count >= MAX_COUNT) return;
+        handCounts[seat][kind] = count + 1;
+        hash ^= HAND[seat][kind][count] ^ HAND[seat][kind][count + 1];
+    }
+
+    void cardRemoved(int seat, Card card) {
+        if (seat < 0 || seat >= MAX_SEATS || card == null) return;
+        int kind = kindOf(card);
+        int count = handCounts[seat][kind];
+        if (count == 0) return;
+        handCounts[seat][kind] = count - 1;
+        hash ^= HAND[seat][kind][count] ^ HAND[seat][kind][count - 1];
+    }
+
+    /**
+     * Maps a card to the hash's card type; cards of the same type are interchangeable.
+     * 将卡牌映射为哈希使用的卡牌类型；同类型的卡牌可以互换。
+     */
+    static int kindOf(Card card) {
+        if (card instanceof TreasureCard) {
+            return ((TreasureCard) card).getTreasureType().ordinal();
+        }
+        int specials = TreasureType.values().length;
+        if (card instanceof HelicopterLiftCard) return specials;
+        if (card instanceof SandbagsCard) return specials + 1;
+        return specials + 2;
+    }
+
+    /**
+     * Hashes a game from scratch, without using any incremental state. Used to check the
+     * incremental hash.
+     * 不使用任何增量状态、从头计算游戏的哈希。用于校验增量哈希。
+     */
+    static long recompute(Game game) {
+        ZobristHash scratch = new ZobristHash();
+        for (int id = 0; id < TileRegistry.TILE_COUNT; id++) {
+            IslandTile tile = game.getIslandTileById(id);
+            if (tile == null) {
+                scratch.hash ^= SUNK[id];
+            } else if (tile.isFlooded()) {
+                scratch.hash ^= FLOODED[id];
+            }
+        }
+        int seat = 0;
+        for (Player player : game.getPlayers()) {
+            if (player.getPawn() != null) {
+                scratch.pawnMoved(seat, TileRegistry.NO_TILE, player.getPawn().getCurrentTileId());
+            }
+            for (Card card : player.getHand()) {
+                scratch.cardAdded(seat, card);
+            }
+            seat++;
+        }
+        return scratch.get(game.getWaterMeter().getCurrentWaterLevel(), game.getPlayers().indexOf(game.getCurrentPlayer()),
+                game.getActionsRemainingInTurn(), game.getCurrentPhase());
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(value, size - 1));
+    }
+}
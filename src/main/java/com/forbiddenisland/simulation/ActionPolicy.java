@@ -0,0 +1,71 @@
+package com.forbiddenisland.simulation;
+
+import com.forbiddenisland.model.Card;
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.model.Player;
+import com.forbiddenisland.model.SpecialActionCard;
+import com.forbiddenisland.model.TreasureCard;
+import com.forbiddenisland.model.TreasureType;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides what a seat does during its action phase in a headless game.
+ * A policy instance may be shared by several simulator threads, so implementations
+ * must not keep per-game state in fields.
+ */
+@FunctionalInterface
+public interface ActionPolicy {
+
+    /**
+     * Spends the current player's actions (up to {@link Game#getActionsRemainingInTurn()}).
+     * @param game The game being simulated
+     * @param player The player whose action phase it is
+     */
+    void takeActions(Game game, Player player);
+
+    /**
+     * Discards cards until the player is back within the hand limit.
+     * The default keeps special action cards and drops treasure cards of the type the
+     * player holds the fewest of.
+     * @param game The game being simulated
+     * @param player The player who is over the hand limit
+     */
+    default void discardDownToLimit(Game game, Player player) {
+        while (player.isHandOverLimit()) {
+            List<Card> hand = player.getHand();
+            Map<TreasureType, Integer> counts = new EnumMap<>(TreasureType.class);
+            for (Card card : hand) {
+                if (card instanceof TreasureCard) {
+                    counts.merge(((TreasureCard) card).getTreasureType(), 1, Integer::sum);
+                }
+            }
+
+            Card toDiscard = null;
+            int lowest = Integer.MAX_VALUE;
+            for (Card card : hand) {
+                if (card instanceof TreasureCard) {
+                    int count = counts.get(((TreasureCard) card).getTreasureType());
+                    if (count < lowest) {
+                        lowest = count;
+                        toDiscard = card;
+                    }
+                }
+            }
+            if (toDiscard == null) {
+                // Only special cards left in hand
+                for (Card card : hand) {
+                    if (card instanceof SpecialActionCard) {
+                        toDiscard = card;
+                        break;
+                    }
+                }
+            }
+            if (toDiscard == null) return;
+
+            game.discardFromHand(player, toDiscard);
+        }
+    }
+}
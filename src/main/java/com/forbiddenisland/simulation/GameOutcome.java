@@ -0,0 +1,27 @@
+package com.forbiddenisland.simulation;
+
+/**
+ * How a simulated game ended.
+ */
+public enum GameOutcome {
+    WIN("Win"),
+    WATER_LEVEL_MAX("Water level reached max"),
+    FOOLS_LANDING_SUNK("Fools' Landing sunk"),
+    TREASURE_TILES_SUNK("Both tiles of an uncollected treasure sunk"),
+    PLAYER_DROWNED("A pawn could not swim to safety"),
+    TURN_LIMIT("Turn limit reached");
+
+    private final String description;
+
+    GameOutcome(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isWin() {
+        return this == WIN;
+    }
+}
@@ -0,0 +1,264 @@
+package com.forbiddenisland.simulation;
+
+import com.forbiddenisland.log.GameLog;
+import com.forbiddenisland.model.AdventurerRole;
+import com.forbiddenisland.model.Card;
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.model.GameOverReason;
+import com.forbiddenisland.model.GameRandom;
+import com.forbiddenisland.model.HelicopterLiftCard;
+import com.forbiddenisland.model.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless game runner. Plays complete games through the normal engine entry points
+ * ({@link Game#runTurn()}, which performs the treasure and flood draws) with an
+ * {@link ActionPolicy} per seat choosing the actions, and spreads batches of games over
+ * all cores with a fork/join pool.
+ * Nothing in this package touches JavaFX, so it can run on a build server.
+ */
+public class GameSimulator {
+
+    public static final int DEFAULT_MAX_TURNS = 200;
+    // Games per fork/join leaf; a game takes well under a millisecond so smaller leaves
+    // would spend more time on task bookkeeping than on playing
+    private static final int GAMES_PER_LEAF = 16;
+
+    private final List<ActionPolicy> seatPolicies;
+    private final ForkJoinPool pool;
+    private int maxTurns = DEFAULT_MAX_TURNS;
+    private boolean quiet = true;
+    // Game n started by this simulator is dealt from seed baseSeed + n, so any game can be replayed
+    private long baseSeed = GameRandom.newSeed();
+    private long gamesStarted;
+
+    /**
+     * Creates a simulator using every available core.
+     * @param seatPolicies Policy per seat; seat {@code i} uses {@code seatPolicies.get(i % size)}
+     */
+    public GameSimulator(List<ActionPolicy> seatPolicies) {
+        this(seatPolicies, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a simulator with a fixed number of worker threads.
+     * @param seatPolicies Policy per seat; seat {@code i} uses {@code seatPolicies.get(i % size)}
+     * @param parallelism Number of worker threads
+     */
+    public GameSimulator(List<ActionPolicy> seatPolicies, int parallelism) {
+        if (seatPolicies == null || seatPolicies.isEmpty()) {
+            throw new IllegalArgumentException("At least one seat policy is required");
+        }
+        this.seatPolicies = new ArrayList<>(seatPolicies);
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * Sets the number of player turns after which a game is abandoned.
+     */
+    public void setMaxTurns(int maxTurns) {
+        this.maxTurns = Math.max(1, maxTurns);
+    }
+
+    /**
+     * Makes the following batches reproducible: the n-th game played after this call is dealt
+     * from seed {@code seed + n}.
+     */
+    public void setSeed(long seed) {
+        this.baseSeed = seed;
+        this.gamesStarted = 0;
+    }
+
+    /**
+     * Gets the seed the n-th game since the last {@link #setSeed(long)} was dealt from,
+     * e.g. to replay it with {@link Game#Game(List, int, long)}.
+     */
+    public long seedForGame(long n) {
+        return baseSeed + n;
+    }
+
+    /**
+     * Whether to silence the engine's game log while a batch runs (default true).
+     * Only the worker threads playing the batch are silenced; other threads keep logging.
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * Plays a batch of games with randomly assigned roles.
+     * @param games Number of games to play
+     * @param playerCount Players per game (2-4)
+     * @param difficulty Starting water level (1-4)
+     * @return Aggregated results
+     */
+    public SimulationReport runBatch(int games, int playerCount, int difficulty) {
+        return runBatch(games, playerCount, difficulty, null);
+    }
+
+    /**
+     * Plays a batch of games with a fixed role line-up.
+     * @param games Number of games to play
+     * @param difficulty Starting water level (1-4)
+     * @param roles Roles in seat order; the player count is {@code roles.size()}
+     * @return Aggregated results
+     */
+    public SimulationReport runBatch(int games, int difficulty, List<AdventurerRole> roles) {
+        return runBatch(games, roles.size(), difficulty, roles);
+    }
+
+    private SimulationReport runBatch(int games, int playerCount, int difficulty, List<AdventurerRole> roles) {
+        long firstSeed = seedForGame(gamesStarted);
+        gamesStarted += games;
+        long start = System.nanoTime();
+        SimulationReport report = pool.invoke(new BatchTask(firstSeed, 0, games, playerCount, difficulty, roles));
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    /**
+     * Plays one game to completion on the calling thread.
+     * @param game A freshly created game
+     * @return How the game ended
+     */
+    public GameOutcome playGame(Game game) {
+        return play(game, null);
+    }
+
+    private GameOutcome play(Game game, int[] turnsPlayed) {
+        int turns = 0;
+        try {
+            while (turns < maxTurns) {
+                if (game.checkGameOverConditions()) {
+                    return lossReason(game);
+                }
+                Player player = game.getCurrentPlayer();
+                ActionPolicy policy = policyForSeat(game.getPlayers().indexOf(player));
+                policy.takeActions(game, player);
+
+                if (game.checkWinConditions()) {
+                    // runTurn() does not advance once the win pre-conditions hold, so without a
+                    // Helicopter Lift in hand the game cannot go any further
+                    return anyoneHoldsHelicopterLift(game) ? GameOutcome.WIN : GameOutcome.TURN_LIMIT;
+                }
+
+                game.runTurn();
+                policy.discardDownToLimit(game, player);
+                turns++;
+            }
+            return game.checkGameOverConditions() ? lossReason(game) : GameOutcome.TURN_LIMIT;
+        } finally {
+            if (turnsPlayed != null) turnsPlayed[0] = turns;
+        }
+    }
+
+    private ActionPolicy policyForSeat(int seat) {
+        return seatPolicies.get(Math.max(0, seat) % seatPolicies.size());
+    }
+
+    private static GameOutcome lossReason(Game game) {
+        GameOverReason reason = game.getGameOverReason();
+        if (reason == null) {
+            return GameOutcome.TURN_LIMIT;
+        }
+        switch (reason) {
+            case FOOLS_LANDING_SUNK:
+                return GameOutcome.FOOLS_LANDING_SUNK;
+            case TREASURE_TILES_SUNK:
+                return GameOutcome.TREASURE_TILES_SUNK;
+            case PLAYER_DROWNED:
+                return GameOutcome.PLAYER_DROWNED;
+            default:
+                return GameOutcome.WATER_LEVEL_MAX;
+        }
+    }
+
+    private static boolean anyoneHoldsHelicopterLift(Game game) {
+        for (Player player : game.getPlayers()) {
+            for (Card card : player.getHand()) {
+                if (card instanceof HelicopterLiftCard) return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> playerNames(int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            names.add("Player " + i);
+        }
+        return names;
+    }
+
+    /**
+     * Splits a range of games in half until it is small enough to play sequentially.
+     */
+    private final class BatchTask extends RecursiveTask<SimulationReport> {
+        private final long firstSeed;
+        private final int from;
+        private final int to;
+        private final int playerCount;
+        private final int difficulty;
+        private final List<AdventurerRole> roles;
+
+        BatchTask(long firstSeed, int from, int to, int playerCount, int difficulty, List<AdventurerRole> roles) {
+            this.firstSeed = firstSeed;
+            this.from = from;
+            this.to = to;
+            this.playerCount = playerCount;
+            this.difficulty = difficulty;
+            this.roles = roles;
+        }
+
+        @Override
+        protected SimulationReport compute() {
+            if (to - from <= GAMES_PER_LEAF) {
+                SimulationReport report = new SimulationReport();
+                List<String> names = playerNames(playerCount);
+                int[] turns = new int[1];
+                // Silence is per thread, so it is taken here on the worker playing the games
+                try (GameLog.Silence silence = quiet ? GameLog.silence() : null) {
+                    for (int i = from; i < to; i++) {
+                        Game game = new Game(names, difficulty, roles, firstSeed + i);
+                        GameOutcome outcome = play(game, turns);
+                        List<AdventurerRole> seated = new ArrayList<>();
+                        for (Player player : game.getPlayers()) {
+                            seated.add(player.getRole());
+                        }
+                        report.record(difficulty, seated, outcome, turns[0]);
+                    }
+                }
+                return report;
+            }
+
+            int mid = (from + to) >>> 1;
+            BatchTask left = new BatchTask(firstSeed, from, mid, playerCount, difficulty, roles);
+            BatchTask right = new BatchTask(firstSeed, mid, to, playerCount, difficulty, roles);
+            left.fork();
+            SimulationReport report = right.compute();
+            report.merge(left.join());
+            return report;
+        }
+    }
+
+    /**
+     * Command-line entry point: {@code GameSimulator [games] [players] [difficulty] [seed]}.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int difficulty = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        GameSimulator simulator = new GameSimulator(List.of(new GreedyActionPolicy()));
+        if (args.length > 3) {
+            simulator.setSeed(Long.parseLong(args[3]));
+        }
+        System.out.println("Simulating " + games + " games (" + players + " players, level " + difficulty
+                + ") on " + simulator.pool.getParallelism() + " threads, seed " + simulator.seedForGame(0) + "...");
+        System.out.println(simulator.runBatch(games, players, difficulty));
+    }
+}
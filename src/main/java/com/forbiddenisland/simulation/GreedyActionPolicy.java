@@ -0,0 +1,255 @@
+package com.forbiddenisland.simulation;
+
+import com.forbiddenisland.model.CaptureTreasureCommand;
+import com.forbiddenisland.model.Card;
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.model.GiveCardCommand;
+import com.forbiddenisland.model.HelicopterLiftCard;
+import com.forbiddenisland.model.HelicopterLiftCommand;
+import com.forbiddenisland.model.IslandTile;
+import com.forbiddenisland.model.MoveCommand;
+import com.forbiddenisland.model.Player;
+import com.forbiddenisland.model.SandbagsCard;
+import com.forbiddenisland.model.SandbagsCommand;
+import com.forbiddenisland.model.ShoreUpCommand;
+import com.forbiddenisland.model.TileRegistry;
+import com.forbiddenisland.model.Treasure;
+import com.forbiddenisland.model.TreasureCard;
+import com.forbiddenisland.model.TreasureType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Default simulation policy: capture when possible, pass cards to whoever is collecting
+ * that treasure, keep treasure tiles and Fools' Landing dry, and walk toward the tile the
+ * player can currently make progress on.
+ * Every action is played as a reversible command, so a search that attached a
+ * {@link com.forbiddenisland.model.CommandJournal} to its game can undo it again.
+ * Stateless, so a single instance can drive every seat on every thread.
+ */
+public class GreedyActionPolicy implements ActionPolicy {
+
+    // Safety net against a policy bug spinning forever on free actions
+    private static final int MAX_STEPS_PER_TURN = 12;
+
+    @Override
+    public void takeActions(Game game, Player player) {
+        useSandbagsIfUseful(game, player);
+        useHelicopterLiftIfReady(game, player);
+
+        int steps = 0;
+        while (game.getActionsRemainingInTurn() > 0 && steps++ < MAX_STEPS_PER_TURN) {
+            if (tryCapture(game, player)) continue;
+            if (tryGiveCard(game, player)) continue;
+            if (tryShoreUp(game, player, true)) continue;
+            if (tryMoveTowardTarget(game, player)) continue;
+            if (tryShoreUp(game, player, false)) continue;
+            break;
+        }
+    }
+
+    private boolean tryCapture(Game game, Player player) {
+        IslandTile location = player.getCurrentLocation();
+        if (location == null || location.getAssociatedTreasure() == null) return false;
+        TreasureType type = location.getAssociatedTreasure();
+        if (isCollected(game, type)) return false;
+        if (countCards(player, type) < player.getRole().getTreasureCardsNeededForCapture()) return false;
+
+        return new CaptureTreasureCommand(player).execute(game);
+    }
+
+    private boolean tryGiveCard(Game game, Player player) {
+        boolean anywhere = player.getRole().canGiveCardAnywhere();
+        for (Card card : new ArrayList<>(player.getHand())) {
+            if (!(card instanceof TreasureCard)) continue;
+            TreasureType type = ((TreasureCard) card).getTreasureType();
+            if (isCollected(game, type)) continue;
+            int mine = countCards(player, type);
+
+            for (Player other : game.getPlayers()) {
+                if (other == player || other.getHand().size() >= Player.MAX_HAND_SIZE) continue;
+                if (!anywhere && other.getCurrentLocation() != player.getCurrentLocation()) continue;
+                if (countCards(other, type) > mine) {
+                    return new GiveCardCommand(player, other, (TreasureCard) card).execute(game);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Shores up a flooded tile in reach. When {@code importantOnly} is set, only tiles the
+     * team still needs (uncollected treasure tiles and Fools' Landing) are considered.
+     */
+    private boolean tryShoreUp(Game game, Player player, boolean importantOnly) {
+        List<IslandTile> candidates = floodedTilesInReach(game, player);
+        if (importantOnly) {
+            candidates.removeIf(tile -> !isImportant(game, tile));
+        }
+        if (candidates.isEmpty()) return false;
+
+        IslandTile second = player.getRole().getShoreUpCountPerAction() > 1 && candidates.size() > 1 ? candidates.get(1) : null;
+        return new ShoreUpCommand(player, candidates.get(0), second).execute(game);
+    }
+
+    private boolean tryMoveTowardTarget(Game game, Player player) {
+        IslandTile target = chooseTarget(game, player);
+        IslandTile location = player.getCurrentLocation();
+        if (target == null || location == null || target == location) return false;
+
+        int[] targetCoords = game.getTileCoordinates(target);
+        int[] currentCoords = game.getTileCoordinates(location);
+        if (targetCoords == null || currentCoords == null) return false;
+
+        Set<IslandTile> moves = player.getValidMoves(game);
+        IslandTile best = null;
+        int bestDistance = distance(currentCoords, targetCoords);
+        for (IslandTile move : moves) {
+            int[] coords = game.getTileCoordinates(move);
+            if (coords == null) continue;
+            int d = distance(coords, targetCoords);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = move;
+            }
+        }
+        return best != null && new MoveCommand(player, best).execute(game);
+    }
+
+    /**
+     * Fools' Landing once every treasure is in hand; otherwise the nearest tile of a
+     * treasure this player already holds enough cards for.
+     */
+    private IslandTile chooseTarget(Game game, Player player) {
+        if (allCollected(game)) {
+            return game.getIslandTileById(TileRegistry.FOOLS_LANDING);
+        }
+        int[] here = game.getTileCoordinates(player.getCurrentLocation());
+        if (here == null) return null;
+
+        IslandTile best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        int needed = player.getRole().getTreasureCardsNeededForCapture();
+        for (Treasure treasure : game.getTreasures()) {
+            if (treasure.isCollected() || countCards(player, treasure.getType()) < needed) continue;
+            for (int tileId : treasure.getIslandTileIds()) {
+                IslandTile tile = game.getIslandTileById(tileId);
+                int[] coords = game.getTileCoordinates(tile);
+                if (coords != null && distance(here, coords) < bestDistance) {
+                    bestDistance = distance(here, coords);
+                    best = tile;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void useSandbagsIfUseful(Game game, Player player) {
+        SandbagsCard sandbags = null;
+        for (Card card : player.getHand()) {
+            if (card instanceof SandbagsCard) {
+                sandbags = (SandbagsCard) card;
+                break;
+            }
+        }
+        if (sandbags == null) return;
+
+        for (IslandTile[] row : game.getGameBoard()) {
+            for (IslandTile tile : row) {
+                if (tile != null && tile.isFlooded() && isImportant(game, tile)) {
+                    new SandbagsCommand(player, sandbags, tile).execute(game);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Once all four treasures are collected, lifts this player and everyone sharing the
+     * tile to Fools' Landing.
+     */
+    private void useHelicopterLiftIfReady(Game game, Player player) {
+        if (!allCollected(game)) return;
+        IslandTile foolsLanding = game.getIslandTileById(TileRegistry.FOOLS_LANDING);
+        IslandTile location = player.getCurrentLocation();
+        if (foolsLanding == null || location == foolsLanding) return;
+
+        for (Card card : player.getHand()) {
+            if (card instanceof HelicopterLiftCard) {
+                int cardsHeld = 0;
+                for (Player p : game.getPlayers()) {
+                    for (Card c : p.getHand()) {
+                        if (c instanceof HelicopterLiftCard) cardsHeld++;
+                    }
+                }
+                // Keep the last card for take-off
+                if (cardsHeld < 2) return;
+
+                List<Player> passengers = new ArrayList<>();
+                for (Player p : game.getPlayers()) {
+                    if (p.getCurrentLocation() == location) {
+                        passengers.add(p);
+                    }
+                }
+                new HelicopterLiftCommand(player, (HelicopterLiftCard) card, passengers, foolsLanding).execute(game);
+                return;
+            }
+        }
+    }
+
+    private List<IslandTile> floodedTilesInReach(Game game, Player player) {
+        List<IslandTile> result = new ArrayList<>();
+        IslandTile location = player.getCurrentLocation();
+        int[] coords = game.getTileCoordinates(location);
+        if (coords == null) return result;
+
+        if (location.isFlooded()) {
+            result.add(location);
+        }
+        boolean diagonal = player.getRole().canShoreUpDiagonally();
+        for (IslandTile tile : game.getValidAdjacentTiles(coords[0], coords[1], diagonal)) {
+            if (tile.isFlooded()) {
+                result.add(tile);
+            }
+        }
+        return result;
+    }
+
+    private boolean isImportant(Game game, IslandTile tile) {
+        if (tile.getId() == TileRegistry.FOOLS_LANDING) return true;
+        TreasureType type = tile.getAssociatedTreasure();
+        return type != null && !isCollected(game, type);
+    }
+
+    private static boolean isCollected(Game game, TreasureType type) {
+        for (Treasure treasure : game.getTreasures()) {
+            if (treasure.getType() == type) {
+                return treasure.isCollected();
+            }
+        }
+        return false;
+    }
+
+    private static boolean allCollected(Game game) {
+        for (Treasure treasure : game.getTreasures()) {
+            if (!treasure.isCollected()) return false;
+        }
+        return true;
+    }
+
+    private static int countCards(Player player, TreasureType type) {
+        int count = 0;
+        for (Card card : player.getHand()) {
+            if (card instanceof TreasureCard && ((TreasureCard) card).getTreasureType() == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int distance(int[] a, int[] b) {
+        return Math.abs(a[0] - b[0]) + Math.abs(a[1] - b[1]);
+    }
+}
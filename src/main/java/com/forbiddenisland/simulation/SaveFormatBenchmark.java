@@ -0,0 +1,108 @@
+package com.forbiddenisland.simulation;
+
+import com.forbiddenisland.log.GameLog;
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.model.GameCodec;
+import com.forbiddenisland.model.GameLoader;
+import com.forbiddenisland.model.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compares the compact {@link GameCodec} format with the serialized {@code .sav} files
+ * written by {@link Game#saveGame(String)}: file size and save/load latency, both going
+ * through real files. Positions are taken from part-played simulator games so decks, hands
+ * and the board are not in their starting state.
+ * {@code SaveFormatBenchmark [positions] [rounds] [seed]}
+ */
+public class SaveFormatBenchmark {
+
+    private static final int TURNS_PER_POSITION = 6;
+
+    public static void main(String[] args) throws IOException {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+
+        List<Game> games = samplePositions(positions, seed);
+        Path dir = Files.createTempDirectory("save-bench");
+        try (GameLog.Silence silence = GameLog.silence()) {
+            // First pass warms up both paths; only the second is reported
+            run(games, dir, Math.max(1, rounds / 4), null);
+            System.out.println("Save format benchmark: " + games.size() + " positions x " + rounds + " rounds");
+            run(games, dir, rounds, System.out::println);
+        } finally {
+            for (File file : dir.toFile().listFiles()) {
+                file.delete();
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void run(List<Game> games, Path dir, int rounds, Consumer<String> report) {
+        String compact = dir.resolve("bench" + GameCodec.FILE_EXTENSION).toString();
+        String legacy = dir.resolve("bench.sav").toString();
+        long[] compactNanos = new long[2];
+        long[] legacyNanos = new long[2];
+        long compactBytes = 0;
+        long legacyBytes = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            for (Game game : games) {
+                long start = System.nanoTime();
+                GameCodec.save(game, compact);
+                long saved = System.nanoTime();
+                GameCodec.load(compact);
+                compactNanos[0] += saved - start;
+                compactNanos[1] += System.nanoTime() - saved;
+
+                start = System.nanoTime();
+                game.saveGame(legacy);
+                saved = System.nanoTime();
+                GameLoader.loadGame(legacy);
+                legacyNanos[0] += saved - start;
+                legacyNanos[1] += System.nanoTime() - saved;
+
+                if (round == 0) {
+                    compactBytes += new File(compact).length();
+                    legacyBytes += new File(legacy).length();
+                }
+            }
+        }
+        if (report == null) return;
+
+        long ops = (long) rounds * games.size();
+        report.accept(String.format("  %-8s %10s %12s %12s", "format", "avg bytes", "save (us)", "load (us)"));
+        report.accept(String.format("  %-8s %10d %12.1f %12.1f", ".sav",
+                legacyBytes / games.size(), legacyNanos[0] / 1e3 / ops, legacyNanos[1] / 1e3 / ops));
+        report.accept(String.format("  %-8s %10d %12.1f %12.1f", GameCodec.FILE_EXTENSION,
+                compactBytes / games.size(), compactNanos[0] / 1e3 / ops, compactNanos[1] / 1e3 / ops));
+        report.accept(String.format("  size %.1fx smaller, save %.1fx faster, load %.1fx faster",
+                (double) legacyBytes / compactBytes, (double) legacyNanos[0] / compactNanos[0],
+                (double) legacyNanos[1] / compactNanos[1]));
+    }
+
+    private static List<Game> samplePositions(int count, long seed) {
+        ActionPolicy policy = new GreedyActionPolicy();
+        List<Game> games = new ArrayList<>();
+        try (GameLog.Silence silence = GameLog.silence()) {
+            for (int i = 0; i < count; i++) {
+                Game game = new Game(List.of("Player 1", "Player 2", "Player 3", "Player 4"), 2, seed + i);
+                for (int turn = 0; turn < TURNS_PER_POSITION && !game.checkGameOverConditions(); turn++) {
+                    Player player = game.getCurrentPlayer();
+                    policy.takeActions(game, player);
+                    game.runTurn();
+                    policy.discardDownToLimit(game, player);
+                }
+                games.add(game);
+            }
+        }
+        return games;
+    }
+}
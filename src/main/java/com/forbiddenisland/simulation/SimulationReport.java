@@ -0,0 +1,123 @@
+package com.forbiddenisland.simulation;
+
+import com.forbiddenisland.model.AdventurerRole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregated results of a batch of simulated games.
+ * Outcomes are bucketed by difficulty and role combination, e.g. "Level 2 | DIVER+PILOT".
+ * Reports are built per fork/join leaf and merged, so the class itself is not thread-safe.
+ */
+public class SimulationReport {
+
+    private final Map<String, long[]> outcomesByCombination = new TreeMap<>();
+    private final long[] outcomeTotals = new long[GameOutcome.values().length];
+    private long gamesPlayed;
+    private long turnsPlayed;
+    private long elapsedNanos;
+
+    /**
+     * Records one finished game.
+     * @param difficulty Starting water level of the game
+     * @param roles Roles in seat order
+     * @param outcome How the game ended
+     * @param turns Number of player turns played
+     */
+    public void record(int difficulty, List<AdventurerRole> roles, GameOutcome outcome, int turns) {
+        String key = combinationKey(difficulty, roles);
+        outcomesByCombination.computeIfAbsent(key, k -> new long[GameOutcome.values().length])[outcome.ordinal()]++;
+        outcomeTotals[outcome.ordinal()]++;
+        gamesPlayed++;
+        turnsPlayed += turns;
+    }
+
+    /**
+     * Adds all counts of another report into this one.
+     */
+    public void merge(SimulationReport other) {
+        for (Map.Entry<String, long[]> entry : other.outcomesByCombination.entrySet()) {
+            long[] counts = outcomesByCombination.computeIfAbsent(entry.getKey(), k -> new long[GameOutcome.values().length]);
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += entry.getValue()[i];
+            }
+        }
+        for (int i = 0; i < outcomeTotals.length; i++) {
+            outcomeTotals[i] += other.outcomeTotals[i];
+        }
+        gamesPlayed += other.gamesPlayed;
+        turnsPlayed += other.turnsPlayed;
+    }
+
+    /**
+     * Builds the bucket key; roles are sorted so seat order does not split buckets.
+     */
+    static String combinationKey(int difficulty, List<AdventurerRole> roles) {
+        List<String> names = new ArrayList<>();
+        for (AdventurerRole role : roles) {
+            names.add(role.name());
+        }
+        Collections.sort(names);
+        return "Level " + difficulty + " | " + String.join("+", names);
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public long getOutcomeCount(GameOutcome outcome) {
+        return outcomeTotals[outcome.ordinal()];
+    }
+
+    public double getWinRate() {
+        return gamesPlayed == 0 ? 0.0 : (double) getOutcomeCount(GameOutcome.WIN) / gamesPlayed;
+    }
+
+    public double getAverageTurns() {
+        return gamesPlayed == 0 ? 0.0 : (double) turnsPlayed / gamesPlayed;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : gamesPlayed / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Gets the outcome counts per difficulty/role combination, indexed by {@link GameOutcome#ordinal()}.
+     */
+    public Map<String, long[]> getOutcomesByCombination() {
+        return Collections.unmodifiableMap(outcomesByCombination);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d games in %.2f s (%.1f games/sec), avg %.1f turns, win rate %.1f%%%n",
+                gamesPlayed, elapsedNanos / 1_000_000_000.0, getGamesPerSecond(), getAverageTurns(), getWinRate() * 100));
+        for (GameOutcome outcome : GameOutcome.values()) {
+            sb.append(String.format("  %-45s %d%n", outcome.getDescription(), getOutcomeCount(outcome)));
+        }
+        for (Map.Entry<String, long[]> entry : outcomesByCombination.entrySet()) {
+            sb.append("  ").append(entry.getKey()).append(':');
+            long[] counts = entry.getValue();
+            for (GameOutcome outcome : GameOutcome.values()) {
+                if (counts[outcome.ordinal()] > 0) {
+                    sb.append(' ').append(outcome.name()).append('=').append(counts[outcome.ordinal()]);
+                }
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
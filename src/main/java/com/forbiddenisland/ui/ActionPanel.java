@@ -1,6 +1,8 @@
 package com.forbiddenisland.ui;
 
 import com.forbiddenisland.ForbiddenIslandGame;
+import com.forbiddenisland.ai.MctsAdvisor;
+import com.forbiddenisland.ai.RankedAction;
 import com.forbiddenisland.model.*;
 import com.forbiddenisland.model.Card;
 import com.forbiddenisland.model.Game;
@@ -13,7 +15,9 @@ import com.forbiddenisland.model.TreasureType;
 import com.forbiddenisland.model.SpecialActionCard;
 import com.forbiddenisland.model.SandbagsCard;
 import com.forbiddenisland.model.HelicopterLiftCard;
+import com.forbiddenisland.model.TileRegistry;
 import com.forbiddenisland.model.Treasure;
+import com.forbiddenisland.ui.util.EngineExecutor;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -55,8 +59,17 @@ public class ActionPanel extends VBox {
     private Button specialActionButton;
     private Button endActionsAndDrawTreasureButton;
     private Button drawFloodCardsButton;
+    private Button hintButton;
+    private Button undoButton;
+    private Button redoButton;
+    private Label hintLabel;
     private VBox actionButtonsBox;
-    private boolean isProcessingAction = false; // Action processing lock flag
+    private CommandJournal journal; // Undo/redo history of the current player's actions this turn
+
+    // Hint search runs on the advisor's threads; results come back through Platform.runLater
+    private final MctsAdvisor hintAdvisor = new MctsAdvisor();
+    private long hintStateHash; // position the running or shown hint was computed for
+    private boolean hintActive;
 
     /**
      * Constructor for ActionPanel
@@ -68,6 +81,7 @@ public class ActionPanel extends VBox {
     public ActionPanel(Game game, ForbiddenIslandGame mainApp) {
         this.game = game;
         this.mainApp = mainApp;
+        this.journal = new CommandJournal(game);
 
         // Setup panel layout and styling
         setPadding(new Insets(10));
@@ -137,6 +151,31 @@ public class ActionPanel extends VBox {
         drawFloodCardsButton.setDisable(true);
         drawFloodCardsButton.setOnAction(e -> handleDrawFloodCards());
 
+        hintButton = new Button("Hint");
+        hintButton.setMaxWidth(Double.MAX_VALUE);
+        hintButton.setStyle(buttonStyle);
+        hintButton.setOnAction(e -> handleHintAction());
+
+        undoButton = new Button("Undo");
+        undoButton.setMaxWidth(Double.MAX_VALUE);
+        undoButton.setStyle(buttonStyle);
+        undoButton.setDisable(true);
+        undoButton.setOnAction(e -> handleUndoAction());
+
+        redoButton = new Button("Redo");
+        redoButton.setMaxWidth(Double.MAX_VALUE);
+        redoButton.setStyle(buttonStyle);
+        redoButton.setDisable(true);
+        redoButton.setOnAction(e -> handleRedoAction());
+
+        HBox undoRedoBox = new HBox(8, undoButton, redoButton);
+        HBox.setHgrow(undoButton, Priority.ALWAYS);
+        HBox.setHgrow(redoButton, Priority.ALWAYS);
+
+        hintLabel = new Label();
+        hintLabel.setWrapText(true);
+        hintLabel.setFont(Font.font("Arial", 12));
+
         // Add buttons to panel
         actionButtonsBox.getChildren().addAll(
                 moveButton,
@@ -144,6 +183,9 @@ public class ActionPanel extends VBox {
                 giveCardButton,
                 captureTreasureButton,
                 specialActionButton,
+                undoRedoBox,
+                hintButton,
+                hintLabel,
                 new Separator(),
                 endActionsAndDrawTreasureButton,
                 drawFloodCardsButton
@@ -151,6 +193,7 @@ public class ActionPanel extends VBox {
     }
 
     private void handleMoveAction() {
+        cancelHint();
         if (!canPerformAction()) return;
         Player currentPlayer = game.getCurrentPlayer();
         Set<IslandTile> validMoves = currentPlayer.getValidMoves(game);
@@ -169,22 +212,10 @@ public class ActionPanel extends VBox {
             gameBoardView.setTileSelectionCallback(null);
 
             if (validMoves.contains(selectedTile)) {
-                if (game.spendAction()) {
-                    boolean wasPilotFlight = false;
-                    if (currentPlayer.getRole() == AdventurerRole.PILOT &&
-                            !currentPlayer.isPilotAbilityUsedThisTurn()) {
-                        int[] currentCoords = game.getTileCoordinates(currentPlayer.getCurrentLocation());
-                        if (currentCoords != null) {
-                            List<IslandTile> adjacentTiles = game.getValidAdjacentTiles(currentCoords[0], currentCoords[1], true);
-                            if (!adjacentTiles.contains(selectedTile)) {
-                                wasPilotFlight = true;
-                            }
-                        }
-                    }
-                    currentPlayer.moveTo(selectedTile);
+                boolean flightUsedBefore = currentPlayer.isPilotAbilityUsedThisTurn();
+                if (journal.execute(new MoveCommand(currentPlayer, selectedTile))) {
                     String message;
-                    if (wasPilotFlight) {
-                        currentPlayer.setPilotAbilityUsedThisTurn(true);
+                    if (!flightUsedBefore && currentPlayer.isPilotAbilityUsedThisTurn()) {
                         message = currentPlayer.getName() + " flew to " + selectedTile.getName();
                     } else {
                         message = currentPlayer.getName() + " moved to " + selectedTile.getName();
@@ -205,6 +236,7 @@ public class ActionPanel extends VBox {
     }
 
     private void handleShoreUpAction() {
+        cancelHint();
         if (!canPerformAction()) return;
         Player currentPlayer = game.getCurrentPlayer();
         Set<IslandTile> validShoreUpTiles = getValidShoreUpTiles(currentPlayer);
@@ -224,8 +256,7 @@ public class ActionPanel extends VBox {
             gameBoardView.setTileSelectionCallback(null);
 
             if (validShoreUpTiles.contains(selectedTile)) {
-                if (game.spendAction()) {
-                    selectedTile.shoreUp();
+                if (journal.execute(new ShoreUpCommand(currentPlayer, selectedTile))) {
                     if (currentPlayer.getRole() == AdventurerRole.ENGINEER) {
                         String message = currentPlayer.getName() + " (Engineer) shored up " + selectedTile.getName() + ", can choose to shore up another tile...";
                         System.out.println(message);
@@ -238,7 +269,11 @@ public class ActionPanel extends VBox {
                                 gameBoardView.setTileSelectionCallback(null);
                                 String finalMessage;
                                 if (remainingShoreUpTiles.contains(secondTile)) {
-                                    secondTile.shoreUp();
+                                    // Replace the single shore-up so both tiles undo together
+                                    journal.undo();
+                                    if (!journal.execute(new ShoreUpCommand(currentPlayer, selectedTile, secondTile))) {
+                                        journal.redo();
+                                    }
                                     finalMessage = currentPlayer.getName() + " (Engineer) shored up " + selectedTile.getName() + " and " + secondTile.getName();
                                 } else {
                                     finalMessage = currentPlayer.getName() + " shored up " + selectedTile.getName() + " but skipped second shore up opportunity";
@@ -272,6 +307,74 @@ public class ActionPanel extends VBox {
         });
     }
 
+    private void handleUndoAction() {
+        cancelHint();
+        if (game == null || game.getCurrentPhase() != Game.GamePhase.ACTION_PHASE) return;
+        GameCommand command = journal.undo();
+        if (command != null) {
+            System.out.println("Undone: " + command.describe());
+            mainApp.updateGameState();
+        }
+    }
+
+    private void handleRedoAction() {
+        cancelHint();
+        if (game == null || game.getCurrentPhase() != Game.GamePhase.ACTION_PHASE) return;
+        GameCommand command = journal.redo();
+        if (command != null) {
+            System.out.println("Redone: " + command.describe());
+            mainApp.updateGameState();
+        }
+    }
+
+    private void handleHintAction() {
+        if (!canPerformAction()) return;
+        hintActive = true;
+        hintStateHash = game.getStateHash();
+        hintButton.setDisable(true);
+        hintLabel.setText("Thinking...");
+        Game searchedGame = game;
+        hintAdvisor.advise(game, MctsAdvisor.DEFAULT_BUDGET_MILLIS).whenComplete((ranked, error) ->
+                Platform.runLater(() -> showHint(searchedGame, ranked, error)));
+    }
+
+    private void showHint(Game searchedGame, List<RankedAction> ranked, Throwable error) {
+        // Stale if the user acted or loaded another game while the search ran
+        if (!hintActive || searchedGame != game || game.getStateHash() != hintStateHash) return;
+        hintButton.setDisable(false);
+        if (error != null || ranked == null || ranked.isEmpty()) {
+            hintLabel.setText(error instanceof java.util.concurrent.CancellationException ? "" : "No hint available.");
+            return;
+        }
+
+        StringBuilder text = new StringBuilder("Suggested:");
+        Set<IslandTile> tiles = new HashSet<>();
+        for (int i = 0; i < Math.min(3, ranked.size()); i++) {
+            RankedAction choice = ranked.get(i);
+            text.append("\n").append(i + 1).append(". ").append(choice.getAction().describe(game))
+                    .append(String.format(" (%.0f%%)", choice.getMeanValue() * 100));
+            if (i == 0) {
+                tiles.addAll(choice.getAction().getTargetTiles(game));
+            }
+        }
+        hintLabel.setText(text.toString());
+        if (gameBoardView != null && !tiles.isEmpty()) {
+            gameBoardView.highlightTiles(tiles, Color.GOLD);
+        }
+    }
+
+    /**
+     * Stops a running hint search and clears the shown hint. Called whenever the user acts.
+     */
+    private void cancelHint() {
+        if (!hintActive) return;
+        hintActive = false;
+        hintAdvisor.cancel();
+        if (hintLabel != null) {
+            hintLabel.setText("");
+        }
+    }
+
     private Set<IslandTile> getValidShoreUpTiles(Player player) {
         Set<IslandTile> validTiles = new HashSet<>();
         if (player == null || game == null) return validTiles;
@@ -305,6 +408,7 @@ public class ActionPanel extends VBox {
     }
 
     private void handleCaptureTreasureAction() {
+        cancelHint();
         if (!canPerformAction()) return;
         Player currentPlayer = game.getCurrentPlayer();
         IslandTile currentLocation = currentPlayer.getCurrentLocation();
@@ -337,15 +441,8 @@ public class ActionPanel extends VBox {
         }
 
         if (treasureCardCount >= requiredCards) {
-            if (game.spendAction()) {
-                if (currentPlayer.captureTreasure(treasure, game.getTreasureDeck())) {
-                    // Update treasure status
-                    for (Treasure t : game.getTreasures()) {
-                        if (t.getType() == treasure) {
-                            t.setCollected();
-                            break;
-                        }
-                    }
+            if (game.getActionsRemainingInTurn() > 0) {
+                if (journal.execute(new CaptureTreasureCommand(currentPlayer))) {
                     String message = currentPlayer.getName() + " captured the treasure: " + treasure.getDisplayName() + "!";
                     System.out.println(message);
                     showMessage(message);
@@ -364,6 +461,7 @@ public class ActionPanel extends VBox {
     }
 
     private void handleSpecialAction() {
+        cancelHint();
         Player currentPlayer = game.getCurrentPlayer();
 
         // Handle Navigator special ability
@@ -499,8 +597,7 @@ public class ActionPanel extends VBox {
                 gameBoardView.setTileSelectionCallback(null);
 
                 if (validMoves.contains(selectedTile)) {
-                    if (game.spendAction()) {
-                        selectedPlayer.moveTo(selectedTile);
+                    if (journal.execute(new MoveCommand(selectedPlayer, selectedTile))) {
                         String message = currentPlayer.getName() + " (Navigator) moved " +
                                 selectedPlayer.getName() + " to " + selectedTile.getName();
                         System.out.println(message);
@@ -521,59 +618,13 @@ public class ActionPanel extends VBox {
      */
     private Set<IslandTile> getValidNavigatorMoves(Player targetPlayer) {
         Set<IslandTile> validMoves = new HashSet<>();
-        IslandTile currentLocation = targetPlayer.getCurrentLocation();
-
-        if (currentLocation == null || game == null) return validMoves;
-
-        // Get current coordinates
-        int[] currentCoords = game.getTileCoordinates(currentLocation);
-        if (currentCoords == null) return validMoves;
-
-        // First step reachable tiles
-        Set<IslandTile> firstStepTiles = new HashSet<>();
-        int r = currentCoords[0];
-        int c = currentCoords[1];
-
-        // Orthogonal directions
-        int[] dr = {-1, 1, 0, 0};
-        int[] dc = {0, 0, -1, 1};
-
-        // Check first step reachable tiles
-        for (int i = 0; i < 4; i++) {
-            int nr = r + dr[i];
-            int nc = c + dc[i];
+        if (game == null) return validMoves;
 
-            if (game.isValidBoardCoordinate(nr, nc)) {
-                IslandTile adjacentTile = game.getGameBoard()[nr][nc];
-                if (adjacentTile != null && !adjacentTile.isSunk()) {
-                    firstStepTiles.add(adjacentTile);
-                    validMoves.add(adjacentTile);
-                }
-            }
-        }
-
-        // Second step reachable tiles
-        for (IslandTile firstStepTile : firstStepTiles) {
-            int[] firstStepCoords = game.getTileCoordinates(firstStepTile);
-            if (firstStepCoords == null) continue;
-
-            r = firstStepCoords[0];
-            c = firstStepCoords[1];
-
-            // Check second step reachable tiles
-            for (int i = 0; i < 4; i++) {
-                int nr = r + dr[i];
-                int nc = c + dc[i];
-
-                if (game.isValidBoardCoordinate(nr, nc)) {
-                    IslandTile adjacentTile = game.getGameBoard()[nr][nc];
-                    if (adjacentTile != null && !adjacentTile.isSunk() && adjacentTile != currentLocation) {
-                        validMoves.add(adjacentTile);
-                    }
-                }
-            }
-        }
+        BoardState board = game.getBoardState();
+        int from = board.indexOf(targetPlayer.getCurrentLocation());
+        if (from < 0) return validMoves;
 
+        board.addTiles(board.getReachability().navigatorTargets(from), validMoves);
         return validMoves;
     }
 
@@ -597,10 +648,7 @@ public class ActionPanel extends VBox {
         gameBoardView.setTileSelectionCallback(selectedTile -> {
             gameBoardView.clearSelectionHighlights();
             gameBoardView.setTileSelectionCallback(null);
-            if (floodedTiles.contains(selectedTile)) {
-                player.removeCardFromHand(card);
-                game.getTreasureDeck().discardCard(card);
-                selectedTile.setFlooded(false);
+            if (floodedTiles.contains(selectedTile) && journal.execute(new SandbagsCommand(player, card, selectedTile))) {
                 System.out.println(player.getName() + " used sandbags to shore up " + selectedTile.getName());
                 mainApp.updateGameState();
             } else {
@@ -657,7 +705,7 @@ public class ActionPanel extends VBox {
 
             // Check win conditions
             boolean allTreasuresCollected = game.getTreasures().stream().allMatch(Treasure::isCollected);
-            IslandTile foolsLanding = game.getIslandTileByName("Fools' Landing");
+            IslandTile foolsLanding = game.getIslandTileById(TileRegistry.FOOLS_LANDING);
             boolean allPlayersAtFoolsLanding = true;
 
             for (Player p : allPlayers) {
@@ -669,8 +717,7 @@ public class ActionPanel extends VBox {
 
             // If all treasures collected and all players at Fools' Landing, declare victory
             if (allTreasuresCollected && allPlayersAtFoolsLanding) {
-                player.removeCardFromHand(card);
-                game.getTreasureDeck().discardCard(card);
+                game.discardFromHand(player, card);
 
                 // Show victory message
                 String victoryMessage = "Congratulations! All treasures collected and all players at Fools' Landing! Helicopter successfully took off! You win!";
@@ -697,12 +744,10 @@ public class ActionPanel extends VBox {
             gameBoardView.setTileSelectionCallback(selectedTile -> {
                 gameBoardView.clearSelectionHighlights();
                 gameBoardView.setTileSelectionCallback(null);
-                if (validDestinations.contains(selectedTile)) {
-                    player.removeCardFromHand(card);
-                    game.getTreasureDeck().discardCard(card);
+                if (validDestinations.contains(selectedTile)
+                        && journal.execute(new HelicopterLiftCommand(player, card, selectedPlayersList, selectedTile))) {
                     StringBuilder movedPlayersNames = new StringBuilder();
                     for (Player p : selectedPlayersList) {
-                        p.moveTo(selectedTile);
                         movedPlayersNames.append(p.getName()).append(", ");
                     }
                     if (movedPlayersNames.length() > 0) {
@@ -720,6 +765,7 @@ public class ActionPanel extends VBox {
     }
 
     private void handleGiveCardAction() {
+        cancelHint();
         if (!canPerformAction()) return;
         Player currentPlayer = game.getCurrentPlayer();
         List<TreasureCard> treasureCardsInHand = new ArrayList<>();
@@ -820,9 +866,7 @@ public class ActionPanel extends VBox {
                 return null;
             });
             cardDialog.showAndWait().ifPresent(selectedCardToGive -> {
-                if (game.spendAction()) {
-                    currentPlayer.removeCardFromHand(selectedCardToGive);
-                    selectedPlayer.addCardToHand(selectedCardToGive);
+                if (journal.execute(new GiveCardCommand(currentPlayer, selectedPlayer, selectedCardToGive))) {
                     String message = currentPlayer.getName() + " gave " + selectedCardToGive.getTreasureType().getDisplayName() + " card to " + selectedPlayer.getName();
                     System.out.println(message);
                     showMessage(message);
@@ -841,45 +885,53 @@ public class ActionPanel extends VBox {
     }
 
     private void handleEndActionsAndDrawTreasure() {
+        cancelHint();
         if (game == null || mainApp == null || game.getCurrentPlayer() == null) {
             System.err.println("ActionPanel: Cannot end actions, required components missing.");
             return;
         }
 
         // If already processing another action, ignore this click
-        if (isProcessingAction) {
+        EngineExecutor engine = mainApp.getEngine();
+        if (engine.isBusy()) {
             System.out.println("Processing another action, please wait...");
             return;
         }
 
-        isProcessingAction = true; // Set lock flag
-        disableAllButtons(); // Immediately disable all buttons to prevent duplicate clicks
+        journal.clear(); // Cards are about to be revealed, so earlier actions become final
+        Game game = this.game;
+        Player currentPlayer = game.getCurrentPlayer();
+        System.out.println(currentPlayer.getName() + " ends actions, drawing treasure cards...");
 
-        try {
-            Player currentPlayer = game.getCurrentPlayer();
-            System.out.println(currentPlayer.getName() + " ends actions, drawing treasure cards...");
+        // Buttons stay disabled until the engine hands the result back
+        engine.submit("Drawing treasure cards...", () -> {
             game.setCurrentPhase(Game.GamePhase.DRAW_TREASURE_CARDS_PHASE);
-
             game.playerDrawsTreasureCards();
 
-            // Ensure UI updates, especially if Waters Rise card was drawn
-            mainApp.updateGameState();
-
             // Check current game phase as it might have changed if Waters Rise card was drawn
             if (game.getCurrentPhase() == Game.GamePhase.DRAW_FLOOD_CARDS_PHASE) {
                 // If already in draw flood cards phase (likely because Waters Rise card was drawn)
                 System.out.println("Game phase changed to draw flood cards, likely due to Waters Rise card");
-                update();
-                return;
+                return false;
             }
 
             // Check hand limit
             if (currentPlayer.isHandOverLimit()) {
                 System.out.println(currentPlayer.getName() + " has exceeded hand limit, needs to discard");
-                showMessage(currentPlayer.getName() + " has exceeded hand limit, please select cards to discard");
+                return true;
+            }
 
-                // Update UI to show discard buttons
-                mainApp.updateGameState();
+            // If hand not over limit, proceed to draw flood cards phase
+            System.out.println(currentPlayer.getName() + " hand not over limit, proceeding to draw flood cards");
+            game.setCurrentPhase(Game.GamePhase.DRAW_FLOOD_CARDS_PHASE);
+            return false;
+        }).whenComplete((mustDiscard, error) -> {
+            // Ensure UI updates, especially if Waters Rise card was drawn
+            mainApp.updateGameState();
+            if (error != null) {
+                showMessage("Drawing treasure cards failed: " + error.getMessage());
+            } else if (mustDiscard) {
+                showMessage(currentPlayer.getName() + " has exceeded hand limit, please select cards to discard");
 
                 // Force open discard dialog
                 Platform.runLater(() -> {
@@ -887,61 +939,51 @@ public class ActionPanel extends VBox {
                         mainApp.getPlayerInfoPanel().forceDiscardAction();
                     }
                 });
-            } else {
-                // If hand not over limit, proceed to draw flood cards phase
-                System.out.println(currentPlayer.getName() + " hand not over limit, proceeding to draw flood cards");
-                game.setCurrentPhase(Game.GamePhase.DRAW_FLOOD_CARDS_PHASE);
-                update();
             }
-        } finally {
-            isProcessingAction = false; // Always release lock flag
-            update(); // Ensure button states are correctly updated
-        }
+        });
     }
 
     private void handleDrawFloodCards() {
+        cancelHint();
         if (game == null || mainApp == null || game.getCurrentPlayer() == null) {
             System.err.println("ActionPanel: Cannot draw flood cards, required components missing.");
             return;
         }
 
         // If already processing another action, ignore this click
-        if (isProcessingAction) {
+        EngineExecutor engine = mainApp.getEngine();
+        if (engine.isBusy()) {
             System.out.println("Processing another action, please wait...");
             return;
         }
 
-        isProcessingAction = true; // Set lock flag
-        disableAllButtons(); // Immediately disable all buttons to prevent duplicate clicks
-
-        try {
-            Player currentPlayer = game.getCurrentPlayer();
-            System.out.println(currentPlayer.getName() + " drawing flood cards...");
+        journal.clear(); // Cards are about to be revealed, so earlier actions become final
+        Game game = this.game;
+        System.out.println(game.getCurrentPlayer().getName() + " drawing flood cards...");
 
+        engine.submit("Drawing flood cards...", () -> {
             // Draw flood cards
             game.playerDrawsFloodCards_REVISED();
 
             // Check game over conditions - let main game class handle game over dialog
             if (game.checkGameOverConditions()) {
                 System.out.println("Game over!");
-                // No longer showing message directly, handled by main game class
-                mainApp.updateGameState(); // This will trigger game over handling in ForbiddenIslandGame
-            } else {
-                // Ensure water level updates
-                mainApp.updateGameState();
-
-                // Proceed to next player's turn
-                game.nextTurn();
-
-                // Update UI again to reflect new player's state
-                mainApp.updateGameState();
+                return false;
+            }
 
+            // Proceed to next player's turn
+            game.nextTurn();
+            return true;
+        }).whenComplete((turnPassed, error) -> {
+            // One refresh on the next frame shows the water level, the new player and any game over
+            mainApp.updateGameState();
+            if (error != null) {
+                showMessage("Drawing flood cards failed: " + error.getMessage());
+            } else if (turnPassed) {
+                mainApp.autosave();
                 showMessage(game.getCurrentPlayer().getName() + "'s turn begins");
             }
-        } finally {
-            isProcessingAction = false; // Always release lock flag
-            update(); // Ensure button states are correctly updated
-        }
+        });
     }
 
     private boolean canPerformAction() {
@@ -978,6 +1020,9 @@ public class ActionPanel extends VBox {
         specialActionButton.setDisable(true);
         endActionsAndDrawTreasureButton.setDisable(true);
         drawFloodCardsButton.setDisable(true);
+        hintButton.setDisable(true);
+        undoButton.setDisable(true);
+        redoButton.setDisable(true);
         if (actionPointsLabel != null) {
             actionPointsLabel.setText("Action Points: N/A");
         }
@@ -996,7 +1041,9 @@ public class ActionPanel extends VBox {
     }
 
     public void setGame(Game game) {
+        cancelHint();
         this.game = game;
+        this.journal = new CommandJournal(game);
         update();
     }
 
@@ -1007,9 +1054,12 @@ public class ActionPanel extends VBox {
         }
 
         updateActionPointsDisplay();
+        if (hintActive && game.getStateHash() != hintStateHash) {
+            cancelHint(); // the position the hint was for is gone
+        }
 
-        // If processing action, keep all buttons disabled
-        if (isProcessingAction) {
+        // While the engine is drawing cards or changing turns, keep all buttons disabled
+        if (mainApp != null && mainApp.getEngine().isBusy()) {
             disableAllButtons();
             return;
         }
@@ -1026,6 +1076,9 @@ public class ActionPanel extends VBox {
                 giveCardButton.setDisable(!canAct);
                 captureTreasureButton.setDisable(!canAct);
                 specialActionButton.setDisable(!canAct);
+                hintButton.setDisable(!canAct || hintActive);
+                undoButton.setDisable(!journal.canUndo());
+                redoButton.setDisable(!journal.canRedo());
 
                 endActionsAndDrawTreasureButton.setDisable(false);
                 drawFloodCardsButton.setDisable(true);
@@ -1057,6 +1110,9 @@ public class ActionPanel extends VBox {
     }
 
     public void disableActionButtonsForPhaseChange() {
+        hintButton.setDisable(true);
+        undoButton.setDisable(true);
+        redoButton.setDisable(true);
         moveButton.setDisable(true);
         shoreUpButton.setDisable(true);
         giveCardButton.setDisable(true);
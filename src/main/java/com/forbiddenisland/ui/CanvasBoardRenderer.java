@@ -0,0 +1,353 @@
+package com.forbiddenisland.ui;
+
+import com.forbiddenisland.model.BoardState;
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.model.IslandTile;
+import com.forbiddenisland.model.Player;
+import com.forbiddenisland.model.TileRegistry;
+import com.forbiddenisland.ui.util.AssetLoader;
+import com.forbiddenisland.ui.util.StylePalette;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Fast board renderer - draws the whole island on one canvas instead of a node tree per tile,
+ * for machines where the detailed board is too heavy. Tiles are drawn with the same colors as
+ * {@link TileView}, pawns from pre-scaled sprites, and highlights as plain borders without
+ * pulsing. Only cells whose tile, pawns, highlight or selection changed are redrawn.
+ */
+public class CanvasBoardRenderer extends Canvas {
+
+    private static final int BOARD_SIZE = 6;
+    private static final double TILE_SIZE = 120;
+    private static final double TILE_MARGIN = 3;
+    private static final double GAP = 8;
+    private static final double CELL = TILE_SIZE + 2 * TILE_MARGIN + GAP; // distance between cell origins
+    private static final double ARC = 20;
+    private static final double TEXT_PADDING = 8;
+
+    // Pawn sprites: full size for one or two pawns, smaller when a tile holds more
+    private static final double PAWN_IMAGE_SIZE = 40;
+    private static final double SMALL_PAWN_IMAGE_SIZE = 26;
+    private static final double PAWN_GAP = 4;
+
+    private static final Color SHADOW_COLOR = Color.color(0, 0, 0, 0.3);
+    private static final Color FLOOD_WAVE_COLOR = Color.rgb(70, 130, 180, 0.6);
+    private static final Color SELECTED_COLOR = Color.RED;
+
+    private final Game game;
+    private final GraphicsContext gc;
+    private final Map<String, List<String>> wrappedNames = new HashMap<>();
+    private final Text measure = new Text();
+    private final double nameLineHeight;
+
+    // What each cell showed when it was last drawn
+    private final IslandTile[] drawnTiles = new IslandTile[BOARD_SIZE * BOARD_SIZE];
+    private final long[] drawnVersions = new long[BOARD_SIZE * BOARD_SIZE];
+    private final Color[] drawnHighlights = new Color[BOARD_SIZE * BOARD_SIZE];
+    private final boolean[] drawnSelected = new boolean[BOARD_SIZE * BOARD_SIZE];
+    private final boolean[] drawn = new boolean[BOARD_SIZE * BOARD_SIZE];
+
+    private Set<IslandTile> highlightedTiles = Collections.emptySet();
+    private Color highlightColor;
+    private IslandTile selectedTile;
+
+    /**
+     * Decodes the pawn sprites at the sizes the canvas draws them, on background threads
+     */
+    public static CompletableFuture<Void> preloadImages() {
+        return CompletableFuture.allOf(
+                AssetLoader.getInstance().preload(PAWN_IMAGE_SIZE, PAWN_IMAGE_SIZE, AssetLoader.pawnImagePaths()),
+                AssetLoader.getInstance().preload(SMALL_PAWN_IMAGE_SIZE, SMALL_PAWN_IMAGE_SIZE, AssetLoader.pawnImagePaths()));
+    }
+
+    /**
+     * @param game Game whose board is drawn
+     * @param cellClickHandler Called with the row and column of a clicked tile (not of the gaps between tiles)
+     */
+    public CanvasBoardRenderer(Game game, BiConsumer<Integer, Integer> cellClickHandler) {
+        super(BOARD_SIZE * CELL - GAP, BOARD_SIZE * CELL - GAP);
+        this.game = game;
+        this.gc = getGraphicsContext2D();
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        nameLineHeight = lineHeight(StylePalette.TILE_NAME_FONT);
+
+        setOnMouseClicked(e -> {
+            int[] cell = cellAt(e.getX(), e.getY());
+            if (cell != null && cellClickHandler != null) {
+                cellClickHandler.accept(cell[0], cell[1]);
+            }
+        });
+    }
+
+    /**
+     * Find the cell under a point of the canvas
+     * @return {row, column}, or null if the point is in a gap or outside the board
+     */
+    public static int[] cellAt(double x, double y) {
+        int col = (int) Math.floor(x / CELL);
+        int row = (int) Math.floor(y / CELL);
+        if (row < 0 || row >= BOARD_SIZE || col < 0 || col >= BOARD_SIZE) return null;
+        double localX = x - col * CELL - TILE_MARGIN;
+        double localY = y - row * CELL - TILE_MARGIN;
+        if (localX < 0 || localX >= TILE_SIZE || localY < 0 || localY >= TILE_SIZE) return null;
+        return new int[]{row, col};
+    }
+
+    /**
+     * Set the highlighted tiles; takes effect on the next {@link #render()}
+     * @param tiles Tiles to highlight, or null for none
+     * @param color Border color of the highlighted tiles
+     */
+    public void setHighlights(Set<IslandTile> tiles, Color color) {
+        highlightedTiles = tiles == null ? Collections.emptySet() : tiles;
+        highlightColor = color;
+    }
+
+    /**
+     * Set the tile with the red selection border; takes effect on the next {@link #render()}
+     */
+    public void setSelectedTile(IslandTile tile) {
+        selectedTile = tile;
+    }
+
+    public IslandTile getSelectedTile() {
+        return selectedTile;
+    }
+
+    /**
+     * Redraw every cell whose tile, flood state, pawns, highlight or selection changed
+     * since it was last drawn
+     * @return Number of cells redrawn
+     */
+    public int render() {
+        IslandTile[][] gameBoard = game.getGameBoard();
+        BoardState board = game.getBoardState();
+        int touched = 0;
+
+        for (int r = 0; r < BOARD_SIZE; r++) {
+            for (int c = 0; c < BOARD_SIZE; c++) {
+                int i = r * BOARD_SIZE + c;
+                IslandTile tile = gameBoard[r][c];
+                int index = tile != null && board != null ? board.indexOf(tile) : -1;
+                long version = index < 0 ? -1 : board.getCellVersion(index);
+                Color highlight = tile != null && highlightedTiles.contains(tile) ? highlightColor : null;
+                boolean selected = tile != null && tile == selectedTile;
+
+                boolean unchanged = drawn[i] && tile == drawnTiles[i] && (tile == null || index >= 0)
+                        && version == drawnVersions[i] && selected == drawnSelected[i]
+                        && Objects.equals(highlight, drawnHighlights[i]);
+                if (unchanged) continue;
+
+                drawCell(r, c, tile, highlight, selected);
+                drawn[i] = true;
+                drawnTiles[i] = tile;
+                drawnVersions[i] = version;
+                drawnHighlights[i] = highlight;
+                drawnSelected[i] = selected;
+                touched++;
+            }
+        }
+        return touched;
+    }
+
+    private void drawCell(int row, int col, IslandTile tile, Color highlight, boolean selected) {
+        double cellX = col * CELL;
+        double cellY = row * CELL;
+        gc.clearRect(cellX, cellY, CELL, CELL);
+
+        double x = cellX + TILE_MARGIN;
+        double y = cellY + TILE_MARGIN;
+
+        // Shadow, then the tile
+        gc.setFill(SHADOW_COLOR);
+        gc.fillRoundRect(x + 3, y + 3, TILE_SIZE, TILE_SIZE, ARC, ARC);
+        gc.setFill(tileColor(tile));
+        gc.fillRoundRect(x, y, TILE_SIZE, TILE_SIZE, ARC, ARC);
+        if (tile != null && tile.isFlooded()) {
+            drawWaves(x, y);
+        }
+
+        drawText(x, y, tile);
+        if (tile != null) {
+            drawPawns(x, y, tile);
+        }
+
+        // Border: selection over highlight over the Fools' Landing gold over plain black
+        if (highlight != null && !selected) {
+            gc.setStroke(highlight.deriveColor(0, 1, 1, 0.35));
+            gc.setLineWidth(6);
+            gc.strokeRoundRect(x, y, TILE_SIZE, TILE_SIZE, ARC, ARC);
+        }
+        Color border = Color.BLACK;
+        double width = 2;
+        if (selected) {
+            border = SELECTED_COLOR;
+            width = 3;
+        } else if (highlight != null) {
+            border = highlight;
+            width = 3;
+        } else if (tile != null && tile.getId() == TileRegistry.FOOLS_LANDING) {
+            border = Color.GOLD;
+            width = 3;
+        }
+        gc.setStroke(border);
+        gc.setLineWidth(width);
+        gc.strokeRoundRect(x + 1, y + 1, TILE_SIZE - 2, TILE_SIZE - 2, ARC, ARC);
+    }
+
+    private static Color tileColor(IslandTile tile) {
+        if (tile == null) return StylePalette.WATER_COLOR;
+        if (tile.isFlooded()) return StylePalette.FLOODED_COLOR;
+        if (tile.getId() == TileRegistry.FOOLS_LANDING) return StylePalette.FOOLS_LANDING_COLOR;
+        if (tile.getAssociatedTreasure() != null) return StylePalette.TREASURE_TILE_COLOR;
+        return StylePalette.NORMAL_TILE_COLOR;
+    }
+
+    // Two wave lines across the lower half, standing in for the detailed board's lighting effect
+    private void drawWaves(double x, double y) {
+        gc.setStroke(FLOOD_WAVE_COLOR);
+        gc.setLineWidth(2);
+        for (double waveY = y + TILE_SIZE * 0.62; waveY < y + TILE_SIZE - 10; waveY += 18) {
+            gc.beginPath();
+            gc.moveTo(x + 10, waveY);
+            for (double waveX = x + 10; waveX < x + TILE_SIZE - 10; waveX += 20) {
+                gc.quadraticCurveTo(waveX + 5, waveY - 5, waveX + 10, waveY);
+                gc.quadraticCurveTo(waveX + 15, waveY + 5, waveX + 20, waveY);
+            }
+            gc.stroke();
+        }
+    }
+
+    private void drawText(double x, double y, IslandTile tile) {
+        double centerX = x + TILE_SIZE / 2;
+        double textY = y + TEXT_PADDING;
+        double maxWidth = TILE_SIZE - 2 * TEXT_PADDING;
+
+        String name;
+        Color nameColor = Color.BLACK;
+        String status;
+        Color statusColor = Color.BLACK;
+        if (tile == null) {
+            name = "Water";
+            status = "";
+        } else {
+            name = tile.getName();
+            if (tile.getId() == TileRegistry.FOOLS_LANDING) {
+                nameColor = Color.DARKRED;
+            }
+            if (tile.isFlooded()) {
+                status = "Flooded";
+                statusColor = Color.DARKBLUE;
+            } else if (tile.getId() == TileRegistry.FOOLS_LANDING) {
+                status = "Helicopter Lift";
+                statusColor = Color.DARKRED;
+            } else if (tile.getAssociatedTreasure() != null) {
+                status = "Treasure: " + tile.getAssociatedTreasure().getDisplayName();
+                statusColor = Color.DARKGREEN;
+            } else {
+                status = "Normal";
+            }
+        }
+
+        gc.setFont(StylePalette.TILE_NAME_FONT);
+        gc.setFill(nameColor);
+        for (String line : wrap(name == null ? "" : name, StylePalette.TILE_NAME_FONT, maxWidth)) {
+            gc.fillText(line, centerX, textY, maxWidth);
+            textY += nameLineHeight;
+        }
+        if (!status.isEmpty()) {
+            gc.setFont(StylePalette.TILE_STATUS_FONT);
+            gc.setFill(statusColor);
+            gc.fillText(status, centerX, textY + 3, maxWidth);
+        }
+    }
+
+    private void drawPawns(double x, double y, IslandTile tile) {
+        List<Player> onTile = new ArrayList<>();
+        for (Player player : game.getPlayers()) {
+            if (player.getPawn() != null && player.getPawn().getCurrentLocation() != null
+                    && tile.getId() == player.getPawn().getCurrentTileId()) {
+                onTile.add(player);
+            }
+        }
+        if (onTile.isEmpty()) return;
+
+        // Sprites are always fetched at a preloaded size; a crowded tile scales them on the canvas
+        double spriteSize = onTile.size() <= 2 ? PAWN_IMAGE_SIZE : SMALL_PAWN_IMAGE_SIZE;
+        double size = spriteSize;
+        double rowWidth = onTile.size() * size + (onTile.size() - 1) * PAWN_GAP;
+        if (rowWidth > TILE_SIZE - 2 * TEXT_PADDING) {
+            size = (TILE_SIZE - 2 * TEXT_PADDING - (onTile.size() - 1) * PAWN_GAP) / onTile.size();
+            rowWidth = TILE_SIZE - 2 * TEXT_PADDING;
+        }
+        double pawnX = x + (TILE_SIZE - rowWidth) / 2;
+        double pawnY = y + TILE_SIZE - TEXT_PADDING - size;
+
+        for (Player player : onTile) {
+            Image sprite = AssetLoader.getInstance().getImage(
+                    AssetLoader.pawnImagePath(TileView.pawnImageNumber(player)), spriteSize, spriteSize);
+            if (sprite != null) {
+                gc.drawImage(sprite, pawnX, pawnY, size, size);
+            } else {
+                // Fall back to a colored disc if the sprite is missing
+                gc.setFill(TileView.pawnFillColor(player.getPawn().getColor()));
+                gc.fillOval(pawnX, pawnY, size, size);
+                gc.setStroke(Color.BLACK);
+                gc.setLineWidth(1.5);
+                gc.strokeOval(pawnX, pawnY, size, size);
+            }
+            pawnX += size + PAWN_GAP;
+        }
+    }
+
+    /**
+     * Break a tile name into lines that fit the tile, like a wrapping label; cached per name
+     */
+    private List<String> wrap(String text, Font font, double maxWidth) {
+        List<String> lines = wrappedNames.get(text);
+        if (lines != null) return lines;
+
+        lines = new ArrayList<>();
+        measure.setFont(font);
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            String candidate = line.length() == 0 ? word : line + " " + word;
+            measure.setText(candidate);
+            if (line.length() > 0 && measure.getLayoutBounds().getWidth() > maxWidth) {
+                lines.add(line.toString());
+                line = new StringBuilder(word);
+            } else {
+                line = new StringBuilder(candidate);
+            }
+        }
+        if (line.length() > 0) {
+            lines.add(line.toString());
+        }
+        wrappedNames.put(text, lines);
+        return lines;
+    }
+
+    private double lineHeight(Font font) {
+        measure.setFont(font);
+        measure.setText("Ag");
+        return measure.getLayoutBounds().getHeight();
+    }
+}
@@ -1,7 +1,12 @@
 package com.forbiddenisland.ui;
 
+import com.forbiddenisland.ForbiddenIslandGame;
+import com.forbiddenisland.log.GameLog;
 import com.forbiddenisland.model.Game;
 import com.forbiddenisland.model.IslandTile;
+import com.forbiddenisland.ui.util.AnimationManager;
+import com.forbiddenisland.ui.util.AssetLoader;
+import com.forbiddenisland.ui.util.StylePalette;
 import javafx.geometry.Insets;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
@@ -22,38 +27,93 @@ import javafx.scene.image.Image;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.Set;
 import javafx.animation.ScaleTransition;
 import javafx.util.Duration;
 
 /**
- * Game board view - displays the layout and state of island tiles
+ * Game board view - displays the layout and state of island tiles, either as one
+ * {@link TileView} per cell or drawn onto a single canvas; see {@link RenderMode}
  */
 public class GameBoardView extends GridPane {
 
+    /**
+     * How the board is drawn
+     */
+    public enum RenderMode {
+        /** One animated node tree per tile */
+        NODES("Detailed"),
+        /** Everything on one canvas, for low-end machines */
+        CANVAS("Fast");
+
+        private final String displayName;
+
+        RenderMode(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Parse a mode from a setting such as {@code canvas} or {@code nodes}
+         * @return The mode, or the fallback if the value is null or not recognised
+         */
+        public static RenderMode parse(String value, RenderMode fallback) {
+            if (value == null) return fallback;
+            for (RenderMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value.trim()) || mode.displayName.equalsIgnoreCase(value.trim())) {
+                    return mode;
+                }
+            }
+            GameLog.warn("BOARD", "Unknown board renderer '{}', using {}", value, fallback);
+            return fallback;
+        }
+    }
+
+    // Mode for boards created from now on
+    private static RenderMode defaultRenderMode = RenderMode.NODES;
+
     private Game game;
     private TileView[][] tileViews;
+    private RenderMode renderMode;
+    private CanvasBoardRenderer canvasRenderer; // only in canvas mode
     private static final int BOARD_SIZE = 6;
+    private static final String HIGHLIGHT_ANIMATION = "highlight-pulse";
+    private String highlightColor; // current -highlight-color of the stylesheet
 
     // Tile selection callback
     private Consumer<IslandTile> tileSelectionCallback;
     private TileView selectedTileView;
     private Map<String, int[]> tileCoordinates;
 
+    // Redraw counters, for judging how much each update costs
+    private int lastTilesTouched;
+    private long totalTilesTouched;
+    private long updateCount;
+
     public GameBoardView(Game game) {
         this.game = game;
         this.tileViews = new TileView[BOARD_SIZE][BOARD_SIZE];
         this.tileCoordinates = new HashMap<>();
+        this.renderMode = defaultRenderMode;
 
         // Set game board appearance
         setPadding(new Insets(15));
-        setHgap(8);
-        setVgap(8);
 
         // Add background
         setBackground(createGameBoardBackground());
 
+        // Tile borders, shadows and highlights are styled by pseudo-class
+        getStyleClass().add("game-board");
+        String stylesheet = StylePalette.boardStylesheet();
+        if (stylesheet != null) {
+            getStylesheets().add(stylesheet);
+        }
+
         // Add border and shadow effect
         setBorder(new Border(new BorderStroke(
                 Color.rgb(0, 0, 100, 0.5),
@@ -78,7 +138,7 @@ public class GameBoardView extends GridPane {
     private Background createGameBoardBackground() {
         // Attempt to load water texture background image
         try {
-            Image waterImage = new Image(getClass().getResourceAsStream("/images/background/forbidden_bg_3.png"));
+            Image waterImage = Objects.requireNonNull(AssetLoader.getInstance().getImage(ForbiddenIslandGame.BACKGROUND_IMAGE));
             BackgroundImage backgroundImage = new BackgroundImage(
                     waterImage,
                     BackgroundRepeat.REPEAT,
@@ -97,7 +157,44 @@ public class GameBoardView extends GridPane {
         }
     }
 
+    /**
+     * Get the mode new boards are drawn in
+     */
+    public static RenderMode getDefaultRenderMode() {
+        return defaultRenderMode;
+    }
+
+    /**
+     * Set the mode new boards are drawn in, for example from a startup option
+     */
+    public static void setDefaultRenderMode(RenderMode mode) {
+        defaultRenderMode = mode == null ? RenderMode.NODES : mode;
+    }
+
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    /**
+     * Switch how this board is drawn; rebuilds the board, dropping highlights and selection
+     */
+    public void setRenderMode(RenderMode mode) {
+        if (mode == null || mode == renderMode) return;
+        renderMode = mode;
+        GameLog.info("BOARD", "Board renderer switched to {}", mode);
+        setGame(game);
+    }
+
     private void initializeBoard() {
+        tileViews = new TileView[BOARD_SIZE][BOARD_SIZE];
+        canvasRenderer = null;
+        if (renderMode == RenderMode.CANVAS) {
+            initializeCanvas();
+            return;
+        }
+        setHgap(8);
+        setVgap(8);
+
         IslandTile[][] gameBoard = game.getGameBoard();
 
         for (int r = 0; r < BOARD_SIZE; r++) {
@@ -128,6 +225,25 @@ public class GameBoardView extends GridPane {
         }
     }
 
+    private void initializeCanvas() {
+        // The canvas draws its own margins and gaps
+        setHgap(0);
+        setVgap(0);
+
+        IslandTile[][] gameBoard = game.getGameBoard();
+        for (int r = 0; r < BOARD_SIZE; r++) {
+            for (int c = 0; c < BOARD_SIZE; c++) {
+                if (gameBoard[r][c] != null) {
+                    tileCoordinates.put(gameBoard[r][c].getName(), new int[]{r, c});
+                }
+            }
+        }
+
+        canvasRenderer = new CanvasBoardRenderer(game, this::handleCellClick);
+        add(canvasRenderer, 0, 0);
+        canvasRenderer.render();
+    }
+
     /**
      * Set tile selection callback
      * @param callback Callback function to invoke when a tile is selected by the player
@@ -147,7 +263,7 @@ public class GameBoardView extends GridPane {
 
         // Set new selection
         selectedTileView = tileView;
-        tileView.setStyle("-fx-border-color: red; -fx-border-width: 3; -fx-border-radius: 8;");
+        tileView.setSelected(true);
 
         // Invoke callback
         if (tileSelectionCallback != null) {
@@ -155,12 +271,31 @@ public class GameBoardView extends GridPane {
         }
     }
 
+    /**
+     * Handle a click on a canvas cell
+     */
+    private void handleCellClick(int row, int col) {
+        IslandTile tile = game.getGameBoard()[row][col];
+        if (tile == null) return; // Ignore water clicks
+
+        canvasRenderer.setSelectedTile(tile);
+        canvasRenderer.render();
+
+        if (tileSelectionCallback != null) {
+            tileSelectionCallback.accept(tile);
+        }
+    }
+
     /**
      * Clear current selection
      */
     public void clearSelection() {
+        if (canvasRenderer != null) {
+            canvasRenderer.setSelectedTile(null);
+            canvasRenderer.render();
+        }
         if (selectedTileView != null) {
-            selectedTileView.setStyle("");
+            selectedTileView.setSelected(false);
         }
     }
 
@@ -168,6 +303,9 @@ public class GameBoardView extends GridPane {
      * Get currently selected tile
      */
     public IslandTile getSelectedTile() {
+        if (canvasRenderer != null) {
+            return canvasRenderer.getSelectedTile();
+        }
         return selectedTileView != null ? selectedTileView.getTile() : null;
     }
 
@@ -179,16 +317,21 @@ public class GameBoardView extends GridPane {
     }
 
     /**
-     * Update the game board view
+     * Update the game board view. Only tiles whose flood state, sinking or pawns changed since
+     * they were last drawn are redrawn; see {@link #getLastTilesTouched()}.
      */
     public void update() {
         IslandTile[][] gameBoard = game.getGameBoard();
+        int touched = canvasRenderer != null ? canvasRenderer.render() : 0;
 
         for (int r = 0; r < BOARD_SIZE; r++) {
             for (int c = 0; c < BOARD_SIZE; c++) {
                 if (tileViews[r][c] != null) {
                     IslandTile tile = gameBoard[r][c];
-                    tileViews[r][c].update(tile);
+                    if (tileViews[r][c].isStale(tile)) {
+                        tileViews[r][c].update(tile);
+                        touched++;
+                    }
 
                     // Update coordinate mapping
                     if (tile != null) {
@@ -197,6 +340,36 @@ public class GameBoardView extends GridPane {
                 }
             }
         }
+
+        lastTilesTouched = touched;
+        totalTilesTouched += touched;
+        updateCount++;
+        GameLog.debug("BOARD", "Board update redrew {} of {} tiles", touched, BOARD_SIZE * BOARD_SIZE);
+    }
+
+    /**
+     * Get how many tiles the last {@link #update()} redrew
+     */
+    public int getLastTilesTouched() {
+        return lastTilesTouched;
+    }
+
+    /**
+     * Get how many tiles have been redrawn by all updates of this view
+     */
+    public long getTotalTilesTouched() {
+        return totalTilesTouched;
+    }
+
+    /**
+     * Get how many times {@link #update()} has run
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    public Game getGame() {
+        return game;
     }
 
     /**
@@ -207,6 +380,7 @@ public class GameBoardView extends GridPane {
         this.game = game;
         this.tileCoordinates.clear();
         clearSelection();
+        selectedTileView = null;
 
         // Clear existing board
         getChildren().clear();
@@ -221,31 +395,51 @@ public class GameBoardView extends GridPane {
      * @param color The color to use for highlighting.
      */
     public void highlightTiles(Set<IslandTile> tilesToHighlight, Color color) {
-        clearSelectionHighlights(); // Clear previous highlights first
-        if (tilesToHighlight == null) return;
+        if (tilesToHighlight == null) {
+            clearSelectionHighlights();
+            return;
+        }
+
+        if (canvasRenderer != null) {
+            canvasRenderer.setSelectedTile(null);
+            canvasRenderer.setHighlights(tilesToHighlight, color);
+            canvasRenderer.render();
+            return;
+        }
 
+        // One looked-up color on the board colors every highlighted tile
         String borderColor = colorToHex(color);
-        String highlightStyle = "-fx-border-color: " + borderColor + "; -fx-border-width: 3; -fx-border-radius: 8; -fx-effect: dropshadow(three-pass-box, " + borderColor + ", 10, 0.5, 0, 0);";
+        if (!borderColor.equals(highlightColor)) {
+            highlightColor = borderColor;
+            setStyle("-highlight-color: " + borderColor + ";");
+        }
 
+        // Only touch tiles whose highlight changes; tiles that stay highlighted keep pulsing
+        selectedTileView = null;
         for (int r = 0; r < BOARD_SIZE; r++) {
             for (int c = 0; c < BOARD_SIZE; c++) {
-                if (tileViews[r][c] != null && tileViews[r][c].getTile() != null) {
-                    if (tilesToHighlight.contains(tileViews[r][c].getTile())) {
-                        tileViews[r][c].setStyle(highlightStyle);
-
-                        // Add pulsing animation effect
-                        ScaleTransition pulse = new ScaleTransition(
-                                Duration.millis(800), tileViews[r][c]);
-                        pulse.setFromX(1.0);
-                        pulse.setFromY(1.0);
-                        pulse.setToX(1.05);
-                        pulse.setToY(1.05);
-                        pulse.setCycleCount(javafx.animation.Animation.INDEFINITE);
-                        pulse.setAutoReverse(true);
-                        pulse.play();
-
-                        // Store animation for later stopping
-                        tileViews[r][c].setUserData(pulse);
+                if (tileViews[r][c] != null) {
+                    boolean highlight = tileViews[r][c].getTile() != null
+                            && tilesToHighlight.contains(tileViews[r][c].getTile());
+                    if (highlight && tileViews[r][c].isHighlighted()) {
+                        continue;
+                    }
+                    clearHighlight(tileViews[r][c]);
+                    if (highlight) {
+                        tileViews[r][c].setHighlighted(true);
+
+                        // Add pulsing animation effect, reusing the tile's pooled transition
+                        TileView tileView = tileViews[r][c];
+                        AnimationManager.getInstance().play(tileView, HIGHLIGHT_ANIMATION, () -> {
+                            ScaleTransition pulse = new ScaleTransition(Duration.millis(800), tileView);
+                            pulse.setFromX(1.0);
+                            pulse.setFromY(1.0);
+                            pulse.setToX(1.05);
+                            pulse.setToY(1.05);
+                            pulse.setCycleCount(javafx.animation.Animation.INDEFINITE);
+                            pulse.setAutoReverse(true);
+                            return pulse;
+                        });
                     }
                 }
             }
@@ -257,29 +451,33 @@ public class GameBoardView extends GridPane {
      * This is different from clearSelection() which only clears the single-tile red selection border.
      */
     public void clearSelectionHighlights() {
+        if (canvasRenderer != null) {
+            canvasRenderer.setSelectedTile(null);
+            canvasRenderer.setHighlights(null, null);
+            canvasRenderer.render();
+        }
         for (int r = 0; r < BOARD_SIZE; r++) {
             for (int c = 0; c < BOARD_SIZE; c++) {
                 if (tileViews[r][c] != null) {
-                    // Stop animation
-                    if (tileViews[r][c].getUserData() instanceof javafx.animation.Animation) {
-                        ((javafx.animation.Animation) tileViews[r][c].getUserData()).stop();
-                        tileViews[r][c].setUserData(null);
-                    }
-
-                    // Reset scale
-                    tileViews[r][c].setScaleX(1.0);
-                    tileViews[r][c].setScaleY(1.0);
-
-                    // Clear styles
-                    tileViews[r][c].setStyle(""); // Reset any custom style
+                    clearHighlight(tileViews[r][c]);
                 }
             }
         }
         // Also ensure the single red selection is cleared if it was active
-        if (selectedTileView != null) {
-            selectedTileView.setStyle("");
-            selectedTileView = null;
-        }
+        selectedTileView = null;
+    }
+
+    private void clearHighlight(TileView tileView) {
+        // Stop animation
+        AnimationManager.getInstance().stop(tileView, HIGHLIGHT_ANIMATION);
+
+        // Reset scale
+        tileView.setScaleX(1.0);
+        tileView.setScaleY(1.0);
+
+        // Clear highlight and selection states
+        tileView.setHighlighted(false);
+        tileView.setSelected(false);
     }
 
     // Helper to convert JavaFX Color to CSS hex string
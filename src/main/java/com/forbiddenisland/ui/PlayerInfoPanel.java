@@ -7,11 +7,16 @@ import com.forbiddenisland.model.Card;
 import com.forbiddenisland.model.TreasureCard;
 import com.forbiddenisland.model.SpecialActionCard;
 import com.forbiddenisland.model.AdventurerRole;
+import com.forbiddenisland.model.IslandTile;
+import com.forbiddenisland.ui.util.AssetLoader;
+import com.forbiddenisland.ui.util.KeyedNodeList;
+import com.forbiddenisland.ui.util.StylePalette;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.Button;
-import javafx.scene.control.TextArea;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ListView;
@@ -33,28 +38,46 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
-import javafx.scene.effect.DropShadow;
 import javafx.animation.ScaleTransition;
 import javafx.util.Duration;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Player Information Panel
  * Displays information for all players in the game
  * Part of the GUI integration work (Week 12)
+ *
+ * Updates are diffed against what is on screen: each hand card gets one node for as long as
+ * it is held, player rows only rewrite the fields whose values changed, and an update with
+ * no change in the game touches no nodes at all.
  */
 public class PlayerInfoPanel extends VBox {
 
     // Core components for player information display
     private Game game;
     private List<PlayerView> playerViews;
-    private TextArea handCardsArea;
+    private Label handHeaderLabel;
+    private KeyedNodeList<Object> handCards; // hand cards and their section headings
+    private Player shownHandOwner;
+    private int shownHandSize = -1;
+    private long fieldUpdates;
     private Button discardButton;
     private Button viewOtherPlayersButton;
     private ForbiddenIslandGame mainApp;
 
+    private static final double PAWN_IMAGE_SIZE = 30;
+
+    /**
+     * Decodes the pawn images at the size this panel shows them, on background threads
+     */
+    public static CompletableFuture<Void> preloadImages() {
+        return AssetLoader.getInstance().preload(PAWN_IMAGE_SIZE, PAWN_IMAGE_SIZE, AssetLoader.pawnImagePaths());
+    }
+
     /**
      * Constructor for PlayerInfoPanel
      * Initializes the panel with game state and player information
@@ -118,13 +141,21 @@ public class PlayerInfoPanel extends VBox {
         Label handLabel = new Label("Hand Cards");
         handLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
 
-        // Set up hand cards display area
-        handCardsArea = new TextArea();
-        handCardsArea.setEditable(false);
-        handCardsArea.setPrefRowCount(12);  // Increase display lines for tile layout
-        handCardsArea.setPrefColumnCount(30);
-        handCardsArea.setWrapText(true);
-        handCardsArea.setStyle("-fx-font-size: 14px; -fx-font-family: 'Arial';");
+        // Set up hand cards display area: a heading line, then one node per card
+        handHeaderLabel = new Label();
+        handHeaderLabel.setWrapText(true);
+        handHeaderLabel.setFont(Font.font("Arial", 14));
+        shownHandOwner = null;
+        shownHandSize = -1;
+
+        VBox handCardsBox = new VBox(4);
+        handCardsBox.setPadding(new Insets(5));
+        handCards = new KeyedNodeList<>(handCardsBox.getChildren(), this::createHandEntry);
+
+        ScrollPane handCardsScroll = new ScrollPane(handCardsBox);
+        handCardsScroll.setFitToWidth(true);
+        handCardsScroll.setPrefViewportHeight(240);
+        handCardsScroll.setStyle("-fx-background-color: white;");
 
         // Create button container
         HBox buttonBox = new HBox(10);
@@ -146,7 +177,7 @@ public class PlayerInfoPanel extends VBox {
         buttonBox.getChildren().addAll(discardButton, viewOtherPlayersButton);
 
         // Add all elements to hand cards container
-        handCardsContainer.getChildren().addAll(handLabel, handCardsArea, buttonBox);
+        handCardsContainer.getChildren().addAll(handLabel, handHeaderLabel, handCardsScroll, buttonBox);
 
         // Set alignment and size for hand cards container
         handCardsContainer.setAlignment(Pos.CENTER);
@@ -177,60 +208,71 @@ public class PlayerInfoPanel extends VBox {
     }
 
     /**
-     * Update the hand cards display area
+     * Update the hand cards display area; cards keep their nodes, only added or removed cards change
      */
     private void updateHandCardsDisplay() {
-        if (game == null || handCardsArea == null) return;
+        if (game == null || handCards == null) return;
 
         Player currentPlayer = game.getCurrentPlayer();
         if (currentPlayer == null) return;
 
-        StringBuilder sb = new StringBuilder();
         List<Card> hand = currentPlayer.getHand();
+        if (currentPlayer != shownHandOwner || hand.size() != shownHandSize) {
+            shownHandOwner = currentPlayer;
+            shownHandSize = hand.size();
+            handHeaderLabel.setText(currentPlayer.getName() + " (" + currentPlayer.getRole().getDescription() + ") "
+                    + "Hand: " + hand.size() + "/" + Player.MAX_HAND_SIZE);
+            fieldUpdates++;
+        }
 
-        sb.append(currentPlayer.getName())
-                .append(" (").append(currentPlayer.getRole().getDescription()).append(") ")
-                .append("Hand: ").append(hand.size()).append("/").append(Player.MAX_HAND_SIZE).append("\n\n");
-
+        // Group cards by type, each group under its heading
+        List<Object> entries = new ArrayList<>(hand.size() + 2);
         if (hand.isEmpty()) {
-            sb.append("No hand cards");
+            entries.add(HandSection.EMPTY);
         } else {
-            // Group cards by type
-            List<TreasureCard> treasureCards = new ArrayList<>();
-            List<SpecialActionCard> specialCards = new ArrayList<>();
-
             for (Card card : hand) {
                 if (card instanceof TreasureCard) {
-                    treasureCards.add((TreasureCard) card);
-                } else if (card instanceof SpecialActionCard) {
-                    specialCards.add((SpecialActionCard) card);
+                    if (entries.isEmpty()) entries.add(HandSection.TREASURE);
+                    entries.add(card);
                 }
             }
-
-            // Display treasure cards
-            if (!treasureCards.isEmpty()) {
-                sb.append("Treasure Cards:\n");
-                for (TreasureCard card : treasureCards) {
-                    sb.append("• ").append(card.getTreasureType().getDisplayName()).append("\n");
-                }
-                sb.append("\n");
-            }
-
-            // Display special action cards
-            if (!specialCards.isEmpty()) {
-                sb.append("Special Action Cards:\n");
-                for (SpecialActionCard card : specialCards) {
-                    sb.append("• ").append(card.getName()).append(" - ").append(card.getDescription()).append("\n");
+            int specialStart = entries.size();
+            for (Card card : hand) {
+                if (card instanceof SpecialActionCard) {
+                    if (entries.size() == specialStart) entries.add(HandSection.SPECIAL);
+                    entries.add(card);
                 }
             }
         }
+        handCards.reconcile(entries);
+    }
 
-        handCardsArea.setText(sb.toString());
-
-        // Ensure hand card count in player views is updated
-        for (PlayerView playerView : playerViews) {
-            playerView.update();
+    /**
+     * Build the node for a hand card or a section heading
+     */
+    private Node createHandEntry(Object entry) {
+        if (entry instanceof HandSection) {
+            Label heading = new Label(((HandSection) entry).getText());
+            heading.setFont(Font.font("Arial", entry == HandSection.EMPTY ? FontWeight.NORMAL : FontWeight.BOLD, 14));
+            heading.setPadding(new Insets(entry == HandSection.SPECIAL ? 8 : 0, 0, 0, 0));
+            return heading;
         }
+        Card card = (Card) entry;
+        String text = card instanceof TreasureCard
+                ? "• " + ((TreasureCard) card).getTreasureType().getDisplayName()
+                : "• " + card.getName() + " - " + card.getDescription();
+        Label label = new Label(text);
+        label.setWrapText(true);
+        label.setFont(Font.font("Arial", 14));
+        return label;
+    }
+
+    /**
+     * Gets how many nodes have been added, removed, moved or given new text since the panel
+     * was built; stays the same across updates that find nothing changed
+     */
+    public long getNodeMutationCount() {
+        return fieldUpdates + (handCards == null ? 0 : handCards.getMutationCount());
     }
 
     /**
@@ -315,13 +357,12 @@ public class PlayerInfoPanel extends VBox {
                 }
             } else {
                 for (Card card : selectedCards) {
-                    currentPlayer.removeCardFromHand(card);
-                    game.getTreasureDeck().discardCard(card);
+                    game.discardFromHand(currentPlayer, card);
                     System.out.println(currentPlayer.getName() + " discarded: " + card.getName());
                 }
 
-                // Update UI display
-                updateHandCardsDisplay();
+                // Update UI display, including the hand size in the player rows
+                update();
 
                 // Check if still over hand limit
                 if (currentPlayer.isHandOverLimit()) {
@@ -499,8 +540,15 @@ public class PlayerInfoPanel extends VBox {
         private Label cardsLabel;
         private Label locationLabel;
         private Label colorLabel;
+        private HBox arrowBox;
         private ImageView pawnImageView;
 
+        // Values on screen, so update() only rewrites what changed
+        private int shownHandSize = -1;
+        private IslandTile shownLocation;
+        private boolean locationShown;
+        private Boolean shownHighlighted;
+
         public PlayerView(Player player) {
             this.player = player;
 
@@ -523,33 +571,17 @@ public class PlayerInfoPanel extends VBox {
             String playerName = player.getName();
             String playerNumber = playerName.replaceAll("\\D+", ""); // Extract numeric part
 
-            // Create pawn image
-            int pawnImageNumber = 1;
-            try {
-                pawnImageNumber = Integer.parseInt(playerNumber);
-                // Ensure image number is between 1-7
-                if (pawnImageNumber < 1 || pawnImageNumber > 7) {
-                    pawnImageNumber = 1;
-                }
-            } catch (NumberFormatException e) {
-                // Use default value 1 if parsing fails
-            }
-
-            // Load pawn image
-            String imagePath = "/images/pawns/" + pawnImageNumber + ".png";
+            // Load pawn image, the same one the board shows; cut from the sprite atlas and cached
+            String imagePath = AssetLoader.pawnImagePath(TileView.pawnImageNumber(player));
             pawnImageView = new ImageView();
             try {
-                Image pawnImage = new Image(getClass().getResourceAsStream(imagePath),
-                        30, 30, true, true);
+                Image pawnImage = Objects.requireNonNull(
+                        AssetLoader.getInstance().getImage(imagePath, PAWN_IMAGE_SIZE, PAWN_IMAGE_SIZE), imagePath);
                 pawnImageView.setImage(pawnImage);
 
-                // Add shadow effect
-                DropShadow pawnShadow = new DropShadow();
-                pawnShadow.setRadius(3.0);
-                pawnShadow.setOffsetX(2.0);
-                pawnShadow.setOffsetY(2.0);
-                pawnShadow.setColor(Color.color(0, 0, 0, 0.5));
-                pawnImageView.setEffect(pawnShadow);
+                // Add shadow effect; the pawn is static, so render it once
+                pawnImageView.setEffect(StylePalette.PAWN_SHADOW);
+                pawnImageView.setCache(true);
             } catch (Exception e) {
                 // If image loading fails, create a colored rectangle as fallback
                 String playerColor = player.getPawn().getColor();
@@ -580,8 +612,8 @@ public class PlayerInfoPanel extends VBox {
                 headerBox.getChildren().add(pawnImageView);
             }
 
-            // Create player name and role labels
-            nameLabel = new Label();
+            // Create player name and role labels; neither changes during a game
+            nameLabel = new Label(player.getName());
             nameLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
 
             // Create role label with background color
@@ -597,6 +629,12 @@ public class PlayerInfoPanel extends VBox {
             roleLabel.setPadding(new Insets(3, 6, 3, 6));
             roleLabel.setTextFill(Color.WHITE);
 
+            // Get short description of role (content before first parenthesis)
+            String roleDesc = player.getRole().getDescription();
+            int bracketIndex = roleDesc.indexOf('(');
+            String shortDesc = bracketIndex > 0 ? roleDesc.substring(0, bracketIndex).trim() : roleDesc;
+            roleLabel.setText(player.getRole().getChineseName() + " - " + shortDesc);
+
             // Set different background color based on role
             String roleBgColor = getRoleBackgroundColor(player.getRole());
             roleLabel.setStyle("-fx-background-color: " + roleBgColor + "; -fx-background-radius: 3;");
@@ -608,9 +646,16 @@ public class PlayerInfoPanel extends VBox {
             cardsLabel = new Label();
             cardsLabel.setFont(Font.font("Arial", 12));
 
-            // Current player marker
-            colorLabel = new Label();
-            colorLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
+            // Current player marker, shown above the row while this is the current player
+            colorLabel = new Label("【Current Player】");
+            colorLabel.setTextFill(Color.RED);
+            colorLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+
+            Label arrowLabel = new Label("➤");
+            arrowLabel.setTextFill(Color.RED);
+            arrowLabel.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+            arrowBox = new HBox(arrowLabel);
+            arrowBox.setAlignment(Pos.CENTER_LEFT);
 
             // Add all components to player info box
             playerInfoBox.getChildren().addAll(roleLabel, locationLabel, cardsLabel);
@@ -622,53 +667,44 @@ public class PlayerInfoPanel extends VBox {
             update();
         }
 
+        /**
+         * Rewrite the hand size and location if they changed since the last update
+         */
         public void update() {
-            nameLabel.setText(player.getName());
-
-            // Get short description of role (content before first parenthesis)
-            String roleDesc = player.getRole().getDescription();
-            int bracketIndex = roleDesc.indexOf('(');
-            String shortDesc = bracketIndex > 0 ? roleDesc.substring(0, bracketIndex).trim() : roleDesc;
-
-            // Set role name and short description
-            roleLabel.setText(player.getRole().getChineseName() + " - " + shortDesc);
-
             // Update hand cards information
-            cardsLabel.setText("Cards: " + player.getHand().size() + "/" + Player.MAX_HAND_SIZE);
+            int handSize = player.getHand().size();
+            if (handSize != shownHandSize) {
+                shownHandSize = handSize;
+                cardsLabel.setText("Cards: " + handSize + "/" + Player.MAX_HAND_SIZE);
+                fieldUpdates++;
+            }
 
             // Update current location
-            if (player.getPawn() != null && player.getPawn().getCurrentLocation() != null) {
-                locationLabel.setText("Location: " + player.getPawn().getCurrentLocation().getName());
-            } else {
-                locationLabel.setText("Location: Unknown");
+            IslandTile location = player.getPawn() == null ? null : player.getPawn().getCurrentLocation();
+            if (!locationShown || location != shownLocation) {
+                locationShown = true;
+                shownLocation = location;
+                locationLabel.setText(location != null ? "Location: " + location.getName() : "Location: Unknown");
+                fieldUpdates++;
             }
         }
 
         public void setHighlighted(boolean highlighted) {
+            if (shownHighlighted != null && shownHighlighted == highlighted) return;
+            shownHighlighted = highlighted;
+            fieldUpdates++;
             if (highlighted) {
                 // Use more prominent highlight effect
                 setStyle("-fx-background-color: #FFFFE0; -fx-border-color: #FFD700; -fx-border-width: 2; -fx-effect: dropshadow(three-pass-box, #FFD700, 10, 0.5, 0, 0);");
 
-                // Add current player marker
-                if (!getChildren().contains(colorLabel)) {
-                    colorLabel.setText("【Current Player】");
-                    colorLabel.setTextFill(Color.RED);
-                    colorLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
-                    getChildren().add(0, colorLabel);
-
-                    // Add arrow indicator
-                    Label arrowLabel = new Label("➤");
-                    arrowLabel.setTextFill(Color.RED);
-                    arrowLabel.setFont(Font.font("Arial", FontWeight.BOLD, 18));
-                    HBox arrowBox = new HBox(arrowLabel);
-                    arrowBox.setAlignment(Pos.CENTER_LEFT);
-                    getChildren().add(1, arrowBox);
-                }
+                // Add current player marker and arrow indicator
+                getChildren().add(0, colorLabel);
+                getChildren().add(1, arrowBox);
             } else {
                 setStyle("-fx-background-color: white; -fx-border-color: #CCCCCC; -fx-border-width: 1;");
 
                 // Remove current player marker
-                getChildren().removeIf(node -> node == colorLabel || (node instanceof HBox && ((HBox) node).getChildren().size() == 1 && ((HBox) node).getChildren().get(0) instanceof Label && ((Label) ((HBox) node).getChildren().get(0)).getText().equals("➤")));
+                getChildren().removeAll(colorLabel, arrowBox);
             }
         }
 
@@ -714,4 +750,23 @@ public class PlayerInfoPanel extends VBox {
             return player;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Headings shown between hand cards
+     */
+    private enum HandSection {
+        TREASURE("Treasure Cards:"),
+        SPECIAL("Special Action Cards:"),
+        EMPTY("No hand cards");
+
+        private final String text;
+
+        HandSection(String text) {
+            this.text = text;
+        }
+
+        String getText() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.forbiddenisland.ui;
+
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.model.ReplayLog;
+import com.forbiddenisland.model.ReplayPlayer;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.util.Duration;
+
+import java.io.IOException;
+
+/**
+ * Replay viewer - plays back a recorded game on a {@link GameBoardView}.
+ * A timeline ticks every {@value #TICK_MILLIS} ms and applies however many recorded events
+ * are due at the chosen speed (1x = one event every {@value #STEP_MILLIS} ms), then refreshes
+ * the board once, so faster speeds cost more engine steps but not more redraws. The board is
+ * only rebuilt when a seek loads a different checkpoint game.
+ */
+public class ReplayViewer extends BorderPane {
+
+    private static final double STEP_MILLIS = 400;
+    private static final double TICK_MILLIS = 25;
+    private static final Integer[] SPEEDS = {1, 2, 4, 8, 16, 32, 64};
+
+    private final ReplayPlayer player;
+    private final GameBoardView boardView;
+    private final Timeline timeline;
+    private final Button playButton = new Button("Play");
+    private final ComboBox<Integer> speedBox = new ComboBox<>();
+    private final Slider turnSlider = new Slider();
+    private final Label turnLabel = new Label();
+    private final Label eventLabel = new Label();
+    private double stepsDue;
+
+    public ReplayViewer(ReplayLog log) throws IOException {
+        this.player = new ReplayPlayer(log);
+        this.boardView = new GameBoardView(player.getGame());
+        setPadding(new Insets(15));
+        setStyle("-fx-background-color: #f0f8ff;");
+        setCenter(boardView);
+        BorderPane.setMargin(boardView, new Insets(10));
+
+        timeline = new Timeline(new KeyFrame(Duration.millis(TICK_MILLIS), e -> tick()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+
+        String buttonStyle = "-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-weight: bold; -fx-cursor: hand;";
+        playButton.setStyle(buttonStyle);
+        playButton.setOnAction(e -> togglePlayback());
+
+        Button stepButton = new Button("Step");
+        stepButton.setStyle(buttonStyle);
+        stepButton.setOnAction(e -> {
+            pause();
+            if (advance(1)) refresh();
+        });
+
+        speedBox.getItems().addAll(SPEEDS);
+        speedBox.setValue(1);
+        speedBox.setButtonCell(new ListCell<Integer>() {
+            @Override
+            protected void updateItem(Integer item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item + "x");
+            }
+        });
+        speedBox.setCellFactory(list -> new ListCell<Integer>() {
+            @Override
+            protected void updateItem(Integer item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item + "x");
+            }
+        });
+
+        turnSlider.setMin(0);
+        turnSlider.setMax(Math.max(1, player.getTurnCount()));
+        turnSlider.setMajorTickUnit(Math.max(1, log.getCheckpointInterval()));
+        turnSlider.setMinorTickCount(0);
+        turnSlider.setShowTickMarks(true);
+        turnSlider.setSnapToTicks(false);
+        turnSlider.setBlockIncrement(1);
+        turnSlider.valueChangingProperty().addListener((obs, was, changing) -> {
+            if (!changing) seekTo((int) Math.round(turnSlider.getValue()));
+        });
+        turnSlider.setOnMouseClicked(e -> seekTo((int) Math.round(turnSlider.getValue())));
+        HBox.setHgrow(turnSlider, Priority.ALWAYS);
+
+        turnLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        eventLabel.setFont(Font.font("Arial", 14));
+
+        HBox controls = new HBox(10, playButton, stepButton, speedBox, turnSlider, turnLabel);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        controls.setPadding(new Insets(10));
+        controls.setStyle("-fx-background-color: #e6e6e6; -fx-border-color: #ccc; -fx-border-radius: 5;");
+        HBox status = new HBox(eventLabel);
+        status.setPadding(new Insets(5, 10, 5, 10));
+        setBottom(new VBox(5, controls, status));
+
+        refresh();
+    }
+
+    /**
+     * Stops playback, for example when the window closes
+     */
+    public void stop() {
+        timeline.stop();
+    }
+
+    private void togglePlayback() {
+        if (timeline.getStatus() == Animation.Status.RUNNING) {
+            pause();
+        } else if (!player.isAtEnd()) {
+            stepsDue = 0;
+            timeline.play();
+            playButton.setText("Pause");
+        }
+    }
+
+    private void pause() {
+        timeline.pause();
+        playButton.setText("Play");
+    }
+
+    private void tick() {
+        stepsDue += speedBox.getValue() * TICK_MILLIS / STEP_MILLIS;
+        int steps = (int) stepsDue;
+        if (steps == 0) return;
+        stepsDue -= steps;
+        if (!advance(steps)) return;
+        refresh();
+        if (player.isAtEnd()) {
+            pause();
+        }
+    }
+
+    private boolean advance(int steps) {
+        try {
+            for (int i = 0; i < steps && player.step(); i++) {
+                // each step applies one recorded event
+            }
+            return true;
+        } catch (IOException e) {
+            pause();
+            refresh();
+            eventLabel.setText("Replay damaged: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void seekTo(int turn) {
+        if (turn == player.getTurn()) {
+            return;
+        }
+        try {
+            player.seek(turn);
+            refresh();
+        } catch (IOException e) {
+            refresh();
+            eventLabel.setText("Replay damaged: " + e.getMessage());
+        }
+    }
+
+    private void refresh() {
+        Game game = player.getGame();
+        if (boardView.getGame() != game) {
+            boardView.setGame(game); // a checkpoint was loaded; rebuild once
+        } else {
+            boardView.update();
+        }
+        if (!turnSlider.isValueChanging()) {
+            turnSlider.setValue(player.getTurn());
+        }
+        turnLabel.setText(String.format("Turn %d / %d  |  Water %d  |  %s",
+                player.getTurn(), player.getTurnCount(), game.getWaterMeter().getCurrentWaterLevel(),
+                game.getCurrentPlayer().getName()));
+        String event = player.getLastEvent();
+        if (game.checkGameOverConditions()) {
+            event += "  -  Game over: " + game.getGameOverReason();
+        }
+        eventLabel.setText(event);
+    }
+}
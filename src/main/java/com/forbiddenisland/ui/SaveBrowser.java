@@ -0,0 +1,171 @@
+package com.forbiddenisland.ui;
+
+import com.forbiddenisland.model.AdventurerRole;
+import com.forbiddenisland.model.GameCodec;
+import com.forbiddenisland.model.SaveLibrary;
+import com.forbiddenisland.model.SaveSummary;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.control.ButtonBar.ButtonData;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Save browser - lists saves from a {@link SaveLibrary} index so no game is loaded until
+ * one is picked. The list filters as you type and follows changes to the folder while open.
+ * The dialog's result is the file to load, or null if cancelled.
+ */
+public class SaveBrowser extends Dialog<Path> {
+
+    private final Map<String, SaveLibrary> libraries = new LinkedHashMap<>();
+    private final ComboBox<String> folderBox = new ComboBox<>();
+    private final TextField searchField = new TextField();
+    private final ListView<SaveSummary> saveList = new ListView<>();
+    private final Label countLabel = new Label();
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+    private SaveLibrary library;
+
+    /**
+     * @param owner Window the dialog belongs to
+     * @param folders Named folders to choose from; the first is shown first
+     */
+    public SaveBrowser(Window owner, Map<String, Path> folders) {
+        initOwner(owner);
+        setTitle("加载游戏");
+        setHeaderText("Choose a saved game");
+        setResizable(true);
+
+        for (Map.Entry<String, Path> folder : folders.entrySet()) {
+            libraries.put(folder.getKey(), new SaveLibrary(folder.getValue()));
+        }
+        folderBox.getItems().addAll(libraries.keySet());
+        folderBox.setOnAction(e -> showLibrary(libraries.get(folderBox.getValue())));
+
+        searchField.setPromptText("Filter by player, role or file name");
+        searchField.textProperty().addListener((obs, old, text) -> refreshList());
+        HBox.setHgrow(searchField, Priority.ALWAYS);
+
+        saveList.setCellFactory(list -> new SaveCell());
+        saveList.setPrefSize(620, 420);
+        saveList.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2 && saveList.getSelectionModel().getSelectedItem() != null) {
+                setResult(library.resolve(saveList.getSelectionModel().getSelectedItem()));
+                close();
+            }
+        });
+
+        VBox content = new VBox(10, new HBox(10, folderBox, searchField), saveList, countLabel);
+        content.setPadding(new Insets(10));
+        VBox.setVgrow(saveList, Priority.ALWAYS);
+        getDialogPane().setContent(content);
+
+        ButtonType loadButtonType = new ButtonType("Load", ButtonData.OK_DONE);
+        ButtonType browseButtonType = new ButtonType("Browse Files...", ButtonData.OTHER);
+        ButtonType cancelButtonType = new ButtonType("Cancel", ButtonData.CANCEL_CLOSE);
+        getDialogPane().getButtonTypes().addAll(loadButtonType, browseButtonType, cancelButtonType);
+        getDialogPane().lookupButton(loadButtonType).disableProperty()
+                .bind(saveList.getSelectionModel().selectedItemProperty().isNull());
+
+        setResultConverter(button -> {
+            if (button == loadButtonType) {
+                SaveSummary selected = saveList.getSelectionModel().getSelectedItem();
+                return selected == null ? null : library.resolve(selected);
+            }
+            if (button == browseButtonType) {
+                return browseFiles(owner);
+            }
+            return null;
+        });
+        setOnHidden(e -> libraries.values().forEach(SaveLibrary::close));
+
+        if (!libraries.isEmpty()) {
+            folderBox.setValue(folderBox.getItems().get(0));
+            showLibrary(libraries.get(folderBox.getValue()));
+        }
+    }
+
+    private void showLibrary(SaveLibrary next) {
+        if (next == null) return;
+        library = next;
+        library.refresh();
+        try {
+            library.watch(() -> Platform.runLater(() -> {
+                if (library == next) refreshList();
+            }));
+        } catch (IOException e) {
+            countLabel.setText("Not watching " + library.getDirectory() + ": " + e.getMessage());
+        }
+        refreshList();
+    }
+
+    private void refreshList() {
+        if (library == null) return;
+        SaveSummary selected = saveList.getSelectionModel().getSelectedItem();
+        List<SaveSummary> saves = library.search(searchField.getText());
+        saveList.getItems().setAll(saves);
+        if (selected != null) {
+            for (SaveSummary save : saves) {
+                if (save.getFileName().equals(selected.getFileName())) {
+                    saveList.getSelectionModel().select(save);
+                    break;
+                }
+            }
+        }
+        countLabel.setText(saves.size() + " of " + library.list().size() + " saves in " + library.getDirectory());
+    }
+
+    private Path browseFiles(Window owner) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("加载游戏");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Game Save Files", "*" + GameCodec.FILE_EXTENSION, "*.sav"));
+        if (library != null && library.getDirectory().toFile().isDirectory()) {
+            fileChooser.setInitialDirectory(library.getDirectory().toFile());
+        }
+        File file = fileChooser.showOpenDialog(owner);
+        return file == null ? null : file.toPath();
+    }
+
+    /**
+     * Two lines per save: file and time, then players, water level, turn and treasures
+     */
+    private class SaveCell extends ListCell<SaveSummary> {
+        @Override
+        protected void updateItem(SaveSummary save, boolean empty) {
+            super.updateItem(save, empty);
+            if (empty || save == null) {
+                setText(null);
+                return;
+            }
+            List<String> players = new ArrayList<>();
+            for (int i = 0; i < save.getPlayerNames().size(); i++) {
+                AdventurerRole role = save.getRoles().get(i);
+                players.add(save.getPlayerNames().get(i) + (role == null ? "" : " (" + role.getChineseName() + ")"));
+            }
+            String turn = save.getTurn() == SaveSummary.UNKNOWN_TURN ? "?" : String.valueOf(save.getTurn());
+            String outcome = save.getGameOverReason() == null ? "" : "  -  Lost: " + save.getGameOverReason();
+            setText(save.getFileName() + "    " + dateFormat.format(new Date(save.getSavedAt())) + "\n"
+                    + String.join(", ", players) + "  |  Water " + save.getWaterLevel() + "  |  Turn " + turn
+                    + "  |  Treasures " + save.getCollectedTreasures().size() + "/4" + outcome);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.forbiddenisland.ui;
+
+import com.forbiddenisland.ForbiddenIslandGame;
+import com.forbiddenisland.log.GameLog;
+import com.forbiddenisland.log.StartupPhases;
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.ui.util.AssetLoader;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Does the slow parts of opening a game while the menus are showing: decodes the background
+ * and pawn images in parallel, builds and throws away one {@link Game} so the model classes
+ * are loaded and warmed up, and loads the board's view classes. By the time the player has
+ * picked a difficulty and roles, the first board frame only has to build nodes.
+ */
+public class StartupPreloader implements AutoCloseable {
+
+    // View classes the first board needs; loading them runs their static setup (styles, fonts)
+    private static final String[] BOARD_CLASSES = {
+            "com.forbiddenisland.ui.util.StylePalette",
+            "com.forbiddenisland.ui.GameBoardView",
+            "com.forbiddenisland.ui.TileView",
+            "com.forbiddenisland.ui.CanvasBoardRenderer",
+            "com.forbiddenisland.ui.PlayerInfoPanel",
+            "com.forbiddenisland.ui.ActionPanel",
+            "com.forbiddenisland.ui.WaterMeterView",
+            "com.forbiddenisland.ui.StatusPanel",
+    };
+    private static final long WARMUP_SEED = 1L;
+
+    private final ExecutorService warmup = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "startup-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * Start preloading in the background
+     * @param renderMode Board renderer whose images should be decoded
+     * @return Completes when everything has been preloaded; failures are logged, never thrown
+     */
+    public CompletableFuture<Void> start(GameBoardView.RenderMode renderMode) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> images = CompletableFuture.allOf(
+                AssetLoader.getInstance().preload(0, 0, ForbiddenIslandGame.BACKGROUND_IMAGE),
+                renderMode == GameBoardView.RenderMode.CANVAS
+                        ? CanvasBoardRenderer.preloadImages()
+                        : TileView.preloadImages(),
+                PlayerInfoPanel.preloadImages());
+        CompletableFuture<Void> classes = CompletableFuture.runAsync(this::warmUpGame, warmup)
+                .thenRunAsync(StartupPreloader::loadBoardClasses, warmup);
+
+        return CompletableFuture.allOf(images, classes).handle((ignored, error) -> {
+            if (error != null) {
+                GameLog.warn("STARTUP", "Preloading failed: {}", error.toString());
+            }
+            GameLog.info("STARTUP", "Preloaded in {} ms; image cache: {}",
+                    (System.nanoTime() - start) / 1_000_000, AssetLoader.getInstance().getStats());
+            StartupPhases.getInstance().mark(StartupPhases.PRELOAD_DONE);
+            return null;
+        });
+    }
+
+    /**
+     * Record a phase when a scene has laid out its first frame, and another once that frame
+     * has been shown and the application thread is free to take input again
+     * @param scene Scene that was just shown
+     * @param framePhase Phase reached at the first frame
+     * @param interactivePhase Phase reached right after it, or null
+     */
+    public static void markFirstFrame(Scene scene, String framePhase, String interactivePhase) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            StartupPhases phases = StartupPhases.getInstance();
+            phases.mark(framePhase);
+            if (interactivePhase != null) {
+                // Runs after this pulse has rendered, once queued input can be handled
+                Platform.runLater(() -> {
+                    if (phases.mark(interactivePhase)) {
+                        GameLog.info("STARTUP", "Startup phases: {}", phases);
+                    }
+                });
+            }
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    private void warmUpGame() {
+        long start = System.nanoTime();
+        try (GameLog.Silence ignored = GameLog.silence()) {
+            new Game(Arrays.asList("Player 1", "Player 2", "Player 3", "Player 4"), 1, null, WARMUP_SEED);
+        } catch (RuntimeException e) {
+            GameLog.warn("STARTUP", "Warm-up game failed: {}", e.toString());
+            return;
+        }
+        GameLog.debug("STARTUP", "Warm-up game built in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void loadBoardClasses() {
+        ClassLoader loader = StartupPreloader.class.getClassLoader();
+        for (String name : BOARD_CLASSES) {
+            try {
+                Class.forName(name, true, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                GameLog.warn("STARTUP", "Could not preload {}: {}", name, e.toString());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        warmup.shutdownNow();
+    }
+}
@@ -1,38 +1,35 @@
 package com.forbiddenisland.ui;
 
+import com.forbiddenisland.model.BoardState;
 import com.forbiddenisland.model.Game;
 import com.forbiddenisland.model.IslandTile;
 import com.forbiddenisland.model.Player;
+import com.forbiddenisland.model.TileRegistry;
+import com.forbiddenisland.ui.util.AnimationManager;
+import com.forbiddenisland.ui.util.AssetLoader;
+import com.forbiddenisland.ui.util.StylePalette;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.CacheHint;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Background;
-import javafx.scene.layout.BackgroundFill;
-import javafx.scene.layout.Border;
-import javafx.scene.layout.BorderStroke;
-import javafx.scene.layout.BorderStrokeStyle;
-import javafx.scene.layout.BorderWidths;
-import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
 import javafx.scene.text.TextAlignment;
 import javafx.scene.effect.DropShadow;
-import javafx.scene.effect.InnerShadow;
-import javafx.scene.effect.Light;
-import javafx.scene.effect.Lighting;
 import javafx.util.Duration;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.Objects;
 
 /**
  * Island Tile View - Displays the state of a single island tile
@@ -46,8 +43,25 @@ public class TileView extends StackPane {
     private FlowPane pawnsPane;
     private Game game;
 
+    // Board and cell version this view last drew, so unchanged tiles can skip update()
+    private BoardState renderedBoard;
+    private long renderedVersion = -1;
+
+    // Fools' Landing glow, kept across updates so one pooled timeline animates it
+    private DropShadow foolsLandingGlow;
+    private static final String PULSE_ANIMATION = "fools-landing-pulse";
+    private boolean highlighted;
+
     private static final double TILE_SIZE = 120;
     private static final double PAWN_SIZE = 20;
+    private static final double PAWN_IMAGE_SIZE = PAWN_SIZE * 2;
+
+    /**
+     * Decodes the pawn images at the size tiles show them, on background threads
+     */
+    public static CompletableFuture<Void> preloadImages() {
+        return AssetLoader.getInstance().preload(PAWN_IMAGE_SIZE, PAWN_IMAGE_SIZE, AssetLoader.pawnImagePaths());
+    }
 
     public TileView(IslandTile tile) {
         this(tile, null);
@@ -61,20 +75,12 @@ public class TileView extends StackPane {
         setMinSize(TILE_SIZE, TILE_SIZE);
         setMaxSize(TILE_SIZE, TILE_SIZE);
 
-        // Add shadow effect
-        DropShadow dropShadow = new DropShadow();
-        dropShadow.setRadius(5.0);
-        dropShadow.setOffsetX(3.0);
-        dropShadow.setOffsetY(3.0);
-        dropShadow.setColor(Color.color(0, 0, 0, 0.3));
-        setEffect(dropShadow);
-
-        setBorder(new Border(new BorderStroke(
-                Color.BLACK,
-                BorderStrokeStyle.SOLID,
-                new CornerRadii(10), // More rounded corners
-                new BorderWidths(2)
-        )));
+        // Border, shadow and highlight states come from the board stylesheet
+        getStyleClass().add("tile-view");
+
+        // Cache the rendered tile, so hover and highlight pulses scale a bitmap
+        setCache(true);
+        setCacheHint(CacheHint.SCALE);
 
         contentBox = new VBox(5);
         contentBox.setPadding(new Insets(8));
@@ -83,10 +89,10 @@ public class TileView extends StackPane {
         nameLabel = new Label();
         nameLabel.setWrapText(true);
         nameLabel.setTextAlignment(TextAlignment.CENTER);
-        nameLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        nameLabel.setFont(StylePalette.TILE_NAME_FONT);
 
         statusLabel = new Label();
-        statusLabel.setFont(Font.font("Arial", 12));
+        statusLabel.setFont(StylePalette.TILE_STATUS_FONT);
 
         // Add pawn display area
         pawnsPane = new FlowPane();
@@ -98,25 +104,17 @@ public class TileView extends StackPane {
         contentBox.getChildren().addAll(nameLabel, statusLabel, pawnsPane);
         getChildren().add(contentBox);
 
-        // Add mouse hover effects
+        // Add mouse hover effects; the enhanced shadow is the stylesheet's :hover
         setOnMouseEntered(e -> {
             // Slight zoom effect
             setScaleX(1.05);
             setScaleY(1.05);
-            // Enhanced shadow
-            dropShadow.setRadius(8.0);
-            dropShadow.setOffsetX(4.0);
-            dropShadow.setOffsetY(4.0);
         });
 
         setOnMouseExited(e -> {
             // Return to normal size
             setScaleX(1.0);
             setScaleY(1.0);
-            // Return to normal shadow
-            dropShadow.setRadius(5.0);
-            dropShadow.setOffsetX(3.0);
-            dropShadow.setOffsetY(3.0);
         });
 
         update(tile);
@@ -128,6 +126,12 @@ public class TileView extends StackPane {
      */
     public void update(IslandTile tile) {
         this.tile = tile;
+        rememberVersion(tile);
+        if (tile == null || tile.getId() != TileRegistry.FOOLS_LANDING || tile.isFlooded()) {
+            AnimationManager.getInstance().stop(this, PULSE_ANIMATION); // glow is not shown
+        }
+        pseudoClassStateChanged(StylePalette.FOOLS_LANDING,
+                tile != null && tile.getId() == TileRegistry.FOOLS_LANDING);
 
         if (tile == null) {
             // Water tile
@@ -135,53 +139,37 @@ public class TileView extends StackPane {
             statusLabel.setText("");
 
             // Use gradient blue background for water
-            setBackground(createWaterBackground());
+            setBackground(StylePalette.WATER_BACKGROUND);
 
             // Add water ripple effect
-            InnerShadow innerShadow = new InnerShadow();
-            innerShadow.setRadius(5.0);
-            innerShadow.setColor(Color.color(0, 0, 0.5, 0.3));
-            contentBox.setEffect(innerShadow);
+            contentBox.setEffect(StylePalette.WATER_RIPPLE);
 
             pawnsPane.getChildren().clear();
             return;
         }
 
         // Set tile name, add special marker for Fools' Landing
-        if (tile.getName().equals("Fools' Landing")) {
+        if (tile.getId() == TileRegistry.FOOLS_LANDING) {
             nameLabel.setText(tile.getName() + "\n(Helicopter Lift)");
             nameLabel.setTextFill(Color.DARKRED);
-            nameLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
         } else {
             nameLabel.setText(tile.getName());
             nameLabel.setTextFill(Color.BLACK);
-            nameLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
         }
 
         if (tile.isFlooded()) {
             // Flooded tile
-            setBackground(createFloodedBackground());
+            setBackground(StylePalette.FLOODED_BACKGROUND);
             statusLabel.setText("Flooded");
             statusLabel.setTextFill(Color.DARKBLUE);
 
             // Add water ripple effect
-            Lighting lighting = new Lighting();
-            lighting.setDiffuseConstant(1.0);
-            lighting.setSpecularConstant(0.0);
-            lighting.setSpecularExponent(0.0);
-            lighting.setSurfaceScale(5.0);
-
-            Light.Distant light = new Light.Distant();
-            light.setAzimuth(45.0);
-            light.setElevation(45.0);
-            lighting.setLight(light);
-
-            contentBox.setEffect(lighting);
+            contentBox.setEffect(StylePalette.FLOOD_LIGHTING);
         } else {
             // Normal tile
-            setBackground(createNormalBackground(tile));
+            setBackground(normalBackground(tile));
 
-            if (tile.getName().equals("Fools' Landing")) {
+            if (tile.getId() == TileRegistry.FOOLS_LANDING) {
                 statusLabel.setText("Helicopter Lift");
                 statusLabel.setTextFill(Color.DARKRED);
             } else if (tile.getAssociatedTreasure() != null) {
@@ -196,13 +184,15 @@ public class TileView extends StackPane {
             contentBox.setEffect(null);
 
             // Add special glow effect for Fools' Landing
-            if (tile.getName().equals("Fools' Landing")) {
-                DropShadow glow = new DropShadow();
-                glow.setColor(Color.GOLD);
-                glow.setWidth(20);
-                glow.setHeight(20);
-                glow.setRadius(10);
-                contentBox.setEffect(glow);
+            if (tile.getId() == TileRegistry.FOOLS_LANDING) {
+                if (foolsLandingGlow == null) {
+                    foolsLandingGlow = new DropShadow();
+                    foolsLandingGlow.setColor(Color.GOLD);
+                    foolsLandingGlow.setWidth(20);
+                    foolsLandingGlow.setHeight(20);
+                    foolsLandingGlow.setRadius(10);
+                }
+                contentBox.setEffect(foolsLandingGlow);
 
                 // Add pulse animation
                 createPulseAnimation();
@@ -214,49 +204,56 @@ public class TileView extends StackPane {
     }
 
     /**
-     * Create water background
+     * Shows or hides the highlight border and glow of the board stylesheet
      */
-    private Background createWaterBackground() {
-        return new Background(new BackgroundFill(
-                Color.rgb(100, 180, 255), // Brighter blue
-                new CornerRadii(8),
-                Insets.EMPTY
-        ));
+    public void setHighlighted(boolean highlighted) {
+        this.highlighted = highlighted;
+        pseudoClassStateChanged(StylePalette.HIGHLIGHTED, highlighted);
+    }
+
+    public boolean isHighlighted() {
+        return highlighted;
     }
 
     /**
-     * Create flooded tile background
+     * Shows or hides the red selection border of the board stylesheet
      */
-    private Background createFloodedBackground() {
-        return new Background(new BackgroundFill(
-                Color.rgb(135, 206, 250), // Sky blue
-                new CornerRadii(8),
-                Insets.EMPTY
-        ));
+    public void setSelected(boolean selected) {
+        pseudoClassStateChanged(StylePalette.SELECTED, selected);
     }
 
     /**
-     * Create normal tile background
+     * Checks whether the view needs redrawing to show a tile: the cell now holds a different
+     * tile, or its flood state or pawns changed since the last {@link #update}.
+     * Tiles that are not on the game's board are always treated as changed.
+     * @param tile Island tile now in this cell, null represents water
      */
-    private Background createNormalBackground(IslandTile tile) {
-        Color backgroundColor;
+    public boolean isStale(IslandTile tile) {
+        if (tile != this.tile) return true;
+        if (tile == null) return false; // still water
+        BoardState board = game != null ? game.getBoardState() : null;
+        int index = board != null ? board.indexOf(tile) : -1;
+        return index < 0 || board != renderedBoard || board.getCellVersion(index) != renderedVersion;
+    }
 
+    private void rememberVersion(IslandTile tile) {
+        BoardState board = game != null ? game.getBoardState() : null;
+        int index = board != null ? board.indexOf(tile) : -1;
+        renderedBoard = index < 0 ? null : board;
+        renderedVersion = index < 0 ? -1 : board.getCellVersion(index);
+    }
+
+    /**
+     * Pick the shared background for a dry tile
+     */
+    private static Background normalBackground(IslandTile tile) {
         // Set different background colors based on treasure or Fools' Landing
-        if (tile.getName().equals("Fools' Landing")) {
-            // Fools' Landing uses special color
-            backgroundColor = Color.rgb(255, 215, 0); // Gold
+        if (tile.getId() == TileRegistry.FOOLS_LANDING) {
+            return StylePalette.FOOLS_LANDING_BACKGROUND;
         } else if (tile.getAssociatedTreasure() != null) {
-            // Treasure tiles use brighter green
-            backgroundColor = Color.rgb(144, 238, 144); // Light green
-        } else {
-            backgroundColor = Color.rgb(152, 251, 152); // Pale green
+            return StylePalette.TREASURE_TILE_BACKGROUND;
         }
-
-        return new Background(new BackgroundFill(
-                backgroundColor,
-                new CornerRadii(8),
-                Insets.EMPTY
-        ));
+        return StylePalette.NORMAL_TILE_BACKGROUND;
     }
 
     /**
@@ -270,8 +267,8 @@ public class TileView extends StackPane {
         List<Player> players = game.getPlayers();
         for (Player player : players) {
             if (player.getPawn() != null && player.getPawn().getCurrentLocation() != null) {
-                // Compare by tile name instead of object reference
-                if (tile.getName().equals(player.getPawn().getCurrentLocation().getName())) {
+                // Compare by tile ID instead of object reference
+                if (tile.getId() == player.getPawn().getCurrentTileId()) {
                     createPawnCircle(player);
                 }
             }
@@ -285,76 +282,34 @@ public class TileView extends StackPane {
         String pawnColor = player.getPawn().getColor();
 
         // Get player number (extract number from player name)
-        String playerName = player.getName();
-        String playerNumber = playerName.replaceAll("\\D+", ""); // Extract numeric part
-
-        // Default to 1.png, use corresponding image if valid number is found
-        int pawnImageNumber = 1;
-        try {
-            pawnImageNumber = Integer.parseInt(playerNumber);
-            // Ensure image number is between 1-7
-            if (pawnImageNumber < 1 || pawnImageNumber > 7) {
-                pawnImageNumber = 1;
-            }
-        } catch (NumberFormatException e) {
-            // Use default value 1 if parsing fails
-        }
+        String playerNumber = player.getName().replaceAll("\\D+", ""); // Extract numeric part
+        int pawnImageNumber = pawnImageNumber(player);
 
         // Create pawn image
-        String imagePath = "/images/pawns/" + pawnImageNumber + ".png";
+        String imagePath = AssetLoader.pawnImagePath(pawnImageNumber);
         ImageView pawnImageView = null;
 
         try {
-            Image pawnImage = new Image(getClass().getResourceAsStream(imagePath),
-                    PAWN_SIZE * 2, PAWN_SIZE * 2, true, true);
+            Image pawnImage = Objects.requireNonNull(
+                    AssetLoader.getInstance().getImage(imagePath, PAWN_IMAGE_SIZE, PAWN_IMAGE_SIZE), imagePath);
             pawnImageView = new ImageView(pawnImage);
 
-            // Add shadow effect
-            DropShadow pawnShadow = new DropShadow();
-            pawnShadow.setRadius(3.0);
-            pawnShadow.setOffsetX(2.0);
-            pawnShadow.setOffsetY(2.0);
-            pawnShadow.setColor(Color.color(0, 0, 0, 0.5));
-            pawnImageView.setEffect(pawnShadow);
+            // Add shadow effect; the pawn is static, so render it once
+            pawnImageView.setEffect(StylePalette.PAWN_SHADOW);
+            pawnImageView.setCache(true);
         } catch (Exception e) {
             // Fall back to circle representation if image loading fails
             Circle circle = new Circle(PAWN_SIZE);
 
-            Color fillColor;
-            switch (pawnColor.toUpperCase()) {
-                case "RED":
-                    fillColor = Color.RED;
-                    break;
-                case "BLUE":
-                    fillColor = Color.BLUE;
-                    break;
-                case "GREEN":
-                    fillColor = Color.GREEN;
-                    break;
-                case "BLACK":
-                    fillColor = Color.BLACK;
-                    break;
-                case "WHITE":
-                    fillColor = Color.WHITE;
-                    break;
-                case "YELLOW":
-                    fillColor = Color.YELLOW;
-                    break;
-                default:
-                    fillColor = Color.GRAY;
-            }
+            Color fillColor = pawnFillColor(pawnColor);
 
             circle.setFill(fillColor);
             circle.setStroke(Color.BLACK);
             circle.setStrokeWidth(1.5);
 
             // Add shadow effect
-            DropShadow pawnShadow = new DropShadow();
-            pawnShadow.setRadius(3.0);
-            pawnShadow.setOffsetX(2.0);
-            pawnShadow.setOffsetY(2.0);
-            pawnShadow.setColor(Color.color(0, 0, 0, 0.5));
-            circle.setEffect(pawnShadow);
+            circle.setEffect(StylePalette.PAWN_SHADOW);
+            circle.setCache(true);
 
             pawnImageView = new ImageView();
             StackPane fallbackPane = new StackPane(circle);
@@ -363,7 +318,7 @@ public class TileView extends StackPane {
             Label numberLabel = new Label(playerNumber);
             numberLabel.setTextFill(pawnColor.equalsIgnoreCase("WHITE") || pawnColor.equalsIgnoreCase("YELLOW") ?
                     Color.BLACK : Color.WHITE);
-            numberLabel.setFont(Font.font("Arial", FontWeight.BOLD, 10));
+            numberLabel.setFont(StylePalette.PAWN_NUMBER_FONT);
             fallbackPane.getChildren().add(numberLabel);
 
             pawnsPane.getChildren().add(fallbackPane);
@@ -400,6 +355,47 @@ public class TileView extends StackPane {
         pawnsPane.getChildren().add(pawnWithLabel);
     }
 
+    /**
+     * Get the pawn image number of a player, taken from the digits in their name
+     * @return 1 to {@value AssetLoader#PAWN_IMAGE_COUNT}; 1 if the name has no valid number
+     */
+    static int pawnImageNumber(Player player) {
+        // Default to 1.png, use corresponding image if valid number is found
+        int pawnImageNumber = 1;
+        try {
+            pawnImageNumber = Integer.parseInt(player.getName().replaceAll("\\D+", ""));
+            // Ensure image number is between 1-7
+            if (pawnImageNumber < 1 || pawnImageNumber > AssetLoader.PAWN_IMAGE_COUNT) {
+                pawnImageNumber = 1;
+            }
+        } catch (NumberFormatException e) {
+            // Use default value 1 if parsing fails
+        }
+        return pawnImageNumber;
+    }
+
+    /**
+     * Get the fill color of a pawn drawn without its image
+     */
+    static Color pawnFillColor(String pawnColor) {
+        switch (pawnColor.toUpperCase()) {
+            case "RED":
+                return Color.RED;
+            case "BLUE":
+                return Color.BLUE;
+            case "GREEN":
+                return Color.GREEN;
+            case "BLACK":
+                return Color.BLACK;
+            case "WHITE":
+                return Color.WHITE;
+            case "YELLOW":
+                return Color.YELLOW;
+            default:
+                return Color.GRAY;
+        }
+    }
+
     private void setTooltip(String text) {
         javafx.scene.control.Tooltip tooltip = new javafx.scene.control.Tooltip(text);
         javafx.scene.control.Tooltip.install(this, tooltip);
@@ -420,30 +416,23 @@ public class TileView extends StackPane {
      * Create pulse animation for Fools' Landing
      */
     private void createPulseAnimation() {
-        // Create border pulse effect
-        BorderStroke borderStroke = new BorderStroke(
-                Color.GOLD,
-                BorderStrokeStyle.SOLID,
-                new CornerRadii(10),
-                new BorderWidths(3)
-        );
-        Border border = new Border(borderStroke);
-        setBorder(border);
-
-        // Create pulse animation
-        DropShadow glow = (DropShadow) contentBox.getEffect();
-        Timeline timeline = new Timeline(
-                new KeyFrame(Duration.ZERO,
-                        new KeyValue(glow.radiusProperty(), 10),
-                        new KeyValue(glow.colorProperty(), Color.GOLD)),
-                new KeyFrame(Duration.seconds(1.5),
-                        new KeyValue(glow.radiusProperty(), 20),
-                        new KeyValue(glow.colorProperty(), Color.ORANGE)),
-                new KeyFrame(Duration.seconds(3),
-                        new KeyValue(glow.radiusProperty(), 10),
-                        new KeyValue(glow.colorProperty(), Color.GOLD))
-        );
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+        // The gold border is the stylesheet's :fools-landing
+        // Create pulse animation; keeps running if it already is
+        DropShadow glow = foolsLandingGlow;
+        AnimationManager.getInstance().play(this, PULSE_ANIMATION, () -> {
+            Timeline timeline = new Timeline(
+                    new KeyFrame(Duration.ZERO,
+                            new KeyValue(glow.radiusProperty(), 10),
+                            new KeyValue(glow.colorProperty(), Color.GOLD)),
+                    new KeyFrame(Duration.seconds(1.5),
+                            new KeyValue(glow.radiusProperty(), 20),
+                            new KeyValue(glow.colorProperty(), Color.ORANGE)),
+                    new KeyFrame(Duration.seconds(3),
+                            new KeyValue(glow.radiusProperty(), 10),
+                            new KeyValue(glow.colorProperty(), Color.GOLD))
+            );
+            timeline.setCycleCount(Timeline.INDEFINITE);
+            return timeline;
+        });
     }
 }
\ No newline at end of file
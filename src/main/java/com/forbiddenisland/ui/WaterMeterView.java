@@ -1,6 +1,8 @@
 package com.forbiddenisland.ui;
 
+import com.forbiddenisland.log.GameLog;
 import com.forbiddenisland.model.WaterMeter;
+import com.forbiddenisland.ui.util.AnimationManager;
 import javafx.animation.FadeTransition;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
@@ -34,6 +36,7 @@ public class WaterMeterView extends VBox {
     private StackPane waterContainer;
     private Rectangle waterFill;
     private int previousWaterLevel;
+    private final AnimationManager animations = AnimationManager.getInstance();
     
     // Maximum levels for the water meter
     private final int MAX_LEVELS = 10;
@@ -170,13 +173,12 @@ public class WaterMeterView extends VBox {
      */
     public void update() {
         if (waterMeter == null) {
-            System.err.println("WaterMeterView: waterMeter is null, cannot update");
+            GameLog.warn("WATER_METER", "WaterMeterView: waterMeter is null, cannot update");
             return;
         }
         
         int currentLevel = waterMeter.getCurrentWaterLevel();
-        System.out.println("WaterMeterView: Updating water meter display. Current level: " + currentLevel + 
-                           ", Previous level: " + previousWaterLevel);
+        GameLog.debug("WATER_METER", "WaterMeterView: Updating water meter display. Current level: {}, Previous level: {}", currentLevel, previousWaterLevel);
         
         // Check if water level changed
         boolean waterLevelIncreased = currentLevel > previousWaterLevel;
@@ -200,8 +202,6 @@ public class WaterMeterView extends VBox {
         
         // Update water fill height
         double fillHeight = (currentLevel * 1.0 / MAX_LEVELS) * 300;
-        TranslateTransition transition = new TranslateTransition(Duration.millis(500), waterFill);
-        transition.setToY(150 - fillHeight/2);
         waterFill.setHeight(fillHeight);
         
         // Set color based on water level
@@ -209,21 +209,25 @@ public class WaterMeterView extends VBox {
         
         // Add warning blink effect if level is dangerous
         if (currentLevel >= 7) {
-            FadeTransition fade = new FadeTransition(Duration.millis(500), waterLevelLabel);
-            fade.setFromValue(1.0);
-            fade.setToValue(0.3);
-            fade.setCycleCount(6);
-            fade.setAutoReverse(true);
-            fade.play();
+            animations.play(waterLevelLabel, "danger-blink", () -> {
+                FadeTransition fade = new FadeTransition(Duration.millis(500), waterLevelLabel);
+                fade.setFromValue(1.0);
+                fade.setToValue(0.3);
+                fade.setCycleCount(6);
+                fade.setAutoReverse(true);
+                return fade;
+            });
             
             waterLevelLabel.setTextFill(Color.RED);
         } else {
+            animations.stop(waterLevelLabel, "danger-blink");
+            waterLevelLabel.setOpacity(1.0);
             waterLevelLabel.setTextFill(Color.BLACK);
         }
         
         // Add animation effect if water level increased
         if (waterLevelIncreased) {
-            System.out.println("WaterMeterView: Water level increased from " + previousWaterLevel + " to " + currentLevel);
+            GameLog.info("WATER_METER", "WaterMeterView: Water level increased from {} to {}", previousWaterLevel, currentLevel);
             playWaterLevelIncreaseAnimation(currentLevel);
             
             // Show water level increase warning
@@ -232,7 +236,9 @@ public class WaterMeterView extends VBox {
             }
         }
         
-        transition.play();
+        animations.play(waterFill, "fill-level",
+                () -> new TranslateTransition(Duration.millis(500), waterFill),
+                transition -> transition.setToY(150 - fillHeight / 2));
         
         // Update previous water level
         previousWaterLevel = currentLevel;
@@ -245,42 +251,45 @@ public class WaterMeterView extends VBox {
         // Animate rectangle for current level
         Rectangle currentLevelRect = waterLevelRects[currentLevel - 1];
         
-        // Create scale animation
-        ScaleTransition scaleTransition = new ScaleTransition(Duration.millis(300), currentLevelRect);
-        scaleTransition.setFromX(1.0);
-        scaleTransition.setFromY(1.0);
-        scaleTransition.setToX(1.5);
-        scaleTransition.setToY(1.5);
-        scaleTransition.setCycleCount(2);
-        scaleTransition.setAutoReverse(true);
-        
-        // Create color blink animation
-        Timeline colorTimeline = new Timeline(
-            new KeyFrame(Duration.ZERO, 
-                new KeyValue(currentLevelRect.fillProperty(), LEVEL_COLORS[currentLevel - 1])),
-            new KeyFrame(Duration.millis(150), 
-                new KeyValue(currentLevelRect.fillProperty(), Color.YELLOW)),
-            new KeyFrame(Duration.millis(300), 
-                new KeyValue(currentLevelRect.fillProperty(), LEVEL_COLORS[currentLevel - 1]))
-        );
-        colorTimeline.setCycleCount(2);
-        
-        // Run animations in parallel
-        ParallelTransition parallelTransition = new ParallelTransition(scaleTransition, colorTimeline);
-        parallelTransition.play();
+        Color levelColor = LEVEL_COLORS[currentLevel - 1];
+        // Each level's rectangle keeps one pooled scale-and-blink animation
+        animations.play(currentLevelRect, "level-rise", () -> {
+            // Create scale animation
+            ScaleTransition scaleTransition = new ScaleTransition(Duration.millis(300), currentLevelRect);
+            scaleTransition.setFromX(1.0);
+            scaleTransition.setFromY(1.0);
+            scaleTransition.setToX(1.5);
+            scaleTransition.setToY(1.5);
+            scaleTransition.setCycleCount(2);
+            scaleTransition.setAutoReverse(true);
+            
+            // Create color blink animation
+            Timeline colorTimeline = new Timeline(
+                new KeyFrame(Duration.ZERO, 
+                    new KeyValue(currentLevelRect.fillProperty(), levelColor)),
+                new KeyFrame(Duration.millis(150), 
+                    new KeyValue(currentLevelRect.fillProperty(), Color.YELLOW)),
+                new KeyFrame(Duration.millis(300), 
+                    new KeyValue(currentLevelRect.fillProperty(), levelColor))
+            );
+            colorTimeline.setCycleCount(2);
+            
+            // Run animations in parallel
+            return new ParallelTransition(scaleTransition, colorTimeline);
+        });
         
-        // Water fill wave effect
-        Timeline waterWaveTimeline = new Timeline(
+        // Water fill wave effect, around the new fill height
+        double height = waterFill.getHeight();
+        animations.play(waterFill, "wave", Timeline::new, waterWaveTimeline -> waterWaveTimeline.getKeyFrames().setAll(
             new KeyFrame(Duration.ZERO, 
-                new KeyValue(waterFill.heightProperty(), waterFill.getHeight())),
+                new KeyValue(waterFill.heightProperty(), height)),
             new KeyFrame(Duration.millis(200), 
-                new KeyValue(waterFill.heightProperty(), waterFill.getHeight() + 20)),
+                new KeyValue(waterFill.heightProperty(), height + 20)),
             new KeyFrame(Duration.millis(400), 
-                new KeyValue(waterFill.heightProperty(), waterFill.getHeight() - 10)),
+                new KeyValue(waterFill.heightProperty(), height - 10)),
             new KeyFrame(Duration.millis(600), 
-                new KeyValue(waterFill.heightProperty(), waterFill.getHeight()))
-        );
-        waterWaveTimeline.play();
+                new KeyValue(waterFill.heightProperty(), height))
+        ));
     }
     
     /**
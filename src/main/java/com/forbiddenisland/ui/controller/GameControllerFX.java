@@ -3,6 +3,7 @@ package com.forbiddenisland.ui.controller;
 import com.forbiddenisland.core.action.GiveCardAction;
 import com.forbiddenisland.core.model.*;
 import com.forbiddenisland.core.system.GameController;
+import com.forbiddenisland.log.GameLog;
 import com.forbiddenisland.ui.util.AssetLoader;
 import com.forbiddenisland.ui.view.*;
 import javafx.application.Platform;
@@ -31,7 +32,7 @@ public class GameControllerFX {
         BorderPane root = new BorderPane();
 
         // Initialize each view component
-        mapView = new MapView(gameController.getIslandTiles(), new AssetLoader());
+        mapView = new MapView(gameController.getIslandTiles(), AssetLoader.getInstance());
         playerInfoView = new PlayerInfoView();
         cardView = new CardView();
         gameMenu = new GameMenu(this);
@@ -769,19 +770,13 @@ public class GameControllerFX {
         return result.isPresent() && result.get() == yesButton;
     }
 
-    // logs game events to console (could be extended to write to file)
+    // logs game events through the shared game log (timestamps and file output are handled there)
     private void logEvent(String eventType, String message) {
-        // get current timestamp for the log
-        String timestamp = java.time.LocalDateTime.now().format(
-            java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-
-        // construct log msg with timestamps
-        String logMsg = "[" + timestamp + "] " + eventType + ": " + message;
-
-        // currently just output to console, but could be extended
-        System.out.println(logMsg);
-
-        // TODO: in a real game, we might want to add file logging
+        if ("ERROR".equals(eventType)) {
+            GameLog.error(eventType, message);
+        } else {
+            GameLog.info(eventType, message);
+        }
     }
 
     /*
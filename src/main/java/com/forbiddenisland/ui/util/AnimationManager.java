@@ -0,0 +1,303 @@
+package com.forbiddenisland.ui.util;
+
+import javafx.animation.Animation;
+import javafx.scene.Node;
+import javafx.stage.Stage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * App-wide owner of UI animations. Each animation belongs to a node and a key, is built once
+ * and replayed on later requests, so repeated updates never stack up new timelines. At most
+ * {@link #getMaxRunning()} animations run at once: short one-shot animations always play and
+ * push the oldest looping animation into a waiting queue, while new loops wait for a free slot.
+ * Loops on nodes that are not in a scene are parked until the node is shown again, and
+ * everything pauses while the bound stage is minimized or unfocused.
+ * Must be used on the JavaFX application thread.
+ */
+public class AnimationManager {
+
+    public static final int DEFAULT_MAX_RUNNING = 16;
+
+    private static final AnimationManager INSTANCE = new AnimationManager(DEFAULT_MAX_RUNNING);
+    private static final Object POOL_KEY = new Object(); // node property holding its animations
+
+    private final int maxRunning;
+    private final Set<Animation> running = new LinkedHashSet<>(); // oldest first
+    private final Deque<Animation> waiting = new ArrayDeque<>();  // loops waiting for a slot
+    private boolean suspended;
+    private long created;
+    private long reused;
+
+    public AnimationManager(int maxRunning) {
+        this.maxRunning = Math.max(1, maxRunning);
+    }
+
+    /**
+     * Gets the manager shared by the whole application
+     */
+    public static AnimationManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Pauses every managed animation while a stage is minimized or not focused
+     */
+    public void bind(Stage stage) {
+        stage.iconifiedProperty().addListener((obs, was, now) -> updateSuspended(stage));
+        stage.focusedProperty().addListener((obs, was, now) -> updateSuspended(stage));
+        updateSuspended(stage);
+    }
+
+    /**
+     * Plays a node's animation, building it the first time it is asked for. A looping
+     * animation that is already running is left alone; anything else restarts from the beginning.
+     * @param node Node the animation belongs to
+     * @param key Name of the animation on that node
+     * @param factory Builds the animation the first time
+     */
+    public <T extends Animation> T play(Node node, String key, Supplier<T> factory) {
+        return play(node, key, factory, null);
+    }
+
+    /**
+     * Plays a node's animation, building it the first time it is asked for
+     * @param configure Adjusts the animation before each restart, for targets that change; may be null
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Animation> T play(Node node, String key, Supplier<T> factory, Consumer<? super T> configure) {
+        NodeAnimations pool = poolOf(node);
+        T animation = (T) pool.animations.get(key);
+        if (animation == null) {
+            animation = factory.get();
+            pool.animations.put(key, animation);
+            watch(animation);
+            created++;
+        } else {
+            reused++;
+            if (isLoop(animation) && isActive(animation, pool)) {
+                return animation;
+            }
+            animation.stop();
+        }
+        if (configure != null) {
+            configure.accept(animation);
+        }
+        start(animation, pool);
+        return animation;
+    }
+
+    /**
+     * Stops a node's animation; it stays pooled for the next {@link #play}
+     */
+    public void stop(Node node, String key) {
+        NodeAnimations pool = (NodeAnimations) node.getProperties().get(POOL_KEY);
+        if (pool == null) return;
+        Animation animation = pool.animations.get(key);
+        if (animation != null) {
+            pool.parked.remove(animation);
+            halt(animation);
+            fillSlots();
+        }
+    }
+
+    /**
+     * Stops every animation of a node
+     */
+    public void stopAll(Node node) {
+        NodeAnimations pool = (NodeAnimations) node.getProperties().get(POOL_KEY);
+        if (pool == null) return;
+        pool.parked.clear();
+        for (Animation animation : pool.animations.values()) {
+            halt(animation);
+        }
+        fillSlots();
+    }
+
+    /**
+     * Gets the number of animations currently running (or paused with the stage)
+     */
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    /**
+     * Gets the number of looping animations waiting for a free slot
+     */
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    public int getMaxRunning() {
+        return maxRunning;
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Gets how many animations have been built
+     */
+    public long getCreatedCount() {
+        return created;
+    }
+
+    /**
+     * Gets how many plays reused an animation that was already built
+     */
+    public long getReusedCount() {
+        return reused;
+    }
+
+    /**
+     * Pauses or resumes every running animation
+     */
+    public void setSuspended(boolean suspended) {
+        if (this.suspended == suspended) return;
+        this.suspended = suspended;
+        for (Animation animation : new ArrayList<>(running)) {
+            if (suspended) {
+                animation.pause();
+            } else {
+                animation.play();
+            }
+        }
+    }
+
+    private void updateSuspended(Stage stage) {
+        setSuspended(stage.isIconified() || !stage.isFocused());
+    }
+
+    private void start(Animation animation, NodeAnimations pool) {
+        waiting.remove(animation);
+        if (isLoop(animation) && pool.node.getScene() == null) {
+            pool.parked.add(animation); // nothing to see yet; starts when the node is shown
+            return;
+        }
+        if (running.size() >= maxRunning) {
+            Animation oldestLoop = isLoop(animation) ? null : oldestRunningLoop();
+            if (oldestLoop == null) {
+                if (isLoop(animation)) {
+                    waiting.addLast(animation);
+                    return;
+                }
+            } else {
+                running.remove(oldestLoop);
+                oldestLoop.pause();
+                waiting.addFirst(oldestLoop);
+            }
+        }
+        running.add(animation);
+        animation.play();
+        if (suspended) {
+            animation.pause();
+        }
+    }
+
+    /**
+     * Stops an animation and forgets its slot. A loop still waiting for a slot has never
+     * played, so stopping it fires no status change for the listener in {@link #watch} to see.
+     */
+    private void halt(Animation animation) {
+        running.remove(animation);
+        waiting.remove(animation);
+        animation.stop();
+    }
+
+    private Animation oldestRunningLoop() {
+        for (Animation animation : running) {
+            if (isLoop(animation)) return animation;
+        }
+        return null;
+    }
+
+    private void fillSlots() {
+        while (running.size() < maxRunning && !waiting.isEmpty()) {
+            Animation next = waiting.pollFirst();
+            running.add(next);
+            next.play();
+            if (suspended) {
+                next.pause();
+            }
+        }
+    }
+
+    private boolean isActive(Animation animation, NodeAnimations pool) {
+        return running.contains(animation) || waiting.contains(animation) || pool.parked.contains(animation);
+    }
+
+    private static boolean isLoop(Animation animation) {
+        return animation.getCycleCount() == Animation.INDEFINITE;
+    }
+
+    private void watch(Animation animation) {
+        animation.statusProperty().addListener((obs, was, status) -> {
+            if (status == Animation.Status.STOPPED) {
+                running.remove(animation);
+                waiting.remove(animation);
+                fillSlots();
+            }
+        });
+    }
+
+    private NodeAnimations poolOf(Node node) {
+        NodeAnimations pool = (NodeAnimations) node.getProperties().get(POOL_KEY);
+        if (pool == null) {
+            pool = new NodeAnimations(node);
+            node.getProperties().put(POOL_KEY, pool);
+            NodeAnimations created = pool;
+            node.sceneProperty().addListener((obs, was, scene) -> {
+                if (scene == null) {
+                    park(created);
+                } else {
+                    unpark(created);
+                }
+            });
+        }
+        return pool;
+    }
+
+    // A node left the scene: stop its loops so neither they nor the node are kept alive
+    private void park(NodeAnimations pool) {
+        for (Animation animation : pool.animations.values()) {
+            if (isLoop(animation) && (running.contains(animation) || waiting.contains(animation))) {
+                running.remove(animation);
+                waiting.remove(animation);
+                animation.pause();
+                pool.parked.add(animation);
+            }
+        }
+        fillSlots();
+    }
+
+    private void unpark(NodeAnimations pool) {
+        for (Iterator<Animation> it = pool.parked.iterator(); it.hasNext(); ) {
+            Animation animation = it.next();
+            it.remove();
+            start(animation, pool);
+        }
+    }
+
+    /**
+     * The animations owned by one node, kept in the node's properties so they go away with it
+     */
+    private static final class NodeAnimations {
+        final Node node;
+        final Map<String, Animation> animations = new HashMap<>();
+        final Set<Animation> parked = new LinkedHashSet<>();
+
+        NodeAnimations(Node node) {
+            this.node = node;
+        }
+    }
+}
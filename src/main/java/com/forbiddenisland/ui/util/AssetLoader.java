@@ -1,39 +1,384 @@
 package com.forbiddenisland.ui.util;
 
+import com.forbiddenisland.log.GameLog;
 import javafx.scene.image.Image;
 
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * App-wide image cache. Images are keyed by resource path and the size they were decoded at,
+ * so a pawn shown at 40px on the board and 30px in the player panel are two entries, each
+ * decoded once. Recently used images are held strongly up to a memory budget (4 bytes per
+ * pixel); older ones are kept only through soft references, so they come back for free if
+ * the garbage collector has not needed the memory. Concurrent requests for the same image
+ * share one decode, and {@link #preload} decodes on a small background pool ahead of time.
+ * Images packed into the {@link SpriteAtlas} at build time are cut from it instead of being
+ * decoded from their full-size files, which are left out of the jar.
+ * Safe to use from any thread.
+ */
 public class AssetLoader {
-    private static final String IMAGE_PATH = "/images/";
-    private final Map<String, Image> imageCache;
 
-    public AssetLoader() {
-        this.imageCache = new HashMap<>();
+    public static final long DEFAULT_BUDGET_BYTES = 48L * 1024 * 1024;
+    public static final int PAWN_IMAGE_COUNT = 7;
+    // Decoding is CPU-bound; leave cores for the JavaFX thread and the game
+    private static final int PRELOAD_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static final AssetLoader INSTANCE = new AssetLoader(DEFAULT_BUDGET_BYTES);
+
+    private final long budgetBytes;
+    private final SpriteAtlas atlas;
+    private final LinkedHashMap<String, Image> recent = new LinkedHashMap<>(32, 0.75f, true); // LRU, held strongly
+    private final Map<String, SoftReference<Image>> evicted = new HashMap<>();
+    private final Map<String, CompletableFuture<Image>> decoding = new HashMap<>();
+    private long recentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong decodeNanos = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private ExecutorService preloader;
+
+    /**
+     * @param budgetBytes Memory the cache may hold strongly before older images become soft
+     */
+    public AssetLoader(long budgetBytes) {
+        this(budgetBytes, SpriteAtlas.getDefault());
+    }
+
+    /**
+     * @param budgetBytes Memory the cache may hold strongly before older images become soft
+     * @param atlas Sprites to serve sized images from, or null to always decode the files
+     */
+    public AssetLoader(long budgetBytes, SpriteAtlas atlas) {
+        this.budgetBytes = budgetBytes;
+        this.atlas = atlas;
+    }
+
+    /**
+     * Gets the cache shared by the whole application
+     */
+    public static AssetLoader getInstance() {
+        return INSTANCE;
     }
 
-    public Image getImage(String name) {
-        if (imageCache.containsKey(name)) {
-            return imageCache.get(name);
+    /**
+     * Gets the resource path of a pawn image
+     * @param number Pawn number, 1 to {@value #PAWN_IMAGE_COUNT}
+     */
+    public static String pawnImagePath(int number) {
+        return "/images/pawns/" + number + ".png";
+    }
+
+    /**
+     * Gets the resource paths of every pawn image
+     */
+    public static String[] pawnImagePaths() {
+        String[] paths = new String[PAWN_IMAGE_COUNT];
+        for (int i = 0; i < PAWN_IMAGE_COUNT; i++) {
+            paths[i] = pawnImagePath(i + 1);
         }
+        return paths;
+    }
 
-        try {
-            Image image = new Image(getClass().getResourceAsStream(IMAGE_PATH + name));
-            imageCache.put(name, image);
+    /**
+     * Gets an image at its natural size
+     * @param path Resource path, for example {@code /images/background/forbidden_bg_3.png}
+     * @return The image, or null if the resource is missing or cannot be decoded
+     */
+    public Image getImage(String path) {
+        return getImage(path, 0, 0);
+    }
+
+    /**
+     * Gets an image scaled to fit a box, keeping its aspect ratio
+     * @param path Resource path
+     * @param width Box width, or 0 for the natural width
+     * @param height Box height, or 0 for the natural height
+     * @return The image, or null if the resource is missing or cannot be decoded
+     */
+    public Image getImage(String path, double width, double height) {
+        String key = key(path, width, height);
+        CompletableFuture<Image> pending;
+        boolean decodeHere = false;
+        synchronized (this) {
+            Image cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            pending = decoding.get(key);
+            if (pending == null) {
+                pending = new CompletableFuture<>();
+                decoding.put(key, pending);
+                decodeHere = true;
+            }
+        }
+        if (decodeHere) {
+            misses.incrementAndGet();
+            decode(key, path, width, height, pending);
+        } else {
+            hits.incrementAndGet(); // another thread is already decoding it
+        }
+        return pending.join();
+    }
+
+    /**
+     * Gets a sprite by its atlas name, scaled to fit a square
+     * @param name Sprite name, for example {@code pawns/1}
+     * @param size Side of the square
+     * @return The image, or null if there is no such sprite or image
+     */
+    public Image getSprite(String name, double size) {
+        return getImage("/images/" + name + ".png", size, size);
+    }
+
+    /**
+     * Decodes images on background threads, in parallel, so later {@link #getImage} calls are hits
+     * @param width Box width, or 0 for the natural width
+     * @param height Box height, or 0 for the natural height
+     * @param paths Resource paths to decode at that size
+     * @return Completes once every image has been decoded (or has failed)
+     */
+    public CompletableFuture<Void> preload(double width, double height, String... paths) {
+        ExecutorService executor;
+        synchronized (this) {
+            if (preloader == null) {
+                AtomicInteger count = new AtomicInteger();
+                preloader = Executors.newFixedThreadPool(PRELOAD_THREADS, r -> {
+                    Thread thread = new Thread(r, "asset-preload-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+            }
+            executor = preloader;
+        }
+        CompletableFuture<?>[] decodes = new CompletableFuture<?>[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            String path = paths[i];
+            decodes[i] = CompletableFuture.runAsync(() -> getImage(path, width, height), executor);
+        }
+        return CompletableFuture.allOf(decodes);
+    }
+
+    /**
+     * Gets hit, miss and decode-time counters since the cache was created
+     */
+    public Stats getStats() {
+        synchronized (this) {
+            return new Stats(hits.get(), misses.get(), failures.get(), decodeNanos.get(),
+                    recent.size(), recentBytes, evicted.size());
+        }
+    }
+
+    /**
+     * Drops every cached image; counters are kept
+     */
+    public synchronized void clear() {
+        recent.clear();
+        evicted.clear();
+        recentBytes = 0;
+    }
+
+    private Image lookup(String key) {
+        Image image = recent.get(key);
+        if (image != null) {
             return image;
-        } catch (Exception e) {
-            // Return default image when loading fails
-            return getDefaultImage();
         }
+        SoftReference<Image> ref = evicted.remove(key);
+        image = ref == null ? null : ref.get();
+        if (image != null) {
+            store(key, image); // still in memory; promote back into the budget
+        }
+        return image;
     }
 
-    private Image getDefaultImage() {
+    private void decode(String key, String path, double width, double height, CompletableFuture<Image> pending) {
+        long start = System.nanoTime();
+        Image image = null;
+        String source = "file";
         try {
-            return new Image(getClass().getResourceAsStream(IMAGE_PATH + "default.png"));
+            image = fromAtlas(path, width, height);
+            if (image != null) {
+                source = "atlas";
+            } else {
+                image = fromResource(path, width, height);
+            }
+        } catch (RuntimeException e) {
+            GameLog.warn("ASSETS", "Could not decode image {}: {}", key, e.toString());
+            image = null;
+        } finally {
+            // Always release waiting requests, even on an Error, so no caller blocks forever
+            long elapsed = System.nanoTime() - start;
+            decodeNanos.addAndGet(elapsed);
+            if (image == null) {
+                failures.incrementAndGet();
+            } else {
+                GameLog.debug("ASSETS", "Decoded {} from {} in {} ms", key, source, elapsed / 1_000_000);
+            }
+            synchronized (this) {
+                if (image != null) {
+                    store(key, image);
+                }
+                decoding.remove(key); // failures are retried on the next request
+            }
+            pending.complete(image);
+        }
+    }
+
+    /**
+     * Cuts a sized image from the atlas. A size larger than every stored level is scaled up
+     * from the largest one only when the full-size file is not available to decode instead.
+     * @return The image, or null if the atlas cannot serve it
+     */
+    private Image fromAtlas(String path, double width, double height) {
+        if (atlas == null || (width <= 0 && height <= 0)) {
+            return null;
+        }
+        String name = SpriteAtlas.spriteName(path);
+        if (name == null || !atlas.contains(name)) {
+            return null;
+        }
+        SpriteAtlas.Sprite sprite = atlas.find(name, width, height);
+        if (sprite == null) {
+            if (AssetLoader.class.getResource(path) != null) {
+                return null;
+            }
+            sprite = atlas.largest(name);
+        }
+        return atlas.extract(sprite, width, height);
+    }
+
+    private static Image fromResource(String path, double width, double height) {
+        Image image = null;
+        try (InputStream in = AssetLoader.class.getResourceAsStream(path)) {
+            if (in == null) {
+                GameLog.warn("ASSETS", "Missing image resource {}", path);
+            } else {
+                image = width > 0 || height > 0
+                        ? new Image(in, width, height, true, true)
+                        : new Image(in);
+                if (image.isError()) {
+                    GameLog.warn("ASSETS", "Could not decode image {}: {}", path, image.getException());
+                    image = null;
+                }
+            }
         } catch (Exception e) {
-            // Create a blank image if the default image is also missing
-            return new Image("data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNk+A8AAQUBAScY42YAAAAASUVORK5CYII=");
+            GameLog.warn("ASSETS", "Could not load image {}: {}", path, e.getMessage());
+            image = null;
+        }
+        return image;
+    }
+
+    private void store(String key, Image image) {
+        Image previous = recent.put(key, image);
+        if (previous != null) {
+            recentBytes -= sizeOf(previous);
+        }
+        recentBytes += sizeOf(image);
+        Iterator<Map.Entry<String, Image>> eldest = recent.entrySet().iterator();
+        while (recentBytes > budgetBytes && recent.size() > 1 && eldest.hasNext()) {
+            Map.Entry<String, Image> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            recentBytes -= sizeOf(entry.getValue());
+            evicted.put(entry.getKey(), new SoftReference<>(entry.getValue()));
+            eldest.remove();
+        }
+        evicted.values().removeIf(ref -> ref.get() == null);
+    }
+
+    private static long sizeOf(Image image) {
+        return (long) Math.ceil(image.getWidth()) * (long) Math.ceil(image.getHeight()) * 4;
+    }
+
+    private static String key(String path, double width, double height) {
+        return path + "@" + Math.max(0, Math.round(width)) + "x" + Math.max(0, Math.round(height));
+    }
+
+    /**
+     * Snapshot of the cache counters
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long failures;
+        private final long decodeNanos;
+        private final int images;
+        private final long bytes;
+        private final int softImages;
+
+        Stats(long hits, long misses, long failures, long decodeNanos, int images, long bytes, int softImages) {
+            this.hits = hits;
+            this.misses = misses;
+            this.failures = failures;
+            this.decodeNanos = decodeNanos;
+            this.images = images;
+            this.bytes = bytes;
+            this.softImages = softImages;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * Gets the total time spent decoding, in milliseconds
+         */
+        public double getDecodeMillis() {
+            return decodeNanos / 1_000_000.0;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        /**
+         * Gets the number of images held within the budget
+         */
+        public int getImages() {
+            return images;
+        }
+
+        /**
+         * Gets the estimated memory held within the budget, in bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Gets the number of images past the budget that are only softly reachable
+         */
+        public int getSoftImages() {
+            return softImages;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.0f%%), %.1f ms decoding, %d images / %.1f MB, %d soft",
+                    hits, misses, getHitRate() * 100, getDecodeMillis(), images, bytes / (1024.0 * 1024.0), softImages);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,172 @@
+package com.forbiddenisland.ui.util;
+
+import com.forbiddenisland.log.GameLog;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs game engine commands (card draws, turn changes) on one background thread, one at a
+ * time and in submission order, so the JavaFX application thread never blocks on them. Results
+ * come back on the UI thread. {@link #busyProperty()} is true from submission until the last
+ * result has been delivered; views disable input while it is set instead of keeping their own
+ * flags. If a command runs longer than the latency threshold the latency indicator is shown
+ * until it finishes.
+ * {@link #submit} and the busy state must be used on the UI thread.
+ */
+public class EngineExecutor implements AutoCloseable {
+
+    public static final long DEFAULT_INDICATOR_DELAY_MILLIS = 250;
+
+    private final Executor uiThread;
+    private final long indicatorDelayMillis;
+    private final ExecutorService engine;
+    private final ScheduledExecutorService latencyTimer;
+    private final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(this, "busy", false);
+    private int pending;       // submitted commands whose results are not delivered yet; UI thread only
+    private int slowCommands;  // running commands past the threshold; UI thread only
+
+    private Consumer<String> showIndicator = message -> { };
+    private Runnable hideIndicator = () -> { };
+
+    public EngineExecutor() {
+        this(Platform::runLater, DEFAULT_INDICATOR_DELAY_MILLIS);
+    }
+
+    /**
+     * @param uiThread Runs result handlers, normally {@code Platform::runLater}
+     * @param indicatorDelayMillis How long a command may run before the latency indicator is shown
+     */
+    public EngineExecutor(Executor uiThread, long indicatorDelayMillis) {
+        this.uiThread = uiThread;
+        this.indicatorDelayMillis = indicatorDelayMillis;
+        this.engine = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.latencyTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-engine-latency");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Set what is shown while a command is slow, for example a loading overlay
+     * @param show Called on the UI thread with the command's description
+     * @param hide Called on the UI thread once no slow command is left
+     */
+    public void setLatencyIndicator(Consumer<String> show, Runnable hide) {
+        this.showIndicator = show;
+        this.hideIndicator = hide;
+    }
+
+    /**
+     * Queue a command for the engine thread
+     * @param description What the command does, shown by the latency indicator and logged
+     * @param command Mutates the game; must not touch JavaFX nodes
+     * @return Completes on the UI thread with the command's result, or its exception
+     */
+    public <T> CompletableFuture<T> submit(String description, Callable<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending++;
+        busy.set(true);
+
+        engine.execute(() -> {
+            long start = System.nanoTime();
+            Latency latency = new Latency();
+            ScheduledFuture<?> timer = latencyTimer.schedule(() -> {
+                synchronized (latency) {
+                    if (latency.done) return;
+                    latency.slow = true; // posted before the result, so the UI sees start before end
+                    uiThread.execute(() -> startSlow(description));
+                }
+            }, indicatorDelayMillis, TimeUnit.MILLISECONDS);
+            T value = null;
+            Throwable error = null;
+            try {
+                value = command.call();
+            } catch (Throwable e) {
+                error = e;
+                GameLog.error("ENGINE", "{} failed: {}", description, e.toString());
+            }
+            timer.cancel(false);
+            boolean wasSlow;
+            synchronized (latency) {
+                latency.done = true;
+                wasSlow = latency.slow;
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (wasSlow) {
+                GameLog.info("ENGINE", "{} took {} ms", description, elapsedMillis);
+            } else {
+                GameLog.debug("ENGINE", "{} took {} ms", description, elapsedMillis);
+            }
+
+            T finalValue = value;
+            Throwable finalError = error;
+            uiThread.execute(() -> {
+                if (wasSlow) {
+                    endSlow();
+                }
+                if (--pending == 0) {
+                    busy.set(false);
+                }
+                if (finalError == null) {
+                    result.complete(finalValue);
+                } else {
+                    result.completeExceptionally(finalError);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * True while a submitted command has not delivered its result
+     */
+    public ReadOnlyBooleanProperty busyProperty() {
+        return busy.getReadOnlyProperty();
+    }
+
+    public boolean isBusy() {
+        return busy.get();
+    }
+
+    private void startSlow(String description) {
+        if (slowCommands++ == 0) {
+            showIndicator.accept(description);
+        }
+    }
+
+    private void endSlow() {
+        if (--slowCommands == 0) {
+            hideIndicator.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        engine.shutdown();
+        latencyTimer.shutdownNow();
+    }
+
+    /**
+     * Whether one command has finished and whether it was reported as slow
+     */
+    private static final class Latency {
+        boolean done;
+        boolean slow;
+    }
+}
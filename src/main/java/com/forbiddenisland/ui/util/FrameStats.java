@@ -0,0 +1,103 @@
+package com.forbiddenisland.ui.util;
+
+/**
+ * Rolling window of frame times: FPS, average and worst frame, and a histogram over a few
+ * fixed buckets (a 60 Hz frame is about 16.7 ms). Only the last {@link #getCapacity()}
+ * frames count, so a slow spell shows up quickly and fades once it is over.
+ */
+public class FrameStats {
+
+    public static final int DEFAULT_CAPACITY = 120;
+    // Upper bounds of every histogram bucket but the last, which holds anything slower
+    private static final double[] BUCKET_LIMITS_MILLIS = {8.4, 16.7, 33.4, 50};
+    private static final String[] BUCKET_LABELS = {"<8", "<17", "<33", "<50", "50+"};
+
+    private final long[] frameNanos;
+    private int next;
+    private int count;
+
+    public FrameStats() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Number of most recent frames kept
+     */
+    public FrameStats(int capacity) {
+        this.frameNanos = new long[capacity];
+    }
+
+    /**
+     * Add one frame
+     * @param nanos Time since the previous frame
+     */
+    public void record(long nanos) {
+        frameNanos[next] = nanos;
+        next = (next + 1) % frameNanos.length;
+        count = Math.min(count + 1, frameNanos.length);
+    }
+
+    public void clear() {
+        next = 0;
+        count = 0;
+    }
+
+    public int getCapacity() {
+        return frameNanos.length;
+    }
+
+    /**
+     * Gets the number of frames in the window
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets frames per second over the window
+     * @return FPS, or 0 before the first frame
+     */
+    public double getFps() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += frameNanos[i];
+        }
+        return total == 0 ? 0 : count * 1_000_000_000.0 / total;
+    }
+
+    public double getAverageMillis() {
+        double fps = getFps();
+        return fps == 0 ? 0 : 1000.0 / fps;
+    }
+
+    public double getWorstMillis() {
+        long worst = 0;
+        for (int i = 0; i < count; i++) {
+            worst = Math.max(worst, frameNanos[i]);
+        }
+        return worst / 1_000_000.0;
+    }
+
+    /**
+     * Gets how many frames in the window fall in each bucket, fastest bucket first
+     */
+    public int[] getHistogram() {
+        int[] buckets = new int[BUCKET_LABELS.length];
+        for (int i = 0; i < count; i++) {
+            double millis = frameNanos[i] / 1_000_000.0;
+            int bucket = 0;
+            while (bucket < BUCKET_LIMITS_MILLIS.length && millis >= BUCKET_LIMITS_MILLIS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+        }
+        return buckets;
+    }
+
+    /**
+     * Gets the labels of the histogram buckets, in milliseconds
+     */
+    public static String[] getBucketLabels() {
+        return BUCKET_LABELS.clone();
+    }
+}
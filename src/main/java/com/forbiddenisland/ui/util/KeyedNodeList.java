@@ -0,0 +1,99 @@
+package com.forbiddenisland.ui.util;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Keeps a pane's children in step with a list of model objects, one node per object. Nodes
+ * are keyed by identity: an object keeps its node for as long as it stays in the list, even
+ * if it moves, and a node is only created the first time its object appears. Reconciling
+ * against an unchanged list touches no children. Must be used on the JavaFX application thread.
+ *
+ * @param <K> Model objects the nodes stand for
+ */
+public class KeyedNodeList<K> {
+
+    private final ObservableList<Node> children;
+    private final Function<? super K, ? extends Node> factory;
+    private final Map<K, Node> nodes = new IdentityHashMap<>();
+    private long created;
+    private long mutations;
+
+    /**
+     * @param children Child list to manage; nothing else should add to it
+     * @param factory Builds the node for an object that has none yet
+     */
+    public KeyedNodeList(ObservableList<Node> children, Function<? super K, ? extends Node> factory) {
+        this.children = children;
+        this.factory = factory;
+    }
+
+    /**
+     * Make the children show exactly these objects, in this order
+     * @return Number of children added, removed or moved
+     */
+    public int reconcile(List<? extends K> keys) {
+        List<Node> wanted = new ArrayList<>(keys.size());
+        Set<K> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (K key : keys) {
+            Node node = nodes.get(key);
+            if (node == null) {
+                node = factory.apply(key);
+                nodes.put(key, node);
+                created++;
+            }
+            wanted.add(node);
+            kept.add(key);
+        }
+        nodes.keySet().retainAll(kept);
+
+        Set<Node> wantedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        wantedSet.addAll(wanted);
+        int changed = 0;
+        for (int i = children.size() - 1; i >= 0; i--) {
+            if (!wantedSet.contains(children.get(i))) {
+                children.remove(i);
+                changed++;
+            }
+        }
+        for (int i = 0; i < wanted.size(); i++) {
+            Node node = wanted.get(i);
+            if (i < children.size() && children.get(i) == node) continue;
+            children.remove(node); // moving an existing node; no-op for a new one
+            children.add(i, node);
+            changed++;
+        }
+        mutations += changed;
+        return changed;
+    }
+
+    /**
+     * Gets the node currently standing for an object
+     * @return The node, or null if the object was not in the last reconciled list
+     */
+    public Node getNode(K key) {
+        return nodes.get(key);
+    }
+
+    /**
+     * Gets how many nodes have been built since this list was created
+     */
+    public long getCreatedCount() {
+        return created;
+    }
+
+    /**
+     * Gets how many children have been added, removed or moved since this list was created
+     */
+    public long getMutationCount() {
+        return mutations;
+    }
+}
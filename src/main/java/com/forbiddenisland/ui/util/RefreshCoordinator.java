@@ -0,0 +1,206 @@
+package com.forbiddenisland.ui.util;
+
+import com.forbiddenisland.log.GameLog;
+import com.forbiddenisland.log.LogLevel;
+import javafx.animation.AnimationTimer;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collapses refresh requests into at most one refresh per frame. Views register a named
+ * refresh action once; anything that changes the game marks those names dirty, and the next
+ * JavaFX pulse runs each dirty action a single time, in registration order. A burst of engine
+ * events inside one click therefore costs one repaint instead of one per event. The pulse
+ * timer only runs while something is dirty. Must be used on the JavaFX application thread.
+ */
+public class RefreshCoordinator {
+
+    private final Map<String, Runnable> targets = new LinkedHashMap<>();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    private final Map<String, Long> lastCostNanos = new LinkedHashMap<>(); // name -> cost of its last refresh
+    private AnimationTimer pulse;
+    private boolean pulseRunning;
+    private boolean flushing;
+    private boolean held;
+
+    private long requests;
+    private long coalesced;
+    private long frames;
+    private long lastFrameNanos;
+    private long maxFrameNanos;
+    private long lastFlushNanos; // System.nanoTime() when the last flush finished
+
+    /**
+     * Register a view's refresh action; registering a name again replaces the action but keeps its place
+     * @param name Name used to mark the view dirty
+     * @param refresh Redraws the view from the current game state
+     */
+    public void register(String name, Runnable refresh) {
+        targets.put(name, refresh);
+    }
+
+    /**
+     * Ask for views to be refreshed on the next frame
+     * @param names Registered names; unknown names are ignored
+     */
+    public void markDirty(String... names) {
+        for (String name : names) {
+            if (!targets.containsKey(name)) {
+                GameLog.warn("REFRESH", "Refresh requested for unknown view {}", name);
+                continue;
+            }
+            requests++;
+            if (!dirty.add(name)) {
+                coalesced++; // already waiting for this frame
+            }
+        }
+        if (!dirty.isEmpty() && !held) {
+            requestPulse();
+        }
+    }
+
+    /**
+     * Ask for every registered view to be refreshed on the next frame
+     */
+    public void markAllDirty() {
+        markDirty(targets.keySet().toArray(new String[0]));
+    }
+
+    /**
+     * Hold refreshes back, for example while another thread is changing the game; requests
+     * keep collecting and run on the first frame after the hold is released
+     */
+    public void setHeld(boolean held) {
+        this.held = held;
+        if (!held && !dirty.isEmpty()) {
+            requestPulse();
+        }
+    }
+
+    public boolean isHeld() {
+        return held;
+    }
+
+    public boolean isDirty(String name) {
+        return dirty.contains(name);
+    }
+
+    /**
+     * Run every pending refresh now instead of waiting for the next frame
+     * @return Number of refresh actions that ran
+     */
+    public int flush() {
+        if (flushing || held || dirty.isEmpty()) return 0;
+        flushing = true;
+        long frameStart = System.nanoTime();
+        // The per-view breakdown is only built when the REFRESH debug line will be written
+        StringBuilder costs = GameLog.isEnabled(LogLevel.DEBUG) ? new StringBuilder() : null;
+        int ran = 0;
+        try {
+            // A refresh may mark later views dirty; they still run in this frame
+            for (Map.Entry<String, Runnable> target : targets.entrySet()) {
+                if (!dirty.remove(target.getKey())) continue;
+                long start = System.nanoTime();
+                try {
+                    target.getValue().run();
+                } catch (RuntimeException e) {
+                    GameLog.error("REFRESH", "Refreshing {} failed: {}", target.getKey(), e.toString());
+                }
+                ran++;
+                long cost = System.nanoTime() - start;
+                lastCostNanos.put(target.getKey(), cost);
+                if (costs != null) {
+                    if (costs.length() > 0) costs.append(", ");
+                    costs.append(target.getKey()).append(' ')
+                            .append(String.format("%.2f", cost / 1_000_000.0)).append(" ms");
+                }
+            }
+        } finally {
+            flushing = false;
+        }
+
+        lastFlushNanos = System.nanoTime();
+        lastFrameNanos = lastFlushNanos - frameStart;
+        maxFrameNanos = Math.max(maxFrameNanos, lastFrameNanos);
+        frames++;
+        if (costs != null) {
+            GameLog.debug("REFRESH", "Frame refresh took {} ms: {}",
+                    String.format("%.2f", lastFrameNanos / 1_000_000.0), costs);
+        }
+        return ran;
+    }
+
+    /**
+     * Gets how many refreshes were requested, including repeats
+     */
+    public long getRequestCount() {
+        return requests;
+    }
+
+    /**
+     * Gets how many requests were folded into a refresh that was already pending
+     */
+    public long getCoalescedCount() {
+        return coalesced;
+    }
+
+    /**
+     * Gets how many frames ran at least one refresh
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    public double getLastFrameMillis() {
+        return lastFrameNanos / 1_000_000.0;
+    }
+
+    public double getMaxFrameMillis() {
+        return maxFrameNanos / 1_000_000.0;
+    }
+
+    /**
+     * Gets how long each view's most recent refresh took, in registration order
+     * @return Milliseconds by registered name; views that never ran are left out
+     */
+    public Map<String, Double> getLastCostMillis() {
+        Map<String, Double> costs = new LinkedHashMap<>();
+        for (String name : targets.keySet()) {
+            Long cost = lastCostNanos.get(name);
+            if (cost != null) costs.put(name, cost / 1_000_000.0);
+        }
+        return costs;
+    }
+
+    /**
+     * Gets when the last refresh frame finished, on the {@link System#nanoTime()} clock
+     * @return The time, or 0 if nothing has been refreshed yet
+     */
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    /**
+     * Make sure the next frame runs {@link #flush()}. The timer stops itself once nothing is dirty.
+     */
+    protected void requestPulse() {
+        if (pulseRunning) return;
+        if (pulse == null) {
+            pulse = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    flush();
+                    if (dirty.isEmpty() || held) {
+                        stop();
+                        pulseRunning = false;
+                    }
+                }
+            };
+        }
+        pulseRunning = true;
+        pulse.start();
+    }
+}
@@ -0,0 +1,384 @@
+package com.forbiddenisland.ui.util;
+
+import com.forbiddenisland.log.GameLog;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Sprites packed into one texture at build time by {@link SpriteAtlasBuilder}. Every source
+ * image is stored at a few fixed sizes (levels); a request takes the smallest level that
+ * covers it, so the common sizes are a plain crop and anything else is a small resample
+ * instead of decoding a full-size file. The texture is decoded once, on first use.
+ * Sprites are named by their resource path under {@code /images/} without the extension,
+ * for example {@code pawns/1}. Safe to use from any thread.
+ */
+public final class SpriteAtlas {
+
+    public static final String DIRECTORY = "/images/atlas/";
+    public static final String TEXTURE_NAME = "sprites.png";
+    public static final String INDEX_NAME = "sprites.idx";
+    public static final String JSON_INDEX_NAME = "sprites.json";
+
+    static final int MAGIC = 0x46494154; // "FIAT"
+    static final int VERSION = 1;
+
+    private static final String IMAGE_ROOT = "/images/";
+    private static final String IMAGE_SUFFIX = ".png";
+
+    private final int width;
+    private final int height;
+    private final Map<String, List<Sprite>> sprites = new LinkedHashMap<>(); // name -> levels, smallest first
+    private final Supplier<Image> textureSource;
+    private volatile Image texture;
+    private volatile boolean textureFailed;
+
+    /**
+     * @param width Texture width in pixels
+     * @param height Texture height in pixels
+     * @param entries Where each sprite level sits in the texture
+     * @param textureSource Decodes the texture; called at most once
+     */
+    public SpriteAtlas(int width, int height, List<Sprite> entries, Supplier<Image> textureSource) {
+        this.width = width;
+        this.height = height;
+        this.textureSource = textureSource;
+        for (Sprite sprite : entries) {
+            sprites.computeIfAbsent(sprite.getName(), name -> new ArrayList<>()).add(sprite);
+        }
+        for (List<Sprite> levels : sprites.values()) {
+            levels.sort(Comparator.comparingInt(Sprite::getLevel));
+        }
+    }
+
+    /**
+     * Gets the atlas packed into the application's resources
+     * @return The atlas, or null if the build did not generate one
+     */
+    public static SpriteAtlas getDefault() {
+        return DefaultHolder.ATLAS;
+    }
+
+    /**
+     * Reads the atlas index from the classpath; the texture is decoded later, when first needed
+     * @return The atlas, or null if there is no index or it cannot be read
+     */
+    public static SpriteAtlas load() {
+        try (InputStream in = SpriteAtlas.class.getResourceAsStream(DIRECTORY + INDEX_NAME)) {
+            if (in == null) {
+                GameLog.debug("ASSETS", "No sprite atlas in resources; images are decoded from their files");
+                return null;
+            }
+            SpriteAtlas atlas = read(in, SpriteAtlas::decodeTexture);
+            GameLog.debug("ASSETS", "Sprite atlas: {} sprites in a {}x{} texture",
+                    atlas.sprites.size(), atlas.width, atlas.height);
+            return atlas;
+        } catch (IOException e) {
+            GameLog.warn("ASSETS", "Could not read the sprite atlas index: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads a binary index written by {@link #write}
+     * @throws IOException If the stream is not an atlas index of this version
+     */
+    public static SpriteAtlas read(InputStream in, Supplier<Image> textureSource) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("not a sprite atlas index");
+        }
+        int version = data.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException("unsupported sprite atlas version " + version);
+        }
+        int width = data.readInt();
+        int height = data.readInt();
+        int count = data.readInt();
+        List<Sprite> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new Sprite(data.readUTF(), data.readUnsignedShort(), data.readUnsignedShort(),
+                    data.readUnsignedShort(), data.readUnsignedShort(), data.readUnsignedShort()));
+        }
+        return new SpriteAtlas(width, height, entries, textureSource);
+    }
+
+    /**
+     * Writes the binary index: magic, version, texture size, then one entry per sprite level
+     */
+    public static void write(DataOutputStream out, int width, int height, List<Sprite> entries) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(entries.size());
+        for (Sprite sprite : entries) {
+            out.writeUTF(sprite.getName());
+            out.writeShort(sprite.getLevel());
+            out.writeShort(sprite.getX());
+            out.writeShort(sprite.getY());
+            out.writeShort(sprite.getWidth());
+            out.writeShort(sprite.getHeight());
+        }
+        out.flush();
+    }
+
+    /**
+     * Gets the sprite name of an image resource
+     * @param path Resource path, for example {@code /images/pawns/1.png}
+     * @return The name, for example {@code pawns/1}, or null if the path cannot be in an atlas
+     */
+    public static String spriteName(String path) {
+        if (path == null || !path.startsWith(IMAGE_ROOT) || !path.endsWith(IMAGE_SUFFIX)) {
+            return null;
+        }
+        return path.substring(IMAGE_ROOT.length(), path.length() - IMAGE_SUFFIX.length());
+    }
+
+    public boolean contains(String name) {
+        return sprites.containsKey(name);
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(sprites.keySet());
+    }
+
+    /**
+     * Gets the stored sizes of a sprite
+     * @return Levels, smallest first; empty if the sprite is not in the atlas
+     */
+    public List<Sprite> getLevels(String name) {
+        List<Sprite> levels = sprites.get(name);
+        return levels == null ? Collections.emptyList() : Collections.unmodifiableList(levels);
+    }
+
+    /**
+     * Gets the smallest level of a sprite that fills a box without being scaled up
+     * @param width Box width, or 0 to fit the height only
+     * @param height Box height, or 0 to fit the width only
+     * @return The level, or null if the sprite is missing or every level is smaller than the box
+     */
+    public Sprite find(String name, double width, double height) {
+        for (Sprite sprite : getLevels(name)) {
+            if (sprite.getWidth() >= fittedWidth(sprite, width, height) - 0.5
+                    && sprite.getHeight() >= fittedHeight(sprite, width, height) - 0.5) {
+                return sprite;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the largest level of a sprite
+     * @return The level, or null if the sprite is not in the atlas
+     */
+    public Sprite largest(String name) {
+        List<Sprite> levels = getLevels(name);
+        return levels.isEmpty() ? null : levels.get(levels.size() - 1);
+    }
+
+    /**
+     * Cuts a sprite out of the texture, scaled to fit a box with its aspect ratio kept
+     * @param sprite Level to cut from
+     * @param width Box width, or 0 to fit the height only
+     * @param height Box height, or 0 to fit the width only
+     * @return A new image, or null if the texture cannot be decoded
+     */
+    public Image extract(Sprite sprite, double width, double height) {
+        Image source = getTexture();
+        if (source == null) {
+            return null;
+        }
+        int sw = sprite.getWidth();
+        int sh = sprite.getHeight();
+        int[] pixels = new int[sw * sh];
+        source.getPixelReader().getPixels(sprite.getX(), sprite.getY(), sw, sh,
+                PixelFormat.getIntArgbInstance(), pixels, 0, sw);
+
+        int dw = (int) Math.max(1, Math.round(fittedWidth(sprite, width, height)));
+        int dh = (int) Math.max(1, Math.round(fittedHeight(sprite, width, height)));
+        if (dw != sw || dh != sh) {
+            pixels = resample(pixels, sw, sh, dw, dh);
+        }
+        WritableImage image = new WritableImage(dw, dh);
+        image.getPixelWriter().setPixels(0, 0, dw, dh, PixelFormat.getIntArgbInstance(), pixels, 0, dw);
+        return image;
+    }
+
+    /**
+     * Gets the texture every sprite is cut from, decoding it on first use
+     * @return The texture, or null if it is missing or cannot be decoded
+     */
+    public Image getTexture() {
+        Image current = texture;
+        if (current != null || textureFailed) {
+            return current;
+        }
+        synchronized (this) {
+            if (texture == null && !textureFailed) {
+                long start = System.nanoTime();
+                Image decoded = textureSource.get();
+                if (decoded == null || decoded.isError()) {
+                    textureFailed = true;
+                    GameLog.warn("ASSETS", "Could not decode the sprite atlas texture");
+                } else {
+                    texture = decoded;
+                    GameLog.debug("ASSETS", "Decoded the sprite atlas texture in {} ms",
+                            (System.nanoTime() - start) / 1_000_000);
+                }
+            }
+            return texture;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Scales ARGB pixels by averaging the source area under each target pixel, weighted by
+     * alpha so transparent edges do not darken. Works for both shrinking and enlarging.
+     */
+    static int[] resample(int[] source, int sourceWidth, int sourceHeight, int targetWidth, int targetHeight) {
+        int[] target = new int[targetWidth * targetHeight];
+        double scaleX = (double) sourceWidth / targetWidth;
+        double scaleY = (double) sourceHeight / targetHeight;
+        for (int ty = 0; ty < targetHeight; ty++) {
+            double y0 = ty * scaleY;
+            double y1 = y0 + scaleY;
+            int yEnd = Math.min(sourceHeight, (int) Math.ceil(y1));
+            for (int tx = 0; tx < targetWidth; tx++) {
+                double x0 = tx * scaleX;
+                double x1 = x0 + scaleX;
+                int xEnd = Math.min(sourceWidth, (int) Math.ceil(x1));
+                double area = 0;
+                double alpha = 0;
+                double red = 0;
+                double green = 0;
+                double blue = 0;
+                for (int y = (int) y0; y < yEnd; y++) {
+                    double coverY = Math.min(y1, y + 1) - Math.max(y0, y);
+                    for (int x = (int) x0; x < xEnd; x++) {
+                        double weight = coverY * (Math.min(x1, x + 1) - Math.max(x0, x));
+                        int argb = source[y * sourceWidth + x];
+                        double a = (argb >>> 24) * weight;
+                        area += weight;
+                        alpha += a;
+                        red += ((argb >> 16) & 0xff) * a;
+                        green += ((argb >> 8) & 0xff) * a;
+                        blue += (argb & 0xff) * a;
+                    }
+                }
+                if (alpha > 0) {
+                    target[ty * targetWidth + tx] = (int) Math.round(alpha / area) << 24
+                            | (int) Math.round(red / alpha) << 16
+                            | (int) Math.round(green / alpha) << 8
+                            | (int) Math.round(blue / alpha);
+                }
+            }
+        }
+        return target;
+    }
+
+    private static double fittedWidth(Sprite sprite, double width, double height) {
+        return sprite.getWidth() * fitScale(sprite, width, height);
+    }
+
+    private static double fittedHeight(Sprite sprite, double width, double height) {
+        return sprite.getHeight() * fitScale(sprite, width, height);
+    }
+
+    private static double fitScale(Sprite sprite, double width, double height) {
+        if (width <= 0 && height <= 0) return 1;
+        if (width <= 0) return height / sprite.getHeight();
+        if (height <= 0) return width / sprite.getWidth();
+        return Math.min(width / sprite.getWidth(), height / sprite.getHeight());
+    }
+
+    private static Image decodeTexture() {
+        try (InputStream in = SpriteAtlas.class.getResourceAsStream(DIRECTORY + TEXTURE_NAME)) {
+            return in == null ? null : new Image(in);
+        } catch (IOException e) {
+            GameLog.warn("ASSETS", "Could not read the sprite atlas texture: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads the packaged atlas the first time it is asked for
+     */
+    private static final class DefaultHolder {
+        static final SpriteAtlas ATLAS = load();
+    }
+
+    /**
+     * One stored size of a sprite and where it sits in the texture
+     */
+    public static final class Sprite {
+        private final String name;
+        private final int level;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        /**
+         * @param name Sprite name, for example {@code pawns/1}
+         * @param level Size of the box the source was fitted into
+         * @param x Left edge in the texture
+         * @param y Top edge in the texture
+         * @param width Width in pixels
+         * @param height Height in pixels
+         */
+        public Sprite(String name, int level, int x, int y, int width, int height) {
+            this.name = name;
+            this.level = level;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+}
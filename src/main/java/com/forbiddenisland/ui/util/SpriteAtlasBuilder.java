@@ -0,0 +1,305 @@
+package com.forbiddenisland.ui.util;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Build step that packs image resources into a {@link SpriteAtlas}. Each PNG in the given
+ * directories is decoded once at full size and shrunk to every requested level, and the
+ * results are packed in rows into one texture ({@code sprites.png}) with a binary index for
+ * the game ({@code sprites.idx}) and a JSON copy of it for people and tools
+ * ({@code sprites.json}). Maven runs it after compiling; see the {@code sprite-atlas}
+ * execution in {@code pom.xml}. Nothing is rebuilt when the index is newer than every source
+ * and already has the requested levels.
+ *
+ * <p>Usage: {@code SpriteAtlasBuilder <resource root> <output dir> <levels> <dir>...}, for
+ * example {@code src/main/resources target/classes/images/atlas 24,30,40 images/pawns}.
+ * Directories that do not exist are skipped.</p>
+ *
+ * <p>It runs inside the Maven JVM, so it reports on standard output rather than through
+ * the game log, whose drain thread would outlive the build step.</p>
+ */
+public final class SpriteAtlasBuilder {
+
+    static final int MAX_TEXTURE_WIDTH = 1024;
+    static final int PADDING = 1; // transparent gap so smoothing never picks up a neighbour
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    private SpriteAtlasBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            throw new IllegalArgumentException(
+                    "usage: SpriteAtlasBuilder <resource root> <output dir> <levels> <dir>...");
+        }
+        int[] levels = Arrays.stream(args[2].split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .distinct()
+                .toArray();
+        build(Paths.get(args[0]), Paths.get(args[1]), levels, Arrays.asList(args).subList(3, args.length));
+    }
+
+    /**
+     * Packs every PNG in the given directories
+     * @param resourceRoot Directory the resource paths start from
+     * @param outputDir Where the texture and indexes are written
+     * @param levels Box sizes each image is fitted into
+     * @param directories Directories under the resource root, for example {@code images/pawns}
+     * @return The packed sprites, or the existing index's sprites if nothing changed
+     */
+    public static List<SpriteAtlas.Sprite> build(Path resourceRoot, Path outputDir, int[] levels,
+                                                 List<String> directories) throws IOException {
+        long start = System.nanoTime();
+        List<Path> sources = new ArrayList<>();
+        for (String directory : directories) {
+            Path dir = resourceRoot.resolve(directory);
+            if (!Files.isDirectory(dir)) {
+                System.out.println("Sprite atlas: no images in " + directory + "; skipped");
+                continue;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                sources.addAll(files.filter(file -> file.getFileName().toString().endsWith(".png"))
+                        .sorted()
+                        .collect(Collectors.toList()));
+            }
+        }
+
+        Path index = outputDir.resolve(SpriteAtlas.INDEX_NAME);
+        List<SpriteAtlas.Sprite> existing = upToDate(index, resourceRoot, sources, levels);
+        if (existing != null) {
+            System.out.println("Sprite atlas is up to date (" + existing.size() + " sprites)");
+            return existing;
+        }
+
+        // Shrink every source to every level, then pack the levels in rows, tallest first
+        List<Packed> packed = new ArrayList<>();
+        for (Path source : sources) {
+            String name = SpriteAtlas.spriteName(resourcePath(resourceRoot, source));
+            Image image;
+            try (InputStream in = Files.newInputStream(source)) {
+                image = new Image(in);
+            }
+            if (image.isError()) {
+                throw new IOException("could not decode " + source + ": " + image.getException());
+            }
+            int width = (int) image.getWidth();
+            int height = (int) image.getHeight();
+            int[] pixels = new int[width * height];
+            image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+            for (int level : levels) {
+                double scale = Math.min((double) level / width, (double) level / height);
+                int levelWidth = (int) Math.max(1, Math.round(width * scale));
+                int levelHeight = (int) Math.max(1, Math.round(height * scale));
+                packed.add(new Packed(name, level, levelWidth, levelHeight,
+                        SpriteAtlas.resample(pixels, width, height, levelWidth, levelHeight)));
+            }
+        }
+        packed.sort((a, b) -> b.height != a.height ? Integer.compare(b.height, a.height) : a.name.compareTo(b.name));
+
+        List<SpriteAtlas.Sprite> sprites = new ArrayList<>();
+        int x = PADDING;
+        int y = PADDING;
+        int rowHeight = 0;
+        int textureWidth = 1;
+        for (Packed sprite : packed) {
+            if (x + sprite.width + PADDING > MAX_TEXTURE_WIDTH && x > PADDING) {
+                x = PADDING;
+                y += rowHeight + PADDING;
+                rowHeight = 0;
+            }
+            sprite.x = x;
+            sprite.y = y;
+            sprites.add(new SpriteAtlas.Sprite(sprite.name, sprite.level, x, y, sprite.width, sprite.height));
+            x += sprite.width + PADDING;
+            rowHeight = Math.max(rowHeight, sprite.height);
+            textureWidth = Math.max(textureWidth, x);
+        }
+        int textureHeight = Math.max(1, y + rowHeight + PADDING);
+
+        int[] texture = new int[textureWidth * textureHeight];
+        for (Packed sprite : packed) {
+            for (int row = 0; row < sprite.height; row++) {
+                System.arraycopy(sprite.pixels, row * sprite.width,
+                        texture, (sprite.y + row) * textureWidth + sprite.x, sprite.width);
+            }
+        }
+
+        Files.createDirectories(outputDir);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(outputDir.resolve(SpriteAtlas.TEXTURE_NAME)))) {
+            writePng(out, texture, textureWidth, textureHeight);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index)))) {
+            SpriteAtlas.write(out, textureWidth, textureHeight, sprites);
+        }
+        try (Writer out = Files.newBufferedWriter(outputDir.resolve(SpriteAtlas.JSON_INDEX_NAME), StandardCharsets.UTF_8)) {
+            writeJson(out, textureWidth, textureHeight, sprites);
+        }
+
+        long sourceBytes = 0;
+        for (Path source : sources) {
+            sourceBytes += Files.size(source);
+        }
+        System.out.printf("Sprite atlas: packed %d images at %d sizes into a %dx%d texture: %d KB from %d KB in %d ms%n",
+                sources.size(), levels.length, textureWidth, textureHeight,
+                Files.size(outputDir.resolve(SpriteAtlas.TEXTURE_NAME)) / 1024, sourceBytes / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+        return sprites;
+    }
+
+    /**
+     * Writes ARGB pixels as an 8-bit RGBA PNG, each row using the "sub" filter
+     */
+    static void writePng(OutputStream out, int[] argb, int width, int height) throws IOException {
+        out.write(PNG_SIGNATURE);
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.writeByte(8); // bits per channel
+        headerData.writeByte(6); // colour type: RGBA
+        headerData.writeByte(0); // deflate
+        headerData.writeByte(0); // adaptive filtering
+        headerData.writeByte(0); // not interlaced
+        writeChunk(out, "IHDR", header.toByteArray());
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, deflater)) {
+            byte[] row = new byte[1 + width * 4];
+            row[0] = 1; // sub: each byte minus the same channel of the pixel to its left
+            for (int y = 0; y < height; y++) {
+                int previous = 0;
+                for (int x = 0; x < width; x++) {
+                    int pixel = argb[y * width + x];
+                    int i = 1 + x * 4;
+                    row[i] = (byte) ((pixel >> 16) - (previous >> 16));
+                    row[i + 1] = (byte) ((pixel >> 8) - (previous >> 8));
+                    row[i + 2] = (byte) (pixel - previous);
+                    row[i + 3] = (byte) ((pixel >>> 24) - (previous >>> 24));
+                    previous = pixel;
+                }
+                deflate.write(row);
+            }
+        } finally {
+            deflater.end();
+        }
+        writeChunk(out, "IDAT", compressed.toByteArray());
+        writeChunk(out, "IEND", new byte[0]);
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[] data) throws IOException {
+        DataOutputStream chunk = new DataOutputStream(out);
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        chunk.writeInt(data.length);
+        chunk.write(typeBytes);
+        chunk.write(data);
+        chunk.writeInt((int) crc.getValue());
+    }
+
+    private static void writeJson(Writer out, int width, int height, List<SpriteAtlas.Sprite> sprites) throws IOException {
+        out.write("{\n");
+        out.write("  \"version\": " + SpriteAtlas.VERSION + ",\n");
+        out.write("  \"texture\": \"" + SpriteAtlas.TEXTURE_NAME + "\",\n");
+        out.write("  \"width\": " + width + ",\n");
+        out.write("  \"height\": " + height + ",\n");
+        out.write("  \"sprites\": [");
+        for (int i = 0; i < sprites.size(); i++) {
+            SpriteAtlas.Sprite sprite = sprites.get(i);
+            out.write(i == 0 ? "\n" : ",\n");
+            out.write(String.format("    {\"name\": \"%s\", \"level\": %d, \"x\": %d, \"y\": %d, \"width\": %d, \"height\": %d}",
+                    sprite.getName().replace("\\", "\\\\").replace("\"", "\\\""),
+                    sprite.getLevel(), sprite.getX(), sprite.getY(), sprite.getWidth(), sprite.getHeight()));
+        }
+        out.write("\n  ]\n}\n");
+    }
+
+    /**
+     * Gets the existing index's sprites if it is newer than every source and has the same sprites and levels
+     */
+    private static List<SpriteAtlas.Sprite> upToDate(Path index, Path resourceRoot, List<Path> sources, int[] levels)
+            throws IOException {
+        if (!Files.isRegularFile(index) || !Files.isRegularFile(index.resolveSibling(SpriteAtlas.TEXTURE_NAME))) {
+            return null;
+        }
+        long built = Files.getLastModifiedTime(index).toMillis();
+        List<String> names = new ArrayList<>();
+        for (Path source : sources) {
+            if (Files.getLastModifiedTime(source).toMillis() > built) {
+                return null;
+            }
+            names.add(SpriteAtlas.spriteName(resourcePath(resourceRoot, source)));
+        }
+        SpriteAtlas atlas;
+        try (InputStream in = Files.newInputStream(index)) {
+            atlas = SpriteAtlas.read(in, () -> null);
+        } catch (IOException e) {
+            return null; // unreadable or older format; rebuild
+        }
+        if (!atlas.getNames().equals(new HashSet<>(names))) {
+            return null;
+        }
+        List<SpriteAtlas.Sprite> sprites = new ArrayList<>();
+        for (String name : names) {
+            List<SpriteAtlas.Sprite> stored = atlas.getLevels(name);
+            if (!Arrays.equals(stored.stream().mapToInt(SpriteAtlas.Sprite::getLevel).toArray(), levels)) {
+                return null;
+            }
+            sprites.addAll(stored);
+        }
+        return sprites;
+    }
+
+    private static String resourcePath(Path resourceRoot, Path file) {
+        return "/" + resourceRoot.relativize(file).toString().replace('\\', '/');
+    }
+
+    /**
+     * One level of one source while it is being packed
+     */
+    private static final class Packed {
+        final String name;
+        final int level;
+        final int width;
+        final int height;
+        final int[] pixels;
+        int x;
+        int y;
+
+        Packed(String name, int level, int width, int height, int[] pixels) {
+            this.name = name;
+            this.level = level;
+            this.width = width;
+            this.height = height;
+            this.pixels = pixels;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.forbiddenisland.ui.util;
+
+import javafx.css.PseudoClass;
+import javafx.geometry.Insets;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.InnerShadow;
+import javafx.scene.effect.Light;
+import javafx.scene.effect.Lighting;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * Backgrounds, effects and fonts shared by the board views, built once instead of on every
+ * update. Backgrounds and fonts are immutable; the effects are shared by every node that shows
+ * them, so they must never be modified. Borders, shadows and highlight states of the tiles
+ * themselves live in {@link #BOARD_STYLESHEET}, switched by the pseudo-classes below.
+ */
+public final class StylePalette {
+
+    public static final String BOARD_STYLESHEET = "/styles/board.css";
+
+    // Tile states for the board stylesheet
+    public static final PseudoClass HIGHLIGHTED = PseudoClass.getPseudoClass("highlighted");
+    public static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
+    public static final PseudoClass FOOLS_LANDING = PseudoClass.getPseudoClass("fools-landing");
+
+    // Tile colors
+    public static final Color WATER_COLOR = Color.rgb(100, 180, 255);         // Brighter blue
+    public static final Color FLOODED_COLOR = Color.rgb(135, 206, 250);       // Sky blue
+    public static final Color FOOLS_LANDING_COLOR = Color.rgb(255, 215, 0);   // Gold
+    public static final Color TREASURE_TILE_COLOR = Color.rgb(144, 238, 144); // Light green
+    public static final Color NORMAL_TILE_COLOR = Color.rgb(152, 251, 152);   // Pale green
+
+    // Tile backgrounds
+    public static final Background WATER_BACKGROUND = fill(WATER_COLOR);
+    public static final Background FLOODED_BACKGROUND = fill(FLOODED_COLOR);
+    public static final Background FOOLS_LANDING_BACKGROUND = fill(FOOLS_LANDING_COLOR);
+    public static final Background TREASURE_TILE_BACKGROUND = fill(TREASURE_TILE_COLOR);
+    public static final Background NORMAL_TILE_BACKGROUND = fill(NORMAL_TILE_COLOR);
+
+    // Effects
+    public static final InnerShadow WATER_RIPPLE = waterRipple();
+    public static final Lighting FLOOD_LIGHTING = floodLighting();
+    public static final DropShadow PAWN_SHADOW = pawnShadow();
+
+    // Fonts
+    public static final Font TILE_NAME_FONT = Font.font("Arial", FontWeight.BOLD, 14);
+    public static final Font TILE_STATUS_FONT = Font.font("Arial", 12);
+    public static final Font PAWN_NUMBER_FONT = Font.font("Arial", FontWeight.BOLD, 10);
+
+    private StylePalette() {
+    }
+
+    /**
+     * Gets the board stylesheet as a URL for {@code getStylesheets()}, or null if it is missing
+     */
+    public static String boardStylesheet() {
+        java.net.URL url = StylePalette.class.getResource(BOARD_STYLESHEET);
+        return url == null ? null : url.toExternalForm();
+    }
+
+    private static Background fill(Color color) {
+        return new Background(new BackgroundFill(color, new CornerRadii(8), Insets.EMPTY));
+    }
+
+    private static InnerShadow waterRipple() {
+        InnerShadow innerShadow = new InnerShadow();
+        innerShadow.setRadius(5.0);
+        innerShadow.setColor(Color.color(0, 0, 0.5, 0.3));
+        return innerShadow;
+    }
+
+    private static Lighting floodLighting() {
+        Lighting lighting = new Lighting();
+        lighting.setDiffuseConstant(1.0);
+        lighting.setSpecularConstant(0.0);
+        lighting.setSpecularExponent(0.0);
+        lighting.setSurfaceScale(5.0);
+
+        Light.Distant light = new Light.Distant();
+        light.setAzimuth(45.0);
+        light.setElevation(45.0);
+        lighting.setLight(light);
+        return lighting;
+    }
+
+    private static DropShadow pawnShadow() {
+        DropShadow pawnShadow = new DropShadow();
+        pawnShadow.setRadius(3.0);
+        pawnShadow.setOffsetX(2.0);
+        pawnShadow.setOffsetY(2.0);
+        pawnShadow.setColor(Color.color(0, 0, 0, 0.5));
+        return pawnShadow;
+    }
+}
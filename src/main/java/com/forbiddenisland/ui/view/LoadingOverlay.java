@@ -57,7 +57,7 @@ public class LoadingOverlay extends StackPane {
     
     // show the loading overlay with custom message
     public void show(String message) {
-        Platform.runLater(() -> {
+        runOnFxThread(() -> {
             // update message if provided
             if (message != null && !message.isEmpty()) {
                 messageLabel.setText(message);
@@ -68,7 +68,9 @@ public class LoadingOverlay extends StackPane {
             // make sure we're visible
             setVisible(true);
             
-            // start fade in and spinner animation
+            // start fade in and spinner animation; drop the hide handler left by a previous fade out
+            fadeTransition.stop();
+            fadeTransition.setOnFinished(null);
             fadeTransition.setFromValue(0);
             fadeTransition.setToValue(1);
             fadeTransition.play();
@@ -77,12 +79,27 @@ public class LoadingOverlay extends StackPane {
         });
     }
     
+    // cover the window without showing anything yet, so clicks can't reach the game while it's busy
+    public void block() {
+        fadeTransition.stop();
+        rotateTransition.stop();
+        setOpacity(0);
+        setVisible(true);
+    }
+    
     // hide the loading overlay
     public void hide() {
-        Platform.runLater(() -> {
+        runOnFxThread(() -> {
             // stop spinner animation
             rotateTransition.stop();
             
+            // only blocked, never shown: nothing to fade
+            if (getOpacity() == 0) {
+                fadeTransition.stop();
+                setVisible(false);
+                return;
+            }
+            
             // fade out then hide
             fadeTransition.setFromValue(1);
             fadeTransition.setToValue(0);
@@ -91,6 +108,15 @@ public class LoadingOverlay extends StackPane {
         });
     }
     
+    // run right away when already on the fx thread, so show/block/hide calls from it stay in order
+    private static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+    
     // show for a specific duration then auto-hide
     public void showTemporarily(String message, int durationMs) {
         show(message);
@@ -0,0 +1,225 @@
+package com.forbiddenisland.ui.view;
+
+import com.forbiddenisland.ui.util.AnimationManager;
+import com.forbiddenisland.ui.util.FrameStats;
+import com.forbiddenisland.ui.util.RefreshCoordinator;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+import java.util.Map;
+
+/**
+ * Developer overlay showing where a frame's time goes: FPS and a frame-time histogram, how
+ * long each view took in its last refresh, the number of nodes in the scene, running
+ * animations, heap use and allocation rate, and the latency from the last click to the
+ * repaint it caused. Toggled with {@link #TOGGLE_KEY}; while hidden it runs nothing.
+ */
+public class PerformanceHud extends VBox {
+
+    public static final KeyCode TOGGLE_KEY = KeyCode.F3;
+
+    private static final long SAMPLE_INTERVAL_NANOS = 250_000_000L; // text is redrawn 4 times a second
+    private static final double BAR_WIDTH = 22;
+    private static final double BAR_MAX_HEIGHT = 32;
+    private static final Color[] BAR_COLORS = {
+            Color.LIMEGREEN, Color.YELLOWGREEN, Color.GOLD, Color.ORANGE, Color.RED};
+
+    private final RefreshCoordinator refresher;
+    private final FrameStats frames = new FrameStats();
+    private final AnimationTimer timer;
+    private final Label frameLabel = hudLabel();
+    private final Label refreshLabel = hudLabel();
+    private final Label sceneLabel = hudLabel();
+    private final Label memoryLabel = hudLabel();
+    private final Label latencyLabel = hudLabel();
+    private final Rectangle[] bars = new Rectangle[BAR_COLORS.length];
+
+    private Scene scene;
+    private final Runnable repaintListener = this::checkRepaint;
+    private long lastFrameNanos;
+    private long lastSampleNanos;
+    private long lastHeapUsed = -1;
+    private double allocationMegabytesPerSecond;
+    private long clickNanos;          // unanswered click, or 0
+    private double clickLatencyMillis = -1;
+
+    /**
+     * @param refresher Coordinator whose per-view refresh costs are shown
+     */
+    public PerformanceHud(RefreshCoordinator refresher) {
+        this.refresher = refresher;
+
+        setSpacing(4);
+        setPadding(new Insets(8));
+        setStyle("-fx-background-color: rgba(0, 0, 0, 0.75); -fx-background-radius: 6;");
+        setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        setMouseTransparent(true); // never takes clicks from the game underneath
+        StackPane.setAlignment(this, Pos.TOP_RIGHT);
+        StackPane.setMargin(this, new Insets(60, 10, 0, 0));
+
+        HBox histogram = new HBox(3);
+        histogram.setAlignment(Pos.BOTTOM_LEFT);
+        String[] bucketLabels = FrameStats.getBucketLabels();
+        for (int i = 0; i < bars.length; i++) {
+            bars[i] = new Rectangle(BAR_WIDTH, 1, BAR_COLORS[i]);
+            Label bucket = hudLabel();
+            bucket.setText(bucketLabels[i]);
+            bucket.setStyle(bucket.getStyle() + " -fx-font-size: 9px;");
+            VBox column = new VBox(1, bars[i], bucket);
+            column.setAlignment(Pos.BOTTOM_CENTER);
+            column.setMinHeight(BAR_MAX_HEIGHT + 14);
+            histogram.getChildren().add(column);
+        }
+
+        getChildren().addAll(frameLabel, histogram, refreshLabel, sceneLabel, memoryLabel, latencyLabel);
+        setVisible(false);
+        setManaged(false);
+
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (lastFrameNanos != 0) {
+                    frames.record(now - lastFrameNanos);
+                }
+                lastFrameNanos = now;
+                if (now - lastSampleNanos >= SAMPLE_INTERVAL_NANOS) {
+                    sample(now);
+                }
+            }
+        };
+    }
+
+    /**
+     * Listen on a scene for the toggle key and for clicks; the HUD should be part of the scene.
+     * Attaching to a new scene keeps the HUD open if it was.
+     */
+    public void attach(Scene scene) {
+        if (this.scene != null && isVisible()) {
+            this.scene.removePostLayoutPulseListener(repaintListener);
+            scene.addPostLayoutPulseListener(repaintListener);
+        }
+        this.scene = scene;
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == TOGGLE_KEY) {
+                toggle();
+                event.consume();
+            }
+        });
+        scene.addEventFilter(MouseEvent.MOUSE_PRESSED, event -> {
+            if (isVisible()) {
+                clickNanos = System.nanoTime();
+            }
+        });
+    }
+
+    public void toggle() {
+        setShowing(!isVisible());
+    }
+
+    /**
+     * Show or hide the HUD; measuring only runs while it is shown
+     */
+    public void setShowing(boolean showing) {
+        if (showing == isVisible()) return;
+        setVisible(showing);
+        setManaged(showing);
+        if (showing) {
+            frames.clear();
+            lastFrameNanos = 0;
+            lastSampleNanos = 0;
+            lastHeapUsed = -1;
+            clickNanos = 0;
+            if (scene != null) scene.addPostLayoutPulseListener(repaintListener);
+            timer.start();
+        } else {
+            timer.stop();
+            if (scene != null) scene.removePostLayoutPulseListener(repaintListener);
+        }
+    }
+
+    /**
+     * Called after each layout pass; the first one after a click that follows a view refresh
+     * is the frame that shows the click's result
+     */
+    private void checkRepaint() {
+        if (clickNanos != 0 && refresher.getLastFlushNanos() > clickNanos) {
+            clickLatencyMillis = (System.nanoTime() - clickNanos) / 1_000_000.0;
+            clickNanos = 0;
+        }
+    }
+
+    private void sample(long now) {
+        double elapsedSeconds = lastSampleNanos == 0 ? 0 : (now - lastSampleNanos) / 1_000_000_000.0;
+        lastSampleNanos = now;
+
+        frameLabel.setText(String.format("FPS %.1f   avg %.1f ms   worst %.1f ms",
+                frames.getFps(), frames.getAverageMillis(), frames.getWorstMillis()));
+        int[] histogram = frames.getHistogram();
+        int tallest = 1;
+        for (int bucket : histogram) {
+            tallest = Math.max(tallest, bucket);
+        }
+        for (int i = 0; i < bars.length; i++) {
+            bars[i].setHeight(Math.max(1, BAR_MAX_HEIGHT * histogram[i] / tallest));
+        }
+
+        StringBuilder refresh = new StringBuilder(String.format("Last refresh frame %.2f ms", refresher.getLastFrameMillis()));
+        for (Map.Entry<String, Double> view : refresher.getLastCostMillis().entrySet()) {
+            refresh.append(String.format("\n  %-12s %6.2f ms", view.getKey(), view.getValue()));
+        }
+        refreshLabel.setText(refresh.toString());
+
+        AnimationManager animations = AnimationManager.getInstance();
+        sceneLabel.setText(String.format("Nodes %d   animations %d running, %d waiting",
+                scene == null ? 0 : countNodes(scene.getRoot()),
+                animations.getRunningCount(), animations.getWaitingCount()));
+
+        // Heap growth between samples; a collection in between hides what was allocated before it
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        if (lastHeapUsed >= 0 && elapsedSeconds > 0) {
+            allocationMegabytesPerSecond = Math.max(0, used - lastHeapUsed) / (1024.0 * 1024.0) / elapsedSeconds;
+        }
+        lastHeapUsed = used;
+        memoryLabel.setText(String.format("Heap %.0f / %.0f MB   alloc ~%.1f MB/s",
+                used / (1024.0 * 1024.0), runtime.maxMemory() / (1024.0 * 1024.0), allocationMegabytesPerSecond));
+
+        latencyLabel.setText(clickLatencyMillis < 0
+                ? "Click to repaint: -"
+                : String.format("Click to repaint: %.1f ms", clickLatencyMillis));
+    }
+
+    /**
+     * Counts the nodes under a root, leaving out this HUD
+     */
+    private int countNodes(Node node) {
+        if (node == this) return 0;
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+
+    private static Label hudLabel() {
+        Label label = new Label();
+        label.setStyle("-fx-text-fill: white; -fx-font-family: 'Monospaced'; -fx-font-size: 12px;");
+        return label;
+    }
+}
@@ -0,0 +1,69 @@
+package com.forbiddenisland.ai;
+
+import com.forbiddenisland.model.Game;
+import com.forbiddenisland.simulation.ActionPolicy;
+import com.forbiddenisland.simulation.GreedyActionPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the MCTS hint advisor.
+ */
+class MctsAdvisorTest {
+
+    @Test
+    void testAdviceIsRankedAndLegal() throws Exception {
+        Game game = new Game(Arrays.asList("A", "B"), 1, 3L);
+        long before = game.getStateHash();
+        try (MctsAdvisor advisor = new MctsAdvisor(2)) {
+            List<RankedAction> ranked = advisor.advise(game, 200).get(10, TimeUnit.SECONDS);
+
+            assertFalse(ranked.isEmpty(), "The advisor should always suggest something");
+            List<AdviceAction> legal = AdviceAction.legalActions(game);
+            for (int i = 0; i < ranked.size(); i++) {
+                assertTrue(legal.contains(ranked.get(i).getAction()), "Advice must be a legal action");
+                if (i > 0) {
+                    assertTrue(ranked.get(i - 1).getVisits() >= ranked.get(i).getVisits(), "Best first");
+                }
+            }
+            assertEquals(0, advisor.getFailedIterations(), "Every rollout should undo cleanly");
+        }
+        assertEquals(before, game.getStateHash(), "Searching must not change the real game");
+    }
+
+    @Test
+    void testFailingRolloutsDoNotKillTheHint() throws Exception {
+        Game game = new Game(Arrays.asList("A", "B"), 1, 5L);
+        GreedyActionPolicy greedy = new GreedyActionPolicy();
+        AtomicInteger calls = new AtomicInteger();
+        ActionPolicy flaky = (g, player) -> {
+            if (calls.incrementAndGet() % 3 == 0) throw new IllegalStateException("engine corner case");
+            greedy.takeActions(g, player);
+        };
+        try (MctsAdvisor advisor = new MctsAdvisor(1, flaky)) {
+            List<RankedAction> ranked = advisor.advise(game, 200).get(10, TimeUnit.SECONDS);
+
+            assertFalse(ranked.isEmpty(), "Failed iterations should only cost samples");
+            assertTrue(advisor.getFailedIterations() > 0);
+        }
+    }
+
+    @Test
+    void testCancelStopsSearch() {
+        Game game = new Game(Arrays.asList("A", "B"), 1, 4L);
+        try (MctsAdvisor advisor = new MctsAdvisor(1)) {
+            CompletableFuture<List<RankedAction>> hint = advisor.advise(game, 60_000);
+            advisor.cancel();
+            assertTrue(hint.isCancelled());
+            assertThrows(CancellationException.class, hint::join);
+        }
+    }
+}
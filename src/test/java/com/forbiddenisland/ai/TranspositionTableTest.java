@@ -0,0 +1,75 @@
+package com.forbiddenisland.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the lock-free TranspositionTable.
+ */
+class TranspositionTableTest {
+
+    @Test
+    void testPutGetAndReplace() {
+        TranspositionTable table = new TranspositionTable(100);
+        assertEquals(128, table.capacity(), "Capacity should round up to a power of two");
+
+        table.put(0x1234_5678_9ABCL, 42L);
+        assertEquals(42L, table.get(0x1234_5678_9ABCL, -1L));
+        assertEquals(-1L, table.get(0x9999L, -1L), "Unknown positions should miss");
+
+        // Same slot, different hash: the newer entry wins and the old one misses
+        long other = 0x1234_5678_9ABCL + 128;
+        table.put(other, 7L);
+        assertEquals(7L, table.get(other, -1L));
+        assertFalse(table.contains(0x1234_5678_9ABCL));
+    }
+
+    @Test
+    void testConcurrentWritersNeverReturnForeignData() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(64);
+        // Which hash each stored value was written for; values are unique and never negative
+        Map<Long, Long> writtenFor = new ConcurrentHashMap<>();
+        long absent = Long.MIN_VALUE;
+        AtomicLong hits = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final long thread = t;
+            Thread writer = new Thread(() -> {
+                for (long i = 0; i < 20_000; i++) {
+                    long hash = (i * 4 + thread + 1) * 0x9E3779B97F4A7C15L; // never 0, which an empty slot matches
+                    long data = thread << 32 | i; // independent of the hash
+                    writtenFor.put(data, hash);
+                    table.put(hash, data);
+                    // Alternate between the position just written and one another thread has just written
+                    long probe = i % 2 == 0 ? hash : (Math.max(0, i - 1) * 4 + (thread + 1) % 4 + 1) * 0x9E3779B97F4A7C15L;
+                    long found = table.get(probe, absent);
+                    if (found == absent) continue;
+                    hits.incrementAndGet();
+                    Long expected = writtenFor.get(found);
+                    if (expected == null || expected != probe) {
+                        synchronized (failures) {
+                            failures.add(new AssertionError("Data " + found + " returned for " + probe
+                                    + " was written for " + expected));
+                        }
+                        return;
+                    }
+                }
+            });
+            threads.add(writer);
+            writer.start();
+        }
+        for (Thread writer : threads) {
+            writer.join();
+        }
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertTrue(hits.get() > 0, "Some probes should hit, or the check above proves nothing");
+    }
+}
@@ -0,0 +1,112 @@
+package com.forbiddenisland.log;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试GameLog的级别过滤、静默模式、延迟格式化和环形缓冲区
+ */
+class GameLogTest {
+
+    private final List<LogEvent> captured = new CopyOnWriteArrayList<>();
+    private LogLevel previousLevel;
+
+    @BeforeEach
+    void captureEvents() {
+        previousLevel = GameLog.getLevel();
+        GameLog.setLevel(LogLevel.INFO);
+        GameLog.setSink(captured::add);
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        GameLog.flush();
+        GameLog.setLevel(previousLevel);
+        GameLog.setSink(new ConsoleLogSink());
+    }
+
+    @Test
+    void testLevelsAndSilence() {
+        GameLog.debug("TEST", "hidden {}", 1);
+        GameLog.info("TEST", "{} moved to {}.", "Player 1", "Fools' Landing");
+        try (GameLog.Silence outer = GameLog.silence()) {
+            try (GameLog.Silence inner = GameLog.silence()) {
+                GameLog.error("TEST", "silenced");
+            }
+            GameLog.error("TEST", "still silenced");
+        }
+        GameLog.warn("TEST", "after {} of {}", 2, 3);
+        GameLog.flush();
+
+        assertEquals(2, captured.size());
+        assertEquals("Player 1 moved to Fools' Landing.", captured.get(0).getMessage());
+        assertEquals(LogLevel.INFO, captured.get(0).getLevel());
+        assertEquals("after 2 of 3", captured.get(1).getMessage());
+        assertTrue(captured.get(1).format().endsWith(" WARN TEST: after 2 of 3"));
+    }
+
+    @Test
+    void testArgumentsAreFormattedLazily() {
+        int[] calls = new int[1];
+        Object expensive = new Object() {
+            @Override
+            public String toString() {
+                calls[0]++;
+                return "x";
+            }
+        };
+        GameLog.debug("TEST", "value {}", expensive);
+        GameLog.flush();
+        assertEquals(0, calls[0], "Disabled events must not be formatted");
+        assertTrue(captured.isEmpty());
+    }
+
+    @Test
+    void testRingDropsWhenFull() {
+        LogRing ring = new LogRing(5);
+        assertEquals(8, ring.capacity());
+        for (int i = 0; i < 10; i++) {
+            ring.offer(new LogEvent(0, LogLevel.INFO, "TEST", "{}", new Object[]{i}, "t"));
+        }
+        assertEquals(2, ring.dropped());
+        for (int i = 0; i < 8; i++) {
+            assertEquals(String.valueOf(i), ring.poll().getMessage());
+        }
+        assertNull(ring.poll());
+        assertTrue(ring.offer(new LogEvent(0, LogLevel.INFO, "TEST", "again", null, "t")));
+        assertEquals("again", ring.poll().getMessage());
+    }
+
+    @Test
+    void testInterruptedDrainThreadStopsAndRestartsOnDemand() throws InterruptedException {
+        GameLog.info("TEST", "before {}", 1);
+        GameLog.flush();
+        Thread drain = GameLog.drainThread();
+        drain.interrupt();
+        drain.join(2000);
+        assertFalse(drain.isAlive(), "An interrupted drain thread must exit instead of spinning");
+
+        GameLog.info("TEST", "after {}", 2);
+        GameLog.flush();
+        assertEquals("after 2", captured.get(captured.size() - 1).getMessage());
+        assertNotSame(drain, GameLog.drainThread());
+    }
+
+    @Test
+    void testShutdownWritesQueuedEventsAndStopsTheThread() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            GameLog.info("TEST", "event {}", i);
+        }
+        Thread drain = GameLog.drainThread();
+        GameLog.shutdown();
+        assertFalse(drain.isAlive());
+        assertEquals(50, captured.size());
+        assertEquals("event 49", captured.get(49).getMessage());
+    }
+}
@@ -0,0 +1,43 @@
+package com.forbiddenisland.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 启动阶段计时测试：每个阶段只记录第一次，时间相对于进程启动。
+ */
+public class StartupPhasesTest {
+
+    @Test
+    void phasesAreMeasuredFromTheOriginAndKeepTheFirstTime() {
+        StartupPhases phases = new StartupPhases(1_000);
+        assertEquals(0, phases.get(StartupPhases.JVM_START));
+        assertEquals(-1, phases.get(StartupPhases.FIRST_FRAME));
+
+        assertTrue(phases.mark(StartupPhases.FX_START, 1_400));
+        assertTrue(phases.mark(StartupPhases.FIRST_FRAME, 1_650));
+        assertFalse(phases.mark(StartupPhases.FIRST_FRAME, 9_000));
+
+        assertEquals(400, phases.get(StartupPhases.FX_START));
+        assertEquals(650, phases.get(StartupPhases.FIRST_FRAME));
+        assertEquals(250, phases.between(StartupPhases.FX_START, StartupPhases.FIRST_FRAME));
+        assertEquals(-1, phases.between(StartupPhases.BOARD_REQUESTED, StartupPhases.BOARD_INTERACTIVE));
+    }
+
+    @Test
+    void summaryListsPhasesInTheOrderReached() {
+        StartupPhases phases = new StartupPhases(0);
+        phases.mark(StartupPhases.FX_START, 300);
+        phases.mark(StartupPhases.MENU_INTERACTIVE, 700);
+        phases.mark(StartupPhases.PRELOAD_DONE, 500);
+
+        List<String> order = new ArrayList<>(phases.getPhases().keySet());
+        assertEquals(List.of(StartupPhases.JVM_START, StartupPhases.FX_START,
+                StartupPhases.MENU_INTERACTIVE, StartupPhases.PRELOAD_DONE), order);
+        assertEquals("jvm-start 0 ms, fx-start 300 ms, menu-interactive 700 ms, preload-done 500 ms", phases.toString());
+    }
+}
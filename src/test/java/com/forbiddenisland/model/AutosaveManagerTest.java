@@ -0,0 +1,59 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 测试后台自动存档的滚动保留、原子写入与编号延续
+ */
+class AutosaveManagerTest {
+
+    @Test
+    void testKeepsNewestAutosaves(@TempDir Path dir) throws Exception {
+        Game game = new Game(Arrays.asList("A", "B"), 1, 5L);
+        CompletableFuture<Path> last = null;
+        try (AutosaveManager autosaves = new AutosaveManager(dir, 3)) {
+            for (int turn = 0; turn < 7; turn++) {
+                last = autosaves.autosave(game);
+                game.nextTurn();
+            }
+            Path newest = last.get();
+            List<Path> kept = autosaves.listAutosaves();
+            assertEquals(3, kept.size());
+            assertEquals(newest, kept.get(0));
+            assertTrue(newest.getFileName().toString().endsWith("000007" + GameCodec.FILE_EXTENSION));
+        }
+        // 快照在调用时生成：最新存档是第7回合边界时的局面，而不是之后的局面
+        Game loaded = GameLoader.loadGame(dir.resolve("autosave-000007" + GameCodec.FILE_EXTENSION).toString());
+        assertNotNull(loaded);
+        assertEquals(game.getPlayers().get(0).getName(), loaded.getCurrentPlayer().getName());
+
+        String[] leftovers = dir.toFile().list((folder, name) -> name.endsWith(".tmp"));
+        assertEquals(0, leftovers.length);
+
+        // 重启后继续编号，而不是覆盖旧存档
+        try (AutosaveManager restarted = new AutosaveManager(dir, 3)) {
+            Path next = restarted.autosave(game).get();
+            assertTrue(next.getFileName().toString().endsWith("000008" + GameCodec.FILE_EXTENSION));
+        }
+    }
+
+    @Test
+    void testSaveAsWritesTarget(@TempDir Path dir) throws Exception {
+        Game game = new Game(Arrays.asList("A", "B"), 2, 9L);
+        Path target = dir.resolve("nested").resolve("manual" + GameCodec.FILE_EXTENSION);
+        try (AutosaveManager autosaves = new AutosaveManager(dir, 3)) {
+            assertTrue(autosaves.saveAs(game, target).get());
+        }
+        File file = target.toFile();
+        assertTrue(file.isFile());
+        assertEquals(game.getStateHash(), GameCodec.load(file.getPath()).getStateHash());
+    }
+}
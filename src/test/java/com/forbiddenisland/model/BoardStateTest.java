@@ -0,0 +1,145 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 测试BoardState位棋盘的核心功能
+ */
+class BoardStateTest {
+
+    @Test
+    void testPrecomputedNeighborMasks() {
+        // 角落只有两个正交邻居和一个对角邻居
+        assertEquals(2, Long.bitCount(BoardState.getOrthogonalMask(BoardState.index(0, 0))));
+        assertEquals(1, Long.bitCount(BoardState.getDiagonalMask(BoardState.index(0, 0))));
+        // 中间单元格
+        assertEquals(4, Long.bitCount(BoardState.getOrthogonalMask(BoardState.index(2, 2))));
+        assertEquals(4, Long.bitCount(BoardState.getDiagonalMask(BoardState.index(2, 2))));
+        assertEquals(8, Long.bitCount(BoardState.getTwoStepMask(BoardState.index(2, 2))));
+        // 不能跨行回绕
+        assertEquals(0, BoardState.getOrthogonalMask(BoardState.index(0, 5)) & (1L << BoardState.index(1, 0)));
+    }
+
+    @Test
+    void testMasksMirrorGameBoard() {
+        Game game = new Game(Arrays.asList("A", "B"), 1);
+        BoardState board = game.getBoardState();
+        IslandTile[][] grid = game.getGameBoard();
+
+        int tiles = 0;
+        int flooded = 0;
+        for (int r = 0; r < 6; r++) {
+            for (int c = 0; c < 6; c++) {
+                IslandTile tile = grid[r][c];
+                assertEquals(tile != null, board.isPresent(BoardState.index(r, c)));
+                if (tile != null) {
+                    tiles++;
+                    if (tile.isFlooded()) flooded++;
+                    assertArrayEquals(new int[]{r, c}, game.getTileCoordinates(tile));
+                }
+            }
+        }
+        assertEquals(24, tiles);
+        assertEquals(tiles, Long.bitCount(board.getPresentMask()));
+        assertEquals(flooded, Long.bitCount(board.getFloodedMask()));
+
+        for (Player player : game.getPlayers()) {
+            assertTrue(board.isOccupied(board.indexOf(player.getCurrentLocation())));
+        }
+    }
+
+    @Test
+    void testFloodAndShoreUpUpdateMask() {
+        Game game = new Game(Arrays.asList("A", "B"), 1);
+        BoardState board = game.getBoardState();
+        IslandTile tile = game.getGameBoard()[2][0];
+        int index = BoardState.index(2, 0);
+
+        tile.setFlooded(false);
+        assertFalse(board.isFlooded(index));
+        tile.flood();
+        assertTrue(board.isFlooded(index));
+        tile.shoreUp();
+        assertFalse(board.isFlooded(index));
+    }
+
+    @Test
+    void testDiverSwimsThroughFloodedTiles() {
+        BoardState board = new BoardState();
+        List<IslandTile> row = new ArrayList<>();
+        for (int c = 0; c < 6; c++) {
+            IslandTile tile = new IslandTile("Tile " + c);
+            board.place(tile, 2, c);
+            row.add(tile);
+        }
+        row.get(1).flood();
+        row.get(2).flood();
+
+        long reach = board.diverReach(BoardState.index(2, 0));
+        assertTrue((reach & (1L << BoardState.index(2, 3))) != 0, "Diver should cross two flooded tiles");
+        assertEquals(0, reach & (1L << BoardState.index(2, 4)), "Diver cannot continue past a dry tile");
+
+        // 沉没的板块同样可以穿过
+        row.get(3).flood();
+        board.remove(row.get(3));
+        reach = board.diverReach(BoardState.index(2, 0));
+        assertTrue((reach & (1L << BoardState.index(2, 4))) != 0, "Diver should cross a sunk cell");
+        assertFalse(board.contains(row.get(3)));
+    }
+
+    @Test
+    void testPawnOccupancy() {
+        BoardState board = new BoardState();
+        IslandTile a = new IslandTile("A");
+        IslandTile b = new IslandTile("B");
+        board.place(a, 0, 2);
+        board.place(b, 0, 3);
+
+        Pawn pawn = new Pawn("Red", a);
+        assertTrue(board.isOccupied(BoardState.index(0, 2)));
+        pawn.moveTo(b);
+        assertFalse(board.isOccupied(BoardState.index(0, 2)));
+        assertTrue(board.isOccupied(BoardState.index(0, 3)));
+    }
+
+    @Test
+    void testCellVersionsTrackOnlyTheCellsThatChanged() {
+        BoardState board = new BoardState();
+        IslandTile a = new IslandTile("A");
+        IslandTile b = new IslandTile("B");
+        IslandTile c = new IslandTile("C");
+        board.place(a, 0, 2);
+        board.place(b, 0, 3);
+        board.place(c, 1, 2);
+        int ia = BoardState.index(0, 2);
+        int ib = BoardState.index(0, 3);
+        int ic = BoardState.index(1, 2);
+
+        long va = board.getCellVersion(ia);
+        long vb = board.getCellVersion(ib);
+        long vc = board.getCellVersion(ic);
+        Pawn pawn = new Pawn("Red", a);
+        pawn.moveTo(b);
+        assertNotEquals(va, board.getCellVersion(ia));
+        assertNotEquals(vb, board.getCellVersion(ib));
+        assertEquals(vc, board.getCellVersion(ic));
+
+        // 同样的状态重复设置不算变化
+        vc = board.getCellVersion(ic);
+        c.flood();
+        assertNotEquals(vc, board.getCellVersion(ic));
+        vc = board.getCellVersion(ic);
+        c.setFlooded(true);
+        assertEquals(vc, board.getCellVersion(ic));
+
+        vb = board.getCellVersion(ib);
+        board.remove(c);
+        assertNotEquals(vc, board.getCellVersion(ic));
+        assertEquals(vb, board.getCellVersion(ib));
+    }
+}
@@ -0,0 +1,194 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 测试可撤销命令与撤销/重做日志
+ */
+class CommandJournalTest {
+
+    /** 局面哈希之外，再加上哈希不覆盖的牌堆与水位状态 */
+    private static String fingerprint(Game game) {
+        return game.getStateHash() + "/" + game.getFloodDeck().getDrawPileSize() + "/" + game.getFloodDeck().getDiscardPile()
+                + "/" + game.getTreasureDeck().getDiscardPile() + "/" + game.getWaterMeter().getCurrentWaterLevel()
+                + "/" + game.getGameOverReason() + "/" + game.getBoardState().getPresentMask();
+    }
+
+    @Test
+    void testActionUndoRedo() {
+        Game game = new Game(Arrays.asList("A", "B"), 1,
+                Arrays.asList(AdventurerRole.ENGINEER, AdventurerRole.MESSENGER), 3L);
+        CommandJournal journal = new CommandJournal(game);
+        Player engineer = game.getCurrentPlayer();
+        String start = fingerprint(game);
+
+        Set<IslandTile> moves = engineer.getValidMoves(game);
+        assertFalse(moves.isEmpty());
+        IslandTile target = moves.iterator().next();
+        assertTrue(journal.execute(new MoveCommand(engineer, target)));
+        assertSame(target, engineer.getCurrentLocation());
+        String afterMove = fingerprint(game);
+
+        assertNotNull(journal.undo());
+        assertEquals(start, fingerprint(game));
+        assertEquals(3, game.getActionsRemainingInTurn());
+        assertNotNull(journal.redo());
+        assertEquals(afterMove, fingerprint(game));
+        assertFalse(journal.canRedo());
+
+        // 非法命令不改变任何状态，也不进入历史
+        IslandTile far = null;
+        for (int id = 0; id < TileRegistry.TILE_COUNT; id++) {
+            IslandTile tile = game.getIslandTileById(id);
+            if (tile != null && !moves.contains(tile) && tile != target && tile != engineer.getCurrentLocation()) {
+                far = tile;
+            }
+        }
+        assertFalse(journal.execute(new MoveCommand(engineer, far)));
+        assertEquals(1, journal.size());
+        assertEquals(afterMove, fingerprint(game));
+    }
+
+    @Test
+    void testCardCommandsRestoreHandOrder() {
+        Game game = new Game(Arrays.asList("A", "B"), 1,
+                Arrays.asList(AdventurerRole.MESSENGER, AdventurerRole.ENGINEER), 4L);
+        CommandJournal journal = new CommandJournal(game);
+        Player messenger = game.getCurrentPlayer();
+        Player other = game.getPlayers().get(1);
+        IslandTile temple = game.getIslandTileById(TileRegistry.tilesOf(TreasureType.THE_EARTH_STONE)[0]);
+        messenger.getPawn().setCurrentLocation(temple);
+        for (Card dealt : new ArrayList<>(messenger.getHand())) {
+            messenger.removeCardFromHand(dealt);
+        }
+        for (int i = 0; i < 4; i++) {
+            messenger.addCardToHand(new TreasureCard("Earth", TreasureType.THE_EARTH_STONE));
+        }
+        SandbagsCard sandbags = new SandbagsCard();
+        messenger.addCardToHand(sandbags);
+        List<Card> hand = new ArrayList<>(messenger.getHand());
+        String start = fingerprint(game);
+
+        assertTrue(journal.execute(new GiveCardCommand(messenger, other, (TreasureCard) hand.get(0))));
+        temple.flood();
+        String flooded = fingerprint(game);
+        assertTrue(journal.execute(new SandbagsCommand(messenger, sandbags, temple)));
+        assertFalse(temple.isFlooded());
+        assertFalse(journal.execute(new CaptureTreasureCommand(messenger)), "Only three Earth cards left in hand");
+
+        journal.undo();
+        assertEquals(flooded, fingerprint(game));
+        temple.setFlooded(false);
+        journal.undo();
+        assertEquals(start, fingerprint(game));
+        assertEquals(hand, messenger.getHand(), "Hand order must be restored exactly");
+
+        assertTrue(journal.execute(new CaptureTreasureCommand(messenger)));
+        assertTrue(game.isTreasureCollected(TreasureType.THE_EARTH_STONE));
+        journal.undo();
+        assertFalse(game.isTreasureCollected(TreasureType.THE_EARTH_STONE));
+        assertFalse(messenger.getCollectedTreasures().contains(TreasureType.THE_EARTH_STONE));
+        assertEquals(hand, messenger.getHand());
+        assertEquals(start, fingerprint(game));
+    }
+
+    @Test
+    void testFloodDrawsUndoThroughSinkingAndReshuffles() {
+        Game game = new Game(Arrays.asList("A", "B", "C", "D"), 3, 9L);
+        CommandJournal journal = new CommandJournal(game);
+        String start = fingerprint(game);
+
+        List<String> drawn = new ArrayList<>();
+        boolean sank = false;
+        for (int i = 0; i < 60 && !game.checkGameOverConditions(); i++) {
+            FloodDrawCommand draw = new FloodDrawCommand();
+            if (!journal.execute(draw)) break;
+            drawn.add(draw.getCard().getName());
+            sank |= draw.didSink();
+            if (i % 7 == 3) journal.execute(new WatersRiseCommand(new WatersRiseCard()));
+        }
+        assertTrue(sank, "Sixty draws should sink at least one tile");
+        assertEquals(ZobristHash.recompute(game), game.getStateHash());
+        String end = fingerprint(game);
+
+        while (journal.canUndo()) {
+            journal.undo();
+        }
+        assertEquals(start, fingerprint(game));
+        assertEquals(ZobristHash.recompute(game), game.getStateHash());
+
+        // 重做得到完全相同的抽牌顺序
+        List<String> redrawn = new ArrayList<>();
+        while (journal.canRedo()) {
+            GameCommand command = journal.redo();
+            if (command instanceof FloodDrawCommand) {
+                redrawn.add(((FloodDrawCommand) command).getCard().getName());
+            }
+        }
+        assertEquals(drawn, redrawn);
+        assertEquals(end, fingerprint(game));
+    }
+
+    @Test
+    void testAttachedJournalUndoesWholeTurns() {
+        Game game = new Game(Arrays.asList("A", "B"), 1, 4L);
+        // 只在摸牌堆留三张牌，第二回合的宝藏摸牌就要洗回弃牌堆
+        Deck<Card> treasureDeck = game.getTreasureDeck();
+        List<Card> pile = new ArrayList<>(treasureDeck.getDrawPile());
+        treasureDeck.restoreDrawPile(pile.subList(pile.size() - 3, pile.size()));
+        treasureDeck.restoreDiscardPile(pile.subList(0, pile.size() - 3));
+        CommandJournal journal = new CommandJournal(game);
+        journal.attach();
+        String start = turnFingerprint(game);
+
+        // 命令直接在游戏上执行，不经过日志；摸牌、弃牌和换人同样以命令运行
+        boolean reshuffled = false;
+        for (int turn = 0; turn < 20 && !game.checkGameOverConditions(); turn++) {
+            Player player = game.getCurrentPlayer();
+            for (IslandTile tile : player.getValidMoves(game)) {
+                new MoveCommand(player, tile).execute(game);
+                break;
+            }
+            int discards = treasureDeck.getDiscardPileSize();
+            game.runTurn();
+            reshuffled |= treasureDeck.getDiscardPileSize() < discards;
+            while (player.isHandOverLimit()) {
+                assertTrue(game.discardFromHand(player, player.getHand().get(0)));
+            }
+        }
+        assertTrue(reshuffled, "The second treasure draw should reshuffle the discard pile");
+        String end = turnFingerprint(game);
+
+        while (journal.canUndo()) {
+            journal.undo();
+        }
+        assertEquals(start, turnFingerprint(game));
+        assertEquals(ZobristHash.recompute(game), game.getStateHash());
+
+        while (journal.canRedo()) {
+            assertNotNull(journal.redo());
+        }
+        assertEquals(end, turnFingerprint(game));
+
+        int recorded = journal.size();
+        journal.detach();
+        game.nextTurn();
+        assertEquals(recorded, journal.size(), "A detached journal only records what it executes");
+    }
+
+    /** 在存档指纹之外，加上回合数、行动点和各随机流的位置 */
+    private static String turnFingerprint(Game game) {
+        StringBuilder streams = new StringBuilder();
+        for (GameRandom stream : game.getRandomStreams()) {
+            streams.append(stream.getState()).append(',');
+        }
+        return GameCodecTest.fingerprint(game) + "/" + game.getTurnNumber() + "/" + game.getActionsRemainingInTurn()
+                + "/" + game.getCurrentPlayer().isPilotAbilityUsedThisTurn() + "/" + streams;
+    }
+}
@@ -0,0 +1,125 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 测试紧凑二进制存档格式的编码、解码与校验
+ */
+class GameCodecTest {
+
+    /** 局面哈希之外，再加上哈希不覆盖的牌堆顺序、板块布局和回合状态 */
+    static String fingerprint(Game game) {
+        List<String> hands = new ArrayList<>();
+        for (Player player : game.getPlayers()) {
+            hands.add(player.getName() + ":" + player.getRole() + ":" + player.getPawn().getCurrentTileId()
+                    + ":" + names(player.getHand()) + ":" + player.getCollectedTreasures());
+        }
+        BoardState board = game.getBoardState();
+        return game.getStateHash() + "/" + board.getPresentMask() + "/" + board.getFloodedMask()
+                + "/" + names(game.getTreasureDeck().getDrawPile()) + "/" + names(game.getTreasureDeck().getDiscardPile())
+                + "/" + names(game.getFloodDeck().getDrawPile()) + "/" + names(game.getFloodDeck().getDiscardPile())
+                + "/" + hands + "/" + game.getCurrentPlayer().getName() + "/" + game.getCurrentPhase()
+                + "/" + game.getWaterMeter().getCurrentWaterLevel() + "/" + game.getGameOverReason();
+    }
+
+    private static List<String> names(List<? extends Card> cards) {
+        List<String> names = new ArrayList<>();
+        for (Card card : cards) names.add(card.getName());
+        return names;
+    }
+
+    private static Game playedGame() {
+        Game game = new Game(Arrays.asList("A", "B", "C"), 2, 11L);
+        for (int turn = 0; turn < 4 && !game.checkGameOverConditions(); turn++) {
+            Player player = game.getCurrentPlayer();
+            for (IslandTile tile : player.getValidMoves(game)) {
+                player.moveTo(tile);
+                break;
+            }
+            game.runTurn();
+        }
+        return game;
+    }
+
+    @Test
+    void testRoundTripKeepsPositionAndRandomStreams() throws IOException {
+        Game original = playedGame();
+        Game loaded = GameCodec.decode(GameCodec.encode(original));
+
+        assertEquals(fingerprint(original), fingerprint(loaded));
+        assertEquals(ZobristHash.recompute(loaded), loaded.getStateHash());
+        assertEquals(original.getBoardState().getReachability().moveTargets(AdventurerRole.DIVER, 14, false),
+                loaded.getBoardState().getReachability().moveTargets(AdventurerRole.DIVER, 14, false));
+
+        // 随机流的位置也被恢复，之后的回合完全相同
+        original.runTurn();
+        loaded.runTurn();
+        assertEquals(fingerprint(original), fingerprint(loaded));
+    }
+
+    @Test
+    void testRejectsDamagedData() {
+        byte[] data = GameCodec.encode(playedGame());
+        byte[] flipped = data.clone();
+        flipped[20] ^= 1;
+        assertThrows(IOException.class, () -> GameCodec.decode(flipped));
+
+        byte[] newer = data.clone();
+        newer[4] = (byte) (GameCodec.FORMAT_VERSION + 1);
+        assertThrows(IOException.class, () -> GameCodec.decode(newer));
+    }
+
+    /** 用新的正文替换存档正文，并重新计算长度和校验和 */
+    private static byte[] withBody(byte[] data, int version, byte[] body) {
+        ByteBuffer out = ByteBuffer.allocate(body.length + 13);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        out.put(data, 0, 4).put((byte) version).putInt(body.length).put(body).putInt((int) crc.getValue());
+        return out.array();
+    }
+
+    @Test
+    void testRandomStreamCount() throws IOException {
+        Game game = playedGame();
+        byte[] data = GameCodec.encode(game);
+        byte[] body = Arrays.copyOfRange(data, 9, data.length - 4);
+        int countAt = Long.BYTES + Short.BYTES + Long.BYTES; // 保存时间、回合数、种子之后
+        assertEquals(game.getRandomStreams().length, body[countAt]);
+
+        // 版本 2 的存档没有数量字节
+        byte[] version2 = new byte[body.length - 1];
+        System.arraycopy(body, 0, version2, 0, countAt);
+        System.arraycopy(body, countAt + 1, version2, countAt, body.length - countAt - 1);
+        assertEquals(fingerprint(game), fingerprint(GameCodec.decode(withBody(data, 2, version2))));
+
+        byte[] extraStream = body.clone();
+        extraStream[countAt]++;
+        assertThrows(IOException.class, () -> GameCodec.decode(withBody(data, 3, extraStream)));
+    }
+
+    @Test
+    void testLoaderReadsBothFormats(@TempDir Path dir) {
+        Game game = playedGame();
+        String compact = dir.resolve("game" + GameCodec.FILE_EXTENSION).toString();
+        String legacy = dir.resolve("game.sav").toString();
+        assertTrue(GameCodec.save(game, compact));
+        game.saveGame(legacy);
+
+        assertTrue(GameCodec.isCompactSave(compact));
+        assertFalse(GameCodec.isCompactSave(legacy));
+        assertEquals(fingerprint(game), fingerprint(GameLoader.loadGame(compact)));
+        assertEquals(fingerprint(game), fingerprint(GameLoader.loadGame(legacy)));
+        assertTrue(dir.resolve("game" + GameCodec.FILE_EXTENSION).toFile().length()
+                < dir.resolve("game.sav").toFile().length() / 10);
+    }
+}
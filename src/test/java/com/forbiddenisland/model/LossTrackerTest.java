@@ -0,0 +1,47 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+/**
+ * 测试事件驱动的失败条件追踪器
+ */
+class LossTrackerTest {
+
+    @Test
+    void testTreasureLostOnlyWhenUncollected() {
+        LossTracker tracker = new LossTracker();
+        int[] earth = TileRegistry.tilesOf(TreasureType.THE_EARTH_STONE);
+        tracker.tileSunk(earth[0], false);
+        assertNull(tracker.getReason(), "One sunk tile should not end the game");
+        tracker.tileSunk(earth[1], false);
+        assertEquals(GameOverReason.TREASURE_TILES_SUNK, tracker.getReason());
+        assertEquals(TreasureType.THE_EARTH_STONE, tracker.getLostTreasure());
+
+        LossTracker collected = new LossTracker();
+        int[] fire = TileRegistry.tilesOf(TreasureType.THE_CRYSTAL_OF_FIRE);
+        collected.tileSunk(fire[0], true);
+        collected.tileSunk(fire[1], true);
+        assertNull(collected.getReason(), "Sinking a collected treasure's tiles is harmless");
+    }
+
+    @Test
+    void testFirstReasonIsKept() {
+        LossTracker tracker = new LossTracker();
+        tracker.tileSunk(TileRegistry.FOOLS_LANDING, false);
+        WaterMeter meter = new WaterMeter(1, 2, new int[]{2, 2});
+        meter.increaseWaterLevel();
+        tracker.waterLevelChanged(meter);
+        assertEquals(GameOverReason.FOOLS_LANDING_SUNK, tracker.getReason());
+    }
+
+    @Test
+    void testNewGameIsNotOver() {
+        Game game = new Game(Arrays.asList("A", "B"), 1, 21L);
+        assertFalse(game.checkGameOverConditions());
+        assertNull(game.getGameOverReason());
+        assertFalse(game.checkWinConditions());
+    }
+}
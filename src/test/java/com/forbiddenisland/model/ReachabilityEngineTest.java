@@ -0,0 +1,82 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试ReachabilityEngine的移动规则与按版本缓存
+ */
+class ReachabilityEngineTest {
+
+    private static long bit(int r, int c) {
+        return 1L << BoardState.index(r, c);
+    }
+
+    /** 第2行放满板块，(3,0) 再放一块 */
+    private static BoardState rowBoard(IslandTile[] row) {
+        BoardState board = new BoardState();
+        for (int c = 0; c < 6; c++) {
+            row[c] = new IslandTile("Tile " + c);
+            board.place(row[c], 2, c);
+        }
+        board.place(new IslandTile("Below"), 3, 0);
+        return board;
+    }
+
+    @Test
+    void testRoleMoveTargets() {
+        BoardState board = rowBoard(new IslandTile[6]);
+        ReachabilityEngine engine = board.getReachability();
+        int from = BoardState.index(2, 1);
+
+        assertEquals(bit(2, 0) | bit(2, 2), engine.moveTargets(AdventurerRole.MESSENGER, from, false));
+        assertEquals(bit(2, 0) | bit(2, 2) | bit(3, 0), engine.moveTargets(AdventurerRole.EXPLORER, from, false));
+        long pilot = engine.moveTargets(AdventurerRole.PILOT, from, true);
+        assertEquals(6, Long.bitCount(pilot));
+        assertEquals(0, pilot & bit(2, 1), "A pawn never moves onto its own tile");
+        assertEquals(bit(2, 0) | bit(2, 2), engine.moveTargets(AdventurerRole.PILOT, from, false));
+        // 领航员最多两步，不含起点
+        assertEquals(bit(2, 0) | bit(2, 2) | bit(2, 3) | bit(3, 0),
+                engine.navigatorTargets(from));
+    }
+
+    @Test
+    void testCacheInvalidatedOnlyByTileChanges() {
+        IslandTile[] row = new IslandTile[6];
+        BoardState board = rowBoard(row);
+        ReachabilityEngine engine = board.getReachability();
+        int from = BoardState.index(2, 0);
+
+        long before = engine.moveTargets(AdventurerRole.DIVER, from, false);
+        long computed = engine.getComputedCount();
+        engine.moveTargets(AdventurerRole.DIVER, from, false);
+        new Pawn("Red", row[0]).moveTo(row[1]);
+        engine.moveTargets(AdventurerRole.DIVER, from, false);
+        assertEquals(computed, engine.getComputedCount(), "Pawn moves must not invalidate the cache");
+
+        row[1].flood();
+        long after = engine.moveTargets(AdventurerRole.DIVER, from, false);
+        assertTrue(engine.getComputedCount() > computed);
+        assertEquals(before | bit(2, 2), after, "Diver now reaches through the flooded tile");
+
+        row[1].shoreUp();
+        assertEquals(before, engine.moveTargets(AdventurerRole.DIVER, from, false));
+    }
+
+    @Test
+    void testSwimTargets() {
+        IslandTile[] row = new IslandTile[6];
+        BoardState board = rowBoard(row);
+        ReachabilityEngine engine = board.getReachability();
+
+        // (2,1)..(2,3) 沉没后，(2,2) 上的潜水员应游到最近的板块
+        for (int c = 1; c <= 3; c++) {
+            board.remove(row[c]);
+        }
+        int from = BoardState.index(2, 2);
+        assertEquals(0, engine.swimTargets(AdventurerRole.ENGINEER, from));
+        assertEquals(0, engine.swimTargets(AdventurerRole.EXPLORER, from));
+        assertEquals(bit(2, 0) | bit(2, 4) | bit(2, 5) | bit(3, 0), engine.swimTargets(AdventurerRole.PILOT, from));
+        assertEquals(bit(2, 0) | bit(2, 4) | bit(3, 0), engine.swimTargets(AdventurerRole.DIVER, from));
+    }
+}
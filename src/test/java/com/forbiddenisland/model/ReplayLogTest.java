@@ -0,0 +1,127 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 测试回放记录、检查点跳转与逐步回放
+ */
+class ReplayLogTest {
+
+    /** 通过命令、撤销、摸牌和弃牌进行若干回合，返回每个回合开始时的局面指纹 */
+    private static List<String> playRecorded(Game game, int turns) {
+        List<String> fingerprints = new ArrayList<>();
+        fingerprints.add(GameCodecTest.fingerprint(game));
+        CommandJournal journal = new CommandJournal(game);
+        for (int turn = 0; turn < turns && !game.checkGameOverConditions(); turn++) {
+            Player player = game.getCurrentPlayer();
+            for (IslandTile tile : player.getValidMoves(game)) {
+                if (journal.execute(new MoveCommand(player, tile))) break;
+            }
+            journal.undo();
+            for (IslandTile tile : player.getValidMoves(game)) {
+                if (journal.execute(new MoveCommand(player, tile))) break;
+            }
+            journal.execute(new FloodDrawCommand());
+            journal.clear();
+
+            game.setCurrentPhase(Game.GamePhase.DRAW_TREASURE_CARDS_PHASE);
+            game.playerDrawsTreasureCards();
+            while (player.isHandOverLimit()) {
+                game.discardFromHand(player, player.getHand().get(0));
+            }
+            game.setCurrentPhase(Game.GamePhase.DRAW_FLOOD_CARDS_PHASE);
+            game.playerDrawsFloodCards_REVISED();
+            if (game.checkGameOverConditions()) break;
+            game.nextTurn();
+            fingerprints.add(GameCodecTest.fingerprint(game));
+        }
+        return fingerprints;
+    }
+
+    @Test
+    void testSeekReproducesEveryTurn(@TempDir Path dir) throws IOException {
+        Game game = new Game(Arrays.asList("A", "B", "C"), 1, 5L);
+        Path file = dir.resolve("game" + ReplayRecorder.FILE_EXTENSION);
+        List<String> expected;
+        try (ReplayRecorder recorder = new ReplayRecorder(game, file, 3)) {
+            expected = playRecorded(game, 12);
+        }
+        assertNull(game.getReplayRecorder());
+
+        ReplayLog log = ReplayLog.read(file);
+        assertEquals(expected.size() - 1, log.getTurnCount());
+        ReplayPlayer player = new ReplayPlayer(log);
+        // 向后、向前以及跨检查点跳转
+        int[] order = {log.getTurnCount(), 0, 4, 2, 7, log.getTurnCount() - 1, 1};
+        for (int turn : order) {
+            player.seek(turn);
+            assertEquals(turn, player.getTurn());
+            assertEquals(expected.get(turn), GameCodecTest.fingerprint(player.getGame()), "turn " + turn);
+        }
+    }
+
+    @Test
+    void testStepKeepsGameAndEndsWithRecording(@TempDir Path dir) throws IOException {
+        Game game = new Game(Arrays.asList("A", "B"), 2, 9L);
+        Path file = dir.resolve("game" + ReplayRecorder.FILE_EXTENSION);
+        try (ReplayRecorder recorder = new ReplayRecorder(game, file, 4)) {
+            playRecorded(game, 6);
+        }
+
+        ReplayPlayer player = new ReplayPlayer(ReplayLog.read(file));
+        Game replayed = player.getGame();
+        int steps = 0;
+        while (player.step()) steps++;
+        assertTrue(steps > 0);
+        assertSame(replayed, player.getGame()); // 逐步回放不更换游戏对象
+        assertTrue(player.isAtEnd());
+        assertEquals(GameCodecTest.fingerprint(game), GameCodecTest.fingerprint(replayed));
+    }
+
+    @Test
+    void testWatersRiseCommandIsRecordedAndReplayed(@TempDir Path dir) throws IOException {
+        Game game = new Game(Arrays.asList("A", "B"), 1, 21L);
+        Path file = dir.resolve("game" + ReplayRecorder.FILE_EXTENSION);
+        try (ReplayRecorder recorder = new ReplayRecorder(game, file, 2)) {
+            CommandJournal journal = new CommandJournal(game);
+            journal.execute(new FloodDrawCommand());
+            journal.execute(new WatersRiseCommand(new WatersRiseCard()));
+            journal.undo();
+            journal.redo();
+            journal.execute(new FloodDrawCommand()); // 洗回的牌之一
+            game.nextTurn();
+        }
+        assertEquals(2, game.getWaterMeter().getCurrentWaterLevel());
+
+        ReplayPlayer player = new ReplayPlayer(ReplayLog.read(file));
+        List<String> events = new ArrayList<>();
+        while (player.step()) events.add(player.getLastEvent());
+        assertTrue(events.contains("Waters Rise!"), events.toString());
+        assertTrue(events.contains("Undo Waters Rise!"), events.toString());
+        assertEquals(1, player.getTurn()); // 记录在洪水上涨之后没有停止
+        assertEquals(GameCodecTest.fingerprint(game), GameCodecTest.fingerprint(player.getGame()));
+    }
+
+    @Test
+    void testTruncatedTailIsIgnored(@TempDir Path dir) throws IOException {
+        Game game = new Game(Arrays.asList("A", "B"), 2, 3L);
+        Path file = dir.resolve("game" + ReplayRecorder.FILE_EXTENSION);
+        try (ReplayRecorder recorder = new ReplayRecorder(game, file, 2)) {
+            playRecorded(game, 3);
+        }
+        byte[] data = Files.readAllBytes(file);
+        ReplayLog whole = ReplayLog.parse(data);
+        ReplayLog cut = ReplayLog.parse(Arrays.copyOf(data, data.length - 1));
+        assertEquals(whole.size() - 1, cut.size());
+        assertThrows(IOException.class, () -> ReplayLog.parse(new byte[]{'F', 'I', 'S', 'V', 1, 1}));
+    }
+}
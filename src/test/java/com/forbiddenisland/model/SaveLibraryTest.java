@@ -0,0 +1,95 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测试存档库索引的读取、增量更新与目录监视
+ */
+class SaveLibraryTest {
+
+    private static Game game(long seed, int turns, String... names) {
+        Game game = new Game(Arrays.asList(names), 2, seed);
+        for (int i = 0; i < turns; i++) game.nextTurn();
+        return game;
+    }
+
+    @Test
+    void testIndexAvoidsRereadingUnchangedSaves(@TempDir Path dir) throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(GameCodec.save(game(i, i % 5, "P" + i, "Q"), dir.resolve("save" + i + GameCodec.FILE_EXTENSION).toString()));
+        }
+        game(99, 3, "Legacy", "Player").saveGame(dir.resolve("old.sav").toString());
+
+        SaveLibrary first = new SaveLibrary(dir);
+        first.refresh();
+        assertEquals(21, first.list().size());
+        assertEquals(21, first.getSummariesRead());
+        assertTrue(Files.isRegularFile(dir.resolve(SaveLibrary.INDEX_FILE)));
+
+        SaveSummary save = first.search("P7").get(0);
+        assertEquals(Arrays.asList("P7", "Q"), save.getPlayerNames());
+        assertEquals(2, save.getTurn());
+        assertEquals(2, save.getWaterLevel());
+        assertTrue(save.isCompact());
+        Game loaded = GameCodec.load(first.resolve(save).toString());
+        assertEquals(loaded.getPlayers().get(0).getRole(), save.getRoles().get(0));
+        assertEquals(3, first.search("legacy").get(0).getTurn());
+
+        // 新实例只读取索引，不再读取任何存档
+        SaveLibrary second = new SaveLibrary(dir);
+        second.refresh();
+        assertEquals(0, second.getSummariesRead());
+        assertEquals(21, second.list().size());
+        assertEquals(Arrays.asList("P7", "Q"), second.search("P7").get(0).getPlayerNames());
+        assertEquals(save.getRoles(), second.search("P7").get(0).getRoles());
+
+        // 只重新读取变化的存档，删除的存档从列表中移除
+        Files.delete(dir.resolve("save3" + GameCodec.FILE_EXTENSION));
+        Path changed = dir.resolve("save4" + GameCodec.FILE_EXTENSION);
+        GameCodec.save(game(4, 9, "Renamed", "Q"), changed.toString());
+        Files.setLastModifiedTime(changed, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        second.refresh();
+        assertEquals(1, second.getSummariesRead());
+        assertEquals(20, second.list().size());
+        assertEquals(9, second.search("renamed").get(0).getTurn());
+    }
+
+    @Test
+    void testIndexKeepsTurnsAbove32767(@TempDir Path dir) throws Exception {
+        Game game = game(5, 0, "Long", "Game");
+        game.restoreTurnNumber(40000);
+        assertTrue(GameCodec.save(game, dir.resolve("long" + GameCodec.FILE_EXTENSION).toString()));
+        new SaveLibrary(dir).refresh();
+
+        SaveLibrary indexed = new SaveLibrary(dir);
+        indexed.refresh();
+        assertEquals(0, indexed.getSummariesRead());
+        assertEquals(40000, indexed.list().get(0).getTurn());
+        Files.delete(dir.resolve(SaveLibrary.INDEX_FILE)); // 读取后不再占用索引文件
+    }
+
+    @Test
+    void testWatchPicksUpNewSaves(@TempDir Path dir) throws Exception {
+        CountDownLatch changed = new CountDownLatch(1);
+        try (SaveLibrary library = new SaveLibrary(dir)) {
+            library.refresh();
+            library.watch(changed::countDown);
+            GameCodec.save(game(1, 1, "Watcher", "Q"), dir.resolve("new" + GameCodec.FILE_EXTENSION).toString());
+
+            assertTrue(changed.await(20, TimeUnit.SECONDS));
+            List<SaveSummary> found = library.search("watcher");
+            assertEquals(1, found.size());
+            assertEquals(1, found.get(0).getTurn());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 测试TileRegistry的板块ID映射
+ */
+class TileRegistryTest {
+
+    @Test
+    void testIdsAreDenseAndRoundTrip() {
+        Set<String> names = new HashSet<>();
+        for (int id = 0; id < TileRegistry.TILE_COUNT; id++) {
+            String name = TileRegistry.nameOf(id);
+            assertTrue(names.add(name), "Tile names should be unique");
+            assertEquals(id, TileRegistry.idOf(name));
+        }
+        assertEquals(TileRegistry.NO_TILE, TileRegistry.idOf("起始板块"));
+    }
+
+    @Test
+    void testTreasureAndStartingTiles() {
+        for (TreasureType type : TreasureType.values()) {
+            for (int id : TileRegistry.tilesOf(type)) {
+                assertEquals(type, TileRegistry.treasureOf(id));
+            }
+        }
+        assertEquals(TileRegistry.FOOLS_LANDING, TileRegistry.startingTileOf(AdventurerRole.PILOT));
+        assertNull(TileRegistry.treasureOf(TileRegistry.FOOLS_LANDING));
+    }
+
+    @Test
+    void testModelReferencesTilesById() {
+        Game game = new Game(Arrays.asList("A", "B"), 1);
+        for (int id = 0; id < TileRegistry.TILE_COUNT; id++) {
+            IslandTile tile = game.getIslandTileById(id);
+            assertNotNull(tile);
+            assertEquals(id, tile.getId());
+            assertSame(tile, game.getIslandTileByName(TileRegistry.nameOf(id)));
+        }
+        for (Player player : game.getPlayers()) {
+            assertEquals(TileRegistry.startingTileOf(player.getRole()), player.getPawn().getCurrentTileId());
+        }
+        assertEquals(TileRegistry.CORAL_PALACE, new FloodCard("Coral Palace").getIslandTileId());
+    }
+}
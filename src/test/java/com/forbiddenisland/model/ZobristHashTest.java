@@ -0,0 +1,52 @@
+package com.forbiddenisland.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+/**
+ * 测试增量Zobrist哈希与从头计算的结果一致
+ */
+class ZobristHashTest {
+
+    @Test
+    void testIncrementalMatchesRecompute() {
+        Game game = new Game(Arrays.asList("A", "B", "C", "D"), 2, 11L);
+        assertEquals(ZobristHash.recompute(game), game.getStateHash());
+        for (int turn = 0; turn < 12 && !game.checkGameOverConditions(); turn++) {
+            game.runTurn();
+            assertEquals(ZobristHash.recompute(game), game.getStateHash(), "Hash drifted on turn " + turn);
+        }
+    }
+
+    @Test
+    void testChangesAreReversible() {
+        Game game = new Game(Arrays.asList("A", "B"), 1, 5L);
+        long before = game.getStateHash();
+        IslandTile tile = null;
+        for (int id = 0; id < TileRegistry.TILE_COUNT && tile == null; id++) {
+            IslandTile candidate = game.getIslandTileById(id);
+            if (candidate != null && !candidate.isFlooded()) tile = candidate;
+        }
+        assertNotNull(tile);
+
+        tile.flood();
+        assertNotEquals(before, game.getStateHash(), "Flooding should change the hash");
+        tile.shoreUp();
+        assertEquals(before, game.getStateHash(), "Shoring up should restore the hash");
+
+        Player player = game.getPlayers().get(0);
+        IslandTile start = player.getCurrentLocation();
+        player.getPawn().setCurrentLocation(tile);
+        assertNotEquals(before, game.getStateHash(), "Moving should change the hash");
+        player.getPawn().setCurrentLocation(start);
+        assertEquals(before, game.getStateHash());
+
+        Card card = new SandbagsCard();
+        player.addCardToHand(card);
+        assertNotEquals(before, game.getStateHash(), "Drawing should change the hash");
+        player.removeCardFromHand(card);
+        assertEquals(before, game.getStateHash());
+    }
+}
@@ -0,0 +1,64 @@
+package com.forbiddenisland.simulation;
+
+import com.forbiddenisland.model.AdventurerRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the headless GameSimulator.
+ */
+class GameSimulatorTest {
+
+    @Test
+    void testBatchPlaysEveryGame() {
+        GameSimulator simulator = new GameSimulator(List.of(new GreedyActionPolicy()), 2);
+        SimulationReport report = simulator.runBatch(40, 4, 2);
+
+        assertEquals(40, report.getGamesPlayed(), "Every requested game should be played");
+        long total = 0;
+        for (GameOutcome outcome : GameOutcome.values()) {
+            total += report.getOutcomeCount(outcome);
+        }
+        assertEquals(40, total, "Every game should have exactly one outcome");
+        assertTrue(report.getGamesPerSecond() > 0, "Throughput should be reported");
+    }
+
+    @Test
+    void testFixedRolesAreBucketedTogether() {
+        GameSimulator simulator = new GameSimulator(List.of(new GreedyActionPolicy()));
+        List<AdventurerRole> roles = List.of(AdventurerRole.PILOT, AdventurerRole.DIVER);
+        SimulationReport report = simulator.runBatch(20, 1, roles);
+
+        assertEquals(1, report.getOutcomesByCombination().size(), "A fixed line-up should produce one bucket");
+        assertTrue(report.getOutcomesByCombination().containsKey("Level 1 | DIVER+PILOT"));
+    }
+
+    @Test
+    void testTurnLimitEndsGame() {
+        GameSimulator simulator = new GameSimulator(List.of((game, player) -> { }));
+        simulator.setMaxTurns(1);
+        SimulationReport report = simulator.runBatch(5, 2, 1);
+
+        assertEquals(5, report.getGamesPlayed());
+        assertTrue(report.getAverageTurns() <= 1.0, "No game should run past the turn limit");
+    }
+
+    @Test
+    void testSeededBatchesAreReproducible() {
+        GameSimulator first = new GameSimulator(List.of(new GreedyActionPolicy()), 2);
+        GameSimulator second = new GameSimulator(List.of(new GreedyActionPolicy()), 1);
+        first.setSeed(99L);
+        second.setSeed(99L);
+        SimulationReport a = first.runBatch(30, 3, 2);
+        SimulationReport b = second.runBatch(30, 3, 2);
+
+        assertEquals(a.getOutcomesByCombination().keySet(), b.getOutcomesByCombination().keySet());
+        for (GameOutcome outcome : GameOutcome.values()) {
+            assertEquals(a.getOutcomeCount(outcome), b.getOutcomeCount(outcome));
+        }
+        assertEquals(a.getAverageTurns(), b.getAverageTurns(), 1e-9, "Thread count should not change the games");
+    }
+}
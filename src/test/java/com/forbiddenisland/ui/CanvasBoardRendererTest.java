@@ -0,0 +1,38 @@
+package com.forbiddenisland.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 画布棋盘测试：点击坐标到格子的换算和渲染模式解析。
+ */
+public class CanvasBoardRendererTest {
+
+    @Test
+    void clicksMapToTheCellUnderThePointer() {
+        // Cells are 120px tiles with a 3px margin, 134px apart
+        assertArrayEquals(new int[]{0, 0}, CanvasBoardRenderer.cellAt(3, 3));
+        assertArrayEquals(new int[]{0, 0}, CanvasBoardRenderer.cellAt(122.9, 122.9));
+        assertArrayEquals(new int[]{2, 1}, CanvasBoardRenderer.cellAt(134 + 60, 2 * 134 + 60));
+        assertArrayEquals(new int[]{5, 5}, CanvasBoardRenderer.cellAt(5 * 134 + 100, 5 * 134 + 100));
+    }
+
+    @Test
+    void clicksBetweenTilesOrOffTheBoardHitNothing() {
+        assertNull(CanvasBoardRenderer.cellAt(1, 50));     // left margin
+        assertNull(CanvasBoardRenderer.cellAt(128, 50));   // gap between columns 0 and 1
+        assertNull(CanvasBoardRenderer.cellAt(50, 130));   // gap between rows 0 and 1
+        assertNull(CanvasBoardRenderer.cellAt(-5, 50));
+        assertNull(CanvasBoardRenderer.cellAt(50, 6 * 134 + 10));
+    }
+
+    @Test
+    void renderModeParsesSettingsAndFallsBack() {
+        assertEquals(GameBoardView.RenderMode.CANVAS, GameBoardView.RenderMode.parse("canvas", GameBoardView.RenderMode.NODES));
+        assertEquals(GameBoardView.RenderMode.CANVAS, GameBoardView.RenderMode.parse(" Fast ", GameBoardView.RenderMode.NODES));
+        assertEquals(GameBoardView.RenderMode.NODES, GameBoardView.RenderMode.parse("nodes", GameBoardView.RenderMode.CANVAS));
+        assertEquals(GameBoardView.RenderMode.NODES, GameBoardView.RenderMode.parse(null, GameBoardView.RenderMode.NODES));
+        assertEquals(GameBoardView.RenderMode.NODES, GameBoardView.RenderMode.parse("webgl", GameBoardView.RenderMode.NODES));
+    }
+}
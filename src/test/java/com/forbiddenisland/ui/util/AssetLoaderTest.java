@@ -0,0 +1,87 @@
+package com.forbiddenisland.ui.util;
+
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 图片缓存测试：按路径和尺寸缓存、后台预加载、内存预算和软引用。
+ */
+public class AssetLoaderTest {
+
+    @Test
+    void cachesByPathAndSize() {
+        AssetLoader loader = new AssetLoader(AssetLoader.DEFAULT_BUDGET_BYTES);
+        String path = AssetLoader.pawnImagePath(1);
+
+        Image small = loader.getImage(path, 30, 30);
+        assertNotNull(small);
+        assertEquals(30, small.getWidth(), 0.5);
+        assertSame(small, loader.getImage(path, 30, 30));
+
+        Image large = loader.getImage(path, 40, 40);
+        assertNotSame(small, large);
+        assertEquals(40, large.getWidth(), 0.5);
+
+        assertNull(loader.getImage("/images/pawns/missing.png"));
+
+        AssetLoader.Stats stats = loader.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(3, stats.getMisses());
+        assertEquals(1, stats.getFailures());
+        assertEquals(2, stats.getImages());
+        assertEquals((30 * 30 + 40 * 40) * 4, stats.getBytes());
+        assertTrue(stats.getDecodeMillis() > 0);
+    }
+
+    @Test
+    void preloadDecodesInTheBackgroundSoLaterRequestsHit() {
+        AssetLoader loader = new AssetLoader(AssetLoader.DEFAULT_BUDGET_BYTES);
+        loader.preload(24, 24, AssetLoader.pawnImagePaths()).join();
+
+        assertEquals(AssetLoader.PAWN_IMAGE_COUNT, loader.getStats().getImages());
+        assertNotNull(loader.getImage(AssetLoader.pawnImagePath(3), 24, 24));
+        assertEquals(1, loader.getStats().getHits());
+        assertEquals(AssetLoader.PAWN_IMAGE_COUNT, loader.getStats().getMisses());
+    }
+
+    @Test
+    void imagesOverBudgetStayReachableWhileInUse() {
+        // Room for one 30x30 image; the older one is only held softly after that
+        AssetLoader loader = new AssetLoader(30 * 30 * 4);
+        Image first = loader.getImage(AssetLoader.pawnImagePath(1), 30, 30);
+        Image second = loader.getImage(AssetLoader.pawnImagePath(2), 30, 30);
+
+        AssetLoader.Stats stats = loader.getStats();
+        assertEquals(1, stats.getImages());
+        assertEquals(1, stats.getSoftImages());
+
+        // Still strongly held by this test, so the soft reference cannot have been cleared
+        assertSame(first, loader.getImage(AssetLoader.pawnImagePath(1), 30, 30));
+        assertEquals(2, loader.getStats().getMisses());
+        assertEquals(1, loader.getStats().getSoftImages());
+        assertNotNull(second);
+    }
+
+    @Test
+    void failedDecodeReleasesWaitingRequests() {
+        // An atlas whose texture cannot be read: every cut from it throws
+        SpriteAtlas broken = new SpriteAtlas(40, 40,
+                Collections.singletonList(new SpriteAtlas.Sprite("pawns/1", 40, 0, 0, 40, 40)),
+                () -> {
+                    throw new IllegalStateException("corrupt atlas");
+                });
+        AssetLoader loader = new AssetLoader(AssetLoader.DEFAULT_BUDGET_BYTES, broken);
+        String path = AssetLoader.pawnImagePath(1);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertNull(loader.getImage(path, 40, 40));
+            assertNull(loader.getImage(path, 40, 40)); // retried, not stuck on the first decode
+        });
+        assertEquals(2, loader.getStats().getFailures());
+    }
+}
@@ -0,0 +1,84 @@
+package com.forbiddenisland.ui.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 引擎执行器测试：命令在后台线程执行，结果回到界面线程，慢命令才显示等待提示。
+ */
+public class EngineExecutorTest {
+
+    // Stands in for the JavaFX thread: handlers queue up until the test runs them
+    private final LinkedBlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+
+    private void runUiUntil(CompletableFuture<?> future) throws InterruptedException {
+        while (!future.isDone()) {
+            Runnable task = uiQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(task, "result never reached the UI thread");
+            task.run();
+        }
+    }
+
+    @Test
+    void commandsRunOffTheUiThreadAndStayBusyUntilDelivered() throws Exception {
+        try (EngineExecutor engine = new EngineExecutor(uiQueue::add, 10_000)) {
+            Thread caller = Thread.currentThread();
+            CompletableFuture<Thread> first = engine.submit("first", Thread::currentThread);
+            CompletableFuture<Integer> second = engine.submit("second", () -> 42);
+            assertTrue(engine.isBusy());
+
+            runUiUntil(first);
+            assertNotSame(caller, first.get());
+            assertTrue(engine.isBusy()); // the second result is not delivered yet
+
+            runUiUntil(second);
+            assertEquals(42, second.get());
+            assertFalse(engine.isBusy());
+        }
+    }
+
+    @Test
+    void failuresCompleteTheFutureAndReleaseBusy() throws Exception {
+        try (EngineExecutor engine = new EngineExecutor(uiQueue::add, 10_000)) {
+            CompletableFuture<Object> result = engine.submit("broken", () -> {
+                throw new IllegalStateException("deck is empty");
+            });
+            runUiUntil(result);
+            assertTrue(result.isCompletedExceptionally());
+            assertFalse(engine.isBusy());
+        }
+    }
+
+    @Test
+    void indicatorOnlyShowsForSlowCommands() throws Exception {
+        try (EngineExecutor engine = new EngineExecutor(uiQueue::add, 20)) {
+            List<String> shown = new ArrayList<>();
+            List<String> hidden = new ArrayList<>();
+            engine.setLatencyIndicator(shown::add, () -> hidden.add("hide"));
+
+            runUiUntil(engine.submit("quick", () -> 1));
+            assertTrue(shown.isEmpty());
+
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Boolean> slow = engine.submit("Drawing flood cards...", () -> release.await(5, TimeUnit.SECONDS));
+            Runnable show = uiQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(show);
+            show.run();
+            assertEquals(List.of("Drawing flood cards..."), shown);
+            assertTrue(hidden.isEmpty());
+
+            release.countDown();
+            runUiUntil(slow);
+            assertEquals(List.of("hide"), hidden);
+            assertFalse(engine.isBusy());
+        }
+    }
+}
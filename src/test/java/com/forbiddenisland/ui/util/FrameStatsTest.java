@@ -0,0 +1,45 @@
+package com.forbiddenisland.ui.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 帧时间统计测试：帧率、最慢帧、直方图分桶和滚动窗口。
+ */
+public class FrameStatsTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void fpsAndHistogramCoverTheWindow() {
+        FrameStats frames = new FrameStats(4);
+        assertEquals(0, frames.getFps());
+
+        frames.record(16 * MILLIS);
+        frames.record(16 * MILLIS);
+        frames.record(5 * MILLIS);
+        frames.record(43 * MILLIS);
+
+        assertEquals(50, frames.getFps(), 0.01);
+        assertEquals(20, frames.getAverageMillis(), 0.01);
+        assertEquals(43, frames.getWorstMillis(), 0.01);
+        assertArrayEquals(new int[]{1, 2, 0, 1, 0}, frames.getHistogram());
+        assertEquals(FrameStats.getBucketLabels().length, frames.getHistogram().length);
+    }
+
+    @Test
+    void oldFramesDropOutOfTheWindow() {
+        FrameStats frames = new FrameStats(2);
+        frames.record(100 * MILLIS);
+        frames.record(10 * MILLIS);
+        frames.record(10 * MILLIS);
+
+        assertEquals(2, frames.getCount());
+        assertEquals(10, frames.getWorstMillis(), 0.01);
+        assertArrayEquals(new int[]{0, 2, 0, 0, 0}, frames.getHistogram());
+
+        frames.clear();
+        assertEquals(0, frames.getCount());
+    }
+}
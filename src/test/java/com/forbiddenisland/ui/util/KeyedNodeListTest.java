@@ -0,0 +1,57 @@
+package com.forbiddenisland.ui.util;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.shape.Rectangle;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 按对象身份复用节点的子节点列表测试：无变化时不改动节点，增删只影响对应节点。
+ */
+public class KeyedNodeListTest {
+
+    @Test
+    void unchangedListTouchesNoChildren() {
+        Group group = new Group();
+        KeyedNodeList<String> list = new KeyedNodeList<>(group.getChildren(), key -> new Rectangle());
+        String a = new String("card");
+        String b = new String("card"); // equal but a different card
+
+        assertEquals(2, list.reconcile(Arrays.asList(a, b)));
+        assertEquals(2, list.getCreatedCount());
+        assertNotSame(list.getNode(a), list.getNode(b));
+
+        assertEquals(0, list.reconcile(Arrays.asList(a, b)));
+        assertEquals(2, list.getCreatedCount());
+        assertEquals(2, list.getMutationCount());
+    }
+
+    @Test
+    void objectsKeepTheirNodesWhenOthersComeAndGo() {
+        Group group = new Group();
+        KeyedNodeList<String> list = new KeyedNodeList<>(group.getChildren(), key -> new Rectangle());
+        String a = new String("a");
+        String b = new String("b");
+        String c = new String("c");
+        list.reconcile(Arrays.asList(a, b));
+        Node nodeA = list.getNode(a);
+        Node nodeB = list.getNode(b);
+
+        assertEquals(1, list.reconcile(Arrays.asList(b)));
+        assertSame(nodeB, group.getChildren().get(0));
+        assertNull(list.getNode(a));
+
+        list.reconcile(Arrays.asList(c, b));
+        assertEquals(Arrays.asList(list.getNode(c), nodeB), group.getChildren());
+        assertNotSame(nodeA, list.getNode(c));
+
+        list.reconcile(Collections.emptyList());
+        assertTrue(group.getChildren().isEmpty());
+        assertEquals(3, list.getCreatedCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.forbiddenisland.ui.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 刷新协调器测试：同一帧内的多次刷新请求合并为一次，并按注册顺序执行。
+ */
+public class RefreshCoordinatorTest {
+
+    /**
+     * Counts pulse requests instead of starting a JavaFX timer; tests call flush() as the frame
+     */
+    private static class ManualCoordinator extends RefreshCoordinator {
+        int pulses;
+
+        @Override
+        protected void requestPulse() {
+            pulses++;
+        }
+    }
+
+    @Test
+    void burstOfRequestsRunsEachViewOnce() {
+        ManualCoordinator refresher = new ManualCoordinator();
+        List<String> ran = new ArrayList<>();
+        refresher.register("board", () -> ran.add("board"));
+        refresher.register("actions", () -> ran.add("actions"));
+        refresher.register("outcome", () -> ran.add("outcome"));
+
+        refresher.markAllDirty();
+        refresher.markAllDirty();
+        refresher.markDirty("actions");
+
+        assertEquals(3, refresher.flush());
+        assertEquals(List.of("board", "actions", "outcome"), ran);
+        assertEquals(7, refresher.getRequestCount());
+        assertEquals(4, refresher.getCoalescedCount());
+        assertEquals(1, refresher.getFrameCount());
+        assertEquals(List.of("board", "actions", "outcome"), new ArrayList<>(refresher.getLastCostMillis().keySet()));
+        assertTrue(refresher.getLastFlushNanos() > 0);
+        assertEquals(0, refresher.flush()); // nothing left for the next frame
+        assertEquals(1, refresher.getFrameCount());
+    }
+
+    @Test
+    void viewsMarkedDuringAFrameRunInOrder() {
+        ManualCoordinator refresher = new ManualCoordinator();
+        List<String> ran = new ArrayList<>();
+        refresher.register("board", () -> {
+            ran.add("board");
+            refresher.markDirty("status", "board");
+        });
+        refresher.register("status", () -> ran.add("status"));
+
+        refresher.markDirty("board");
+        refresher.flush();
+        assertEquals(List.of("board", "status"), ran);
+
+        // The board asked for itself again, so it waits for the next frame
+        assertTrue(refresher.isDirty("board"));
+        assertFalse(refresher.isDirty("status"));
+        assertTrue(refresher.pulses > 0);
+    }
+
+    @Test
+    void failingViewDoesNotBlockTheOthers() {
+        ManualCoordinator refresher = new ManualCoordinator();
+        List<String> ran = new ArrayList<>();
+        refresher.register("broken", () -> {
+            throw new IllegalStateException("boom");
+        });
+        refresher.register("status", () -> ran.add("status"));
+        refresher.markDirty("unknown");
+        assertEquals(0, refresher.pulses);
+
+        refresher.markAllDirty();
+        assertEquals(2, refresher.flush());
+        assertEquals(List.of("status"), ran);
+    }
+}
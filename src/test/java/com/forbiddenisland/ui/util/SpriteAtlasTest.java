@@ -0,0 +1,67 @@
+package com.forbiddenisland.ui.util;
+
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 精灵图集测试：索引读写、按尺寸选择层级、PNG 编码和从图集取图。
+ */
+public class SpriteAtlasTest {
+
+    @Test
+    void indexRoundTripsAndPicksTheSmallestCoveringLevel() throws Exception {
+        List<SpriteAtlas.Sprite> entries = Arrays.asList(
+                new SpriteAtlas.Sprite("pawns/1", 40, 1, 1, 40, 40),
+                new SpriteAtlas.Sprite("pawns/1", 30, 42, 1, 30, 30));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SpriteAtlas.write(new DataOutputStream(bytes), 73, 42, entries);
+
+        SpriteAtlas atlas = SpriteAtlas.read(new ByteArrayInputStream(bytes.toByteArray()), () -> null);
+        assertEquals(73, atlas.getWidth());
+        assertTrue(atlas.contains("pawns/1"));
+        assertEquals(30, atlas.find("pawns/1", 24, 24).getLevel());
+        assertEquals(40, atlas.find("pawns/1", 31, 31).getLevel());
+        assertNull(atlas.find("pawns/1", 60, 60));
+        assertEquals(40, atlas.largest("pawns/1").getLevel());
+        assertEquals("pawns/1", SpriteAtlas.spriteName(AssetLoader.pawnImagePath(1)));
+        assertNull(SpriteAtlas.spriteName("/styles/game.css"));
+    }
+
+    @Test
+    void encodedTextureDecodesToTheSamePixels() throws Exception {
+        int[] pixels = {0xff102030, 0x80ff0000, 0x00000000, 0xff00ff00, 0xfffefdfc, 0x40123456};
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        SpriteAtlasBuilder.writePng(png, pixels, 3, 2);
+
+        Image image = new Image(new ByteArrayInputStream(png.toByteArray()));
+        assertFalse(image.isError());
+        assertEquals(3, image.getWidth());
+        assertEquals(0xff102030, image.getPixelReader().getArgb(0, 0));
+        assertEquals(0xfffefdfc, image.getPixelReader().getArgb(1, 1));
+        assertEquals(0xff00ff00, image.getPixelReader().getArgb(0, 1));
+    }
+
+    @Test
+    void pawnsAreServedFromTheBuiltAtlas() {
+        SpriteAtlas atlas = SpriteAtlas.getDefault();
+        assertNotNull(atlas, "the build should have packed the pawns");
+        assertTrue(atlas.contains("pawns/1"));
+
+        AssetLoader loader = new AssetLoader(AssetLoader.DEFAULT_BUDGET_BYTES, atlas);
+        Image exact = loader.getSprite("pawns/1", 40);
+        Image resampled = loader.getSprite("pawns/1", 24);
+        assertEquals(40, exact.getWidth());
+        assertEquals(24, resampled.getWidth());
+        assertEquals(24, resampled.getHeight());
+        assertSame(resampled, loader.getImage(AssetLoader.pawnImagePath(1), 24, 24));
+        assertNull(loader.getSprite("pawns/missing", 40));
+    }
+}